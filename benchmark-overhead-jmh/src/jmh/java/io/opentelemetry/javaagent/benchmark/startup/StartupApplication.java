@@ -0,0 +1,19 @@
+/*
+ * Copyright The OpenTelemetry Authors
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package io.opentelemetry.javaagent.benchmark.startup;
+
+import io.opentelemetry.javaagent.benchmark.servlet.app.HelloWorldApplication;
+import org.springframework.boot.SpringApplication;
+
+/** Starts the application on a random port, and stops it as soon as it has started. */
+public class StartupApplication {
+
+  public static void main(String... args) {
+    SpringApplication.run(HelloWorldApplication.class, "--server.port=0").close();
+  }
+
+  private StartupApplication() {}
+}
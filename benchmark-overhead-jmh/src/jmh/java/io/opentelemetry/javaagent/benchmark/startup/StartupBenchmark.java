@@ -0,0 +1,79 @@
+/*
+ * Copyright The OpenTelemetry Authors
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package io.opentelemetry.javaagent.benchmark.startup;
+
+import java.io.File;
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measures how long it takes to start and stop the spring boot application in a new JVM with the
+ * agent attached, with and without preparing the instrumentation modules in parallel.
+ */
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2)
+@Measurement(iterations = 10)
+// the agent is only needed by the JVMs started by the benchmark
+@Fork(value = 1, jvmArgsAppend = "-Dotel.javaagent.enabled=false")
+@State(Scope.Benchmark)
+public class StartupBenchmark {
+
+  @Param({"false", "true"})
+  public boolean parallelStartup;
+
+  private List<String> command;
+
+  @Setup
+  public void setup() {
+    String javaagent = null;
+    for (String argument : ManagementFactory.getRuntimeMXBean().getInputArguments()) {
+      if (argument.startsWith("-javaagent:")) {
+        javaagent = argument;
+      }
+    }
+    if (javaagent == null) {
+      throw new IllegalStateException("The benchmark has to be run with the -javaagent option");
+    }
+
+    command = new ArrayList<>();
+    command.add(System.getProperty("java.home") + File.separator + "bin" + File.separator + "java");
+    command.add(javaagent);
+    command.add("-Dotel.traces.exporter=none");
+    command.add("-Dotel.metrics.exporter=none");
+    command.add("-Dotel.javaagent.experimental.parallel-startup.enabled=" + parallelStartup);
+    command.add("-cp");
+    command.add(System.getProperty("java.class.path"));
+    command.add(StartupApplication.class.getName());
+  }
+
+  @Benchmark
+  public void startApplication() throws IOException, InterruptedException {
+    Process process =
+        new ProcessBuilder(command)
+            .redirectOutput(ProcessBuilder.Redirect.DISCARD)
+            .redirectError(ProcessBuilder.Redirect.DISCARD)
+            .start();
+    int exitCode = process.waitFor();
+    if (exitCode != 0) {
+      throw new IllegalStateException("Application exited with " + exitCode);
+    }
+  }
+}
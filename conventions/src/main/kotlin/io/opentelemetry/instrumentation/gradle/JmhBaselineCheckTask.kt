@@ -0,0 +1,136 @@
+/*
+ * Copyright The OpenTelemetry Authors
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package io.opentelemetry.instrumentation.gradle
+
+import groovy.json.JsonSlurper
+import org.gradle.api.DefaultTask
+import org.gradle.api.GradleException
+import org.gradle.api.file.RegularFileProperty
+import org.gradle.api.provider.Property
+import org.gradle.api.tasks.Input
+import org.gradle.api.tasks.InputFile
+import org.gradle.api.tasks.TaskAction
+
+/**
+ * Compares the JMH results of the last run against a saved baseline, and fails when a benchmark got
+ * slower, or allocates more per operation, than the allowed threshold.
+ */
+abstract class JmhBaselineCheckTask : DefaultTask() {
+
+  @get:InputFile
+  abstract val results: RegularFileProperty
+
+  @get:InputFile
+  abstract val baseline: RegularFileProperty
+
+  // relative regression that is tolerated, e.g. 0.1 for 10%
+  @get:Input
+  abstract val threshold: Property<Double>
+
+  init {
+    threshold.convention(0.1)
+    // results are produced by a different machine each time, never consider them up to date
+    outputs.upToDateWhen { false }
+  }
+
+  @TaskAction
+  fun check() {
+    val regressions = JmhResults.findRegressions(
+      JmhResults.readScores(baseline.get().asFile),
+      JmhResults.readScores(results.get().asFile),
+      threshold.get()
+    ) { logger.lifecycle(it) }
+
+    if (regressions.isNotEmpty()) {
+      throw GradleException(
+        "Benchmarks regressed by more than ${(threshold.get() * 100).toInt()}%:\n" +
+          regressions.joinToString("\n")
+      )
+    }
+  }
+}
+
+internal class Score(val score: Double, val unit: String, val higherIsBetter: Boolean)
+
+internal object JmhResults {
+
+  // the normalized allocation rate reported by the gc profiler
+  const val ALLOCATION_METRIC = "gc.alloc.rate.norm"
+
+  // tiny allocation changes (e.g. 0 -> 8 B/op) are not worth failing the build for
+  private const val ALLOCATION_SLACK = 16.0
+
+  // JMH versions before 1.36 prefix the metrics of profilers with "·"
+  private val allocationMetricNames = listOf(ALLOCATION_METRIC, "·$ALLOCATION_METRIC")
+
+  /**
+   * Returns a line for each benchmark whose current score regressed by more than `threshold`
+   * compared to the baseline; the benchmarks that didn't regress are passed to `log`.
+   */
+  fun findRegressions(
+    baselineScores: Map<String, Score>,
+    currentScores: Map<String, Score>,
+    threshold: Double,
+    log: (String) -> Unit
+  ): List<String> {
+    val maxRatio = 1 + threshold
+    val regressions = mutableListOf<String>()
+    for ((name, current) in currentScores) {
+      val previous = baselineScores[name]
+      if (previous == null) {
+        log("$name: no baseline")
+        continue
+      }
+      val ratio = if (current.higherIsBetter) {
+        previous.score / current.score
+      } else {
+        current.score / previous.score
+      }
+      val line = "$name: ${format(previous.score)} -> ${format(current.score)} ${current.unit}"
+      val significant = current.unit != "B/op" || current.score - previous.score > ALLOCATION_SLACK
+      if (ratio > maxRatio && significant) {
+        regressions.add(line)
+      } else {
+        log(line)
+      }
+    }
+    return regressions
+  }
+
+  /**
+   * Reads the scores of a JMH results file in the JSON format, keyed by benchmark name and
+   * parameters; the allocation rate of a benchmark, when the gc profiler was used, is keyed by the
+   * benchmark key followed by " gc.alloc.rate.norm", whatever the JMH version.
+   */
+  fun readScores(file: java.io.File): Map<String, Score> {
+    val scores = mutableMapOf<String, Score>()
+    @Suppress("UNCHECKED_CAST")
+    val runs = JsonSlurper().parse(file) as List<Map<String, Any?>>
+    for (run in runs) {
+      val params = (run["params"] as Map<*, *>?)
+        ?.entries
+        ?.sortedBy { it.key.toString() }
+        ?.joinToString(",", "(", ")") { "${it.key}=${it.value}" }
+        ?: ""
+      val name = "${run["benchmark"]}$params"
+      val primary = run["primaryMetric"] as Map<*, *>
+      scores[name] = Score(
+        (primary["score"] as Number).toDouble(),
+        primary["scoreUnit"].toString(),
+        run["mode"] == "thrpt"
+      )
+      val secondaryMetrics = run["secondaryMetrics"] as Map<*, *>?
+      val allocation = allocationMetricNames.firstNotNullOfOrNull { secondaryMetrics?.get(it) } as Map<*, *>?
+      if (allocation != null) {
+        scores["$name $ALLOCATION_METRIC"] =
+          Score((allocation["score"] as Number).toDouble(), "B/op", false)
+      }
+    }
+    return scores
+  }
+
+  private fun format(score: Double) = String.format(java.util.Locale.ROOT, "%.3f", score)
+}
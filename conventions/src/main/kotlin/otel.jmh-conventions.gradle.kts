@@ -1,3 +1,6 @@
+import io.opentelemetry.instrumentation.gradle.JmhBaselineCheckTask
+import net.ltgt.gradle.errorprone.errorprone
+
 plugins {
   id("me.champeau.jmh")
   id("io.morethan.jmhreport")
@@ -30,9 +33,37 @@ jmhReport {
 }
 
 tasks {
+  // the classes generated by jmh don't pass the errorprone checks
+  plugins.withId("net.ltgt.errorprone") {
+    named<JavaCompile>("jmhCompileGeneratedClasses") {
+      options.errorprone {
+        isEnabled.set(false)
+      }
+    }
+  }
+
   named("jmh") {
     finalizedBy(named("jmhReport"))
 
     outputs.cacheIf { false }
   }
+
+  // compare the last jmh results against a saved baseline, e.g.
+  //   ./gradlew :instrumentation-api-semconv:jmh
+  //   ./gradlew :instrumentation-api-semconv:jmhCheckBaseline -PjmhBaseline=/path/to/results.json
+  // the tolerated regression defaults to 10% and can be changed with -PjmhRegressionThreshold=0.2
+  register<JmhBaselineCheckTask>("jmhCheckBaseline") {
+    group = "verification"
+    description = "Fails if the benchmarks regressed compared to a baseline"
+
+    mustRunAfter(named("jmh"))
+
+    results.set(file("$buildDir/results/jmh/results.json"))
+    val jmhBaseline: String? by project
+    baseline.set(file(jmhBaseline ?: "jmh-baseline.json"))
+    val jmhRegressionThreshold: String? by project
+    if (jmhRegressionThreshold != null) {
+      threshold.set((jmhRegressionThreshold as String).toDouble())
+    }
+  }
 }
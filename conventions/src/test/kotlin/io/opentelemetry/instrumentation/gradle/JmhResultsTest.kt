@@ -0,0 +1,58 @@
+/*
+ * Copyright The OpenTelemetry Authors
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package io.opentelemetry.instrumentation.gradle
+
+import org.assertj.core.api.Assertions.assertThat
+import org.junit.jupiter.api.Test
+import java.io.File
+
+class JmhResultsTest {
+
+  @Test
+  fun readsAllocationRateWithoutPrefix() {
+    val scores = JmhResults.readScores(resource("results-1.36.json"))
+
+    val allocation = scores["$START_END gc.alloc.rate.norm"]
+    assertThat(allocation).isNotNull
+    assertThat(allocation!!.score).isEqualTo(624.0)
+    assertThat(allocation.unit).isEqualTo("B/op")
+    assertThat(scores["$MDC(mdcEntries=5) gc.alloc.rate.norm"]!!.score).isEqualTo(120.0)
+  }
+
+  @Test
+  fun readsAllocationRateWithPrefix() {
+    val scores = JmhResults.readScores(resource("baseline-1.35.json"))
+
+    assertThat(scores["$START_END gc.alloc.rate.norm"]!!.score).isEqualTo(432.0)
+    assertThat(scores["$START_END"]!!.unit).isEqualTo("us/op")
+  }
+
+  @Test
+  fun detectsAllocationRegressionAcrossJmhVersions() {
+    val logged = mutableListOf<String>()
+
+    val regressions = JmhResults.findRegressions(
+      JmhResults.readScores(resource("baseline-1.35.json")),
+      JmhResults.readScores(resource("results-1.36.json")),
+      0.1
+    ) { logged.add(it) }
+
+    // the scores are within the threshold, only the allocation of startEnd grew
+    assertThat(regressions)
+      .containsExactly("$START_END gc.alloc.rate.norm: 432.000 -> 624.000 B/op")
+    assertThat(logged).hasSize(3)
+  }
+
+  private fun resource(name: String): File =
+    File(JmhResultsTest::class.java.getResource("/jmh/$name")!!.toURI())
+
+  private companion object {
+    const val START_END =
+      "io.opentelemetry.instrumentation.api.instrumenter.InstrumenterBenchmark.startEnd"
+    const val MDC =
+      "io.opentelemetry.instrumentation.api.internal.MdcAttributesBenchmark.cachedKeys"
+  }
+}
@@ -0,0 +1,60 @@
+/*
+ * Copyright The OpenTelemetry Authors
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package io.opentelemetry.instrumentation.api.db;
+
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Sanitizes multi-row INSERT statements of increasing size, bypassing the statement cache. With
+ * {@code collapseValues} enabled the cost per statement should stay roughly constant.
+ */
+@Fork(3)
+@Warmup(iterations = 10, time = 1)
+@Measurement(iterations = 5, time = 1)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@BenchmarkMode(Mode.AverageTime)
+@State(Scope.Thread)
+public class SqlStatementSanitizerBenchmark {
+
+  @Param({"1024", "102400", "10485760"})
+  public int statementSize;
+
+  @Param({"false", "true"})
+  public boolean collapseValues;
+
+  private String statement;
+
+  @Setup
+  public void setUp() {
+    StringBuilder sb =
+        new StringBuilder("INSERT INTO orders (id, customer, amount, note) VALUES ");
+    for (int i = 0; sb.length() < statementSize; i++) {
+      if (i > 0) {
+        sb.append(", ");
+      }
+      sb.append('(').append(i).append(", 'customer").append(i).append("', ");
+      sb.append(i * 3.5).append(", 'some note')");
+    }
+    statement = sb.toString();
+  }
+
+  @Benchmark
+  public SqlStatementInfo sanitize() {
+    return AutoSqlSanitizer.sanitize(
+        statement, SqlDialect.DEFAULT, AutoSqlSanitizer.LIMIT, collapseValues);
+  }
+}
@@ -0,0 +1,171 @@
+/*
+ * Copyright The OpenTelemetry Authors
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package io.opentelemetry.instrumentation.api.instrumenter.db;
+
+import io.opentelemetry.api.common.Attributes;
+import io.opentelemetry.api.common.AttributesBuilder;
+import io.opentelemetry.context.Context;
+import io.opentelemetry.instrumentation.api.instrumenter.AttributesExtractor;
+import java.util.concurrent.TimeUnit;
+import javax.annotation.Nullable;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Extracts the attributes of database calls. The SQL benchmarks either cycle through a handful of
+ * statements, which are served from the sanitizer cache, or through more distinct statements than
+ * the cache can hold, which sanitizes every statement.
+ */
+@Fork(3)
+@Warmup(iterations = 10, time = 1)
+@Measurement(iterations = 5, time = 1)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@BenchmarkMode(Mode.AverageTime)
+@State(Scope.Thread)
+public class DbClientAttributesExtractorBenchmark {
+
+  private static final AttributesExtractor<DbRequest, Void> DB_CLIENT_EXTRACTOR =
+      DbClientAttributesExtractor.create(DbRequestGetter.INSTANCE);
+  private static final AttributesExtractor<DbRequest, Void> SQL_CLIENT_EXTRACTOR =
+      SqlClientAttributesExtractor.create(DbRequestGetter.INSTANCE);
+
+  private static final int CACHED_STATEMENTS = 16;
+  // well above the default sanitizer cache size
+  private static final int UNCACHED_STATEMENTS = 16 * 1024;
+
+  private DbRequest redisRequest;
+  private DbRequest[] cachedSqlRequests;
+  private DbRequest[] uncachedSqlRequests;
+  private int index;
+
+  @Setup
+  public void setUp() {
+    redisRequest = new DbRequest("redis", null, "0", null, "HMSET user:1337 name bob", "HMSET");
+
+    cachedSqlRequests = new DbRequest[CACHED_STATEMENTS];
+    for (int i = 0; i < CACHED_STATEMENTS; i++) {
+      cachedSqlRequests[i] = sqlRequest("orders" + i, 42);
+    }
+    uncachedSqlRequests = new DbRequest[UNCACHED_STATEMENTS];
+    for (int i = 0; i < UNCACHED_STATEMENTS; i++) {
+      uncachedSqlRequests[i] = sqlRequest("orders", i);
+    }
+  }
+
+  private static DbRequest sqlRequest(String table, int id) {
+    return new DbRequest(
+        "postgresql",
+        "app_user",
+        "shop",
+        "postgresql://db.example.com:5432",
+        "SELECT o.id, o.amount, c.name FROM "
+            + table
+            + " o JOIN customers c ON o.customer_id = c.id WHERE o.id = "
+            + id
+            + " AND c.region = 'eu-west-1'",
+        null);
+  }
+
+  @Benchmark
+  public Attributes dbClient() {
+    return extract(DB_CLIENT_EXTRACTOR, redisRequest);
+  }
+
+  @Benchmark
+  public Attributes sqlClient_cached() {
+    index = (index + 1) % CACHED_STATEMENTS;
+    return extract(SQL_CLIENT_EXTRACTOR, cachedSqlRequests[index]);
+  }
+
+  @Benchmark
+  public Attributes sqlClient_uncached() {
+    index = (index + 1) % UNCACHED_STATEMENTS;
+    return extract(SQL_CLIENT_EXTRACTOR, uncachedSqlRequests[index]);
+  }
+
+  private static Attributes extract(
+      AttributesExtractor<DbRequest, Void> extractor, DbRequest request) {
+    AttributesBuilder attributes = Attributes.builder();
+    extractor.onStart(attributes, Context.root(), request);
+    extractor.onEnd(attributes, Context.root(), request, null, null);
+    return attributes.build();
+  }
+
+  static final class DbRequest {
+    final String system;
+    @Nullable final String user;
+    final String name;
+    @Nullable final String connectionString;
+    final String statement;
+    @Nullable final String operation;
+
+    DbRequest(
+        String system,
+        @Nullable String user,
+        String name,
+        @Nullable String connectionString,
+        String statement,
+        @Nullable String operation) {
+      this.system = system;
+      this.user = user;
+      this.name = name;
+      this.connectionString = connectionString;
+      this.statement = statement;
+      this.operation = operation;
+    }
+  }
+
+  enum DbRequestGetter
+      implements DbClientAttributesGetter<DbRequest>, SqlClientAttributesGetter<DbRequest> {
+    INSTANCE;
+
+    @Override
+    public String system(DbRequest request) {
+      return request.system;
+    }
+
+    @Nullable
+    @Override
+    public String user(DbRequest request) {
+      return request.user;
+    }
+
+    @Override
+    public String name(DbRequest request) {
+      return request.name;
+    }
+
+    @Nullable
+    @Override
+    public String connectionString(DbRequest request) {
+      return request.connectionString;
+    }
+
+    @Override
+    public String statement(DbRequest request) {
+      return request.statement;
+    }
+
+    @Nullable
+    @Override
+    public String operation(DbRequest request) {
+      return request.operation;
+    }
+
+    @Override
+    public String rawStatement(DbRequest request) {
+      return request.statement;
+    }
+  }
+}
@@ -0,0 +1,207 @@
+/*
+ * Copyright The OpenTelemetry Authors
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package io.opentelemetry.instrumentation.api.instrumenter.http;
+
+import io.opentelemetry.api.common.Attributes;
+import io.opentelemetry.api.common.AttributesBuilder;
+import io.opentelemetry.context.Context;
+import io.opentelemetry.instrumentation.api.instrumenter.AttributesExtractor;
+import io.opentelemetry.instrumentation.api.instrumenter.net.NetServerAttributesGetter;
+import io.opentelemetry.semconv.trace.attributes.SemanticAttributes;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import javax.annotation.Nullable;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Extracts the attributes of a server request that went through a proxy, with and without
+ * captured request and response headers.
+ */
+@Fork(3)
+@Warmup(iterations = 10, time = 1)
+@Measurement(iterations = 5, time = 1)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@BenchmarkMode(Mode.AverageTime)
+@State(Scope.Thread)
+public class HttpServerAttributesExtractorBenchmark {
+
+  @Param({"false", "true"})
+  public boolean captureHeaders;
+
+  private AttributesExtractor<Request, Response> extractor;
+  private Request request;
+  private Response response;
+
+  @Setup
+  public void setUp() {
+    HttpServerAttributesExtractorBuilder<Request, Response> builder =
+        HttpServerAttributesExtractor.builder(
+            RequestAttributesGetter.INSTANCE, RequestNetAttributesGetter.INSTANCE);
+    if (captureHeaders) {
+      builder
+          .setCapturedRequestHeaders(Arrays.asList("Content-Type", "X-Request-Id", "Accept"))
+          .setCapturedResponseHeaders(Arrays.asList("Content-Type", "Cache-Control"));
+    }
+    extractor = builder.build();
+
+    Map<String, List<String>> requestHeaders = new HashMap<>();
+    requestHeaders.put("host", Collections.singletonList("shop.example.com:8443"));
+    requestHeaders.put("user-agent", Collections.singletonList("Mozilla/5.0 (X11; Linux x86_64)"));
+    requestHeaders.put("accept", Arrays.asList("application/json", "text/plain"));
+    requestHeaders.put("content-type", Collections.singletonList("application/json"));
+    requestHeaders.put("content-length", Collections.singletonList("1337"));
+    requestHeaders.put("x-request-id", Collections.singletonList("3f2a9c1e-5b7d-4e8f-a1b2"));
+    requestHeaders.put(
+        "forwarded",
+        Collections.singletonList("for=\"[2001:db8:cafe::17]:4711\";proto=https;by=203.0.113.43"));
+    request =
+        new Request(
+            "POST",
+            "https",
+            "/api/orders/12345/items?expand=true",
+            requestHeaders,
+            "10.1.2.3",
+            51234);
+
+    Map<String, List<String>> responseHeaders = new HashMap<>();
+    responseHeaders.put("content-type", Collections.singletonList("application/json"));
+    responseHeaders.put("content-length", Collections.singletonList("4096"));
+    responseHeaders.put("cache-control", Collections.singletonList("no-cache"));
+    response = new Response(201, responseHeaders);
+  }
+
+  @Benchmark
+  public Attributes onStartOnEnd() {
+    AttributesBuilder attributes = Attributes.builder();
+    extractor.onStart(attributes, Context.root(), request);
+    extractor.onEnd(attributes, Context.root(), request, response, null);
+    return attributes.build();
+  }
+
+  static final class Request {
+    final String method;
+    final String scheme;
+    final String target;
+    final Map<String, List<String>> headers;
+    final String peerAddress;
+    final int peerPort;
+
+    Request(
+        String method,
+        String scheme,
+        String target,
+        Map<String, List<String>> headers,
+        String peerAddress,
+        int peerPort) {
+      this.method = method;
+      this.scheme = scheme;
+      this.target = target;
+      this.headers = headers;
+      this.peerAddress = peerAddress;
+      this.peerPort = peerPort;
+    }
+  }
+
+  static final class Response {
+    final int statusCode;
+    final Map<String, List<String>> headers;
+
+    Response(int statusCode, Map<String, List<String>> headers) {
+      this.statusCode = statusCode;
+      this.headers = headers;
+    }
+  }
+
+  enum RequestAttributesGetter implements HttpServerAttributesGetter<Request, Response> {
+    INSTANCE;
+
+    @Override
+    public String method(Request request) {
+      return request.method;
+    }
+
+    @Override
+    public List<String> requestHeader(Request request, String name) {
+      return request.headers.getOrDefault(name, Collections.emptyList());
+    }
+
+    @Override
+    public Integer statusCode(Request request, Response response, @Nullable Throwable error) {
+      return response.statusCode;
+    }
+
+    @Override
+    public List<String> responseHeader(Request request, Response response, String name) {
+      return response.headers.getOrDefault(name, Collections.emptyList());
+    }
+
+    @Override
+    public String flavor(Request request) {
+      return SemanticAttributes.HttpFlavorValues.HTTP_1_1;
+    }
+
+    @Override
+    public String target(Request request) {
+      return request.target;
+    }
+
+    @Nullable
+    @Override
+    public String route(Request request) {
+      return null;
+    }
+
+    @Override
+    public String scheme(Request request) {
+      return request.scheme;
+    }
+  }
+
+  enum RequestNetAttributesGetter implements NetServerAttributesGetter<Request> {
+    INSTANCE;
+
+    @Override
+    public String transport(Request request) {
+      return SemanticAttributes.NetTransportValues.IP_TCP;
+    }
+
+    @Nullable
+    @Override
+    public String hostName(Request request) {
+      return null;
+    }
+
+    @Nullable
+    @Override
+    public Integer hostPort(Request request) {
+      return null;
+    }
+
+    @Override
+    public String sockPeerAddr(Request request) {
+      return request.peerAddress;
+    }
+
+    @Override
+    public Integer sockPeerPort(Request request) {
+      return request.peerPort;
+    }
+  }
+}
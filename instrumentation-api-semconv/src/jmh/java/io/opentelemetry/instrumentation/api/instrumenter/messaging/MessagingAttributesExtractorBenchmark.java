@@ -0,0 +1,152 @@
+/*
+ * Copyright The OpenTelemetry Authors
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package io.opentelemetry.instrumentation.api.instrumenter.messaging;
+
+import io.opentelemetry.api.common.Attributes;
+import io.opentelemetry.api.common.AttributesBuilder;
+import io.opentelemetry.context.Context;
+import io.opentelemetry.instrumentation.api.instrumenter.AttributesExtractor;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import javax.annotation.Nullable;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/** Extracts the attributes of a received message, with and without captured message headers. */
+@Fork(3)
+@Warmup(iterations = 10, time = 1)
+@Measurement(iterations = 5, time = 1)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@BenchmarkMode(Mode.AverageTime)
+@State(Scope.Thread)
+public class MessagingAttributesExtractorBenchmark {
+
+  @Param({"false", "true"})
+  public boolean captureHeaders;
+
+  private AttributesExtractor<Message, Void> extractor;
+  private Message message;
+
+  @Setup
+  public void setUp() {
+    MessagingAttributesExtractorBuilder<Message, Void> builder =
+        MessagingAttributesExtractor.builder(MessageGetter.INSTANCE, MessageOperation.RECEIVE);
+    if (captureHeaders) {
+      builder.setCapturedHeaders(Arrays.asList("correlation-id", "tenant"));
+    }
+    extractor = builder.build();
+
+    Map<String, List<String>> headers = new HashMap<>();
+    headers.put("correlation-id", Collections.singletonList("8a1f2b3c-4d5e-6f70"));
+    headers.put("tenant", Collections.singletonList("acme"));
+    headers.put("content-type", Collections.singletonList("application/avro"));
+    message = new Message("orders.created", "partition-3:offset-128734", 512L, headers);
+  }
+
+  @Benchmark
+  public Attributes onStartOnEnd() {
+    AttributesBuilder attributes = Attributes.builder();
+    extractor.onStart(attributes, Context.root(), message);
+    extractor.onEnd(attributes, Context.root(), message, null, null);
+    return attributes.build();
+  }
+
+  static final class Message {
+    final String destination;
+    final String id;
+    final long payloadSize;
+    final Map<String, List<String>> headers;
+
+    Message(String destination, String id, long payloadSize, Map<String, List<String>> headers) {
+      this.destination = destination;
+      this.id = id;
+      this.payloadSize = payloadSize;
+      this.headers = headers;
+    }
+  }
+
+  enum MessageGetter implements MessagingAttributesGetter<Message, Void> {
+    INSTANCE;
+
+    @Override
+    public String system(Message message) {
+      return "kafka";
+    }
+
+    @Override
+    public String destinationKind(Message message) {
+      return "topic";
+    }
+
+    @Override
+    public String destination(Message message) {
+      return message.destination;
+    }
+
+    @Override
+    public boolean temporaryDestination(Message message) {
+      return false;
+    }
+
+    @Nullable
+    @Override
+    public String protocol(Message message) {
+      return null;
+    }
+
+    @Nullable
+    @Override
+    public String protocolVersion(Message message) {
+      return null;
+    }
+
+    @Nullable
+    @Override
+    public String url(Message message) {
+      return null;
+    }
+
+    @Nullable
+    @Override
+    public String conversationId(Message message) {
+      return null;
+    }
+
+    @Override
+    public Long messagePayloadSize(Message message) {
+      return message.payloadSize;
+    }
+
+    @Nullable
+    @Override
+    public Long messagePayloadCompressedSize(Message message) {
+      return null;
+    }
+
+    @Override
+    public String messageId(Message message, @Nullable Void unused) {
+      return message.id;
+    }
+
+    @Override
+    public List<String> header(Message message, String name) {
+      return message.headers.getOrDefault(name, Collections.emptyList());
+    }
+  }
+}
@@ -0,0 +1,149 @@
+/*
+ * Copyright The OpenTelemetry Authors
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package io.opentelemetry.instrumentation.api.instrumenter.net;
+
+import io.opentelemetry.api.common.Attributes;
+import io.opentelemetry.api.common.AttributesBuilder;
+import io.opentelemetry.context.Context;
+import io.opentelemetry.instrumentation.api.instrumenter.AttributesExtractor;
+import io.opentelemetry.semconv.trace.attributes.SemanticAttributes;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.UnknownHostException;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import javax.annotation.Nullable;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Extracts the server socket attributes of an accepted connection, and the {@code peer.service}
+ * of an outgoing connection.
+ */
+@Fork(3)
+@Warmup(iterations = 10, time = 1)
+@Measurement(iterations = 5, time = 1)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@BenchmarkMode(Mode.AverageTime)
+@State(Scope.Thread)
+public class NetAttributesExtractorBenchmark {
+
+  private AttributesExtractor<Connection, Void> netServerExtractor;
+  private AttributesExtractor<Connection, Void> peerServiceExtractor;
+  private Connection connection;
+
+  @Setup
+  public void setUp() throws UnknownHostException {
+    netServerExtractor = NetServerAttributesExtractor.create(new ConnectionServerGetter());
+
+    Map<String, String> peerServiceMapping = new HashMap<>();
+    peerServiceMapping.put("orders.internal", "orders");
+    peerServiceMapping.put("payments.internal", "payments");
+    peerServiceMapping.put("10.0.0.12", "inventory");
+    peerServiceExtractor =
+        PeerServiceAttributesExtractor.create(new ConnectionClientGetter(), peerServiceMapping);
+
+    connection =
+        new Connection(
+            "payments.internal",
+            new InetSocketAddress(InetAddress.getByAddress(new byte[] {10, 0, 0, 7}), 51234),
+            new InetSocketAddress(InetAddress.getByAddress(new byte[] {10, 0, 0, 1}), 8080));
+  }
+
+  @Benchmark
+  public Attributes netServer() {
+    return extract(netServerExtractor, connection);
+  }
+
+  @Benchmark
+  public Attributes peerService() {
+    return extract(peerServiceExtractor, connection);
+  }
+
+  private static Attributes extract(
+      AttributesExtractor<Connection, Void> extractor, Connection connection) {
+    AttributesBuilder attributes = Attributes.builder();
+    extractor.onStart(attributes, Context.root(), connection);
+    extractor.onEnd(attributes, Context.root(), connection, null, null);
+    return attributes.build();
+  }
+
+  static final class Connection {
+    final String peerName;
+    final InetSocketAddress peerAddress;
+    final InetSocketAddress hostAddress;
+
+    Connection(String peerName, InetSocketAddress peerAddress, InetSocketAddress hostAddress) {
+      this.peerName = peerName;
+      this.peerAddress = peerAddress;
+      this.hostAddress = hostAddress;
+    }
+  }
+
+  static final class ConnectionServerGetter
+      extends InetSocketAddressNetServerAttributesGetter<Connection> {
+
+    @Override
+    public String transport(Connection connection) {
+      return SemanticAttributes.NetTransportValues.IP_TCP;
+    }
+
+    @Nullable
+    @Override
+    public String hostName(Connection connection) {
+      return null;
+    }
+
+    @Nullable
+    @Override
+    public Integer hostPort(Connection connection) {
+      return null;
+    }
+
+    @Override
+    protected InetSocketAddress getPeerSocketAddress(Connection connection) {
+      return connection.peerAddress;
+    }
+
+    @Override
+    protected InetSocketAddress getHostSocketAddress(Connection connection) {
+      return connection.hostAddress;
+    }
+  }
+
+  static final class ConnectionClientGetter
+      extends InetSocketAddressNetClientAttributesGetter<Connection, Void> {
+
+    @Override
+    public String transport(Connection connection, @Nullable Void unused) {
+      return SemanticAttributes.NetTransportValues.IP_TCP;
+    }
+
+    @Override
+    public String peerName(Connection connection) {
+      return connection.peerName;
+    }
+
+    @Override
+    public Integer peerPort(Connection connection) {
+      return connection.peerAddress.getPort();
+    }
+
+    @Override
+    protected InetSocketAddress getPeerSocketAddress(Connection connection, @Nullable Void unused) {
+      return connection.peerAddress;
+    }
+  }
+}
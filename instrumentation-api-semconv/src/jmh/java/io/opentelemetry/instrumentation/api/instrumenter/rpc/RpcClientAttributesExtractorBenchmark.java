@@ -0,0 +1,75 @@
+/*
+ * Copyright The OpenTelemetry Authors
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package io.opentelemetry.instrumentation.api.instrumenter.rpc;
+
+import io.opentelemetry.api.common.Attributes;
+import io.opentelemetry.api.common.AttributesBuilder;
+import io.opentelemetry.context.Context;
+import io.opentelemetry.instrumentation.api.instrumenter.AttributesExtractor;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+@Fork(3)
+@Warmup(iterations = 10, time = 1)
+@Measurement(iterations = 5, time = 1)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@BenchmarkMode(Mode.AverageTime)
+@State(Scope.Thread)
+public class RpcClientAttributesExtractorBenchmark {
+
+  private static final AttributesExtractor<RpcRequest, Void> EXTRACTOR =
+      RpcClientAttributesExtractor.create(RpcRequestGetter.INSTANCE);
+
+  private final RpcRequest request =
+      new RpcRequest("grpc.health.v1.Health/Check", "grpc.health.v1.Health", "Check");
+
+  @Benchmark
+  public Attributes onStartOnEnd() {
+    AttributesBuilder attributes = Attributes.builder();
+    EXTRACTOR.onStart(attributes, Context.root(), request);
+    EXTRACTOR.onEnd(attributes, Context.root(), request, null, null);
+    return attributes.build();
+  }
+
+  static final class RpcRequest {
+    final String fullMethodName;
+    final String service;
+    final String method;
+
+    RpcRequest(String fullMethodName, String service, String method) {
+      this.fullMethodName = fullMethodName;
+      this.service = service;
+      this.method = method;
+    }
+  }
+
+  enum RpcRequestGetter implements RpcAttributesGetter<RpcRequest> {
+    INSTANCE;
+
+    @Override
+    public String system(RpcRequest request) {
+      return "grpc";
+    }
+
+    @Override
+    public String service(RpcRequest request) {
+      return request.service;
+    }
+
+    @Override
+    public String method(RpcRequest request) {
+      return request.method;
+    }
+  }
+}
@@ -5,10 +5,10 @@
 
 package io.opentelemetry.instrumentation.api.db;
 
-import static io.opentelemetry.instrumentation.api.internal.SupportabilityMetrics.CounterNames.SQL_STATEMENT_SANITIZER_CACHE_MISS;
+import static io.opentelemetry.instrumentation.api.internal.SupportabilityMetrics.CounterNames.SQL_STATEMENT_SANITIZER_CACHE;
 
 import com.google.auto.value.AutoValue;
-import io.opentelemetry.instrumentation.api.internal.SupportabilityMetrics;
+import io.opentelemetry.instrumentation.api.internal.ConfigPropertiesUtil;
 import io.opentelemetry.instrumentation.api.internal.cache.Cache;
 import javax.annotation.Nullable;
 
@@ -17,10 +17,20 @@ import javax.annotation.Nullable;
  * statements and queries.
  */
 public final class SqlStatementSanitizer {
-  private static final SupportabilityMetrics supportability = SupportabilityMetrics.instance();
-
   private static final Cache<CacheKey, SqlStatementInfo> sqlToStatementInfoCache =
-      Cache.bounded(1000);
+      Cache.sharded(
+          SQL_STATEMENT_SANITIZER_CACHE,
+          ConfigPropertiesUtil.getInt(
+              "otel.instrumentation.experimental.db-statement-sanitizer.cache-size", 1000));
+
+  // bulk statements: bound the sanitized statement length and only keep the first VALUES group
+  private static final int maxLength =
+      ConfigPropertiesUtil.getInt(
+          "otel.instrumentation.experimental.db-statement-sanitizer.max-length",
+          AutoSqlSanitizer.LIMIT);
+  private static final boolean collapseValues =
+      ConfigPropertiesUtil.getBoolean(
+          "otel.instrumentation.experimental.db-statement-sanitizer.collapse-values", false);
 
   public static SqlStatementSanitizer create(boolean statementSanitizationEnabled) {
     return new SqlStatementSanitizer(statementSanitizationEnabled);
@@ -42,10 +52,7 @@ public final class SqlStatementSanitizer {
     }
     return sqlToStatementInfoCache.computeIfAbsent(
         CacheKey.create(statement, dialect),
-        k -> {
-          supportability.incrementCounter(SQL_STATEMENT_SANITIZER_CACHE_MISS);
-          return AutoSqlSanitizer.sanitize(statement, dialect);
-        });
+        k -> AutoSqlSanitizer.sanitize(statement, dialect, maxLength, collapseValues));
   }
 
   @AutoValue
@@ -7,14 +7,17 @@ package io.opentelemetry.instrumentation.api.instrumenter.http;
 
 import static io.opentelemetry.instrumentation.api.internal.AttributesExtractorUtil.internalSet;
 
+import io.opentelemetry.api.common.AttributeKey;
 import io.opentelemetry.api.common.AttributesBuilder;
 import io.opentelemetry.context.Context;
 import io.opentelemetry.instrumentation.api.instrumenter.net.NetClientAttributesGetter;
 import io.opentelemetry.instrumentation.api.instrumenter.net.internal.InternalNetClientAttributesExtractor;
+import io.opentelemetry.instrumentation.api.internal.MetricsRelevantKeysProvider;
 import io.opentelemetry.instrumentation.api.internal.SpanKey;
 import io.opentelemetry.instrumentation.api.internal.SpanKeyProvider;
 import io.opentelemetry.semconv.trace.attributes.SemanticAttributes;
 import java.util.List;
+import java.util.Set;
 import javax.annotation.Nullable;
 
 /**
@@ -29,7 +32,7 @@ import javax.annotation.Nullable;
 public final class HttpClientAttributesExtractor<REQUEST, RESPONSE>
     extends HttpCommonAttributesExtractor<
         REQUEST, RESPONSE, HttpClientAttributesGetter<REQUEST, RESPONSE>>
-    implements SpanKeyProvider {
+    implements SpanKeyProvider, MetricsRelevantKeysProvider {
 
   /**
    * Creates the HTTP client attributes extractor with default configuration.
@@ -82,73 +85,24 @@ public final class HttpClientAttributesExtractor<REQUEST, RESPONSE>
     super(httpAttributesGetter, capturedRequestHeaders, capturedResponseHeaders);
     internalNetExtractor =
         new InternalNetClientAttributesExtractor<>(
-            netAttributesGetter,
-            this::shouldCapturePeerPort,
-            new HttpNetNamePortGetter<>(httpAttributesGetter));
+            netAttributesGetter, new HttpNetNamePortGetter<>(httpAttributesGetter));
   }
 
   @Override
   public void onStart(AttributesBuilder attributes, Context parentContext, REQUEST request) {
     super.onStart(attributes, parentContext, request);
 
-    internalSet(attributes, SemanticAttributes.HTTP_URL, stripSensitiveData(getter.url(request)));
-
-    internalNetExtractor.onStart(attributes, request);
-  }
-
-  private boolean shouldCapturePeerPort(int port, REQUEST request) {
+    // the url is rendered and scanned only once, since getters of some clients build it on demand
     String url = getter.url(request);
     if (url == null) {
-      return true;
-    }
-    // according to spec: extract if not default (80 for http scheme, 443 for https).
-    if ((url.startsWith("http://") && port == 80) || (url.startsWith("https://") && port == 443)) {
-      return false;
-    }
-    return true;
-  }
-
-  @Nullable
-  private static String stripSensitiveData(@Nullable String url) {
-    if (url == null || url.isEmpty()) {
-      return url;
-    }
-
-    int schemeEndIndex = url.indexOf(':');
-
-    if (schemeEndIndex == -1) {
-      // not a valid url
-      return url;
-    }
-
-    int len = url.length();
-    if (len <= schemeEndIndex + 2
-        || url.charAt(schemeEndIndex + 1) != '/'
-        || url.charAt(schemeEndIndex + 2) != '/') {
-      // has no authority component
-      return url;
+      internalNetExtractor.onStart(attributes, request);
+      return;
     }
+    ParsedUrl parsedUrl = ParsedUrl.parse(url);
+    internalSet(attributes, SemanticAttributes.HTTP_URL, parsedUrl.redacted());
 
-    // look for the end of the authority component:
-    //   '/', '?', '#' ==> start of path
-    int index;
-    int atIndex = -1;
-    for (index = schemeEndIndex + 3; index < len; index++) {
-      char c = url.charAt(index);
-
-      if (c == '@') {
-        atIndex = index;
-      }
-
-      if (c == '/' || c == '?' || c == '#') {
-        break;
-      }
-    }
-
-    if (atIndex == -1 || atIndex == len - 1) {
-      return url;
-    }
-    return url.substring(0, schemeEndIndex + 3) + url.substring(atIndex + 1);
+    // according to spec: extract the peer port if not default (80 for http scheme, 443 for https).
+    internalNetExtractor.onStart(attributes, request, parsedUrl.defaultPort());
   }
 
   @Override
@@ -165,6 +119,15 @@ public final class HttpClientAttributesExtractor<REQUEST, RESPONSE>
     internalNetExtractor.onEnd(attributes, request, response);
   }
 
+  /**
+   * This method is internal and is hence not for public use. Its API is unstable and can change at
+   * any time.
+   */
+  @Override
+  public Set<AttributeKey<?>> internalGetMetricsRelevantKeys() {
+    return TemporaryMetricsView.clientMetricsKeys();
+  }
+
   /**
    * This method is internal and is hence not for public use. Its API is unstable and can change at
    * any time.
@@ -18,6 +18,7 @@ import io.opentelemetry.context.Context;
 import io.opentelemetry.context.ContextKey;
 import io.opentelemetry.instrumentation.api.instrumenter.OperationListener;
 import io.opentelemetry.instrumentation.api.instrumenter.OperationMetrics;
+import io.opentelemetry.instrumentation.api.internal.NonRetainingOperationListener;
 import io.opentelemetry.semconv.trace.attributes.SemanticAttributes;
 import java.util.concurrent.TimeUnit;
 import java.util.logging.Logger;
@@ -28,7 +29,7 @@ import javax.annotation.Nullable;
  * href="https://github.com/open-telemetry/opentelemetry-specification/blob/main/specification/metrics/semantic_conventions/http-metrics.md#http-client">HTTP
  * client metrics</a>.
  */
-public final class HttpClientMetrics implements OperationListener {
+public final class HttpClientMetrics implements NonRetainingOperationListener {
 
   private static final double NANOS_PER_MS = TimeUnit.MILLISECONDS.toNanos(1);
 
@@ -75,9 +76,14 @@ public final class HttpClientMetrics implements OperationListener {
 
   @Override
   public Context onStart(Context context, Attributes startAttributes, long startNanos) {
+    // only the start attributes that the metrics need are kept, the passed ones may be reused
     return context.with(
         HTTP_CLIENT_REQUEST_METRICS_STATE,
-        new AutoValue_HttpClientMetrics_State(startAttributes, startNanos));
+        new AutoValue_HttpClientMetrics_State(
+            applyClientDurationAndSizeView(startAttributes, Attributes.empty()),
+            startAttributes.get(SemanticAttributes.HTTP_REQUEST_CONTENT_LENGTH),
+            startAttributes.get(SemanticAttributes.HTTP_RESPONSE_CONTENT_LENGTH),
+            startNanos));
   }
 
   @Override
@@ -91,12 +97,14 @@ public final class HttpClientMetrics implements OperationListener {
       return;
     }
     Attributes durationAndSizeAttributes =
-        applyClientDurationAndSizeView(state.startAttributes(), endAttributes);
+        applyClientDurationAndSizeView(state.durationAndSizeStartAttributes(), endAttributes);
     duration.record(
         (endNanos - state.startTimeNanos()) / NANOS_PER_MS, durationAndSizeAttributes, context);
     Long requestLength =
         getAttribute(
-            SemanticAttributes.HTTP_REQUEST_CONTENT_LENGTH, endAttributes, state.startAttributes());
+            SemanticAttributes.HTTP_REQUEST_CONTENT_LENGTH,
+            endAttributes,
+            state.startRequestContentLength());
     if (requestLength != null) {
       requestSize.record(requestLength, durationAndSizeAttributes, context);
     }
@@ -104,27 +112,29 @@ public final class HttpClientMetrics implements OperationListener {
         getAttribute(
             SemanticAttributes.HTTP_RESPONSE_CONTENT_LENGTH,
             endAttributes,
-            state.startAttributes());
+            state.startResponseContentLength());
     if (responseLength != null) {
       responseSize.record(responseLength, durationAndSizeAttributes, context);
     }
   }
 
   @Nullable
-  private static <T> T getAttribute(AttributeKey<T> key, Attributes... attributesList) {
-    for (Attributes attributes : attributesList) {
-      T value = attributes.get(key);
-      if (value != null) {
-        return value;
-      }
-    }
-    return null;
+  private static <T> T getAttribute(
+      AttributeKey<T> key, Attributes endAttributes, @Nullable T startValue) {
+    T value = endAttributes.get(key);
+    return value != null ? value : startValue;
   }
 
   @AutoValue
   abstract static class State {
 
-    abstract Attributes startAttributes();
+    abstract Attributes durationAndSizeStartAttributes();
+
+    @Nullable
+    abstract Long startRequestContentLength();
+
+    @Nullable
+    abstract Long startResponseContentLength();
 
     abstract long startTimeNanos();
   }
@@ -69,7 +69,10 @@ abstract class HttpCommonAttributesExtractor<
     if (response != null) {
       Integer statusCode = getter.statusCode(request, response, error);
       if (statusCode != null && statusCode > 0) {
-        internalSet(attributes, SemanticAttributes.HTTP_STATUS_CODE, (long) statusCode);
+        internalSet(
+            attributes,
+            SemanticAttributes.HTTP_STATUS_CODE,
+            HttpInternedValues.statusCode(statusCode));
       }
 
       internalSet(
@@ -0,0 +1,54 @@
+/*
+ * Copyright The OpenTelemetry Authors
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package io.opentelemetry.instrumentation.api.instrumenter.http;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Preallocated values for the standard HTTP methods and status codes, so that extracting them for
+ * a typical request neither boxes the status code nor concatenates the span name.
+ */
+final class HttpInternedValues {
+
+  private static final int MIN_STATUS_CODE = 100;
+  private static final int MAX_STATUS_CODE = 599;
+
+  private static final Long[] STATUS_CODES = new Long[MAX_STATUS_CODE - MIN_STATUS_CODE + 1];
+
+  // https://www.rfc-editor.org/rfc/rfc9110.html#section-9
+  // https://www.rfc-editor.org/rfc/rfc5789
+  private static final String[] KNOWN_METHODS = {
+    "GET", "HEAD", "POST", "PUT", "DELETE", "CONNECT", "OPTIONS", "TRACE", "PATCH"
+  };
+
+  private static final Map<String, String> SPAN_NAMES = new HashMap<>();
+
+  static {
+    for (int i = 0; i < STATUS_CODES.length; i++) {
+      STATUS_CODES[i] = (long) (MIN_STATUS_CODE + i);
+    }
+    for (String method : KNOWN_METHODS) {
+      SPAN_NAMES.put(method, "HTTP " + method);
+    }
+  }
+
+  /** Returns the boxed status code, which is shared between calls for valid status codes. */
+  static Long statusCode(int statusCode) {
+    if (statusCode >= MIN_STATUS_CODE && statusCode <= MAX_STATUS_CODE) {
+      return STATUS_CODES[statusCode - MIN_STATUS_CODE];
+    }
+    return (long) statusCode;
+  }
+
+  /** Returns the {@code HTTP <method>} span name, which is precomputed for the known methods. */
+  static String spanName(String method) {
+    String spanName = SPAN_NAMES.get(method);
+    return spanName != null ? spanName : "HTTP " + method;
+  }
+
+  private HttpInternedValues() {}
+}
@@ -11,14 +11,17 @@ import static io.opentelemetry.instrumentation.api.instrumenter.http.ForwardedHe
 import static io.opentelemetry.instrumentation.api.instrumenter.http.ForwardedHeaderParser.extractProtoFromForwardedProtoHeader;
 import static io.opentelemetry.instrumentation.api.internal.AttributesExtractorUtil.internalSet;
 
+import io.opentelemetry.api.common.AttributeKey;
 import io.opentelemetry.api.common.AttributesBuilder;
 import io.opentelemetry.context.Context;
 import io.opentelemetry.instrumentation.api.instrumenter.net.NetServerAttributesGetter;
 import io.opentelemetry.instrumentation.api.instrumenter.net.internal.InternalNetServerAttributesExtractor;
+import io.opentelemetry.instrumentation.api.internal.MetricsRelevantKeysProvider;
 import io.opentelemetry.instrumentation.api.internal.SpanKey;
 import io.opentelemetry.instrumentation.api.internal.SpanKeyProvider;
 import io.opentelemetry.semconv.trace.attributes.SemanticAttributes;
 import java.util.List;
+import java.util.Set;
 import java.util.function.Function;
 import javax.annotation.Nullable;
 
@@ -34,7 +37,7 @@ import javax.annotation.Nullable;
 public final class HttpServerAttributesExtractor<REQUEST, RESPONSE>
     extends HttpCommonAttributesExtractor<
         REQUEST, RESPONSE, HttpServerAttributesGetter<REQUEST, RESPONSE>>
-    implements SpanKeyProvider {
+    implements SpanKeyProvider, MetricsRelevantKeysProvider {
 
   /** Creates the HTTP server attributes extractor with default configuration. */
   public static <REQUEST, RESPONSE> HttpServerAttributesExtractor<REQUEST, RESPONSE> create(
@@ -164,6 +167,15 @@ public final class HttpServerAttributesExtractor<REQUEST, RESPONSE>
     return null;
   }
 
+  /**
+   * This method is internal and is hence not for public use. Its API is unstable and can change at
+   * any time.
+   */
+  @Override
+  public Set<AttributeKey<?>> internalGetMetricsRelevantKeys() {
+    return TemporaryMetricsView.serverMetricsKeys();
+  }
+
   /**
    * This method is internal and is hence not for public use. Its API is unstable and can change at
    * any time.
@@ -20,6 +20,7 @@ import io.opentelemetry.context.Context;
 import io.opentelemetry.context.ContextKey;
 import io.opentelemetry.instrumentation.api.instrumenter.OperationListener;
 import io.opentelemetry.instrumentation.api.instrumenter.OperationMetrics;
+import io.opentelemetry.instrumentation.api.internal.NonRetainingOperationListener;
 import io.opentelemetry.semconv.trace.attributes.SemanticAttributes;
 import java.util.concurrent.TimeUnit;
 import java.util.logging.Logger;
@@ -30,7 +31,7 @@ import javax.annotation.Nullable;
  * href="https://github.com/open-telemetry/opentelemetry-specification/blob/main/specification/metrics/semantic_conventions/http-metrics.md#http-server">HTTP
  * server metrics</a>.
  */
-public final class HttpServerMetrics implements OperationListener {
+public final class HttpServerMetrics implements NonRetainingOperationListener {
 
   private static final double NANOS_PER_MS = TimeUnit.MILLISECONDS.toNanos(1);
 
@@ -85,11 +86,21 @@ public final class HttpServerMetrics implements OperationListener {
 
   @Override
   public Context onStart(Context context, Attributes startAttributes, long startNanos) {
-    activeRequests.add(1, applyActiveRequestsView(startAttributes), context);
+    // the reduced attributes are interned by the view; keeping the same instance for the matching
+    // decrement in onEnd() spares re-applying the view and lets the SDK find the series by its
+    // cached hash code and identity
+    Attributes activeRequestsAttributes = applyActiveRequestsView(startAttributes);
+    activeRequests.add(1, activeRequestsAttributes, context);
 
+    // only the start attributes that the metrics need are kept, the passed ones may be reused
     return context.with(
         HTTP_SERVER_REQUEST_METRICS_STATE,
-        new AutoValue_HttpServerMetrics_State(startAttributes, startNanos));
+        new AutoValue_HttpServerMetrics_State(
+            applyServerDurationAndSizeView(startAttributes, Attributes.empty()),
+            activeRequestsAttributes,
+            startAttributes.get(SemanticAttributes.HTTP_REQUEST_CONTENT_LENGTH),
+            startAttributes.get(SemanticAttributes.HTTP_RESPONSE_CONTENT_LENGTH),
+            startNanos));
   }
 
   @Override
@@ -102,14 +113,16 @@ public final class HttpServerMetrics implements OperationListener {
           context);
       return;
     }
-    activeRequests.add(-1, applyActiveRequestsView(state.startAttributes()), context);
+    activeRequests.add(-1, state.activeRequestsAttributes(), context);
     Attributes durationAndSizeAttributes =
-        applyServerDurationAndSizeView(state.startAttributes(), endAttributes);
+        applyServerDurationAndSizeView(state.durationAndSizeStartAttributes(), endAttributes);
     duration.record(
         (endNanos - state.startTimeNanos()) / NANOS_PER_MS, durationAndSizeAttributes, context);
     Long requestLength =
         getAttribute(
-            SemanticAttributes.HTTP_REQUEST_CONTENT_LENGTH, endAttributes, state.startAttributes());
+            SemanticAttributes.HTTP_REQUEST_CONTENT_LENGTH,
+            endAttributes,
+            state.startRequestContentLength());
     if (requestLength != null) {
       requestSize.record(requestLength, durationAndSizeAttributes, context);
     }
@@ -117,27 +130,31 @@ public final class HttpServerMetrics implements OperationListener {
         getAttribute(
             SemanticAttributes.HTTP_RESPONSE_CONTENT_LENGTH,
             endAttributes,
-            state.startAttributes());
+            state.startResponseContentLength());
     if (responseLength != null) {
       responseSize.record(responseLength, durationAndSizeAttributes, context);
     }
   }
 
   @Nullable
-  private static <T> T getAttribute(AttributeKey<T> key, Attributes... attributesList) {
-    for (Attributes attributes : attributesList) {
-      T value = attributes.get(key);
-      if (value != null) {
-        return value;
-      }
-    }
-    return null;
+  private static <T> T getAttribute(
+      AttributeKey<T> key, Attributes endAttributes, @Nullable T startValue) {
+    T value = endAttributes.get(key);
+    return value != null ? value : startValue;
   }
 
   @AutoValue
   abstract static class State {
 
-    abstract Attributes startAttributes();
+    abstract Attributes durationAndSizeStartAttributes();
+
+    abstract Attributes activeRequestsAttributes();
+
+    @Nullable
+    abstract Long startRequestContentLength();
+
+    @Nullable
+    abstract Long startResponseContentLength();
 
     abstract long startTimeNanos();
   }
@@ -39,7 +39,7 @@ public final class HttpSpanNameExtractor<REQUEST> implements SpanNameExtractor<R
     }
     String method = getter.method(request);
     if (method != null) {
-      return "HTTP " + method;
+      return HttpInternedValues.spanName(method);
     }
     return "HTTP request";
   }
@@ -0,0 +1,82 @@
+/*
+ * Copyright The OpenTelemetry Authors
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package io.opentelemetry.instrumentation.api.instrumenter.http;
+
+/**
+ * The result of scanning an HTTP client URL once. Only the positions of the scheme and the user
+ * info are kept, the URL is not copied unless it contains credentials that need to be removed.
+ */
+final class ParsedUrl {
+
+  private static final int NOT_FOUND = -1;
+
+  private final String url;
+  // index of the ':' that ends the scheme, or NOT_FOUND if the url has no authority component
+  private final int schemeEnd;
+  // index of the '@' that ends the user info, or NOT_FOUND if the url has no user info
+  private final int userInfoEnd;
+
+  static ParsedUrl parse(String url) {
+    int schemeEnd = url.indexOf(':');
+    int len = url.length();
+    if (schemeEnd == NOT_FOUND
+        || len <= schemeEnd + 2
+        || url.charAt(schemeEnd + 1) != '/'
+        || url.charAt(schemeEnd + 2) != '/') {
+      // not a valid url, or has no authority component
+      return new ParsedUrl(url, NOT_FOUND, NOT_FOUND);
+    }
+
+    // look for the end of the authority component:
+    //   '/', '?', '#' ==> start of path
+    int userInfoEnd = NOT_FOUND;
+    for (int index = schemeEnd + 3; index < len; index++) {
+      char c = url.charAt(index);
+      if (c == '@') {
+        userInfoEnd = index;
+      } else if (c == '/' || c == '?' || c == '#') {
+        break;
+      }
+    }
+    if (userInfoEnd == len - 1) {
+      // nothing after the '@', keep the url as it is
+      userInfoEnd = NOT_FOUND;
+    }
+    return new ParsedUrl(url, schemeEnd, userInfoEnd);
+  }
+
+  private ParsedUrl(String url, int schemeEnd, int userInfoEnd) {
+    this.url = url;
+    this.schemeEnd = schemeEnd;
+    this.userInfoEnd = userInfoEnd;
+  }
+
+  /** Returns the url without the user info, which may contain credentials. */
+  String redacted() {
+    if (userInfoEnd == NOT_FOUND) {
+      return url;
+    }
+    int authorityStart = schemeEnd + 3;
+    return new StringBuilder(url.length() - (userInfoEnd + 1 - authorityStart))
+        .append(url, 0, authorityStart)
+        .append(url, userInfoEnd + 1, url.length())
+        .toString();
+  }
+
+  /**
+   * Returns the port implied by the scheme, 80 for http and 443 for https, or -1 for any other
+   * scheme.
+   */
+  int defaultPort() {
+    if (schemeEnd == 4 && url.startsWith("http")) {
+      return 80;
+    }
+    if (schemeEnd == 5 && url.startsWith("https")) {
+      return 443;
+    }
+    return NOT_FOUND;
+  }
+}
@@ -7,11 +7,11 @@ package io.opentelemetry.instrumentation.api.instrumenter.http;
 
 import io.opentelemetry.api.common.AttributeKey;
 import io.opentelemetry.api.common.Attributes;
-import io.opentelemetry.api.common.AttributesBuilder;
+import io.opentelemetry.instrumentation.api.internal.InterningAttributesView;
 import io.opentelemetry.semconv.trace.attributes.SemanticAttributes;
+import java.util.Collections;
 import java.util.HashSet;
 import java.util.Set;
-import java.util.function.BiConsumer;
 
 // this is temporary, see
 // https://github.com/open-telemetry/opentelemetry-java-instrumentation/issues/3962#issuecomment-906606325
@@ -23,6 +23,18 @@ final class TemporaryMetricsView {
   private static final Set<AttributeKey> durationServerView = buildDurationServerView();
   private static final Set<AttributeKey> activeRequestsView = buildActiveRequestsView();
 
+  private static final Set<AttributeKey<?>> clientMetricsKeys =
+      buildMetricsKeys(durationClientView);
+  private static final Set<AttributeKey<?>> serverMetricsKeys =
+      buildMetricsKeys(durationServerView, activeRequestsView);
+
+  private static final InterningAttributesView durationClientAttributesView =
+      createView(durationClientView);
+  private static final InterningAttributesView durationServerAttributesView =
+      createView(durationServerView);
+  private static final InterningAttributesView activeRequestsAttributesView =
+      createView(activeRequestsView);
+
   private static Set<AttributeKey> buildDurationAlwaysInclude() {
     // the list of included metrics is from
     // https://github.com/open-telemetry/opentelemetry-specification/blob/main/specification/metrics/semantic_conventions/http-metrics.md#attributes
@@ -70,38 +82,46 @@ final class TemporaryMetricsView {
     return view;
   }
 
+  @SafeVarargs
+  @SuppressWarnings("unchecked")
+  private static Set<AttributeKey<?>> buildMetricsKeys(Set<AttributeKey>... views) {
+    Set<AttributeKey<?>> keys = new HashSet<>();
+    for (Set<AttributeKey> view : views) {
+      keys.addAll((Set<AttributeKey<?>>) (Set<?>) view);
+    }
+    // the request and response sizes are read by the metrics directly, without a view
+    keys.add(SemanticAttributes.HTTP_REQUEST_CONTENT_LENGTH);
+    keys.add(SemanticAttributes.HTTP_RESPONSE_CONTENT_LENGTH);
+    return Collections.unmodifiableSet(keys);
+  }
+
+  @SuppressWarnings("unchecked")
+  private static InterningAttributesView createView(Set<AttributeKey> view) {
+    return InterningAttributesView.create((Set<AttributeKey<?>>) (Set<?>) view);
+  }
+
+  /** Returns the keys of all attributes read by {@link HttpClientMetrics}. */
+  static Set<AttributeKey<?>> clientMetricsKeys() {
+    return clientMetricsKeys;
+  }
+
+  /** Returns the keys of all attributes read by {@link HttpServerMetrics}. */
+  static Set<AttributeKey<?>> serverMetricsKeys() {
+    return serverMetricsKeys;
+  }
+
   static Attributes applyClientDurationAndSizeView(
       Attributes startAttributes, Attributes endAttributes) {
-    AttributesBuilder filtered = Attributes.builder();
-    applyView(filtered, startAttributes, durationClientView);
-    applyView(filtered, endAttributes, durationClientView);
-    return filtered.build();
+    return durationClientAttributesView.apply(startAttributes, endAttributes);
   }
 
   static Attributes applyServerDurationAndSizeView(
       Attributes startAttributes, Attributes endAttributes) {
-    AttributesBuilder filtered = Attributes.builder();
-    applyView(filtered, startAttributes, durationServerView);
-    applyView(filtered, endAttributes, durationServerView);
-    return filtered.build();
+    return durationServerAttributesView.apply(startAttributes, endAttributes);
   }
 
   static Attributes applyActiveRequestsView(Attributes attributes) {
-    AttributesBuilder filtered = Attributes.builder();
-    applyView(filtered, attributes, activeRequestsView);
-    return filtered.build();
-  }
-
-  @SuppressWarnings("unchecked")
-  private static void applyView(
-      AttributesBuilder filtered, Attributes attributes, Set<AttributeKey> view) {
-    attributes.forEach(
-        (BiConsumer<AttributeKey, Object>)
-            (key, value) -> {
-              if (view.contains(key)) {
-                filtered.put(key, value);
-              }
-            });
+    return activeRequestsAttributesView.apply(attributes);
   }
 
   private TemporaryMetricsView() {}
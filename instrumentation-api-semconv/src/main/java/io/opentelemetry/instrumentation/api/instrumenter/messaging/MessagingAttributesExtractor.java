@@ -11,13 +11,17 @@ import static io.opentelemetry.instrumentation.api.instrumenter.messaging.Messag
 import static io.opentelemetry.instrumentation.api.instrumenter.messaging.MessageOperation.RECEIVE;
 import static io.opentelemetry.instrumentation.api.internal.AttributesExtractorUtil.internalSet;
 
+import io.opentelemetry.api.common.AttributeKey;
 import io.opentelemetry.api.common.AttributesBuilder;
 import io.opentelemetry.context.Context;
 import io.opentelemetry.instrumentation.api.instrumenter.AttributesExtractor;
+import io.opentelemetry.instrumentation.api.internal.MetricsRelevantKeysProvider;
 import io.opentelemetry.instrumentation.api.internal.SpanKey;
 import io.opentelemetry.instrumentation.api.internal.SpanKeyProvider;
 import io.opentelemetry.semconv.trace.attributes.SemanticAttributes;
+import java.util.Collections;
 import java.util.List;
+import java.util.Set;
 import javax.annotation.Nullable;
 
 /**
@@ -29,7 +33,9 @@ import javax.annotation.Nullable;
  * attribute extraction from request/response objects.
  */
 public final class MessagingAttributesExtractor<REQUEST, RESPONSE>
-    implements AttributesExtractor<REQUEST, RESPONSE>, SpanKeyProvider {
+    implements AttributesExtractor<REQUEST, RESPONSE>,
+        SpanKeyProvider,
+        MetricsRelevantKeysProvider {
 
   static final String TEMP_DESTINATION_NAME = "(temporary)";
 
@@ -115,6 +121,16 @@ public final class MessagingAttributesExtractor<REQUEST, RESPONSE>
     }
   }
 
+  /**
+   * This method is internal and is hence not for public use. Its API is unstable and can change at
+   * any time.
+   */
+  @Override
+  public Set<AttributeKey<?>> internalGetMetricsRelevantKeys() {
+    // there are no messaging metrics yet
+    return Collections.emptySet();
+  }
+
   /**
    * This method is internal and is hence not for public use. Its API is unstable and can change at
    * any time.
@@ -33,8 +33,7 @@ public final class NetClientAttributesExtractor<REQUEST, RESPONSE>
 
   private NetClientAttributesExtractor(NetClientAttributesGetter<REQUEST, RESPONSE> getter) {
     internalExtractor =
-        new InternalNetClientAttributesExtractor<>(
-            getter, (port, request) -> true, FallbackNamePortGetter.noop());
+        new InternalNetClientAttributesExtractor<>(getter, FallbackNamePortGetter.noop());
   }
 
   @Override
@@ -5,11 +5,15 @@
 
 package io.opentelemetry.instrumentation.api.instrumenter.net;
 
+import io.opentelemetry.api.common.AttributeKey;
 import io.opentelemetry.api.common.AttributesBuilder;
 import io.opentelemetry.context.Context;
 import io.opentelemetry.instrumentation.api.instrumenter.AttributesExtractor;
+import io.opentelemetry.instrumentation.api.internal.MetricsRelevantKeysProvider;
 import io.opentelemetry.semconv.trace.attributes.SemanticAttributes;
+import java.util.Collections;
 import java.util.Map;
+import java.util.Set;
 import javax.annotation.Nullable;
 
 /**
@@ -18,7 +22,7 @@ import javax.annotation.Nullable;
  * specification</a>.
  */
 public final class PeerServiceAttributesExtractor<REQUEST, RESPONSE>
-    implements AttributesExtractor<REQUEST, RESPONSE> {
+    implements AttributesExtractor<REQUEST, RESPONSE>, MetricsRelevantKeysProvider {
 
   private final NetClientAttributesGetter<REQUEST, RESPONSE> attributesGetter;
   private final Map<String, String> peerServiceMapping;
@@ -64,6 +68,15 @@ public final class PeerServiceAttributesExtractor<REQUEST, RESPONSE>
     }
   }
 
+  /**
+   * This method is internal and is hence not for public use. Its API is unstable and can change at
+   * any time.
+   */
+  @Override
+  public Set<AttributeKey<?>> internalGetMetricsRelevantKeys() {
+    return Collections.emptySet();
+  }
+
   @Nullable
   private String mapToPeerService(String endpoint) {
     if (endpoint == null) {
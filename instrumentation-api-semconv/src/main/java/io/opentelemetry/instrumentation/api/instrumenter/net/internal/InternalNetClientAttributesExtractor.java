@@ -10,7 +10,6 @@ import static io.opentelemetry.instrumentation.api.internal.AttributesExtractorU
 import io.opentelemetry.api.common.AttributesBuilder;
 import io.opentelemetry.instrumentation.api.instrumenter.net.NetClientAttributesGetter;
 import io.opentelemetry.semconv.trace.attributes.SemanticAttributes;
-import java.util.function.BiPredicate;
 import javax.annotation.Nullable;
 
 /**
@@ -20,26 +19,31 @@ import javax.annotation.Nullable;
 public final class InternalNetClientAttributesExtractor<REQUEST, RESPONSE> {
 
   private final NetClientAttributesGetter<REQUEST, RESPONSE> getter;
-  private final BiPredicate<Integer, REQUEST> capturePeerPortCondition;
   private final FallbackNamePortGetter<REQUEST> fallbackNamePortGetter;
 
   public InternalNetClientAttributesExtractor(
       NetClientAttributesGetter<REQUEST, RESPONSE> getter,
-      BiPredicate<Integer, REQUEST> capturePeerPortCondition,
       FallbackNamePortGetter<REQUEST> fallbackNamePortGetter) {
     this.getter = getter;
-    this.capturePeerPortCondition = capturePeerPortCondition;
     this.fallbackNamePortGetter = fallbackNamePortGetter;
   }
 
   public void onStart(AttributesBuilder attributes, REQUEST request) {
+    onStart(attributes, request, -1);
+  }
+
+  /**
+   * Same as {@link #onStart(AttributesBuilder, Object)}, except that the peer port is not captured
+   * when it is the {@code defaultPeerPort} of the protocol, e.g. 443 for https.
+   */
+  public void onStart(AttributesBuilder attributes, REQUEST request, int defaultPeerPort) {
     String peerName = extractPeerName(request);
 
     if (peerName != null) {
       internalSet(attributes, SemanticAttributes.NET_PEER_NAME, peerName);
 
       Integer peerPort = extractPeerPort(request);
-      if (peerPort != null && peerPort > 0 && capturePeerPortCondition.test(peerPort, request)) {
+      if (peerPort != null && peerPort > 0 && peerPort != defaultPeerPort) {
         internalSet(attributes, SemanticAttributes.NET_PEER_PORT, (long) peerPort);
       }
     }
@@ -7,11 +7,10 @@ package io.opentelemetry.instrumentation.api.instrumenter.rpc;
 
 import io.opentelemetry.api.common.AttributeKey;
 import io.opentelemetry.api.common.Attributes;
-import io.opentelemetry.api.common.AttributesBuilder;
+import io.opentelemetry.instrumentation.api.internal.InterningAttributesView;
 import io.opentelemetry.semconv.trace.attributes.SemanticAttributes;
 import java.util.HashSet;
 import java.util.Set;
-import java.util.function.BiConsumer;
 
 // this is temporary, see
 // https://github.com/open-telemetry/opentelemetry-java-instrumentation/issues/3962#issuecomment-906606325
@@ -23,6 +22,11 @@ final class MetricsView {
   private static final Set<AttributeKey> serverView = buildServerView();
   private static final Set<AttributeKey> serverFallbackView = buildServerFallbackView();
 
+  private static final InterningAttributesView clientAttributesView = createView(clientView);
+  private static final InterningAttributesView serverAttributesView = createView(serverView);
+  private static final InterningAttributesView serverFallbackAttributesView =
+      createView(serverFallbackView);
+
   private static Set<AttributeKey> buildAlwaysInclude() {
     // the list of recommended metrics attributes is from
     // https://github.com/open-telemetry/opentelemetry-specification/blob/main/specification/metrics/semantic_conventions/rpc.md#attributes
@@ -68,35 +72,20 @@ final class MetricsView {
   }
 
   static Attributes applyClientView(Attributes startAttributes, Attributes endAttributes) {
-    return applyView(clientView, startAttributes, endAttributes);
+    return clientAttributesView.apply(startAttributes, endAttributes);
   }
 
   static Attributes applyServerView(Attributes startAttributes, Attributes endAttributes) {
-    Set<AttributeKey> fullSet = serverView;
+    InterningAttributesView view = serverAttributesView;
     if (!containsAttribute(SemanticAttributes.NET_HOST_NAME, startAttributes, endAttributes)) {
-      fullSet = serverFallbackView;
+      view = serverFallbackAttributesView;
     }
-    return applyView(fullSet, startAttributes, endAttributes);
-  }
-
-  static Attributes applyView(
-      Set<AttributeKey> view, Attributes startAttributes, Attributes endAttributes) {
-    AttributesBuilder filtered = Attributes.builder();
-    applyView(filtered, startAttributes, view);
-    applyView(filtered, endAttributes, view);
-    return filtered.build();
+    return view.apply(startAttributes, endAttributes);
   }
 
   @SuppressWarnings("unchecked")
-  private static void applyView(
-      AttributesBuilder filtered, Attributes attributes, Set<AttributeKey> view) {
-    attributes.forEach(
-        (BiConsumer<AttributeKey, Object>)
-            (key, value) -> {
-              if (view.contains(key)) {
-                filtered.put(key, value);
-              }
-            });
+  private static InterningAttributesView createView(Set<AttributeKey> view) {
+    return InterningAttributesView.create((Set<AttributeKey<?>>) (Set<?>) view);
   }
 
   private MetricsView() {}
@@ -99,6 +99,64 @@ public class SqlStatementSanitizerTest {
     assertThat(sanitized).doesNotContain("1234");
   }
 
+  @Test
+  void collapsesValuesGroups() {
+    StringBuilder sb = new StringBuilder("INSERT INTO orders (id, name) VALUES (1, 'a')");
+    for (int i = 2; i < 100_000; i++) {
+      sb.append(", (").append(i).append(", 'name").append(i).append("')");
+    }
+    sb.append(" ON CONFLICT DO NOTHING");
+
+    SqlStatementInfo result =
+        AutoSqlSanitizer.sanitize(sb.toString(), SqlDialect.DEFAULT, AutoSqlSanitizer.LIMIT, true);
+
+    assertThat(result.getOperation()).isEqualTo("INSERT");
+    assertThat(result.getTable()).isEqualTo("orders");
+    // the skipped input counts against the limit, so the trailing clause is cut off, which is
+    // marked in the result
+    assertThat(result.getFullStatement())
+        .isEqualTo("INSERT INTO orders (id, name) VALUES (?, ?), ...");
+  }
+
+  @Test
+  void collapsesValuesGroupsAndKeepsTrailingClauses() {
+    SqlStatementInfo result =
+        AutoSqlSanitizer.sanitize(
+            "INSERT INTO orders VALUES (1, 'a'), (2, 'b') , ( 3, 'c' ) ON DUPLICATE KEY UPDATE"
+                + " name = 'x', id = 4",
+            SqlDialect.DEFAULT,
+            AutoSqlSanitizer.LIMIT,
+            true);
+
+    assertThat(result.getFullStatement())
+        .isEqualTo("INSERT INTO orders VALUES (?, ?) ON DUPLICATE KEY UPDATE name = ?, id = ?");
+  }
+
+  @Test
+  void collapsesValuesGroupsWithinLimitWithoutMarker() {
+    SqlStatementInfo result =
+        AutoSqlSanitizer.sanitize(
+            "INSERT INTO orders VALUES (1, 'a'), (2, 'b') RETURNING id",
+            SqlDialect.DEFAULT,
+            AutoSqlSanitizer.LIMIT,
+            true);
+
+    // the statement was scanned to its end, nothing is marked as missing
+    assertThat(result.getFullStatement())
+        .isEqualTo("INSERT INTO orders VALUES (?, ?) RETURNING id");
+  }
+
+  @Test
+  void boundedLimit() {
+    SqlStatementInfo result =
+        AutoSqlSanitizer.sanitize(
+            "SELECT * FROM users WHERE name = 'abc' AND id = 42", SqlDialect.DEFAULT, 20, false);
+
+    assertThat(result.getOperation()).isEqualTo("SELECT");
+    assertThat(result.getTable()).isEqualTo("users");
+    assertThat(result.getFullStatement()).isEqualTo("SELECT * FROM users ");
+  }
+
   @Test
   void randomBytesDontCauseExceptionsOrTimeouts() {
     Random r = new Random(0);
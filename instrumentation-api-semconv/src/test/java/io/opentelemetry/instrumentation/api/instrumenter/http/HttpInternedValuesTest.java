@@ -0,0 +1,35 @@
+/*
+ * Copyright The OpenTelemetry Authors
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package io.opentelemetry.instrumentation.api.instrumenter.http;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import org.junit.jupiter.api.Test;
+
+class HttpInternedValuesTest {
+
+  @Test
+  void statusCode() {
+    assertThat(HttpInternedValues.statusCode(200)).isEqualTo(200L);
+    assertThat(HttpInternedValues.statusCode(503))
+        .isEqualTo(503L)
+        .isSameAs(HttpInternedValues.statusCode(503));
+    assertThat(HttpInternedValues.statusCode(100)).isEqualTo(100L);
+    assertThat(HttpInternedValues.statusCode(599)).isEqualTo(599L);
+    // outside of the preallocated range
+    assertThat(HttpInternedValues.statusCode(600)).isEqualTo(600L);
+    assertThat(HttpInternedValues.statusCode(99)).isEqualTo(99L);
+  }
+
+  @Test
+  void spanName() {
+    assertThat(HttpInternedValues.spanName("GET"))
+        .isEqualTo("HTTP GET")
+        .isSameAs(HttpInternedValues.spanName("GET"));
+    assertThat(HttpInternedValues.spanName("PATCH")).isEqualTo("HTTP PATCH");
+    assertThat(HttpInternedValues.spanName("PROPFIND")).isEqualTo("HTTP PROPFIND");
+  }
+}
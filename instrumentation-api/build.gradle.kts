@@ -1,5 +1,3 @@
-import net.ltgt.gradle.errorprone.errorprone
-
 plugins {
   id("otel.java-conventions")
   id("otel.animalsniffer-conventions")
@@ -28,11 +26,4 @@ tasks {
   named<Checkstyle>("checkstyleMain") {
     exclude("**/concurrentlinkedhashmap/**")
   }
-
-  // TODO this should live in jmh-conventions
-  named<JavaCompile>("jmhCompileGeneratedClasses") {
-    options.errorprone {
-      isEnabled.set(false)
-    }
-  }
 }
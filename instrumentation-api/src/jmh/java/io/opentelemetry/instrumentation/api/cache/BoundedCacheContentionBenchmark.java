@@ -0,0 +1,97 @@
+/*
+ * Copyright The OpenTelemetry Authors
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package io.opentelemetry.instrumentation.api.cache;
+
+import io.opentelemetry.instrumentation.api.internal.cache.Cache;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Compares the bounded caches under a skewed, SQL statement cache like workload: most requests hit
+ * a small set of hot keys while a long tail of one-off keys sweeps through the cache.
+ */
+@Fork(3)
+@Warmup(iterations = 10, time = 1)
+@Measurement(iterations = 5, time = 1)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class BoundedCacheContentionBenchmark {
+
+  private static final int CAPACITY = 1000;
+  private static final int HOT_KEYS = 500;
+  private static final int COLD_KEYS = 100_000;
+
+  @State(Scope.Benchmark)
+  public static class Caches {
+
+    @Param({"bounded", "sharded"})
+    public String type;
+
+    Cache<String, String> cache;
+    String[] hotKeys;
+    String[] coldKeys;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+      cache =
+          type.equals("bounded") ? Cache.bounded(CAPACITY) : Cache.sharded("benchmark", CAPACITY);
+      hotKeys = keys("SELECT * FROM hot_table WHERE id = ? AND tenant = ", HOT_KEYS);
+      coldKeys = keys("SELECT * FROM cold_table WHERE id = ? AND tenant = ", COLD_KEYS);
+    }
+
+    private static String[] keys(String prefix, int count) {
+      String[] keys = new String[count];
+      for (int i = 0; i < count; i++) {
+        keys[i] = prefix + i;
+      }
+      return keys;
+    }
+  }
+
+  private static String lookup(Caches caches) {
+    ThreadLocalRandom random = ThreadLocalRandom.current();
+    // 90% of the lookups go to the hot keys
+    String key =
+        random.nextInt(10) == 0
+            ? caches.coldKeys[random.nextInt(COLD_KEYS)]
+            : caches.hotKeys[random.nextInt(HOT_KEYS)];
+    return caches.cache.computeIfAbsent(key, k -> k);
+  }
+
+  @Benchmark
+  @Threads(1)
+  public String threads01(Caches caches) {
+    return lookup(caches);
+  }
+
+  @Benchmark
+  @Threads(4)
+  public String threads04(Caches caches) {
+    return lookup(caches);
+  }
+
+  @Benchmark
+  @Threads(16)
+  public String threads16(Caches caches) {
+    return lookup(caches);
+  }
+
+  @Benchmark
+  @Threads(64)
+  public String threads64(Caches caches) {
+    return lookup(caches);
+  }
+}
@@ -28,6 +28,7 @@ public class CacheBenchmark {
   private static final Cache<Object, Object> weakCache = Cache.weak();
   private static final Cache<Object, Object> boundedLargeCache = Cache.bounded(10);
   private static final Cache<Object, Object> boundedSmallCache = Cache.bounded(1);
+  private static final Cache<Object, Object> shardedCache = Cache.sharded("benchmark", 10);
 
   private String key;
   private String key2;
@@ -155,4 +156,43 @@ public class CacheBenchmark {
     blackhole.consume(boundedSmallCache.get(key));
     blackhole.consume(boundedSmallCache.get(key2));
   }
+
+  @Benchmark
+  @Threads(1)
+  public void threads01_sharded(Blackhole blackhole) {
+    shardedCache.put(key, "foo");
+    blackhole.consume(shardedCache.get(key));
+    shardedCache.put(key2, "foo");
+    blackhole.consume(shardedCache.get(key2));
+    shardedCache.remove(key);
+    shardedCache.remove(key2);
+    blackhole.consume(shardedCache.get(key));
+    blackhole.consume(shardedCache.get(key2));
+  }
+
+  @Benchmark
+  @Threads(5)
+  public void threads05_sharded(Blackhole blackhole) {
+    shardedCache.put(key, "foo");
+    blackhole.consume(shardedCache.get(key));
+    shardedCache.put(key2, "foo");
+    blackhole.consume(shardedCache.get(key2));
+    shardedCache.remove(key);
+    shardedCache.remove(key2);
+    blackhole.consume(shardedCache.get(key));
+    blackhole.consume(shardedCache.get(key2));
+  }
+
+  @Benchmark
+  @Threads(10)
+  public void threads10_sharded(Blackhole blackhole) {
+    shardedCache.put(key, "foo");
+    blackhole.consume(shardedCache.get(key));
+    shardedCache.put(key2, "foo");
+    blackhole.consume(shardedCache.get(key2));
+    shardedCache.remove(key);
+    shardedCache.remove(key2);
+    blackhole.consume(shardedCache.get(key));
+    blackhole.consume(shardedCache.get(key2));
+  }
 }
@@ -9,6 +9,7 @@ import io.opentelemetry.api.OpenTelemetry;
 import io.opentelemetry.context.Context;
 import io.opentelemetry.instrumentation.api.instrumenter.http.HttpClientAttributesExtractor;
 import io.opentelemetry.instrumentation.api.instrumenter.http.HttpClientAttributesGetter;
+import io.opentelemetry.instrumentation.api.instrumenter.http.HttpClientMetrics;
 import io.opentelemetry.instrumentation.api.instrumenter.http.HttpSpanNameExtractor;
 import io.opentelemetry.instrumentation.api.instrumenter.net.InetSocketAddressNetClientAttributesGetter;
 import io.opentelemetry.semconv.trace.attributes.SemanticAttributes;
@@ -45,6 +46,40 @@ public class InstrumenterBenchmark {
                   ConstantHttpAttributesGetter.INSTANCE, new ConstantNetAttributesGetter()))
           .buildInstrumenter();
 
+  private static final Instrumenter<Void, Void> REUSING_INSTRUMENTER =
+      Instrumenter.<Void, Void>builder(
+              OpenTelemetry.noop(),
+              "benchmark",
+              HttpSpanNameExtractor.create(ConstantHttpAttributesGetter.INSTANCE))
+          .addAttributesExtractor(
+              HttpClientAttributesExtractor.create(
+                  ConstantHttpAttributesGetter.INSTANCE, new ConstantNetAttributesGetter()))
+          .setReuseOperationBuffers(true)
+          .buildInstrumenter();
+
+  private static final Instrumenter<Void, Void> METRICS_INSTRUMENTER =
+      Instrumenter.<Void, Void>builder(
+              OpenTelemetry.noop(),
+              "benchmark",
+              HttpSpanNameExtractor.create(ConstantHttpAttributesGetter.INSTANCE))
+          .addAttributesExtractor(
+              HttpClientAttributesExtractor.create(
+                  ConstantHttpAttributesGetter.INSTANCE, new ConstantNetAttributesGetter()))
+          .addOperationMetrics(HttpClientMetrics.get())
+          .buildInstrumenter();
+
+  private static final Instrumenter<Void, Void> REUSING_METRICS_INSTRUMENTER =
+      Instrumenter.<Void, Void>builder(
+              OpenTelemetry.noop(),
+              "benchmark",
+              HttpSpanNameExtractor.create(ConstantHttpAttributesGetter.INSTANCE))
+          .addAttributesExtractor(
+              HttpClientAttributesExtractor.create(
+                  ConstantHttpAttributesGetter.INSTANCE, new ConstantNetAttributesGetter()))
+          .addOperationMetrics(HttpClientMetrics.get())
+          .setReuseOperationBuffers(true)
+          .buildInstrumenter();
+
   @Benchmark
   public Context start() {
     return INSTRUMENTER.start(Context.root(), null);
@@ -57,6 +92,30 @@ public class InstrumenterBenchmark {
     return context;
   }
 
+  // compare gc.alloc.rate.norm (reported by the gc profiler) with startEnd()
+  @Benchmark
+  public Context startEnd_reuseOperationBuffers() {
+    Context context = REUSING_INSTRUMENTER.start(Context.root(), null);
+    REUSING_INSTRUMENTER.end(context, null, null, null);
+    return context;
+  }
+
+  @Benchmark
+  public Context startEnd_metrics() {
+    Context context = METRICS_INSTRUMENTER.start(Context.root(), null);
+    METRICS_INSTRUMENTER.end(context, null, null, null);
+    return context;
+  }
+
+  // the HTTP metrics don't retain the attributes they are passed, so the reused buffers are not
+  // copied for them
+  @Benchmark
+  public Context startEnd_metrics_reuseOperationBuffers() {
+    Context context = REUSING_METRICS_INSTRUMENTER.start(Context.root(), null);
+    REUSING_METRICS_INSTRUMENTER.end(context, null, null, null);
+    return context;
+  }
+
   enum ConstantHttpAttributesGetter implements HttpClientAttributesGetter<Void, Void> {
     INSTANCE;
 
@@ -0,0 +1,72 @@
+/*
+ * Copyright The OpenTelemetry Authors
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package io.opentelemetry.instrumentation.api.internal;
+
+import io.opentelemetry.api.common.AttributeKey;
+import io.opentelemetry.api.common.Attributes;
+import io.opentelemetry.api.common.AttributesBuilder;
+import io.opentelemetry.instrumentation.api.internal.cache.Cache;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Captures the MDC of a log event as attributes, the way the log appenders do when all the MDC
+ * entries are captured: {@link #boundedCache()} looks the attribute keys up like the mappers did
+ * before {@link PrefixedAttributeKeys} was added, {@link #prefixedAttributeKeys()} like they do
+ * now.
+ */
+@Fork(3)
+@Warmup(iterations = 10, time = 1)
+@Measurement(iterations = 5, time = 1)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@State(Scope.Thread)
+public class MdcAttributesBenchmark {
+
+  private static final Cache<String, AttributeKey<String>> cache = Cache.bounded(100);
+  private static final PrefixedAttributeKeys attributeKeys =
+      PrefixedAttributeKeys.create("logback.mdc.");
+
+  @Param({"0", "5", "20"})
+  public int mdcEntries;
+
+  private Map<String, String> mdc;
+
+  @Setup
+  public void setUp() {
+    mdc = new HashMap<>();
+    for (int i = 0; i < mdcEntries; i++) {
+      mdc.put("key" + i, "value" + i);
+    }
+  }
+
+  @Benchmark
+  public Attributes boundedCache() {
+    AttributesBuilder attributes = Attributes.builder();
+    mdc.forEach(
+        (key, value) ->
+            attributes.put(
+                cache.computeIfAbsent(key, k -> AttributeKey.stringKey("logback.mdc." + k)),
+                value));
+    return attributes.build();
+  }
+
+  @Benchmark
+  public Attributes prefixedAttributeKeys() {
+    AttributesBuilder attributes = Attributes.builder();
+    mdc.forEach((key, value) -> attributes.put(attributeKeys.get(key), value));
+    return attributes.build();
+  }
+}
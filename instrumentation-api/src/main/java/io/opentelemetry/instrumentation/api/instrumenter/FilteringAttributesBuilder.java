@@ -0,0 +1,59 @@
+/*
+ * Copyright The OpenTelemetry Authors
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package io.opentelemetry.instrumentation.api.instrumenter;
+
+import com.google.errorprone.annotations.CanIgnoreReturnValue;
+import io.opentelemetry.api.common.AttributeKey;
+import io.opentelemetry.api.common.Attributes;
+import io.opentelemetry.api.common.AttributesBuilder;
+import java.util.Set;
+
+/** An {@link AttributesBuilder} that only passes the attributes with the given keys through. */
+final class FilteringAttributesBuilder implements AttributesBuilder {
+
+  private final AttributesBuilder delegate;
+  private final Set<AttributeKey<?>> keys;
+
+  FilteringAttributesBuilder(AttributesBuilder delegate, Set<AttributeKey<?>> keys) {
+    this.delegate = delegate;
+    this.keys = keys;
+  }
+
+  @Override
+  public Attributes build() {
+    return delegate.build();
+  }
+
+  @Override
+  @CanIgnoreReturnValue
+  public <T> AttributesBuilder put(AttributeKey<Long> key, int value) {
+    if (keys.contains(key)) {
+      delegate.put(key, value);
+    }
+    return this;
+  }
+
+  @Override
+  @CanIgnoreReturnValue
+  public <T> AttributesBuilder put(AttributeKey<T> key, T value) {
+    if (keys.contains(key)) {
+      delegate.put(key, value);
+    }
+    return this;
+  }
+
+  @Override
+  @CanIgnoreReturnValue
+  public AttributesBuilder putAll(Attributes attributes) {
+    attributes.forEach(this::putUnchecked);
+    return this;
+  }
+
+  @SuppressWarnings("unchecked")
+  private void putUnchecked(AttributeKey<?> key, Object value) {
+    put((AttributeKey<Object>) key, value);
+  }
+}
@@ -6,16 +6,23 @@
 package io.opentelemetry.instrumentation.api.instrumenter;
 
 import io.opentelemetry.api.OpenTelemetry;
+import io.opentelemetry.api.common.AttributeKey;
+import io.opentelemetry.api.common.Attributes;
+import io.opentelemetry.api.common.AttributesBuilder;
 import io.opentelemetry.api.trace.Span;
 import io.opentelemetry.api.trace.SpanBuilder;
 import io.opentelemetry.api.trace.SpanKind;
 import io.opentelemetry.api.trace.Tracer;
 import io.opentelemetry.context.Context;
+import io.opentelemetry.instrumentation.api.internal.MetricsRelevantKeysProvider;
+import io.opentelemetry.instrumentation.api.internal.NonRetainingOperationListener;
 import io.opentelemetry.instrumentation.api.internal.SupportabilityMetrics;
 import java.time.Instant;
 import java.util.ArrayList;
+import java.util.HashSet;
 import java.util.List;
 import java.util.ListIterator;
+import java.util.Set;
 import java.util.concurrent.TimeUnit;
 import javax.annotation.Nullable;
 
@@ -62,9 +69,7 @@ public class Instrumenter<REQUEST, RESPONSE> {
     return new InstrumenterBuilder<>(openTelemetry, instrumentationName, spanNameExtractor);
   }
 
-  private static final SupportabilityMetrics supportability = SupportabilityMetrics.instance();
-
-  private final String instrumentationName;
+  private final SupportabilityMetrics.SuppressedSpanCounters suppressedSpanCounters;
   private final Tracer tracer;
   private final SpanNameExtractor<? super REQUEST> spanNameExtractor;
   private final SpanKindExtractor<? super REQUEST> spanKindExtractor;
@@ -77,9 +82,16 @@ public class Instrumenter<REQUEST, RESPONSE> {
   private final ErrorCauseExtractor errorCauseExtractor;
   private final boolean enabled;
   private final SpanSuppressor spanSuppressor;
+  private final boolean reuseOperationBuffers;
+  // whether some operation listener may keep the attributes it is passed, reused buffers must then
+  // be copied before being passed to the operation listeners
+  private final boolean operationListenersRetainAttributes;
+  // null unless only the metrics attributes should be extracted for spans that are not recording
+  @Nullable private final Set<AttributeKey<?>> metricsRelevantKeys;
 
   Instrumenter(InstrumenterBuilder<REQUEST, RESPONSE> builder) {
-    this.instrumentationName = builder.instrumentationName;
+    this.suppressedSpanCounters =
+        SupportabilityMetrics.instance().suppressedSpanCounters(builder.instrumentationName);
     this.tracer = builder.buildTracer();
     this.spanNameExtractor = builder.spanNameExtractor;
     this.spanKindExtractor = builder.spanKindExtractor;
@@ -91,6 +103,35 @@ public class Instrumenter<REQUEST, RESPONSE> {
     this.errorCauseExtractor = builder.errorCauseExtractor;
     this.enabled = builder.enabled;
     this.spanSuppressor = builder.buildSpanSuppressor();
+    this.reuseOperationBuffers = builder.reuseOperationBuffers;
+    this.operationListenersRetainAttributes = retainAttributes(operationListeners);
+    this.metricsRelevantKeys =
+        builder.metricsOnlyWhenNotRecording
+            ? collectMetricsRelevantKeys(attributesExtractors)
+            : null;
+  }
+
+  private static boolean retainAttributes(List<? extends OperationListener> operationListeners) {
+    for (OperationListener operationListener : operationListeners) {
+      if (!(operationListener instanceof NonRetainingOperationListener)) {
+        return true;
+      }
+    }
+    return false;
+  }
+
+  @Nullable
+  private static Set<AttributeKey<?>> collectMetricsRelevantKeys(
+      List<? extends AttributesExtractor<?, ?>> attributesExtractors) {
+    Set<AttributeKey<?>> keys = new HashSet<>();
+    boolean found = false;
+    for (AttributesExtractor<?, ?> extractor : attributesExtractors) {
+      if (extractor instanceof MetricsRelevantKeysProvider) {
+        keys.addAll(((MetricsRelevantKeysProvider) extractor).internalGetMetricsRelevantKeys());
+        found = true;
+      }
+    }
+    return found ? keys : null;
   }
 
   /**
@@ -111,7 +152,7 @@ public class Instrumenter<REQUEST, RESPONSE> {
     boolean suppressed = spanSuppressor.shouldSuppress(parentContext, spanKind);
 
     if (suppressed) {
-      supportability.recordSuppressedSpan(spanKind, instrumentationName);
+      suppressedSpanCounters.record(spanKind);
     }
     return !suppressed;
   }
@@ -158,6 +199,23 @@ public class Instrumenter<REQUEST, RESPONSE> {
   }
 
   private Context doStart(Context parentContext, REQUEST request, @Nullable Instant startTime) {
+    OperationBuffers buffers = reuseOperationBuffers ? OperationBuffers.acquire() : null;
+    if (buffers == null) {
+      return doStart(parentContext, request, startTime, new UnsafeAttributes(), null);
+    }
+    try {
+      return doStart(parentContext, request, startTime, buffers.attributes, buffers);
+    } finally {
+      buffers.release();
+    }
+  }
+
+  private <A extends Attributes & AttributesBuilder> Context doStart(
+      Context parentContext,
+      REQUEST request,
+      @Nullable Instant startTime,
+      A attributes,
+      @Nullable OperationBuffers buffers) {
     SpanKind spanKind = spanKindExtractor.extract(request);
     SpanBuilder spanBuilder =
         tracer.spanBuilder(spanNameExtractor.extract(request)).setSpanKind(spanKind);
@@ -166,12 +224,16 @@ public class Instrumenter<REQUEST, RESPONSE> {
       spanBuilder.setStartTimestamp(startTime);
     }
 
-    SpanLinksBuilder spanLinksBuilder = new SpanLinksBuilderImpl(spanBuilder);
-    for (SpanLinksExtractor<? super REQUEST> spanLinksExtractor : spanLinksExtractors) {
-      spanLinksExtractor.extract(spanLinksBuilder, parentContext, request);
+    if (!spanLinksExtractors.isEmpty()) {
+      SpanLinksBuilder spanLinksBuilder =
+          buffers == null
+              ? new SpanLinksBuilderImpl(spanBuilder)
+              : buffers.spanLinksBuilder(spanBuilder);
+      for (SpanLinksExtractor<? super REQUEST> spanLinksExtractor : spanLinksExtractors) {
+        spanLinksExtractor.extract(spanLinksBuilder, parentContext, request);
+      }
     }
 
-    UnsafeAttributes attributes = new UnsafeAttributes();
     for (AttributesExtractor<? super REQUEST, ? super RESPONSE> extractor : attributesExtractors) {
       extractor.onStart(attributes, parentContext, request);
     }
@@ -191,11 +253,15 @@ public class Instrumenter<REQUEST, RESPONSE> {
     context = context.with(span);
 
     if (!operationListeners.isEmpty()) {
+      // reused buffers are cleared when this method returns, while operation listeners may keep
+      // the start attributes until the operation ends
+      Attributes startAttributes =
+          buffers == null || !operationListenersRetainAttributes ? attributes : attributes.build();
       // operation listeners run after span start, so that they have access to the current span
       // for capturing exemplars
       long startNanos = getNanos(startTime);
       for (OperationListener operationListener : operationListeners) {
-        context = operationListener.onStart(context, attributes, startNanos);
+        context = operationListener.onStart(context, startAttributes, startNanos);
       }
     }
 
@@ -212,6 +278,26 @@ public class Instrumenter<REQUEST, RESPONSE> {
       @Nullable RESPONSE response,
       @Nullable Throwable error,
       @Nullable Instant endTime) {
+    OperationBuffers buffers = reuseOperationBuffers ? OperationBuffers.acquire() : null;
+    if (buffers == null) {
+      doEnd(context, request, response, error, endTime, new UnsafeAttributes(), null);
+      return;
+    }
+    try {
+      doEnd(context, request, response, error, endTime, buffers.attributes, buffers);
+    } finally {
+      buffers.release();
+    }
+  }
+
+  private <A extends Attributes & AttributesBuilder> void doEnd(
+      Context context,
+      REQUEST request,
+      @Nullable RESPONSE response,
+      @Nullable Throwable error,
+      @Nullable Instant endTime,
+      A attributes,
+      @Nullable OperationBuffers buffers) {
     Span span = Span.fromContext(context);
 
     if (error != null) {
@@ -219,22 +305,30 @@ public class Instrumenter<REQUEST, RESPONSE> {
       span.recordException(error);
     }
 
-    UnsafeAttributes attributes = new UnsafeAttributes();
-    for (AttributesExtractor<? super REQUEST, ? super RESPONSE> extractor : attributesExtractors) {
-      extractor.onEnd(attributes, context, request, response, error);
+    if (metricsRelevantKeys != null && !span.isRecording()) {
+      // nothing but the operation listeners will see the end attributes
+      extractMetricsAttributes(attributes, context, request, response, error, metricsRelevantKeys);
+    } else {
+      for (AttributesExtractor<? super REQUEST, ? super RESPONSE> extractor :
+          attributesExtractors) {
+        extractor.onEnd(attributes, context, request, response, error);
+      }
+      span.setAllAttributes(attributes);
     }
-    span.setAllAttributes(attributes);
 
     if (!operationListeners.isEmpty()) {
+      Attributes endAttributes =
+          buffers == null || !operationListenersRetainAttributes ? attributes : attributes.build();
       long endNanos = getNanos(endTime);
       ListIterator<? extends OperationListener> i =
           operationListeners.listIterator(operationListeners.size());
       while (i.hasPrevious()) {
-        i.previous().onEnd(context, attributes, endNanos);
+        i.previous().onEnd(context, endAttributes, endNanos);
       }
     }
 
-    SpanStatusBuilder spanStatusBuilder = new SpanStatusBuilderImpl(span);
+    SpanStatusBuilder spanStatusBuilder =
+        buffers == null ? new SpanStatusBuilderImpl(span) : buffers.spanStatusBuilder(span);
     spanStatusExtractor.extract(spanStatusBuilder, request, response, error);
 
     if (endTime != null) {
@@ -244,6 +338,31 @@ public class Instrumenter<REQUEST, RESPONSE> {
     }
   }
 
+  private void extractMetricsAttributes(
+      AttributesBuilder attributes,
+      Context context,
+      REQUEST request,
+      @Nullable RESPONSE response,
+      @Nullable Throwable error,
+      Set<AttributeKey<?>> metricsRelevantKeys) {
+    AttributesBuilder filtered = null;
+    for (AttributesExtractor<? super REQUEST, ? super RESPONSE> extractor : attributesExtractors) {
+      if (!(extractor instanceof MetricsRelevantKeysProvider)) {
+        // we don't know which attributes this extractor sets, call it as usual
+        extractor.onEnd(attributes, context, request, response, error);
+      } else if (!operationListeners.isEmpty() && hasMetricsRelevantKeys(extractor)) {
+        if (filtered == null) {
+          filtered = new FilteringAttributesBuilder(attributes, metricsRelevantKeys);
+        }
+        extractor.onEnd(filtered, context, request, response, error);
+      }
+    }
+  }
+
+  private static boolean hasMetricsRelevantKeys(AttributesExtractor<?, ?> extractor) {
+    return !((MetricsRelevantKeysProvider) extractor).internalGetMetricsRelevantKeys().isEmpty();
+  }
+
   private static long getNanos(@Nullable Instant time) {
     if (time == null) {
       return System.nanoTime();
@@ -20,6 +20,8 @@ import io.opentelemetry.context.propagation.TextMapGetter;
 import io.opentelemetry.context.propagation.TextMapSetter;
 import io.opentelemetry.instrumentation.api.internal.ConfigPropertiesUtil;
 import io.opentelemetry.instrumentation.api.internal.EmbeddedInstrumentationProperties;
+import io.opentelemetry.instrumentation.api.internal.InstrumenterBuilderAccess;
+import io.opentelemetry.instrumentation.api.internal.InstrumenterUtil;
 import io.opentelemetry.instrumentation.api.internal.SpanKey;
 import io.opentelemetry.instrumentation.api.internal.SpanKeyProvider;
 import java.util.ArrayList;
@@ -41,6 +43,16 @@ public final class InstrumenterBuilder<REQUEST, RESPONSE> {
       SpanSuppressionStrategy.fromConfig(
           ConfigPropertiesUtil.getString(
               "otel.instrumentation.experimental.span-suppression-strategy"));
+  private static final boolean reuseOperationBuffersDefault =
+      ConfigPropertiesUtil.getBoolean(
+          "otel.instrumentation.experimental.reuse-operation-buffers", false);
+  private static final boolean metricsOnlyWhenNotRecordingDefault =
+      ConfigPropertiesUtil.getBoolean(
+          "otel.instrumentation.experimental.metrics-only-when-not-recording", false);
+
+  static {
+    InstrumenterUtil.setInstrumenterBuilderAccess(new BuilderAccess());
+  }
 
   final OpenTelemetry openTelemetry;
   final String instrumentationName;
@@ -60,6 +72,8 @@ public final class InstrumenterBuilder<REQUEST, RESPONSE> {
       SpanStatusExtractor.getDefault();
   ErrorCauseExtractor errorCauseExtractor = ErrorCauseExtractor.getDefault();
   boolean enabled = true;
+  boolean reuseOperationBuffers = reuseOperationBuffersDefault;
+  boolean metricsOnlyWhenNotRecording = metricsOnlyWhenNotRecordingDefault;
 
   InstrumenterBuilder(
       OpenTelemetry openTelemetry,
@@ -185,6 +199,22 @@ public final class InstrumenterBuilder<REQUEST, RESPONSE> {
     return this;
   }
 
+  // see InstrumenterUtil.setReuseOperationBuffers()
+  @CanIgnoreReturnValue
+  InstrumenterBuilder<REQUEST, RESPONSE> setReuseOperationBuffers(
+      boolean reuseOperationBuffers) {
+    this.reuseOperationBuffers = reuseOperationBuffers;
+    return this;
+  }
+
+  // see InstrumenterUtil.setMetricsOnlyWhenNotRecording()
+  @CanIgnoreReturnValue
+  InstrumenterBuilder<REQUEST, RESPONSE> setMetricsOnlyWhenNotRecording(
+      boolean metricsOnlyWhenNotRecording) {
+    this.metricsOnlyWhenNotRecording = metricsOnlyWhenNotRecording;
+    return this;
+  }
+
   /**
    * Returns a new {@link Instrumenter} which will create {@linkplain SpanKind#CLIENT client} spans
    * and inject context into requests.
@@ -321,4 +351,19 @@ public final class InstrumenterBuilder<REQUEST, RESPONSE> {
       return builder -> new PropagatingFromUpstreamInstrumenter<>(builder, getter);
     }
   }
+
+  private static final class BuilderAccess implements InstrumenterBuilderAccess {
+
+    @Override
+    public void setReuseOperationBuffers(
+        InstrumenterBuilder<?, ?> builder, boolean reuseOperationBuffers) {
+      builder.setReuseOperationBuffers(reuseOperationBuffers);
+    }
+
+    @Override
+    public void setMetricsOnlyWhenNotRecording(
+        InstrumenterBuilder<?, ?> builder, boolean metricsOnlyWhenNotRecording) {
+      builder.setMetricsOnlyWhenNotRecording(metricsOnlyWhenNotRecording);
+    }
+  }
 }
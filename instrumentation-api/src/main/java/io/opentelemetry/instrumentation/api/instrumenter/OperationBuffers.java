@@ -0,0 +1,94 @@
+/*
+ * Copyright The OpenTelemetry Authors
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package io.opentelemetry.instrumentation.api.instrumenter;
+
+import com.google.errorprone.annotations.CanIgnoreReturnValue;
+import io.opentelemetry.api.common.Attributes;
+import io.opentelemetry.api.trace.Span;
+import io.opentelemetry.api.trace.SpanBuilder;
+import io.opentelemetry.api.trace.SpanContext;
+import io.opentelemetry.api.trace.StatusCode;
+import javax.annotation.Nullable;
+
+/**
+ * Per-thread objects reused by an {@link Instrumenter} that was built with {@link
+ * InstrumenterBuilder#setReuseOperationBuffers(boolean)}: the attributes buffer filled during start
+ * and end, and the {@link SpanLinksBuilder} and {@link SpanStatusBuilder} passed to extractors.
+ */
+final class OperationBuffers implements SpanLinksBuilder, SpanStatusBuilder {
+
+  private static final ThreadLocal<OperationBuffers> buffers =
+      ThreadLocal.withInitial(OperationBuffers::new);
+
+  final ReusableAttributes attributes = new ReusableAttributes();
+
+  @Nullable private SpanBuilder spanBuilder;
+  @Nullable private Span span;
+  private boolean inUse;
+
+  /**
+   * Returns the buffers of the current thread, or {@code null} if they are already being used by an
+   * operation that is being started or ended on this thread (e.g. an extractor that calls
+   * instrumented code). Every non-null return value must be passed to {@link #release()}.
+   */
+  @Nullable
+  static OperationBuffers acquire() {
+    OperationBuffers current = buffers.get();
+    if (current.inUse) {
+      return null;
+    }
+    current.inUse = true;
+    return current;
+  }
+
+  void release() {
+    attributes.clear();
+    spanBuilder = null;
+    span = null;
+    inUse = false;
+  }
+
+  SpanLinksBuilder spanLinksBuilder(SpanBuilder spanBuilder) {
+    this.spanBuilder = spanBuilder;
+    return this;
+  }
+
+  SpanStatusBuilder spanStatusBuilder(Span span) {
+    this.span = span;
+    return this;
+  }
+
+  // SpanLinksBuilder
+
+  @Override
+  @CanIgnoreReturnValue
+  public SpanLinksBuilder addLink(SpanContext spanContext) {
+    if (spanBuilder != null) {
+      spanBuilder.addLink(spanContext);
+    }
+    return this;
+  }
+
+  @Override
+  @CanIgnoreReturnValue
+  public SpanLinksBuilder addLink(SpanContext spanContext, Attributes attributes) {
+    if (spanBuilder != null) {
+      spanBuilder.addLink(spanContext, attributes);
+    }
+    return this;
+  }
+
+  // SpanStatusBuilder
+
+  @Override
+  @CanIgnoreReturnValue
+  public SpanStatusBuilder setStatus(StatusCode statusCode, String description) {
+    if (span != null) {
+      span.setStatus(statusCode, description);
+    }
+    return this;
+  }
+}
@@ -0,0 +1,145 @@
+/*
+ * Copyright The OpenTelemetry Authors
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package io.opentelemetry.instrumentation.api.instrumenter;
+
+import com.google.errorprone.annotations.CanIgnoreReturnValue;
+import io.opentelemetry.api.common.AttributeKey;
+import io.opentelemetry.api.common.Attributes;
+import io.opentelemetry.api.common.AttributesBuilder;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.function.BiConsumer;
+import javax.annotation.Nullable;
+
+/**
+ * The {@link AttributesBuilder} and {@link Attributes} used by the instrumentation API when
+ * operation buffers are reused. Unlike {@link UnsafeAttributes}, keys and values are stored next to
+ * each other in a single flat array that is {@linkplain #clear() cleared} and reused for the next
+ * operation, so that filling it does not allocate once the array has grown to fit a typical
+ * operation.
+ *
+ * <p>Because the storage is reused, an instance of this class must never escape the {@link
+ * Instrumenter} call that filled it; {@link #build()} must be used to obtain a copy that can be
+ * retained.
+ */
+final class ReusableAttributes implements Attributes, AttributesBuilder {
+
+  // typical instrumentations set well under 16 attributes per operation phase
+  private static final int INITIAL_CAPACITY = 16;
+  // don't keep arbitrarily large arrays around between operations
+  private static final int MAX_RETAINED_CAPACITY = 128;
+
+  private Object[] data = new Object[INITIAL_CAPACITY * 2];
+  private int size;
+
+  // Attributes
+
+  @Nullable
+  @Override
+  @SuppressWarnings("unchecked")
+  public <T> T get(AttributeKey<T> key) {
+    int index = indexOf(key);
+    return index < 0 ? null : (T) data[index + 1];
+  }
+
+  @Override
+  @SuppressWarnings("unchecked")
+  public void forEach(BiConsumer<? super AttributeKey<?>, ? super Object> action) {
+    for (int i = 0; i < size * 2; i += 2) {
+      action.accept((AttributeKey<?>) data[i], data[i + 1]);
+    }
+  }
+
+  @Override
+  public int size() {
+    return size;
+  }
+
+  @Override
+  public boolean isEmpty() {
+    return size == 0;
+  }
+
+  // This can be called by user code in a RequestListener so copy. In practice, it should not be
+  // called as there is no real use case.
+  @Override
+  public Map<AttributeKey<?>, Object> asMap() {
+    Map<AttributeKey<?>, Object> map = new LinkedHashMap<>();
+    forEach(map::put);
+    return map;
+  }
+
+  @Override
+  public AttributesBuilder toBuilder() {
+    return Attributes.builder().putAll(this);
+  }
+
+  // AttributesBuilder
+
+  // Used by the Instrumenter to hand a stable copy to operation listeners, which may retain it.
+  @Override
+  public Attributes build() {
+    return toBuilder().build();
+  }
+
+  @Override
+  @CanIgnoreReturnValue
+  public <T> AttributesBuilder put(AttributeKey<Long> key, int value) {
+    return put(key, (long) value);
+  }
+
+  @Override
+  @CanIgnoreReturnValue
+  public <T> AttributesBuilder put(AttributeKey<T> key, T value) {
+    if (key == null || value == null) {
+      return this;
+    }
+    int index = indexOf(key);
+    if (index >= 0) {
+      data[index + 1] = value;
+      return this;
+    }
+    if (size * 2 == data.length) {
+      data = Arrays.copyOf(data, data.length * 2);
+    }
+    data[size * 2] = key;
+    data[size * 2 + 1] = value;
+    size++;
+    return this;
+  }
+
+  @Override
+  @CanIgnoreReturnValue
+  public AttributesBuilder putAll(Attributes attributes) {
+    attributes.forEach(this::putUnchecked);
+    return this;
+  }
+
+  @SuppressWarnings("unchecked")
+  private <T> void putUnchecked(AttributeKey<?> key, Object value) {
+    put((AttributeKey<T>) key, (T) value);
+  }
+
+  /** Removes all attributes so that this instance can be used for the next operation. */
+  void clear() {
+    if (data.length > MAX_RETAINED_CAPACITY * 2) {
+      data = new Object[INITIAL_CAPACITY * 2];
+    } else {
+      Arrays.fill(data, 0, size * 2, null);
+    }
+    size = 0;
+  }
+
+  private int indexOf(AttributeKey<?> key) {
+    for (int i = 0; i < size * 2; i += 2) {
+      if (key.equals(data[i])) {
+        return i;
+      }
+    }
+    return -1;
+  }
+}
@@ -0,0 +1,206 @@
+/*
+ * Copyright The OpenTelemetry Authors
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package io.opentelemetry.instrumentation.api.internal;
+
+import static java.util.logging.Level.FINE;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.Consumer;
+import java.util.logging.Logger;
+import javax.annotation.Nullable;
+
+/**
+ * Hands events over from the threads that produce them to a single background thread that
+ * processes them, through a bounded lock-free ring buffer. Producers never block: when the buffer
+ * is full the event is dropped, and counted in the supportability counter named {@code "<name>
+ * dropped"}. Offering an event doesn't allocate, but the events themselves are allocated by the
+ * producers.
+ *
+ * <p>Every event that was accepted by {@link #offer(Object)} is processed, unless {@link
+ * #close(long, TimeUnit)} times out.
+ *
+ * <p>This class is internal and is hence not for public use. Its APIs are unstable and can change
+ * at any time.
+ */
+public final class AsyncEventHandoff<E> {
+
+  private static final Logger logger = Logger.getLogger(AsyncEventHandoff.class.getName());
+
+  // the consumer thread parks for at most this long when it missed a wake up
+  private static final long MAX_PARK_NANOS = TimeUnit.MILLISECONDS.toNanos(100);
+  // the producer index once the consumer thread has stopped, no slot can be claimed anymore
+  private static final long CLOSED = Long.MIN_VALUE;
+
+  private final Consumer<E> processor;
+  private final SupportabilityMetrics.Counter droppedCounter;
+  private final Thread thread;
+
+  private final int mask;
+  private final AtomicReferenceArray<E> buffer;
+  // the sequence of each slot is the index of the next offer that may use it when it is empty, or
+  // that index + 1 when it holds an event
+  private final AtomicLongArray sequences;
+  private final AtomicLong producerIndex = new AtomicLong();
+  // only accessed by the consumer thread
+  private long consumerIndex;
+
+  private volatile boolean consumerParked;
+  private volatile boolean running = true;
+
+  /**
+   * Returns a new {@link AsyncEventHandoff} that passes the events to {@code processor} on a new
+   * daemon thread, buffering up to {@code capacity} (rounded up to a power of two) events.
+   */
+  public static <E> AsyncEventHandoff<E> start(String name, int capacity, Consumer<E> processor) {
+    AsyncEventHandoff<E> handoff = new AsyncEventHandoff<>(name, capacity, processor);
+    handoff.thread.start();
+    return handoff;
+  }
+
+  private AsyncEventHandoff(String name, int capacity, Consumer<E> processor) {
+    if (capacity <= 0) {
+      throw new IllegalArgumentException("capacity must be positive");
+    }
+    int size = Integer.highestOneBit(Math.min(capacity, 1 << 30));
+    if (size < capacity) {
+      size <<= 1;
+    }
+    this.mask = size - 1;
+    this.buffer = new AtomicReferenceArray<>(size);
+    this.sequences = new AtomicLongArray(size);
+    for (int i = 0; i < size; i++) {
+      sequences.set(i, i);
+    }
+    this.processor = processor;
+    this.droppedCounter = SupportabilityMetrics.instance().counter(name + " dropped");
+    this.thread = new Thread(this::run, name);
+    thread.setDaemon(true);
+  }
+
+  /**
+   * Queues the event for processing; returns {@code false} if the event was dropped because the
+   * buffer is full, or because this handoff was closed.
+   */
+  public boolean offer(E event) {
+    if (!running) {
+      droppedCounter.increment();
+      return false;
+    }
+    long index;
+    int slot;
+    while (true) {
+      index = producerIndex.get();
+      if (index == CLOSED) {
+        droppedCounter.increment();
+        return false;
+      }
+      slot = (int) index & mask;
+      long sequence = sequences.get(slot);
+      if (sequence == index) {
+        if (producerIndex.compareAndSet(index, index + 1)) {
+          break;
+        }
+      } else if (sequence < index) {
+        // the slot still holds the event offered one lap ago
+        droppedCounter.increment();
+        return false;
+      }
+      // else another producer claimed the slot first, try the next one
+    }
+    buffer.lazySet(slot, event);
+    // a volatile write, so that it can't be reordered with the read of consumerParked below
+    sequences.set(slot, index + 1);
+    if (consumerParked) {
+      LockSupport.unpark(thread);
+    }
+    return true;
+  }
+
+  /**
+   * Stops accepting events, and waits up to {@code timeout} for the events that are already queued
+   * to be processed.
+   */
+  public void close(long timeout, TimeUnit unit) {
+    running = false;
+    LockSupport.unpark(thread);
+    try {
+      thread.join(unit.toMillis(timeout));
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+    }
+  }
+
+  private void run() {
+    while (true) {
+      E event = poll();
+      if (event != null) {
+        process(event);
+        continue;
+      }
+      if (!running) {
+        drainRemaining();
+        return;
+      }
+      consumerParked = true;
+      // check again after publishing consumerParked, an offer may have missed it
+      if (isEmpty() && running) {
+        LockSupport.parkNanos(this, MAX_PARK_NANOS);
+      }
+      consumerParked = false;
+    }
+  }
+
+  // offers that started before running was cleared may still claim slots: waits until the events
+  // of all claimed slots are published and processes them, then stops further claims
+  private void drainRemaining() {
+    while (true) {
+      E event = poll();
+      if (event != null) {
+        process(event);
+        continue;
+      }
+      long claimed = producerIndex.get();
+      if (claimed == consumerIndex) {
+        if (producerIndex.compareAndSet(claimed, CLOSED)) {
+          return;
+        }
+      } else {
+        // a producer claimed the next slot, but didn't publish its event yet
+        Thread.yield();
+      }
+    }
+  }
+
+  private void process(E event) {
+    try {
+      processor.accept(event);
+    } catch (Throwable t) {
+      logger.log(FINE, "Failed to process event", t);
+    }
+  }
+
+  private boolean isEmpty() {
+    return sequences.get((int) consumerIndex & mask) != consumerIndex + 1;
+  }
+
+  @Nullable
+  private E poll() {
+    int slot = (int) consumerIndex & mask;
+    if (sequences.get(slot) != consumerIndex + 1) {
+      return null;
+    }
+    E event = buffer.get(slot);
+    buffer.lazySet(slot, null);
+    // the slot can be used by the offer one lap later
+    sequences.set(slot, consumerIndex + mask + 1);
+    consumerIndex++;
+    return event;
+  }
+}
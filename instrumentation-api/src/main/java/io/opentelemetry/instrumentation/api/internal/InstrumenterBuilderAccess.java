@@ -0,0 +1,23 @@
+/*
+ * Copyright The OpenTelemetry Authors
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package io.opentelemetry.instrumentation.api.internal;
+
+import io.opentelemetry.instrumentation.api.instrumenter.InstrumenterBuilder;
+
+/**
+ * Gives access to the experimental settings of {@link InstrumenterBuilder} that are not part of
+ * its public API.
+ *
+ * <p>This class is internal and is hence not for public use. Its APIs are unstable and can change
+ * at any time.
+ */
+public interface InstrumenterBuilderAccess {
+
+  void setReuseOperationBuffers(InstrumenterBuilder<?, ?> builder, boolean reuseOperationBuffers);
+
+  void setMetricsOnlyWhenNotRecording(
+      InstrumenterBuilder<?, ?> builder, boolean metricsOnlyWhenNotRecording);
+}
@@ -7,6 +7,7 @@ package io.opentelemetry.instrumentation.api.internal;
 
 import io.opentelemetry.context.Context;
 import io.opentelemetry.instrumentation.api.instrumenter.Instrumenter;
+import io.opentelemetry.instrumentation.api.instrumenter.InstrumenterBuilder;
 import java.lang.reflect.InvocationTargetException;
 import java.lang.reflect.Method;
 import java.time.Instant;
@@ -24,6 +25,8 @@ public final class InstrumenterUtil {
 
   private static final Method startAndEndMethod;
 
+  @Nullable private static InstrumenterBuilderAccess instrumenterBuilderAccess;
+
   static {
     Method method = null;
     try {
@@ -67,5 +70,48 @@ public final class InstrumenterUtil {
     }
   }
 
+  public static void setInstrumenterBuilderAccess(InstrumenterBuilderAccess access) {
+    instrumenterBuilderAccess = access;
+  }
+
+  /**
+   * Sets whether the {@link Instrumenter} should reuse per-thread buffers for the attributes,
+   * {@link io.opentelemetry.instrumentation.api.instrumenter.SpanLinksBuilder} and {@link
+   * io.opentelemetry.instrumentation.api.instrumenter.SpanStatusBuilder} it hands out, instead of
+   * allocating them for every started and ended operation. Disabled by default, unless the {@code
+   * otel.instrumentation.experimental.reuse-operation-buffers} property is set to {@code true}.
+   *
+   * <p>When enabled, the attributes passed to attributes extractors, context customizers and
+   * {@link NonRetainingOperationListener}s and the links and status builders passed to extractors
+   * must not be used after the method they were passed to returns. Other operation listeners
+   * receive a copy of the attributes that is safe to retain.
+   */
+  public static void setReuseOperationBuffers(
+      InstrumenterBuilder<?, ?> builder, boolean reuseOperationBuffers) {
+    InstrumenterBuilderAccess access = instrumenterBuilderAccess;
+    if (access != null) {
+      access.setReuseOperationBuffers(builder, reuseOperationBuffers);
+    }
+  }
+
+  /**
+   * Sets whether the {@link Instrumenter} should only extract the end attributes that operation
+   * listeners (e.g. metrics) need when the span of the operation is not recording, e.g. because it
+   * was not sampled. Disabled by default, unless the {@code
+   * otel.instrumentation.experimental.metrics-only-when-not-recording} property is set to {@code
+   * true}.
+   *
+   * <p>Only attributes extractors that declare the attributes used by metrics are affected; when
+   * enabled, custom operation listeners must not rely on any other attributes that these
+   * extractors set in {@code onEnd()}.
+   */
+  public static void setMetricsOnlyWhenNotRecording(
+      InstrumenterBuilder<?, ?> builder, boolean metricsOnlyWhenNotRecording) {
+    InstrumenterBuilderAccess access = instrumenterBuilderAccess;
+    if (access != null) {
+      access.setMetricsOnlyWhenNotRecording(builder, metricsOnlyWhenNotRecording);
+    }
+  }
+
   private InstrumenterUtil() {}
 }
@@ -0,0 +1,129 @@
+/*
+ * Copyright The OpenTelemetry Authors
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package io.opentelemetry.instrumentation.api.internal;
+
+import io.opentelemetry.api.common.AttributeKey;
+import io.opentelemetry.api.common.Attributes;
+import io.opentelemetry.api.common.AttributesBuilder;
+import java.util.Collection;
+import java.util.Objects;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import javax.annotation.Nullable;
+
+/**
+ * A view that narrows down attributes to a fixed set of keys, meant for reducing operation
+ * attributes to the attributes recorded on metrics.
+ *
+ * <p>The keys are resolved into a fixed slot layout once, when the view is created. Applying the
+ * view looks up every slot directly instead of iterating over all the passed attributes, and the
+ * resulting {@link Attributes} are interned in a small, bounded, lock-free table keyed by the slot
+ * values. Since metric attributes usually form a low cardinality set, most calls return an already
+ * built instance and do not allocate.
+ *
+ * <p>This class is internal and is hence not for public use. Its APIs are unstable and can change
+ * at any time.
+ */
+public final class InterningAttributesView {
+
+  // must be a power of 2
+  private static final int TABLE_SIZE = 256;
+
+  private final AttributeKey<?>[] keys;
+  private final AtomicReferenceArray<Entry> table = new AtomicReferenceArray<>(TABLE_SIZE);
+
+  public static InterningAttributesView create(Collection<? extends AttributeKey<?>> keys) {
+    return new InterningAttributesView(keys.toArray(new AttributeKey<?>[0]));
+  }
+
+  private InterningAttributesView(AttributeKey<?>[] keys) {
+    this.keys = keys;
+  }
+
+  /** Returns the attributes of this view that are present in {@code attributes}. */
+  public Attributes apply(Attributes attributes) {
+    return apply(attributes, Attributes.empty());
+  }
+
+  /**
+   * Returns the attributes of this view that are present in {@code startAttributes} or {@code
+   * endAttributes}. If both contain the same key, the value from {@code endAttributes} is used.
+   */
+  public Attributes apply(Attributes startAttributes, Attributes endAttributes) {
+    int hash = hash(startAttributes, endAttributes);
+    int index = hash & (TABLE_SIZE - 1);
+    // check two neighbouring slots, so that two hot tuples colliding don't keep evicting each other
+    Entry entry = table.get(index);
+    if (entry != null && entry.hash == hash && matches(entry, startAttributes, endAttributes)) {
+      return entry.attributes;
+    }
+    int alternateIndex = index ^ 1;
+    Entry alternate = table.get(alternateIndex);
+    if (alternate != null
+        && alternate.hash == hash
+        && matches(alternate, startAttributes, endAttributes)) {
+      return alternate.attributes;
+    }
+
+    Entry created = createEntry(hash, startAttributes, endAttributes);
+    // racy, but entries are immutable so the worst case is computing the same entry twice
+    table.set(entry == null || alternate != null ? index : alternateIndex, created);
+    return created.attributes;
+  }
+
+  private int hash(Attributes startAttributes, Attributes endAttributes) {
+    int hash = 1;
+    for (AttributeKey<?> key : keys) {
+      hash = 31 * hash + Objects.hashCode(value(key, startAttributes, endAttributes));
+    }
+    return hash;
+  }
+
+  private boolean matches(Entry entry, Attributes startAttributes, Attributes endAttributes) {
+    for (int i = 0; i < keys.length; i++) {
+      if (!Objects.equals(entry.values[i], value(keys[i], startAttributes, endAttributes))) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  private Entry createEntry(int hash, Attributes startAttributes, Attributes endAttributes) {
+    Object[] values = new Object[keys.length];
+    AttributesBuilder builder = Attributes.builder();
+    for (int i = 0; i < keys.length; i++) {
+      Object value = value(keys[i], startAttributes, endAttributes);
+      values[i] = value;
+      if (value != null) {
+        put(builder, keys[i], value);
+      }
+    }
+    return new Entry(hash, values, builder.build());
+  }
+
+  @Nullable
+  private static Object value(
+      AttributeKey<?> key, Attributes startAttributes, Attributes endAttributes) {
+    Object value = endAttributes.get(key);
+    return value != null ? value : startAttributes.get(key);
+  }
+
+  @SuppressWarnings("unchecked")
+  private static <T> void put(AttributesBuilder builder, AttributeKey<T> key, Object value) {
+    builder.put(key, (T) value);
+  }
+
+  private static final class Entry {
+    final int hash;
+    final Object[] values;
+    final Attributes attributes;
+
+    Entry(int hash, Object[] values, Attributes attributes) {
+      this.hash = hash;
+      this.values = values;
+      this.attributes = attributes;
+    }
+  }
+}
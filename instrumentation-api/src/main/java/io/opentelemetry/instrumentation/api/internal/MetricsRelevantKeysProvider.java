@@ -0,0 +1,25 @@
+/*
+ * Copyright The OpenTelemetry Authors
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package io.opentelemetry.instrumentation.api.internal;
+
+import io.opentelemetry.api.common.AttributeKey;
+import io.opentelemetry.instrumentation.api.instrumenter.AttributesExtractor;
+import io.opentelemetry.instrumentation.api.instrumenter.OperationListener;
+import java.util.Set;
+
+/**
+ * Returns the keys of the attributes set by the {@link AttributesExtractor} that implements this
+ * interface that {@link OperationListener}s (e.g. metrics) may read. When the span is not
+ * recording, the end attributes of the extractor are narrowed down to these keys, and extractors
+ * that return an empty set are not called at all.
+ *
+ * <p>This class is internal and is hence not for public use. Its APIs are unstable and can change
+ * at any time.
+ */
+public interface MetricsRelevantKeysProvider {
+
+  Set<AttributeKey<?>> internalGetMetricsRelevantKeys();
+}
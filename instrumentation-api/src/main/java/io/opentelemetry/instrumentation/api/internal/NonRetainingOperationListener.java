@@ -0,0 +1,20 @@
+/*
+ * Copyright The OpenTelemetry Authors
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package io.opentelemetry.instrumentation.api.internal;
+
+import io.opentelemetry.api.common.Attributes;
+import io.opentelemetry.instrumentation.api.instrumenter.OperationListener;
+
+/**
+ * An {@link OperationListener} that doesn't keep any reference to the {@link Attributes} passed to
+ * {@link #onStart} and {@link #onEnd} once these methods return. An {@link
+ * io.opentelemetry.instrumentation.api.instrumenter.Instrumenter} that reuses its operation
+ * buffers passes them to such listeners as they are, instead of a copy.
+ *
+ * <p>This class is internal and is hence not for public use. Its APIs are unstable and can change
+ * at any time.
+ */
+public interface NonRetainingOperationListener extends OperationListener {}
@@ -0,0 +1,40 @@
+/*
+ * Copyright The OpenTelemetry Authors
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package io.opentelemetry.instrumentation.api.internal;
+
+import io.opentelemetry.api.common.AttributeKey;
+import io.opentelemetry.instrumentation.api.internal.cache.Cache;
+import java.util.function.Function;
+
+/**
+ * A bounded cache of the string {@link AttributeKey}s that are made of a fixed prefix and a key
+ * name, e.g. the {@code logback.mdc.<key>} attributes that log appenders capture from the MDC of
+ * every log event. The log appender mappers share it instead of each repeating the same {@link
+ * Cache#bounded(int)} lookup.
+ *
+ * <p>This class is internal and is hence not for public use. Its APIs are unstable and can change
+ * at any time.
+ */
+public final class PrefixedAttributeKeys {
+
+  private static final int MAX_SIZE = 100;
+
+  private final Cache<String, AttributeKey<String>> cache = Cache.bounded(MAX_SIZE);
+  private final Function<String, AttributeKey<String>> keyFactory;
+
+  public static PrefixedAttributeKeys create(String prefix) {
+    return new PrefixedAttributeKeys(prefix);
+  }
+
+  private PrefixedAttributeKeys(String prefix) {
+    keyFactory = name -> AttributeKey.stringKey(prefix + name);
+  }
+
+  /** Returns the attribute key made of the prefix followed by {@code name}. */
+  public AttributeKey<String> get(String name) {
+    return cache.computeIfAbsent(name, keyFactory);
+  }
+}
@@ -0,0 +1,69 @@
+/*
+ * Copyright The OpenTelemetry Authors
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package io.opentelemetry.instrumentation.api.internal;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import javax.annotation.Nullable;
+
+/**
+ * A monotonic counter that only spreads over several cells once it sees contention, similar to
+ * {@code java.util.concurrent.atomic.LongAdder} which is not available on all the platforms this
+ * library supports. Uncontended counters cost a single {@link AtomicLong}.
+ */
+final class StripedCounter {
+
+  private static final int MAX_STRIPES = 16;
+  // 8 longs (64 bytes) between used cells, so that two stripes never share a cache line
+  private static final int PADDING = 8;
+  private static final int STRIPES =
+      Math.min(MAX_STRIPES, ceilingPowerOfTwo(Runtime.getRuntime().availableProcessors()));
+
+  private final AtomicLong base = new AtomicLong();
+  @Nullable private volatile AtomicLongArray cells;
+
+  void increment() {
+    AtomicLongArray currentCells = cells;
+    if (currentCells == null) {
+      long current = base.get();
+      if (base.compareAndSet(current, current + 1)) {
+        return;
+      }
+      currentCells = inflate();
+    }
+    currentCells.getAndIncrement(stripe() * PADDING);
+  }
+
+  long sum() {
+    long sum = base.get();
+    AtomicLongArray currentCells = cells;
+    if (currentCells != null) {
+      for (int i = 0; i < currentCells.length(); i += PADDING) {
+        sum += currentCells.get(i);
+      }
+    }
+    return sum;
+  }
+
+  private synchronized AtomicLongArray inflate() {
+    AtomicLongArray currentCells = cells;
+    if (currentCells == null) {
+      currentCells = new AtomicLongArray(STRIPES * PADDING);
+      cells = currentCells;
+    }
+    return currentCells;
+  }
+
+  private static int stripe() {
+    long id = Thread.currentThread().getId();
+    int hash = (int) (id ^ (id >>> 32)) * 0x9E3779B9;
+    return (hash >>> 16) & (STRIPES - 1);
+  }
+
+  private static int ceilingPowerOfTwo(int value) {
+    return value <= 1 ? 1 : Integer.highestOneBit(value - 1) << 1;
+  }
+}
@@ -5,27 +5,49 @@
 
 package io.opentelemetry.instrumentation.api.internal;
 
+import static io.opentelemetry.api.common.AttributeKey.stringKey;
+
+import io.opentelemetry.api.common.AttributeKey;
+import io.opentelemetry.api.common.Attributes;
+import io.opentelemetry.api.metrics.Meter;
+import io.opentelemetry.api.metrics.ObservableLongMeasurement;
 import io.opentelemetry.api.trace.SpanKind;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ConcurrentMap;
 import java.util.concurrent.Executors;
 import java.util.concurrent.ScheduledExecutorService;
 import java.util.concurrent.TimeUnit;
-import java.util.concurrent.atomic.AtomicLong;
 import java.util.function.Consumer;
 import java.util.logging.Logger;
 
 /**
- * This class is internal and is hence not for public use. Its APIs are unstable and can change at
- * any time.
+ * Counters describing the behavior of the instrumentation itself, e.g. how many spans were
+ * suppressed or how well internal caches perform.
+ *
+ * <p>Nothing is counted unless the agent debug mode is on, in which case the counters are logged
+ * every 5 seconds, or {@link #registerMetrics(Meter)} was called, in which case the counters are
+ * exported as asynchronous metrics. Instrumentation that records often should resolve its {@link
+ * Counter} or {@link SuppressedSpanCounters} once and keep it, so that recording is a single
+ * striped increment with no map lookup.
+ *
+ * <p>This class is internal and is hence not for public use. Its APIs are unstable and can change
+ * at any time.
  */
 public final class SupportabilityMetrics {
   private static final Logger logger = Logger.getLogger(SupportabilityMetrics.class.getName());
+
+  private static final AttributeKey<String> INSTRUMENTATION_NAME =
+      stringKey("instrumentation.name");
+  private static final AttributeKey<String> SPAN_KIND = stringKey("span.kind");
+  private static final AttributeKey<String> COUNTER_NAME = stringKey("counter.name");
+
   private final boolean agentDebugEnabled;
   private final Consumer<String> reporter;
+  private volatile boolean metricsEnabled;
 
-  private final ConcurrentMap<String, KindCounters> suppressionCounters = new ConcurrentHashMap<>();
-  private final ConcurrentMap<String, AtomicLong> counters = new ConcurrentHashMap<>();
+  private final ConcurrentMap<String, SuppressedSpanCounters> suppressionCounters =
+      new ConcurrentHashMap<>();
+  private final ConcurrentMap<String, Counter> counters = new ConcurrentHashMap<>();
 
   private static final SupportabilityMetrics INSTANCE =
       new SupportabilityMetrics(
@@ -42,39 +64,74 @@ public final class SupportabilityMetrics {
     this.reporter = reporter;
   }
 
+  /** Returns the counters of spans suppressed by the given instrumentation. */
+  public SuppressedSpanCounters suppressedSpanCounters(String instrumentationName) {
+    return suppressionCounters.computeIfAbsent(
+        instrumentationName, name -> new SuppressedSpanCounters(this, name));
+  }
+
+  /** Returns the counter with the given name. */
+  public Counter counter(String counterName) {
+    return counters.computeIfAbsent(
+        counterName, name -> new Counter(this, Attributes.of(COUNTER_NAME, name)));
+  }
+
   public void recordSuppressedSpan(SpanKind kind, String instrumentationName) {
-    if (!agentDebugEnabled) {
+    if (!isEnabled()) {
       return;
     }
 
-    suppressionCounters
-        .computeIfAbsent(instrumentationName, s -> new KindCounters())
-        .increment(kind);
+    suppressedSpanCounters(instrumentationName).record(kind);
   }
 
   public void incrementCounter(String counterName) {
-    if (!agentDebugEnabled) {
+    if (!isEnabled()) {
       return;
     }
 
-    counters.computeIfAbsent(counterName, k -> new AtomicLong()).incrementAndGet();
+    counter(counterName).increment();
   }
 
-  // visible for testing
+  /**
+   * Starts counting and exports the counters through the given {@link Meter}. The counters are only
+   * read when the metrics are collected.
+   */
+  public synchronized void registerMetrics(Meter meter) {
+    if (metricsEnabled) {
+      return;
+    }
+    meter
+        .counterBuilder("otel.javaagent.suppressed_spans")
+        .setUnit("{spans}")
+        .setDescription("The number of spans that were suppressed by the instrumentation")
+        .buildWithCallback(
+            measurement -> {
+              for (SuppressedSpanCounters kindCounters : suppressionCounters.values()) {
+                kindCounters.observe(measurement);
+              }
+            });
+    meter
+        .counterBuilder("otel.javaagent.supportability_counter")
+        .setDescription("Internal counters of the instrumentation, e.g. cache hits and misses")
+        .buildWithCallback(
+            measurement -> {
+              for (Counter counter : counters.values()) {
+                counter.observe(measurement);
+              }
+            });
+    metricsEnabled = true;
+  }
+
+  private boolean isEnabled() {
+    return agentDebugEnabled || metricsEnabled;
+  }
+
+  // visible for testing, only ever called by a single thread
   void report() {
-    suppressionCounters.forEach(
-        (instrumentationName, countsByKind) -> {
-          for (SpanKind kind : SpanKind.values()) {
-            long value = countsByKind.getAndReset(kind);
-            if (value > 0) {
-              reporter.accept(
-                  "Suppressed Spans by '" + instrumentationName + "' (" + kind + ") : " + value);
-            }
-          }
-        });
+    suppressionCounters.values().forEach(kindCounters -> kindCounters.report(reporter));
     counters.forEach(
         (counterName, counter) -> {
-          long value = counter.getAndSet(0);
+          long value = counter.unreported();
           if (value > 0) {
             reporter.accept("Counter '" + counterName + "' : " + value);
           }
@@ -112,54 +169,97 @@ public final class SupportabilityMetrics {
    * any time.
    */
   public static final class CounterNames {
+    public static final String SQL_STATEMENT_SANITIZER_CACHE = "SqlStatementSanitizer";
+    public static final String SQL_STATEMENT_SANITIZER_CACHE_HIT =
+        SQL_STATEMENT_SANITIZER_CACHE + " cache hit";
     public static final String SQL_STATEMENT_SANITIZER_CACHE_MISS =
-        "SqlStatementSanitizer cache miss";
+        SQL_STATEMENT_SANITIZER_CACHE + " cache miss";
+    public static final String SQL_STATEMENT_SANITIZER_CACHE_EVICTION =
+        SQL_STATEMENT_SANITIZER_CACHE + " cache eviction";
 
     private CounterNames() {}
   }
 
-  // this class is threadsafe.
-  private static class KindCounters {
-    private final AtomicLong server = new AtomicLong();
-    private final AtomicLong client = new AtomicLong();
-    private final AtomicLong internal = new AtomicLong();
-    private final AtomicLong consumer = new AtomicLong();
-    private final AtomicLong producer = new AtomicLong();
-
-    void increment(SpanKind kind) {
-      switch (kind) {
-        case INTERNAL:
-          internal.incrementAndGet();
-          break;
-        case SERVER:
-          server.incrementAndGet();
-          break;
-        case CLIENT:
-          client.incrementAndGet();
-          break;
-        case PRODUCER:
-          producer.incrementAndGet();
-          break;
-        case CONSUMER:
-          consumer.incrementAndGet();
-          break;
+  /**
+   * A single counter, see {@link SupportabilityMetrics#counter(String)}.
+   *
+   * <p>This class is internal and is hence not for public use. Its APIs are unstable and can change
+   * at any time.
+   */
+  public static final class Counter {
+    private final SupportabilityMetrics owner;
+    private final Attributes attributes;
+    private final StripedCounter count = new StripedCounter();
+    // only accessed by the reporter
+    private long reported;
+
+    private Counter(SupportabilityMetrics owner, Attributes attributes) {
+      this.owner = owner;
+      this.attributes = attributes;
+    }
+
+    public void increment() {
+      if (owner.isEnabled()) {
+        count.increment();
+      }
+    }
+
+    private void observe(ObservableLongMeasurement measurement) {
+      long value = count.sum();
+      if (value > 0) {
+        measurement.record(value, attributes);
+      }
+    }
+
+    private long unreported() {
+      long total = count.sum();
+      long value = total - reported;
+      reported = total;
+      return value;
+    }
+  }
+
+  /**
+   * The counters of spans suppressed by a single instrumentation, one per {@link SpanKind}, see
+   * {@link SupportabilityMetrics#suppressedSpanCounters(String)}.
+   *
+   * <p>This class is internal and is hence not for public use. Its APIs are unstable and can change
+   * at any time.
+   */
+  public static final class SuppressedSpanCounters {
+    private static final SpanKind[] SPAN_KINDS = SpanKind.values();
+
+    private final String instrumentationName;
+    private final Counter[] countersByKind = new Counter[SPAN_KINDS.length];
+
+    private SuppressedSpanCounters(SupportabilityMetrics owner, String instrumentationName) {
+      this.instrumentationName = instrumentationName;
+      for (SpanKind kind : SPAN_KINDS) {
+        countersByKind[kind.ordinal()] =
+            new Counter(
+                owner,
+                Attributes.of(INSTRUMENTATION_NAME, instrumentationName, SPAN_KIND, kind.name()));
+      }
+    }
+
+    public void record(SpanKind kind) {
+      countersByKind[kind.ordinal()].increment();
+    }
+
+    private void observe(ObservableLongMeasurement measurement) {
+      for (Counter counter : countersByKind) {
+        counter.observe(measurement);
       }
     }
 
-    long getAndReset(SpanKind kind) {
-      switch (kind) {
-        case INTERNAL:
-          return internal.getAndSet(0);
-        case SERVER:
-          return server.getAndSet(0);
-        case CLIENT:
-          return client.getAndSet(0);
-        case PRODUCER:
-          return producer.getAndSet(0);
-        case CONSUMER:
-          return consumer.getAndSet(0);
+    private void report(Consumer<String> reporter) {
+      for (SpanKind kind : SPAN_KINDS) {
+        long value = countersByKind[kind.ordinal()].unreported();
+        if (value > 0) {
+          reporter.accept(
+              "Suppressed Spans by '" + instrumentationName + "' (" + kind + ") : " + value);
+        }
       }
-      return 0;
     }
   }
 }
@@ -38,6 +38,20 @@ public interface Cache<K, V> {
     return new MapBackedCache<>(map);
   }
 
+  /**
+   * Returns new bounded cache that is split into independently locked shards and keeps the entries
+   * that are requested most frequently, so that lookups never contend on a shared lock or LRU
+   * queue. Prefer it over {@link #bounded(int)} for caches that are hit on every request by many
+   * threads and that may see many more distinct keys than their capacity.
+   *
+   * <p>Both keys and values are strongly referenced. Hits, misses and evictions are reported as
+   * {@code "<name> cache hit"}, {@code "<name> cache miss"} and {@code "<name> cache eviction"}
+   * supportability counters.
+   */
+  static <K, V> Cache<K, V> sharded(String name, int capacity) {
+    return new ShardedTinyLfuCache<>(name, capacity);
+  }
+
   /**
    * Returns the cached value associated with the provided {@code key}. If no value is cached yet,
    * computes the value using {@code mappingFunction}, stores the result, and returns it.
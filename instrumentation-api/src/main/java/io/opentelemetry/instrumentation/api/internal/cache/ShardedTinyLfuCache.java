@@ -0,0 +1,382 @@
+/*
+ * Copyright The OpenTelemetry Authors
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package io.opentelemetry.instrumentation.api.internal.cache;
+
+import io.opentelemetry.instrumentation.api.internal.SupportabilityMetrics;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Function;
+import javax.annotation.Nullable;
+
+/**
+ * A bounded cache that is split into independent shards and decides which entries to keep based on
+ * how often their keys are requested, loosely following the W-TinyLFU policy.
+ *
+ * <p>Lookups only read a {@link ConcurrentHashMap} and record the hit in a small read buffer picked
+ * by the current thread, they never wait for a lock or touch a shared LRU queue. Like in Caffeine,
+ * the read buffers are lossy: a hit is dropped when its buffer is full, and the buffers are drained
+ * into the frequency sketch of the shard while holding the shard lock, by the reader that fills a
+ * buffer if the lock is free and before every insert.
+ *
+ * <p>Inserts lock a single shard: every new entry lands in a small FIFO window, and entries leaving
+ * the window are only admitted into the main region if their key was requested more often than the
+ * entry they would replace. This keeps frequently used entries around when the cache is swept by a
+ * large number of one-off keys.
+ *
+ * <p>Values may be computed more than once if several threads miss on the same key concurrently.
+ */
+final class ShardedTinyLfuCache<K, V> implements Cache<K, V> {
+
+  private static final int MAX_SHARDS = 64;
+  private static final int MIN_SHARD_CAPACITY = 16;
+  private static final int READ_BUFFERS =
+      Math.min(4, ceilingPowerOfTwo(Runtime.getRuntime().availableProcessors()));
+
+  private final Shard<K, V>[] shards;
+  private final int shardShift;
+  private final SupportabilityMetrics.Counter hitCounter;
+  private final SupportabilityMetrics.Counter missCounter;
+  private final SupportabilityMetrics.Counter evictionCounter;
+
+  @SuppressWarnings({"unchecked", "rawtypes"})
+  ShardedTinyLfuCache(String name, int capacity) {
+    int shardCount =
+        Math.min(
+            Math.min(MAX_SHARDS, ceilingPowerOfTwo(Runtime.getRuntime().availableProcessors())),
+            Integer.highestOneBit(Math.max(1, capacity / MIN_SHARD_CAPACITY)));
+    int shardCapacity = Math.max(2, (capacity + shardCount - 1) / shardCount);
+    shards = new Shard[shardCount];
+    for (int i = 0; i < shardCount; i++) {
+      shards[i] = new Shard<>(shardCapacity);
+    }
+    shardShift = 32 - Integer.numberOfTrailingZeros(shardCount);
+    SupportabilityMetrics supportability = SupportabilityMetrics.instance();
+    hitCounter = supportability.counter(name + " cache hit");
+    missCounter = supportability.counter(name + " cache miss");
+    evictionCounter = supportability.counter(name + " cache eviction");
+  }
+
+  @Override
+  public V computeIfAbsent(K key, Function<? super K, ? extends V> mappingFunction) {
+    int hash = hash(key);
+    Shard<K, V> shard = shardFor(hash);
+    V value = shard.get(key, hash);
+    if (value != null) {
+      hitCounter.increment();
+      return value;
+    }
+    missCounter.increment();
+    value = mappingFunction.apply(key);
+    if (shard.put(key, value, hash)) {
+      evictionCounter.increment();
+    }
+    return value;
+  }
+
+  @Nullable
+  @Override
+  public V get(K key) {
+    int hash = hash(key);
+    return shardFor(hash).get(key, hash);
+  }
+
+  @Override
+  public void put(K key, V value) {
+    int hash = hash(key);
+    if (shardFor(hash).put(key, value, hash)) {
+      evictionCounter.increment();
+    }
+  }
+
+  @Override
+  public void remove(K key) {
+    int hash = hash(key);
+    shardFor(hash).remove(key);
+  }
+
+  // Visible for tests
+  int size() {
+    int size = 0;
+    for (Shard<K, V> shard : shards) {
+      size += shard.map.size();
+    }
+    return size;
+  }
+
+  private Shard<K, V> shardFor(int hash) {
+    // use the high bits for picking the shard, the frequency sketch uses the low ones
+    return shardShift == 32 ? shards[0] : shards[(hash * 0x9E3779B9) >>> shardShift];
+  }
+
+  private static int hash(Object key) {
+    int h = key.hashCode();
+    return h ^ (h >>> 16);
+  }
+
+  private static int ceilingPowerOfTwo(int value) {
+    return value <= 1 ? 1 : Integer.highestOneBit(value - 1) << 1;
+  }
+
+  private static final class Shard<K, V> {
+    final ConcurrentHashMap<K, Node<K, V>> map = new ConcurrentHashMap<>();
+    private final ReadBuffer[] readBuffers = new ReadBuffer[READ_BUFFERS];
+    private final ReentrantLock lock = new ReentrantLock();
+    // guarded by lock
+    private final FrequencySketch sketch;
+    private final Node<K, V>[] window;
+    private final Node<K, V>[] main;
+    private int windowHand;
+    private int mainHand;
+
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    Shard(int capacity) {
+      // W-TinyLFU uses a window of roughly 1% of the capacity
+      int windowCapacity = Math.max(1, capacity / 100);
+      window = new Node[windowCapacity];
+      main = new Node[Math.max(1, capacity - windowCapacity)];
+      sketch = new FrequencySketch(capacity);
+      for (int i = 0; i < readBuffers.length; i++) {
+        readBuffers[i] = new ReadBuffer();
+      }
+    }
+
+    @Nullable
+    V get(K key, int hash) {
+      Node<K, V> node = map.get(key);
+      if (node == null) {
+        return null;
+      }
+      // benign race, this is only a hint for picking eviction victims
+      node.referenced = true;
+      if (readBuffers[readBufferIndex()].offer(node)) {
+        tryDrainReadBuffers();
+      }
+      return node.value;
+    }
+
+    // returns whether an entry was evicted
+    boolean put(K key, V value, int hash) {
+      lock.lock();
+      try {
+        drainReadBuffers();
+        // misses are counted when the missing value is put
+        sketch.increment(hash);
+        Node<K, V> existing = map.get(key);
+        if (existing != null) {
+          existing.value = value;
+          return false;
+        }
+        Node<K, V> node = new Node<>(key, value, hash);
+        map.put(key, node);
+
+        Node<K, V> candidate = window[windowHand];
+        node.inWindow = true;
+        node.slot = windowHand;
+        window[windowHand] = node;
+        windowHand = (windowHand + 1) % window.length;
+        return candidate != null && admitToMain(candidate);
+      } finally {
+        lock.unlock();
+      }
+    }
+
+    void remove(K key) {
+      lock.lock();
+      try {
+        Node<K, V> node = map.remove(key);
+        if (node == null) {
+          return;
+        }
+        Node<K, V>[] region = node.inWindow ? window : main;
+        if (region[node.slot] == node) {
+          region[node.slot] = null;
+        }
+      } finally {
+        lock.unlock();
+      }
+    }
+
+    private static int readBufferIndex() {
+      return ((int) Thread.currentThread().getId()) & (READ_BUFFERS - 1);
+    }
+
+    private void tryDrainReadBuffers() {
+      // when another thread holds the lock the buffer stays full and drops hits until it is drained
+      if (lock.tryLock()) {
+        try {
+          drainReadBuffers();
+        } finally {
+          lock.unlock();
+        }
+      }
+    }
+
+    // guarded by lock
+    private void drainReadBuffers() {
+      for (ReadBuffer readBuffer : readBuffers) {
+        readBuffer.drainTo(sketch);
+      }
+    }
+
+    // guarded by lock, returns whether an entry was evicted
+    private boolean admitToMain(Node<K, V> candidate) {
+      Node<K, V> victim = null;
+      // second chance for entries that were read since the hand last passed them
+      for (int i = 0; i < main.length * 2; i++) {
+        Node<K, V> current = main[mainHand];
+        if (current == null) {
+          placeInMain(candidate);
+          return false;
+        }
+        if (!current.referenced) {
+          victim = current;
+          break;
+        }
+        current.referenced = false;
+        mainHand = (mainHand + 1) % main.length;
+      }
+      if (victim == null) {
+        victim = main[mainHand];
+      }
+
+      if (sketch.frequency(candidate.hash) > sketch.frequency(victim.hash)) {
+        map.remove(victim.key, victim);
+        placeInMain(candidate);
+      } else {
+        map.remove(candidate.key, candidate);
+        mainHand = (mainHand + 1) % main.length;
+      }
+      return true;
+    }
+
+    private void placeInMain(Node<K, V> node) {
+      node.inWindow = false;
+      node.slot = mainHand;
+      main[mainHand] = node;
+      mainHand = (mainHand + 1) % main.length;
+    }
+  }
+
+  private static final class Node<K, V> {
+    final K key;
+    final int hash;
+    volatile V value;
+    boolean referenced;
+    // guarded by the shard
+    boolean inWindow;
+    int slot;
+
+    Node(K key, V value, int hash) {
+      this.key = key;
+      this.value = value;
+      this.hash = hash;
+    }
+  }
+
+  /**
+   * A bounded, lossy buffer of the nodes that were read from a shard. Readers claim a slot with a
+   * single compare and set and give up when it fails or when the buffer is full, the shard lock
+   * holder drains the buffer and stops at slots that were claimed but not written yet.
+   */
+  private static final class ReadBuffer {
+    private static final int SIZE = 16;
+
+    private final AtomicReferenceArray<Node<?, ?>> nodes = new AtomicReferenceArray<>(SIZE);
+    private final AtomicLong writeCount = new AtomicLong();
+    // only written while holding the shard lock
+    private volatile long readCount;
+
+    // returns whether the buffer is full and should be drained
+    boolean offer(Node<?, ?> node) {
+      long head = readCount;
+      long tail = writeCount.get();
+      long size = tail - head;
+      if (size >= SIZE) {
+        return true;
+      }
+      if (writeCount.compareAndSet(tail, tail + 1)) {
+        nodes.lazySet((int) (tail & (SIZE - 1)), node);
+        return size + 1 >= SIZE;
+      }
+      return false;
+    }
+
+    // guarded by the shard lock
+    void drainTo(FrequencySketch sketch) {
+      long head = readCount;
+      long tail = writeCount.get();
+      for (; head < tail; head++) {
+        int index = (int) (head & (SIZE - 1));
+        Node<?, ?> node = nodes.get(index);
+        if (node == null) {
+          break;
+        }
+        nodes.lazySet(index, null);
+        sketch.increment(node.hash);
+      }
+      readCount = head;
+    }
+  }
+
+  /**
+   * A count-min sketch of 4 bit counters that estimates how often a key was requested. The
+   * counters are halved periodically so that old popularity fades away. Only used while holding
+   * the shard lock.
+   */
+  private static final class FrequencySketch {
+    private static final int[] SEEDS = {0x97cb3127, 0x2f4c8b1d, 0x5a3c9e61, 0xe7b1a4f3};
+    private static final int MAX_COUNT = 15;
+
+    private final byte[] table;
+    private final int mask;
+    private final int sampleSize;
+    private int additions;
+
+    FrequencySketch(int capacity) {
+      int width = ceilingPowerOfTwo(Math.max(16, capacity * 4));
+      table = new byte[width];
+      mask = width - 1;
+      sampleSize = width * 10;
+    }
+
+    void increment(int hash) {
+      boolean added = false;
+      for (int seed : SEEDS) {
+        int index = indexOf(hash, seed);
+        if (table[index] < MAX_COUNT) {
+          table[index]++;
+          added = true;
+        }
+      }
+      if (added && ++additions >= sampleSize) {
+        reset();
+      }
+    }
+
+    int frequency(int hash) {
+      int frequency = MAX_COUNT;
+      for (int seed : SEEDS) {
+        frequency = Math.min(frequency, table[indexOf(hash, seed)]);
+      }
+      return frequency;
+    }
+
+    private void reset() {
+      for (int i = 0; i < table.length; i++) {
+        table[i] = (byte) (table[i] >>> 1);
+      }
+      additions = additions / 2;
+    }
+
+    private int indexOf(int hash, int seed) {
+      int h = hash * seed;
+      h += h >>> 16;
+      return h & mask;
+    }
+  }
+}
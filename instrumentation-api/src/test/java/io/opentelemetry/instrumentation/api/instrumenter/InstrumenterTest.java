@@ -10,12 +10,14 @@ import static io.opentelemetry.sdk.testing.assertj.OpenTelemetryAssertions.attri
 import static org.assertj.core.api.Assertions.entry;
 import static org.mockito.Mockito.when;
 
+import io.opentelemetry.api.common.AttributeKey;
 import io.opentelemetry.api.common.Attributes;
 import io.opentelemetry.api.common.AttributesBuilder;
 import io.opentelemetry.api.trace.Span;
 import io.opentelemetry.api.trace.SpanContext;
 import io.opentelemetry.api.trace.SpanId;
 import io.opentelemetry.api.trace.SpanKind;
+import io.opentelemetry.api.trace.StatusCode;
 import io.opentelemetry.api.trace.TraceFlags;
 import io.opentelemetry.api.trace.TraceId;
 import io.opentelemetry.api.trace.TraceState;
@@ -23,15 +25,21 @@ import io.opentelemetry.api.trace.propagation.W3CTraceContextPropagator;
 import io.opentelemetry.context.Context;
 import io.opentelemetry.context.ContextKey;
 import io.opentelemetry.context.propagation.TextMapGetter;
+import io.opentelemetry.instrumentation.api.internal.InstrumenterUtil;
+import io.opentelemetry.instrumentation.api.internal.MetricsRelevantKeysProvider;
+import io.opentelemetry.instrumentation.api.internal.NonRetainingOperationListener;
 import io.opentelemetry.instrumentation.api.internal.SpanKey;
 import io.opentelemetry.instrumentation.api.internal.SpanKeyProvider;
 import io.opentelemetry.sdk.common.InstrumentationScopeInfo;
 import io.opentelemetry.sdk.testing.junit5.OpenTelemetryExtension;
 import io.opentelemetry.sdk.trace.data.LinkData;
 import io.opentelemetry.sdk.trace.data.StatusData;
+import java.util.Arrays;
 import java.util.Collections;
 import java.util.HashMap;
+import java.util.HashSet;
 import java.util.Map;
+import java.util.Set;
 import java.util.concurrent.atomic.AtomicReference;
 import java.util.stream.Collectors;
 import java.util.stream.Stream;
@@ -111,6 +119,40 @@ class InstrumenterTest {
     }
   }
 
+  static class MetricsAttributesExtractor
+      implements AttributesExtractor<Map<String, String>, Map<String, String>>,
+          MetricsRelevantKeysProvider {
+
+    private final Set<AttributeKey<?>> metricsKeys;
+
+    MetricsAttributesExtractor(AttributeKey<?>... metricsKeys) {
+      this.metricsKeys = new HashSet<>(Arrays.asList(metricsKeys));
+    }
+
+    @Override
+    public void onStart(
+        AttributesBuilder attributes, Context parentContext, Map<String, String> request) {}
+
+    @Override
+    public void onEnd(
+        AttributesBuilder attributes,
+        Context context,
+        Map<String, String> request,
+        Map<String, String> response,
+        @Nullable Throwable error) {
+      if (metricsKeys.isEmpty()) {
+        throw new AssertionError("should not be called when the span is not recording");
+      }
+      attributes.put("resp1", response.get("resp1"));
+      attributes.put("resp2", response.get("resp2"));
+    }
+
+    @Override
+    public Set<AttributeKey<?>> internalGetMetricsRelevantKeys() {
+      return metricsKeys;
+    }
+  }
+
   static class LinksExtractor implements SpanLinksExtractor<Map<String, String>> {
 
     @Override
@@ -430,6 +472,179 @@ class InstrumenterTest {
     assertThat(Span.fromContext(endContext.get()).getSpanContext().isValid()).isTrue();
   }
 
+  @Test
+  void server_reuseOperationBuffers() {
+    AtomicReference<Attributes> retainedStartAttributes = new AtomicReference<>();
+    AtomicReference<Attributes> retainedEndAttributes = new AtomicReference<>();
+
+    OperationListener operationListener =
+        new OperationListener() {
+          @Override
+          public Context onStart(Context context, Attributes startAttributes, long startNanos) {
+            retainedStartAttributes.set(startAttributes);
+            return context;
+          }
+
+          @Override
+          public void onEnd(Context context, Attributes endAttributes, long endNanos) {
+            retainedEndAttributes.set(endAttributes);
+          }
+        };
+
+    Instrumenter<Map<String, String>, Map<String, String>> instrumenter =
+        Instrumenter.<Map<String, String>, Map<String, String>>builder(
+                otelTesting.getOpenTelemetry(), "test", unused -> "span")
+            .addAttributesExtractor(new AttributesExtractor1())
+            .addAttributesExtractor(new AttributesExtractor2())
+            .addSpanLinksExtractor(new LinksExtractor())
+            .addOperationListener(operationListener)
+            .setSpanStatusExtractor(
+                (spanStatusBuilder, request, response, error) ->
+                    spanStatusBuilder.setStatus(StatusCode.OK))
+            .setReuseOperationBuffers(true)
+            .buildServerInstrumenter(new MapGetter());
+
+    Context context = instrumenter.start(Context.root(), REQUEST);
+    SpanContext spanContext = Span.fromContext(context).getSpanContext();
+    assertThat(spanContext.isValid()).isTrue();
+
+    instrumenter.end(context, REQUEST, RESPONSE, null);
+
+    // the attributes handed to operation listeners must not be affected by buffer reuse
+    assertThat(retainedStartAttributes.get())
+        .containsOnly(
+            attributeEntry("req1", "req1_value"),
+            attributeEntry("req2", "req2_2_value"),
+            attributeEntry("req3", "req3_value"));
+    assertThat(retainedEndAttributes.get())
+        .containsOnly(
+            attributeEntry("resp1", "resp1_value"),
+            attributeEntry("resp2", "resp2_2_value"),
+            attributeEntry("resp3", "resp3_value"));
+
+    otelTesting
+        .assertTraces()
+        .hasTracesSatisfyingExactly(
+            trace ->
+                trace.hasSpansSatisfyingExactly(
+                    span ->
+                        span.hasName("span")
+                            .hasKind(SpanKind.SERVER)
+                            .hasSpanId(spanContext.getSpanId())
+                            .hasStatus(StatusData.ok())
+                            .hasLinks(expectedSpanLink())
+                            .hasAttributesSatisfying(
+                                attributes ->
+                                    assertThat(attributes)
+                                        .containsOnly(
+                                            attributeEntry("req1", "req1_value"),
+                                            attributeEntry("req2", "req2_2_value"),
+                                            attributeEntry("req3", "req3_value"),
+                                            attributeEntry("resp1", "resp1_value"),
+                                            attributeEntry("resp2", "resp2_2_value"),
+                                            attributeEntry("resp3", "resp3_value")))));
+  }
+
+  @Test
+  void reuseOperationBuffers_nonRetainingOperationListener() {
+    AtomicReference<Attributes> passedStartAttributes = new AtomicReference<>();
+    AtomicReference<Attributes> passedEndAttributes = new AtomicReference<>();
+    AtomicReference<Attributes> startAttributesCopy = new AtomicReference<>();
+    AtomicReference<Attributes> endAttributesCopy = new AtomicReference<>();
+
+    OperationListener operationListener =
+        new NonRetainingOperationListener() {
+          @Override
+          public Context onStart(Context context, Attributes startAttributes, long startNanos) {
+            passedStartAttributes.set(startAttributes);
+            startAttributesCopy.set(startAttributes.toBuilder().build());
+            return context;
+          }
+
+          @Override
+          public void onEnd(Context context, Attributes endAttributes, long endNanos) {
+            passedEndAttributes.set(endAttributes);
+            endAttributesCopy.set(endAttributes.toBuilder().build());
+          }
+        };
+
+    InstrumenterBuilder<Map<String, String>, Map<String, String>> builder =
+        Instrumenter.<Map<String, String>, Map<String, String>>builder(
+                otelTesting.getOpenTelemetry(), "test", unused -> "span")
+            .addAttributesExtractor(new AttributesExtractor1())
+            .addAttributesExtractor(new AttributesExtractor2())
+            .addOperationListener(operationListener);
+    InstrumenterUtil.setReuseOperationBuffers(builder, true);
+    Instrumenter<Map<String, String>, Map<String, String>> instrumenter =
+        builder.buildServerInstrumenter(new MapGetter());
+
+    Context context = instrumenter.start(Context.root(), REQUEST);
+    instrumenter.end(context, REQUEST, RESPONSE, null);
+
+    // the per-thread buffer is passed as is, without being copied
+    assertThat(passedStartAttributes.get()).isSameAs(passedEndAttributes.get());
+    assertThat(startAttributesCopy.get())
+        .containsOnly(
+            attributeEntry("req1", "req1_value"),
+            attributeEntry("req2", "req2_2_value"),
+            attributeEntry("req3", "req3_value"));
+    assertThat(endAttributesCopy.get())
+        .containsOnly(
+            attributeEntry("resp1", "resp1_value"),
+            attributeEntry("resp2", "resp2_2_value"),
+            attributeEntry("resp3", "resp3_value"));
+  }
+
+  @Test
+  void metricsOnlyWhenNotRecording() {
+    AtomicReference<Attributes> endAttributes = new AtomicReference<>();
+
+    OperationListener operationListener =
+        new OperationListener() {
+          @Override
+          public Context onStart(Context context, Attributes startAttributes, long startNanos) {
+            return context;
+          }
+
+          @Override
+          public void onEnd(Context context, Attributes attributes, long endNanos) {
+            endAttributes.set(attributes);
+          }
+        };
+
+    InstrumenterBuilder<Map<String, String>, Map<String, String>> builder =
+        Instrumenter.<Map<String, String>, Map<String, String>>builder(
+                otelTesting.getOpenTelemetry(), "test", unused -> "span")
+            .addAttributesExtractor(new MetricsAttributesExtractor(AttributeKey.stringKey("resp1")))
+            .addAttributesExtractor(new MetricsAttributesExtractor())
+            .addAttributesExtractor(new AttributesExtractor2())
+            .addOperationListener(operationListener);
+    InstrumenterUtil.setMetricsOnlyWhenNotRecording(builder, true);
+    Instrumenter<Map<String, String>, Map<String, String>> instrumenter =
+        builder.buildInstrumenter();
+
+    Context parent =
+        Context.root()
+            .with(
+                Span.wrap(
+                    SpanContext.create(
+                        LINK_TRACE_ID,
+                        LINK_SPAN_ID,
+                        TraceFlags.getDefault(),
+                        TraceState.getDefault())));
+    Context context = instrumenter.start(parent, REQUEST);
+    assertThat(Span.fromContext(context).isRecording()).isFalse();
+
+    instrumenter.end(context, REQUEST, RESPONSE, null);
+
+    // extractors that declare their metrics keys are filtered, the others are called as usual
+    assertThat(endAttributes.get())
+        .containsOnly(
+            attributeEntry("resp1", "resp1_value"),
+            attributeEntry("resp2", "resp2_2_value"),
+            attributeEntry("resp3", "resp3_value"));
+  }
+
   @Test
   void shouldNotAddInvalidLink() {
     // given
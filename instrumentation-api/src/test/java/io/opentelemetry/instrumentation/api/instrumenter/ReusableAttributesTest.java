@@ -0,0 +1,69 @@
+/*
+ * Copyright The OpenTelemetry Authors
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package io.opentelemetry.instrumentation.api.instrumenter;
+
+import static io.opentelemetry.sdk.testing.assertj.OpenTelemetryAssertions.assertThat;
+import static io.opentelemetry.sdk.testing.assertj.OpenTelemetryAssertions.attributeEntry;
+
+import io.opentelemetry.api.common.AttributeKey;
+import io.opentelemetry.api.common.Attributes;
+import org.junit.jupiter.api.Test;
+
+class ReusableAttributesTest {
+
+  @Test
+  void buildAndUse() {
+    Attributes previous =
+        Attributes.builder().put("world", "earth").put("country", "japan").build();
+
+    ReusableAttributes attributes = new ReusableAttributes();
+    attributes.put(AttributeKey.stringKey("animal"), "cat");
+    attributes.put("needs_catnip", false);
+    // Overwrites
+    attributes.put("needs_catnip", true);
+    attributes.put(AttributeKey.longKey("lives"), 9);
+    attributes.putAll(previous);
+
+    assertThat((Attributes) attributes)
+        .containsOnly(
+            attributeEntry("world", "earth"),
+            attributeEntry("country", "japan"),
+            attributeEntry("animal", "cat"),
+            attributeEntry("needs_catnip", true),
+            attributeEntry("lives", 9L));
+
+    Attributes built = attributes.build();
+    attributes.clear();
+
+    assertThat((Attributes) attributes).isEmpty();
+    // Unmodified
+    assertThat(built)
+        .containsOnly(
+            attributeEntry("world", "earth"),
+            attributeEntry("country", "japan"),
+            attributeEntry("animal", "cat"),
+            attributeEntry("needs_catnip", true),
+            attributeEntry("lives", 9L));
+
+    attributes.put("clothes", "fur");
+    assertThat((Attributes) attributes).containsOnly(attributeEntry("clothes", "fur"));
+  }
+
+  @Test
+  void grows() {
+    ReusableAttributes attributes = new ReusableAttributes();
+    for (int i = 0; i < 1000; i++) {
+      attributes.put(AttributeKey.longKey("key" + i), (long) i);
+    }
+
+    assertThat(attributes.size()).isEqualTo(1000);
+    assertThat(attributes.get(AttributeKey.longKey("key999"))).isEqualTo(999L);
+
+    attributes.clear();
+    assertThat(attributes.size()).isEqualTo(0);
+    assertThat(attributes.get(AttributeKey.longKey("key999"))).isNull();
+  }
+}
@@ -0,0 +1,101 @@
+/*
+ * Copyright The OpenTelemetry Authors
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package io.opentelemetry.instrumentation.api.internal;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.jupiter.api.Test;
+
+class AsyncEventHandoffTest {
+
+  @Test
+  void processesEventsInOrder() {
+    List<Integer> processed = new CopyOnWriteArrayList<>();
+    AsyncEventHandoff<Integer> handoff = AsyncEventHandoff.start("test", 16, processed::add);
+
+    for (int i = 0; i < 1000; i++) {
+      while (!handoff.offer(i)) {
+        Thread.yield();
+      }
+    }
+    handoff.close(10, TimeUnit.SECONDS);
+
+    assertThat(processed).hasSize(1000);
+    for (int i = 0; i < 1000; i++) {
+      assertThat(processed.get(i)).isEqualTo(i);
+    }
+  }
+
+  @Test
+  void dropsEventsWhenFull() throws InterruptedException {
+    CountDownLatch blocked = new CountDownLatch(1);
+    CountDownLatch release = new CountDownLatch(1);
+    List<Integer> processed = new CopyOnWriteArrayList<>();
+    AsyncEventHandoff<Integer> handoff =
+        AsyncEventHandoff.start(
+            "test",
+            3, // rounded up to 4
+            event -> {
+              blocked.countDown();
+              try {
+                release.await();
+              } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+              }
+              processed.add(event);
+            });
+
+    assertThat(handoff.offer(0)).isTrue();
+    // wait until the first event was taken out of the buffer
+    blocked.await();
+    for (int i = 1; i <= 4; i++) {
+      assertThat(handoff.offer(i)).isTrue();
+    }
+    assertThat(handoff.offer(5)).isFalse();
+
+    release.countDown();
+    handoff.close(10, TimeUnit.SECONDS);
+
+    assertThat(processed).containsExactly(0, 1, 2, 3, 4);
+    assertThat(handoff.offer(6)).isFalse();
+  }
+
+  @Test
+  void processesAcceptedEventsWhenClosedConcurrently() throws InterruptedException {
+    AtomicInteger processed = new AtomicInteger();
+    AtomicInteger accepted = new AtomicInteger();
+    AsyncEventHandoff<Integer> handoff =
+        AsyncEventHandoff.start("test", 1024, event -> processed.incrementAndGet());
+
+    List<Thread> producers = new ArrayList<>();
+    for (int i = 0; i < 4; i++) {
+      Thread producer =
+          new Thread(
+              () -> {
+                for (int j = 0; j < 100_000; j++) {
+                  if (handoff.offer(j)) {
+                    accepted.incrementAndGet();
+                  }
+                }
+              });
+      producer.start();
+      producers.add(producer);
+    }
+    Thread.sleep(10);
+    handoff.close(10, TimeUnit.SECONDS);
+    for (Thread producer : producers) {
+      producer.join();
+    }
+
+    assertThat(processed).hasValue(accepted.get());
+  }
+}
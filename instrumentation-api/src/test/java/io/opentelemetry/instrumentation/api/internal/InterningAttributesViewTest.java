@@ -0,0 +1,56 @@
+/*
+ * Copyright The OpenTelemetry Authors
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package io.opentelemetry.instrumentation.api.internal;
+
+import static io.opentelemetry.api.common.AttributeKey.longKey;
+import static io.opentelemetry.api.common.AttributeKey.stringKey;
+import static io.opentelemetry.sdk.testing.assertj.OpenTelemetryAssertions.assertThat;
+import static org.assertj.core.api.Assertions.entry;
+
+import io.opentelemetry.api.common.AttributeKey;
+import io.opentelemetry.api.common.Attributes;
+import java.util.Arrays;
+import org.junit.jupiter.api.Test;
+
+class InterningAttributesViewTest {
+
+  private static final AttributeKey<String> METHOD = stringKey("method");
+  private static final AttributeKey<Long> STATUS = longKey("status");
+  private static final AttributeKey<String> URL = stringKey("url");
+
+  private final InterningAttributesView view =
+      InterningAttributesView.create(Arrays.asList(METHOD, STATUS));
+
+  @Test
+  void filtersAndMerges() {
+    Attributes start = Attributes.builder().put(METHOD, "GET").put(URL, "/users/123").build();
+    Attributes end = Attributes.builder().put(STATUS, 200L).put(METHOD, "POST").build();
+
+    assertThat(view.apply(start, end)).containsOnly(entry(METHOD, "POST"), entry(STATUS, 200L));
+    assertThat(view.apply(start)).containsOnly(entry(METHOD, "GET"));
+    assertThat(view.apply(Attributes.empty())).isEmpty();
+  }
+
+  @Test
+  void internsEqualTuples() {
+    Attributes first =
+        view.apply(
+            Attributes.builder().put(METHOD, "GET").put(URL, "/users/1").build(),
+            Attributes.builder().put(STATUS, 200L).build());
+    Attributes second =
+        view.apply(
+            Attributes.builder().put(METHOD, "GET").put(URL, "/users/2").build(),
+            Attributes.builder().put(STATUS, 200L).build());
+    Attributes other =
+        view.apply(
+            Attributes.builder().put(METHOD, "GET").build(),
+            Attributes.builder().put(STATUS, 404L).build());
+
+    assertThat(second).isSameAs(first);
+    assertThat(other).isNotSameAs(first);
+    assertThat(other).containsOnly(entry(METHOD, "GET"), entry(STATUS, 404L));
+  }
+}
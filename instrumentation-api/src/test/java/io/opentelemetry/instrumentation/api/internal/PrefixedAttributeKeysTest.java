@@ -0,0 +1,29 @@
+/*
+ * Copyright The OpenTelemetry Authors
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package io.opentelemetry.instrumentation.api.internal;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import io.opentelemetry.api.common.AttributeKey;
+import org.junit.jupiter.api.Test;
+
+class PrefixedAttributeKeysTest {
+
+  @Test
+  void prefixesKeyNames() {
+    PrefixedAttributeKeys keys = PrefixedAttributeKeys.create("logback.mdc.");
+
+    assertThat(keys.get("key")).isEqualTo(AttributeKey.stringKey("logback.mdc.key"));
+    assertThat(keys.get("other")).isEqualTo(AttributeKey.stringKey("logback.mdc.other"));
+  }
+
+  @Test
+  void returnsCachedKey() {
+    PrefixedAttributeKeys keys = PrefixedAttributeKeys.create("log4j.context_data.");
+
+    assertThat(keys.get("key")).isSameAs(keys.get("key"));
+  }
+}
@@ -5,9 +5,13 @@
 
 package io.opentelemetry.instrumentation.api.internal;
 
-import static org.assertj.core.api.Assertions.assertThat;
+import static io.opentelemetry.sdk.testing.assertj.OpenTelemetryAssertions.assertThat;
+import static io.opentelemetry.sdk.testing.assertj.OpenTelemetryAssertions.equalTo;
 
+import io.opentelemetry.api.common.AttributeKey;
 import io.opentelemetry.api.trace.SpanKind;
+import io.opentelemetry.sdk.metrics.SdkMeterProvider;
+import io.opentelemetry.sdk.testing.exporter.InMemoryMetricReader;
 import java.util.ArrayList;
 import java.util.List;
 import org.junit.jupiter.api.Test;
@@ -71,4 +75,90 @@ class SupportabilityMetricsTest {
             "Suppressed Spans by 'favoriteInstrumentation' (CLIENT) : 1",
             "Counter 'some counter' : 1");
   }
+
+  @Test
+  void reportsHandleCounts() {
+    List<String> reports = new ArrayList<>();
+    SupportabilityMetrics metrics = new SupportabilityMetrics(true, reports::add);
+
+    SupportabilityMetrics.SuppressedSpanCounters suppressed =
+        metrics.suppressedSpanCounters("favoriteInstrumentation");
+    SupportabilityMetrics.Counter counter = metrics.counter("some counter");
+    suppressed.record(SpanKind.CLIENT);
+    metrics.recordSuppressedSpan(SpanKind.CLIENT, "favoriteInstrumentation");
+    counter.increment();
+    metrics.incrementCounter("some counter");
+
+    metrics.report();
+
+    assertThat(metrics.suppressedSpanCounters("favoriteInstrumentation")).isSameAs(suppressed);
+    assertThat(metrics.counter("some counter")).isSameAs(counter);
+    assertThat(reports)
+        .containsExactlyInAnyOrder(
+            "Suppressed Spans by 'favoriteInstrumentation' (CLIENT) : 2",
+            "Counter 'some counter' : 2");
+  }
+
+  @Test
+  void exportsMetrics() {
+    InMemoryMetricReader metricReader = InMemoryMetricReader.create();
+    SdkMeterProvider meterProvider =
+        SdkMeterProvider.builder().registerMetricReader(metricReader).build();
+    SupportabilityMetrics metrics = new SupportabilityMetrics(false, report -> {});
+
+    SupportabilityMetrics.Counter counter = metrics.counter("some counter");
+    counter.increment();
+    assertThat(metricReader.collectAllMetrics()).isEmpty();
+
+    metrics.registerMetrics(meterProvider.get("test"));
+
+    metrics.recordSuppressedSpan(SpanKind.CLIENT, "favoriteInstrumentation");
+    metrics.recordSuppressedSpan(SpanKind.CLIENT, "favoriteInstrumentation");
+    metrics.recordSuppressedSpan(SpanKind.SERVER, "otherInstrumentation");
+    counter.increment();
+
+    assertThat(metricReader.collectAllMetrics())
+        .satisfiesExactlyInAnyOrder(
+            metric ->
+                assertThat(metric)
+                    .hasName("otel.javaagent.suppressed_spans")
+                    .hasLongSumSatisfying(
+                        sum ->
+                            sum.isMonotonic()
+                                .hasPointsSatisfying(
+                                    point ->
+                                        point
+                                            .hasValue(2)
+                                            .hasAttributesSatisfying(
+                                                equalTo(
+                                                    AttributeKey.stringKey("instrumentation.name"),
+                                                    "favoriteInstrumentation"),
+                                                equalTo(
+                                                    AttributeKey.stringKey("span.kind"),
+                                                    "CLIENT")),
+                                    point ->
+                                        point
+                                            .hasValue(1)
+                                            .hasAttributesSatisfying(
+                                                equalTo(
+                                                    AttributeKey.stringKey("instrumentation.name"),
+                                                    "otherInstrumentation"),
+                                                equalTo(
+                                                    AttributeKey.stringKey("span.kind"),
+                                                    "SERVER")))),
+            metric ->
+                assertThat(metric)
+                    .hasName("otel.javaagent.supportability_counter")
+                    .hasLongSumSatisfying(
+                        sum ->
+                            sum.isMonotonic()
+                                .hasPointsSatisfying(
+                                    point ->
+                                        point
+                                            .hasValue(1)
+                                            .hasAttributesSatisfying(
+                                                equalTo(
+                                                    AttributeKey.stringKey("counter.name"),
+                                                    "some counter")))));
+  }
 }
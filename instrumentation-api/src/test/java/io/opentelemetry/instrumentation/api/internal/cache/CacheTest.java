@@ -35,6 +35,30 @@ class CacheTest {
       assertThat(mapBackedCache.size()).isEqualTo(1);
       assertThat(cache.computeIfAbsent("cat", unused -> "purr")).isEqualTo("purr");
     }
+
+    @Test
+    void sharded() {
+      Cache<String, String> cache = Cache.sharded("test", 100);
+
+      assertThat(cache.computeIfAbsent("bear", unused -> "roar")).isEqualTo("roar");
+      assertThat(cache.computeIfAbsent("bear", unused -> "growl")).isEqualTo("roar");
+      cache.remove("bear");
+      assertThat(cache.get("bear")).isNull();
+
+      cache.put("dog", "bark");
+      assertThat(cache.get("dog")).isEqualTo("bark");
+      cache.put("dog", "woof");
+      assertThat(cache.get("dog")).isEqualTo("woof");
+
+      ShardedTinyLfuCache<?, ?> shardedCache = ((ShardedTinyLfuCache<?, ?>) cache);
+      for (int i = 0; i < 10_000; i++) {
+        // keep "dog" popular while a lot of one-off keys go through the cache
+        cache.get("dog");
+        cache.computeIfAbsent("key" + i, key -> key);
+      }
+      assertThat(shardedCache.size()).isLessThanOrEqualTo(100 + 16);
+      assertThat(cache.get("dog")).isEqualTo("woof");
+    }
   }
 
   @Nested
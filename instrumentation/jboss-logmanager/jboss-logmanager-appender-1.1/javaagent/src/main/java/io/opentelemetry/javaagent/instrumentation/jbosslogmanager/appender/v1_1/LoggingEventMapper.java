@@ -14,7 +14,7 @@ import io.opentelemetry.api.logs.GlobalLoggerProvider;
 import io.opentelemetry.api.logs.LogRecordBuilder;
 import io.opentelemetry.api.logs.Severity;
 import io.opentelemetry.context.Context;
-import io.opentelemetry.instrumentation.api.internal.cache.Cache;
+import io.opentelemetry.instrumentation.api.internal.PrefixedAttributeKeys;
 import io.opentelemetry.javaagent.bootstrap.internal.InstrumentationConfig;
 import io.opentelemetry.semconv.trace.attributes.SemanticAttributes;
 import java.io.PrintWriter;
@@ -30,7 +30,8 @@ public final class LoggingEventMapper {
 
   public static final LoggingEventMapper INSTANCE = new LoggingEventMapper();
 
-  private static final Cache<String, AttributeKey<String>> mdcAttributeKeys = Cache.bounded(100);
+  private static final PrefixedAttributeKeys mdcAttributeKeys =
+      PrefixedAttributeKeys.create("jboss-logmanager.mdc.");
 
   private final List<String> captureMdcAttributes;
 
@@ -121,8 +122,7 @@ public final class LoggingEventMapper {
   }
 
   public static AttributeKey<String> getMdcAttributeKey(String key) {
-    return mdcAttributeKeys.computeIfAbsent(
-        key, k -> AttributeKey.stringKey("jboss-logmanager.mdc." + k));
+    return mdcAttributeKeys.get(key);
   }
 
   private static Severity levelToSeverity(java.util.logging.Level level) {
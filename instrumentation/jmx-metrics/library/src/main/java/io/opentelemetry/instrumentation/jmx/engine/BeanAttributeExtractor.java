@@ -77,6 +77,11 @@ public class BeanAttributeExtractor implements MetricAttributeExtractor {
     this.nameChain = nameChain;
   }
 
+  /** Get the name of the MBean attribute that holds the value, or the composite value. */
+  String getBaseName() {
+    return baseName;
+  }
+
   /** Get a human readable name of the attribute to extract. Useful for logging or debugging. */
   String getAttributeName() {
     if (nameChain.length > 0) {
@@ -173,30 +178,7 @@ public class BeanAttributeExtractor implements MetricAttributeExtractor {
   @Nullable
   private Object extractAttributeValue(MBeanServer server, ObjectName objectName, Logger logger) {
     try {
-      Object value = server.getAttribute(objectName, baseName);
-
-      int k = 0;
-      while (k < nameChain.length) {
-        if (value instanceof CompositeData) {
-          value = ((CompositeData) value).get(nameChain[k]);
-        } else if (value instanceof TabularData) {
-          value = ((TabularData) value).get(new String[] {nameChain[k]});
-        } else {
-          if (logger != null) {
-            logger.log(
-                FINE,
-                "Encountered a value of {0} while extracting attribute {1} for ObjectName {2}; unable to extract metric value",
-                new Object[] {
-                  (value == null ? "NULL" : value.getClass().getName()),
-                  getAttributeName(),
-                  objectName
-                });
-          }
-          break;
-        }
-        k++;
-      }
-      return value;
+      return extractNestedValue(server.getAttribute(objectName, baseName), objectName, logger);
     } catch (Exception e) {
       // We do not really care about the actual reason for failure
       if (logger != null) {
@@ -209,6 +191,38 @@ public class BeanAttributeExtractor implements MetricAttributeExtractor {
     return null;
   }
 
+  /**
+   * In case the value of the base attribute is a CompositeData or TabularData, drills down into it
+   * to find the value specified by the name chain.
+   */
+  @Nullable
+  private Object extractNestedValue(
+      @Nullable Object baseValue, ObjectName objectName, @Nullable Logger logger) {
+    Object value = baseValue;
+    int k = 0;
+    while (k < nameChain.length) {
+      if (value instanceof CompositeData) {
+        value = ((CompositeData) value).get(nameChain[k]);
+      } else if (value instanceof TabularData) {
+        value = ((TabularData) value).get(new String[] {nameChain[k]});
+      } else {
+        if (logger != null) {
+          logger.log(
+              FINE,
+              "Encountered a value of {0} while extracting attribute {1} for ObjectName {2}; unable to extract metric value",
+              new Object[] {
+                (value == null ? "NULL" : value.getClass().getName()),
+                getAttributeName(),
+                objectName
+              });
+        }
+        break;
+      }
+      k++;
+    }
+    return value;
+  }
+
   @Nullable
   private Object extractAttributeValue(MBeanServer server, ObjectName objectName) {
     return extractAttributeValue(server, objectName, null);
@@ -223,6 +237,42 @@ public class BeanAttributeExtractor implements MetricAttributeExtractor {
     return null;
   }
 
+  /**
+   * Extracts the metric value from the value of the base attribute (see {@link #getBaseName()}),
+   * which was already fetched from the MBean, e.g. together with other attributes.
+   */
+  @Nullable
+  Number extractNumericalValue(@Nullable Object baseValue, ObjectName objectName) {
+    Object value = extractNestedValue(baseValue, objectName);
+    if (value instanceof Number) {
+      return (Number) value;
+    }
+    return null;
+  }
+
+  /**
+   * Extracts the value of a metric attribute from the value of the base attribute (see {@link
+   * #getBaseName()}), which was already fetched from the MBean.
+   */
+  @Nullable
+  String extractStringValue(@Nullable Object baseValue, ObjectName objectName) {
+    Object value = extractNestedValue(baseValue, objectName);
+    if (value instanceof String) {
+      return (String) value;
+    }
+    return null;
+  }
+
+  @Nullable
+  private Object extractNestedValue(@Nullable Object baseValue, ObjectName objectName) {
+    try {
+      return extractNestedValue(baseValue, objectName, null);
+    } catch (RuntimeException e) {
+      // e.g. an unknown CompositeData key, handled like any other failed extraction
+      return null;
+    }
+  }
+
   @Override
   @Nullable
   public String extractValue(MBeanServer server, ObjectName objectName) {
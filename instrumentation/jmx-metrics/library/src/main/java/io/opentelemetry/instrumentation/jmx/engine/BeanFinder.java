@@ -5,30 +5,76 @@
 
 package io.opentelemetry.instrumentation.jmx.engine;
 
+import static java.util.logging.Level.FINE;
+
 import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Queue;
 import java.util.Set;
+import java.util.concurrent.ConcurrentLinkedQueue;
 import java.util.concurrent.Executors;
 import java.util.concurrent.ScheduledExecutorService;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.logging.Logger;
+import javax.annotation.Nullable;
+import javax.management.InstanceNotFoundException;
+import javax.management.ListenerNotFoundException;
 import javax.management.MBeanServer;
+import javax.management.MBeanServerDelegate;
 import javax.management.MBeanServerFactory;
+import javax.management.MBeanServerNotification;
+import javax.management.Notification;
+import javax.management.NotificationListener;
 import javax.management.ObjectName;
+import javax.management.QueryExp;
+import javax.management.relation.MBeanServerNotificationFilter;
 
 /**
  * A class responsible for finding MBeans that match metric definitions specified by a set of
  * MetricDefs.
+ *
+ * <p>The MBeans that exist when an MBeanServer is found are queried once. After that, the
+ * registration and unregistration notifications of the MBeanServerDelegate keep the set of
+ * matching MBeans up to date, and MBeanServers are only queried again when they do not support
+ * these notifications. The periodic discovery looks for new MBeanServers, and retries the MBeans
+ * whose attributes could not be resolved yet. MBeanServerFactory has no notifications for created
+ * or released MBeanServers, so the discovery keeps running, but once all the MBeanServers notify
+ * and all the MBeans are resolved, it backs off faster, as it only has to look for MBeanServers.
+ *
+ * <p>All the discovery state is only accessed from the single discovery thread.
  */
 class BeanFinder {
 
+  private static final Logger logger = Logger.getLogger(BeanFinder.class.getName());
+
   private final MetricRegistrar registrar;
   private MetricConfiguration conf;
+  private PatternIndex index;
   private final ScheduledExecutorService exec = Executors.newSingleThreadScheduledExecutor();
   private final long discoveryDelay;
   private final long maxDelay;
   private long delay = 1000; // number of milliseconds until first attempt to discover MBeans
 
+  // the known MBeanServers, in the order they were found
+  private final List<MBeanServer> servers = new ArrayList<>();
+  // the MBeanServers that have to be queried on every discovery, as they do not notify
+  private final Set<MBeanServer> polledServers = new HashSet<>();
+  // the ObjectNames matching the BeanGroup of each MetricDef, per MBeanServer
+  private final Map<MetricDef, Map<MBeanServer, Set<ObjectName>>> matches = new LinkedHashMap<>();
+  // the MetricDefs with MBeans whose attributes could not be resolved yet
+  private final Set<MetricDef> incomplete = new LinkedHashSet<>();
+
+  private final NotificationListener listener = this::handleNotification;
+  private final Queue<BeanEvent> events = new ConcurrentLinkedQueue<>();
+  private final AtomicBoolean eventsScheduled = new AtomicBoolean();
+
   BeanFinder(MetricRegistrar registrar, long discoveryDelay) {
     this.registrar = registrar;
     this.discoveryDelay = Math.max(1000, discoveryDelay); // Enforce sanity
@@ -37,14 +83,20 @@ class BeanFinder {
 
   void discoverBeans(MetricConfiguration conf) {
     this.conf = conf;
+    this.index = new PatternIndex(conf);
 
     exec.schedule(
         new Runnable() {
           @Override
           public void run() {
             refreshState();
-            // Use discoveryDelay as the increment for the actual delay
-            delay = Math.min(delay + discoveryDelay, maxDelay);
+            if (polledServers.isEmpty() && incomplete.isEmpty()) {
+              // only new MBeanServers can still be found
+              delay = Math.min(delay * 2, maxDelay);
+            } else {
+              // Use discoveryDelay as the increment for the actual delay
+              delay = Math.min(delay + discoveryDelay, maxDelay);
+            }
             exec.schedule(this, delay, TimeUnit.MILLISECONDS);
           }
         },
@@ -53,46 +105,186 @@ class BeanFinder {
   }
 
   /**
-   * Go over all configured metric definitions and try to find matching MBeans. Once a match is
+   * Look for MBeanServers that appeared or disappeared since the previous invocation, and try to
+   * find the MBeans matching the configured metric definitions in the new ones. Once a match is
    * found for a given metric definition, submit the definition to MetricRegistrar for further
-   * handling. Successive invocations of this method may find matches that were previously
-   * unavailable, in such cases MetricRegistrar will extend the coverage for the new MBeans
+   * handling. Metric definitions with MBeans that did not provide usable attribute values yet are
+   * resolved again, as these values may become available later, e.g. once the application has
+   * finished starting.
    */
   private void refreshState() {
-    List<MBeanServer> servers = MBeanServerFactory.findMBeanServer(null);
+    List<MBeanServer> currentServers = MBeanServerFactory.findMBeanServer(null);
+    Set<MetricDef> changed = new LinkedHashSet<>(incomplete);
 
-    for (MetricDef metricDef : conf.getMetricDefs()) {
-      resolveBeans(metricDef, servers);
+    for (Iterator<MBeanServer> it = servers.iterator(); it.hasNext(); ) {
+      MBeanServer server = it.next();
+      if (!currentServers.contains(server)) {
+        // the MBeanServer was released
+        it.remove();
+        if (!polledServers.remove(server)) {
+          unsubscribe(server);
+        }
+        matches.forEach(
+            (metricDef, serverMatches) -> {
+              if (serverMatches.remove(server) != null) {
+                changed.add(metricDef);
+              }
+            });
+      }
     }
+
+    for (MBeanServer server : currentServers) {
+      if (!servers.contains(server)) {
+        servers.add(server);
+        // subscribe before querying, so that no MBean registered in between is missed
+        if (!subscribe(server)) {
+          polledServers.add(server);
+        }
+      } else if (!polledServers.contains(server)) {
+        continue;
+      }
+      for (MetricDef metricDef : conf.getMetricDefs()) {
+        Set<ObjectName> objectNames = queryNames(server, metricDef.getBeanGroup());
+        Map<MBeanServer, Set<ObjectName>> serverMatches = serverMatches(metricDef);
+        if (!objectNames.equals(serverMatches.getOrDefault(server, new HashSet<>()))) {
+          serverMatches.put(server, objectNames);
+          changed.add(metricDef);
+        }
+      }
+    }
+
+    for (MetricDef metricDef : changed) {
+      resolveBeans(metricDef);
+    }
+    registrar.registerNewMetrics();
   }
 
-  /**
-   * Go over the specified list of MBeanServers and try to find any MBeans matching the specified
-   * MetricDef. If found, verify that the MBeans support the specified attributes, and set up
-   * collection of corresponding metrics.
-   *
-   * @param metricDef the MetricDef used to find matching MBeans
-   * @param servers the list of MBeanServers to query
-   */
-  private void resolveBeans(MetricDef metricDef, List<MBeanServer> servers) {
-    BeanGroup beans = metricDef.getBeanGroup();
+  private boolean subscribe(MBeanServer server) {
+    MBeanServerNotificationFilter filter = new MBeanServerNotificationFilter();
+    filter.enableAllObjectNames();
+    try {
+      server.addNotificationListener(MBeanServerDelegate.DELEGATE_NAME, listener, filter, server);
+      return true;
+    } catch (InstanceNotFoundException | RuntimeException e) {
+      logger.log(
+          FINE,
+          "Cannot listen to MBean registrations, the MBeanServer will be polled: {0}",
+          e.toString());
+      return false;
+    }
+  }
 
-    for (MBeanServer server : servers) {
-      // The set of all matching ObjectNames recognized by the server
-      Set<ObjectName> allObjectNames = new HashSet<>();
+  private void unsubscribe(MBeanServer server) {
+    // a released MBeanServer may still be used, and would keep notifying this BeanFinder
+    try {
+      server.removeNotificationListener(MBeanServerDelegate.DELEGATE_NAME, listener);
+    } catch (InstanceNotFoundException | ListenerNotFoundException | RuntimeException e) {
+      logger.log(FINE, "Cannot remove the MBean registration listener: {0}", e.toString());
+    }
+  }
+
+  /*
+   * Called on the thread that registers or unregisters the MBean, so only the cheap matching
+   * against the ObjectName patterns is done here.
+   */
+  private void handleNotification(Notification notification, Object handback) {
+    if (!(notification instanceof MBeanServerNotification)) {
+      return;
+    }
+    ObjectName objectName = ((MBeanServerNotification) notification).getMBeanName();
+    List<MetricDef> metricDefs = index.find(objectName);
+    if (metricDefs.isEmpty()) {
+      return;
+    }
+    boolean registered =
+        MBeanServerNotification.REGISTRATION_NOTIFICATION.equals(notification.getType());
+    events.add(new BeanEvent((MBeanServer) handback, objectName, registered, metricDefs));
+    if (eventsScheduled.compareAndSet(false, true)) {
+      exec.execute(this::processEvents);
+    }
+  }
 
-      for (ObjectName pattern : beans.getNamePatterns()) {
-        Set<ObjectName> objectNames = server.queryNames(pattern, beans.getQueryExp());
-        allObjectNames.addAll(objectNames);
+  private void processEvents() {
+    eventsScheduled.set(false);
+    // MBeans are often registered in bulk, e.g. at startup, every metric definition that is
+    // affected is resolved only once for all of them
+    Set<MetricDef> changed = new LinkedHashSet<>();
+    BeanEvent event;
+    while ((event = events.poll()) != null) {
+      if (!servers.contains(event.server)) {
+        // the MBeanServer was released
+        continue;
       }
+      for (MetricDef metricDef : event.metricDefs) {
+        Set<ObjectName> objectNames =
+            serverMatches(metricDef).computeIfAbsent(event.server, unused -> new HashSet<>());
+        boolean modified;
+        if (event.registered) {
+          modified =
+              matchesQuery(event.server, event.objectName, metricDef.getBeanGroup())
+                  && objectNames.add(event.objectName);
+        } else {
+          modified = objectNames.remove(event.objectName);
+        }
+        if (modified) {
+          changed.add(metricDef);
+        }
+      }
+    }
+    for (MetricDef metricDef : changed) {
+      resolveBeans(metricDef);
+    }
+    registrar.registerNewMetrics();
+  }
 
-      if (!allObjectNames.isEmpty()) {
-        resolveAttributes(allObjectNames, server, metricDef);
+  private Map<MBeanServer, Set<ObjectName>> serverMatches(MetricDef metricDef) {
+    return matches.computeIfAbsent(metricDef, unused -> new HashMap<>());
+  }
 
+  private static Set<ObjectName> queryNames(MBeanServer server, BeanGroup beans) {
+    // The set of all matching ObjectNames recognized by the server
+    Set<ObjectName> allObjectNames = new HashSet<>();
+    for (ObjectName pattern : beans.getNamePatterns()) {
+      allObjectNames.addAll(server.queryNames(pattern, beans.getQueryExp()));
+    }
+    return allObjectNames;
+  }
+
+  private static boolean matchesQuery(MBeanServer server, ObjectName objectName, BeanGroup beans) {
+    QueryExp queryExp = beans.getQueryExp();
+    if (queryExp == null) {
+      // the ObjectName already matched one of the patterns
+      return true;
+    }
+    return !server.queryNames(objectName, queryExp).isEmpty();
+  }
+
+  /**
+   * Go over the known MBeanServers and find the MBeans matching the specified MetricDef. If found,
+   * verify that the MBeans support the specified attributes, and set up collection of
+   * corresponding metrics.
+   *
+   * @param metricDef the MetricDef used to find matching MBeans
+   */
+  private void resolveBeans(MetricDef metricDef) {
+    Map<MBeanServer, Set<ObjectName>> serverMatches = serverMatches(metricDef);
+    for (MBeanServer server : servers) {
+      Set<ObjectName> objectNames = serverMatches.get(server);
+      if (objectNames != null && !objectNames.isEmpty()) {
+        if (resolveAttributes(objectNames, server, metricDef)) {
+          incomplete.remove(metricDef);
+        } else {
+          incomplete.add(metricDef);
+        }
         // Assuming that only one MBeanServer has the required MBeans
-        break;
+        return;
       }
     }
+    // all the matching MBeans are gone
+    incomplete.remove(metricDef);
+    for (MetricExtractor extractor : metricDef.getMetricExtractors()) {
+      registrar.withdrawExtractor(extractor);
+    }
   }
 
   /**
@@ -102,9 +294,11 @@ class BeanFinder {
    * @param objectNames the collection of ObjectNames identifying the MBeans
    * @param server the MBeanServer which recognized the collection of ObjectNames
    * @param metricDef the MetricDef describing the attributes to look for
+   * @return whether all the attributes were found for all the MBeans
    */
-  private void resolveAttributes(
+  private boolean resolveAttributes(
       Set<ObjectName> objectNames, MBeanServer server, MetricDef metricDef) {
+    boolean complete = true;
     for (MetricExtractor extractor : metricDef.getMetricExtractors()) {
       // For each MetricExtractor, find the subset of MBeans that have the required attribute
       List<ObjectName> validObjectNames = new ArrayList<>();
@@ -119,12 +313,87 @@ class BeanFinder {
             attributeInfo.updateFrom(attr);
           }
           validObjectNames.add(objectName);
+        } else {
+          complete = false;
         }
       }
-      if (!validObjectNames.isEmpty()) {
+      if (attributeInfo != null) {
         // Ready to collect metric values
         registrar.enrollExtractor(server, validObjectNames, extractor, attributeInfo);
+      } else {
+        registrar.withdrawExtractor(extractor);
       }
     }
+    return complete;
+  }
+
+  /** A registration or unregistration of an MBean matching at least one of the MetricDefs. */
+  private static final class BeanEvent {
+    private final MBeanServer server;
+    private final ObjectName objectName;
+    private final boolean registered;
+    private final List<MetricDef> metricDefs;
+
+    private BeanEvent(
+        MBeanServer server, ObjectName objectName, boolean registered, List<MetricDef> metricDefs) {
+      this.server = server;
+      this.objectName = objectName;
+      this.registered = registered;
+      this.metricDefs = metricDefs;
+    }
+  }
+
+  /**
+   * The ObjectName patterns of all the MetricDefs, indexed by their domain, so that the MetricDefs
+   * that an MBean may belong to are found without going through all the patterns.
+   */
+  // visible for testing
+  static final class PatternIndex {
+    private final Map<String, List<IndexEntry>> byDomain = new HashMap<>();
+    // the patterns with a wildcard in their domain
+    private final List<IndexEntry> domainPatterns = new ArrayList<>();
+
+    PatternIndex(MetricConfiguration conf) {
+      for (MetricDef metricDef : conf.getMetricDefs()) {
+        for (ObjectName pattern : metricDef.getBeanGroup().getNamePatterns()) {
+          IndexEntry entry = new IndexEntry(pattern, metricDef);
+          if (pattern.isDomainPattern()) {
+            domainPatterns.add(entry);
+          } else {
+            byDomain.computeIfAbsent(pattern.getDomain(), unused -> new ArrayList<>()).add(entry);
+          }
+        }
+      }
+    }
+
+    /** Returns the MetricDefs with at least one pattern matching the ObjectName. */
+    List<MetricDef> find(ObjectName objectName) {
+      Set<MetricDef> metricDefs = new LinkedHashSet<>();
+      addMatches(byDomain.get(objectName.getDomain()), objectName, metricDefs);
+      addMatches(domainPatterns, objectName, metricDefs);
+      return new ArrayList<>(metricDefs);
+    }
+
+    private static void addMatches(
+        @Nullable List<IndexEntry> entries, ObjectName objectName, Set<MetricDef> metricDefs) {
+      if (entries == null) {
+        return;
+      }
+      for (IndexEntry entry : entries) {
+        if (entry.pattern.apply(objectName)) {
+          metricDefs.add(entry.metricDef);
+        }
+      }
+    }
+  }
+
+  private static final class IndexEntry {
+    private final ObjectName pattern;
+    private final MetricDef metricDef;
+
+    private IndexEntry(ObjectName pattern, MetricDef metricDef) {
+      this.pattern = pattern;
+      this.metricDef = metricDef;
+    }
   }
 }
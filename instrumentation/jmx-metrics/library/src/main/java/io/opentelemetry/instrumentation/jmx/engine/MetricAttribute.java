@@ -26,6 +26,10 @@ public class MetricAttribute {
     return name;
   }
 
+  MetricAttributeExtractor getAttributeExtractor() {
+    return extractor;
+  }
+
   String acquireAttributeValue(MBeanServer server, ObjectName objectName) {
     return extractor.extractValue(server, objectName);
   }
@@ -0,0 +1,290 @@
+/*
+ * Copyright The OpenTelemetry Authors
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package io.opentelemetry.instrumentation.jmx.engine;
+
+import io.opentelemetry.api.common.Attributes;
+import io.opentelemetry.api.common.AttributesBuilder;
+import io.opentelemetry.api.metrics.ObservableDoubleMeasurement;
+import io.opentelemetry.api.metrics.ObservableLongMeasurement;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicInteger;
+import javax.annotation.Nullable;
+import javax.management.Attribute;
+import javax.management.AttributeList;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+
+/**
+ * A class responsible for collecting the values of all registered metrics, in a single batch
+ * callback. The metrics are grouped by the MBean they are read from, so that all the attributes
+ * needed from an MBean, including the ones that metric attributes are read from, are fetched with a
+ * single {@link MBeanServer#getAttributes(ObjectName, String[])} call per collection. The metric
+ * attributes that do not depend on MBean attributes are only computed once per MBean.
+ */
+class MetricCollector {
+
+  private final List<Metric> metrics = new CopyOnWriteArrayList<>();
+  // incremented whenever the metrics or the MBeans they are read from change
+  private final AtomicInteger version = new AtomicInteger();
+  @Nullable private volatile Plan plan;
+
+  void addDoubleMetric(MetricExtractor extractor, ObservableDoubleMeasurement measurement) {
+    metrics.add(new Metric(extractor, measurement, null));
+    invalidate();
+  }
+
+  void addLongMetric(MetricExtractor extractor, ObservableLongMeasurement measurement) {
+    metrics.add(new Metric(extractor, null, measurement));
+    invalidate();
+  }
+
+  /** Must be called when the MBeans that the metrics are read from have changed. */
+  void invalidate() {
+    version.incrementAndGet();
+  }
+
+  void collect() {
+    int currentVersion = version.get();
+    Plan currentPlan = plan;
+    if (currentPlan == null || currentPlan.version != currentVersion) {
+      currentPlan = new Plan(currentVersion, metrics);
+      plan = currentPlan;
+    }
+    for (BeanRead beanRead : currentPlan.beanReads) {
+      beanRead.collect();
+    }
+  }
+
+  // visible for testing
+  int cachedAttributesCount() {
+    int count = 0;
+    for (Metric metric : metrics) {
+      count += metric.objectNameAttributes.size();
+    }
+    return count;
+  }
+
+  /** The MBeans to read during a collection, and the metrics to record for each of them. */
+  private static final class Plan {
+    private final int version;
+    private final List<BeanRead> beanReads = new ArrayList<>();
+
+    private Plan(int version, List<Metric> metrics) {
+      this.version = version;
+      Map<MBeanServer, Map<ObjectName, BeanReadBuilder>> builders = new LinkedHashMap<>();
+      for (Metric metric : metrics) {
+        DetectionStatus status = metric.extractor.getStatus();
+        if (status == null) {
+          continue;
+        }
+        Set<ObjectName> objectNames = new HashSet<>(status.getObjectNames());
+        // forget the metric attributes of MBeans that are gone
+        metric.objectNameAttributes.keySet().retainAll(objectNames);
+        for (ObjectName objectName : objectNames) {
+          builders
+              .computeIfAbsent(status.getServer(), unused -> new LinkedHashMap<>())
+              .computeIfAbsent(objectName, unused -> new BeanReadBuilder())
+              .add(metric);
+        }
+      }
+      builders.forEach(
+          (server, beans) ->
+              beans.forEach(
+                  (objectName, builder) -> beanReads.add(builder.build(server, objectName))));
+    }
+  }
+
+  private static final class BeanReadBuilder {
+    private final Set<String> attributeNames = new LinkedHashSet<>();
+    private final List<Metric> metrics = new ArrayList<>();
+
+    private void add(Metric metric) {
+      attributeNames.add(metric.extractor.getMetricValueExtractor().getBaseName());
+      for (BeanAttributeExtractor beanAttribute : metric.beanAttributeExtractors) {
+        attributeNames.add(beanAttribute.getBaseName());
+      }
+      metrics.add(metric);
+    }
+
+    private BeanRead build(MBeanServer server, ObjectName objectName) {
+      String[] names = attributeNames.toArray(new String[0]);
+      int[] valueIndexes = new int[metrics.size()];
+      int[][] beanAttributeIndexes = new int[metrics.size()][];
+      for (int i = 0; i < metrics.size(); i++) {
+        Metric metric = metrics.get(i);
+        valueIndexes[i] = indexOf(names, metric.extractor.getMetricValueExtractor().getBaseName());
+        beanAttributeIndexes[i] = new int[metric.beanAttributeExtractors.length];
+        for (int j = 0; j < metric.beanAttributeExtractors.length; j++) {
+          beanAttributeIndexes[i][j] =
+              indexOf(names, metric.beanAttributeExtractors[j].getBaseName());
+        }
+      }
+      return new BeanRead(
+          server,
+          objectName,
+          names,
+          metrics.toArray(new Metric[0]),
+          valueIndexes,
+          beanAttributeIndexes);
+    }
+  }
+
+  /** Reads the attributes of one MBean, and records the metrics that are read from them. */
+  private static final class BeanRead {
+    private final MBeanServer server;
+    private final ObjectName objectName;
+    private final String[] attributeNames;
+    private final Metric[] metrics;
+    // the index in attributeNames of the attribute that the value of each metric is read from
+    private final int[] valueIndexes;
+    // the indexes in attributeNames of the attributes that the metric attributes are read from
+    private final int[][] beanAttributeIndexes;
+
+    private BeanRead(
+        MBeanServer server,
+        ObjectName objectName,
+        String[] attributeNames,
+        Metric[] metrics,
+        int[] valueIndexes,
+        int[][] beanAttributeIndexes) {
+      this.server = server;
+      this.objectName = objectName;
+      this.attributeNames = attributeNames;
+      this.metrics = metrics;
+      this.valueIndexes = valueIndexes;
+      this.beanAttributeIndexes = beanAttributeIndexes;
+    }
+
+    private void collect() {
+      AttributeList attributes;
+      try {
+        attributes = server.getAttributes(objectName, attributeNames);
+      } catch (Exception e) {
+        // e.g. the MBean was unregistered, the metric values are just not reported, like when a
+        // single attribute can't be read
+        return;
+      }
+      // the returned list only contains the attributes that could be read
+      Object[] values = new Object[attributeNames.length];
+      for (Object attribute : attributes) {
+        if (attribute instanceof Attribute) {
+          int index = indexOf(attributeNames, ((Attribute) attribute).getName());
+          if (index >= 0) {
+            values[index] = ((Attribute) attribute).getValue();
+          }
+        }
+      }
+      for (int i = 0; i < metrics.length; i++) {
+        Metric metric = metrics[i];
+        Number value =
+            metric
+                .extractor
+                .getMetricValueExtractor()
+                .extractNumericalValue(values[valueIndexes[i]], objectName);
+        if (value != null) {
+          metric.record(
+              value, metric.attributes(server, objectName, values, beanAttributeIndexes[i]));
+        }
+      }
+    }
+  }
+
+  private static final class Metric {
+    private final MetricExtractor extractor;
+    @Nullable private final ObservableDoubleMeasurement doubleMeasurement;
+    @Nullable private final ObservableLongMeasurement longMeasurement;
+    // the metric attributes that are read from MBean attributes (beanattr), these can change
+    private final String[] beanAttributeNames;
+    private final BeanAttributeExtractor[] beanAttributeExtractors;
+    // the other metric attributes, e.g. from ObjectName parameters, don't change for an MBean
+    private final List<MetricAttribute> otherAttributes = new ArrayList<>();
+    private final Map<ObjectName, Attributes> objectNameAttributes = new ConcurrentHashMap<>();
+
+    private Metric(
+        MetricExtractor extractor,
+        @Nullable ObservableDoubleMeasurement doubleMeasurement,
+        @Nullable ObservableLongMeasurement longMeasurement) {
+      this.extractor = extractor;
+      this.doubleMeasurement = doubleMeasurement;
+      this.longMeasurement = longMeasurement;
+      List<MetricAttribute> beanAttributes = new ArrayList<>();
+      for (MetricAttribute attribute : extractor.getAttributes()) {
+        if (attribute.getAttributeExtractor() instanceof BeanAttributeExtractor) {
+          beanAttributes.add(attribute);
+        } else {
+          otherAttributes.add(attribute);
+        }
+      }
+      beanAttributeNames = new String[beanAttributes.size()];
+      beanAttributeExtractors = new BeanAttributeExtractor[beanAttributes.size()];
+      for (int i = 0; i < beanAttributes.size(); i++) {
+        beanAttributeNames[i] = beanAttributes.get(i).getAttributeName();
+        beanAttributeExtractors[i] =
+            (BeanAttributeExtractor) beanAttributes.get(i).getAttributeExtractor();
+      }
+    }
+
+    /**
+     * Returns the metric attributes for an MBean, the ones read from MBean attributes are taken
+     * from the values fetched during this collection.
+     */
+    private Attributes attributes(
+        MBeanServer server, ObjectName objectName, Object[] values, int[] beanAttributeIndexes) {
+      Attributes attributes =
+          objectNameAttributes.computeIfAbsent(
+              objectName, unused -> createAttributes(server, objectName));
+      if (beanAttributeExtractors.length == 0) {
+        return attributes;
+      }
+      AttributesBuilder builder = attributes.toBuilder();
+      for (int i = 0; i < beanAttributeExtractors.length; i++) {
+        String value =
+            beanAttributeExtractors[i].extractStringValue(
+                values[beanAttributeIndexes[i]], objectName);
+        if (value != null) {
+          builder.put(beanAttributeNames[i], value);
+        }
+      }
+      return builder.build();
+    }
+
+    private Attributes createAttributes(MBeanServer server, ObjectName objectName) {
+      AttributesBuilder builder = Attributes.builder();
+      for (MetricAttribute attribute : otherAttributes) {
+        String value = attribute.acquireAttributeValue(server, objectName);
+        if (value != null) {
+          builder.put(attribute.getAttributeName(), value);
+        }
+      }
+      return builder.build();
+    }
+
+    private void record(Number value, Attributes attributes) {
+      if (doubleMeasurement != null) {
+        doubleMeasurement.record(value.doubleValue(), attributes);
+      } else if (longMeasurement != null) {
+        longMeasurement.record(value.longValue(), attributes);
+      }
+    }
+  }
+
+  private static int indexOf(String[] names, String name) {
+    for (int i = 0; i < names.length; i++) {
+      if (names[i].equals(name)) {
+        return i;
+      }
+    }
+    return -1;
+  }
+}
@@ -8,16 +8,18 @@ package io.opentelemetry.instrumentation.jmx.engine;
 import static java.util.logging.Level.INFO;
 
 import io.opentelemetry.api.OpenTelemetry;
-import io.opentelemetry.api.common.Attributes;
-import io.opentelemetry.api.common.AttributesBuilder;
 import io.opentelemetry.api.metrics.DoubleGaugeBuilder;
 import io.opentelemetry.api.metrics.LongCounterBuilder;
 import io.opentelemetry.api.metrics.LongUpDownCounterBuilder;
 import io.opentelemetry.api.metrics.Meter;
 import io.opentelemetry.api.metrics.ObservableDoubleMeasurement;
 import io.opentelemetry.api.metrics.ObservableLongMeasurement;
+import io.opentelemetry.api.metrics.ObservableMeasurement;
+import java.util.ArrayList;
 import java.util.Collection;
-import java.util.function.Consumer;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
 import java.util.logging.Logger;
 import javax.management.MBeanServer;
 import javax.management.ObjectName;
@@ -28,6 +30,11 @@ class MetricRegistrar {
   private static final Logger logger = Logger.getLogger(MetricRegistrar.class.getName());
 
   private final Meter meter;
+  // the collectors that a batch callback was registered for
+  private final List<MetricCollector> collectors = new CopyOnWriteArrayList<>();
+  // the metrics created since the last batch callback was registered
+  private MetricCollector newMetrics = new MetricCollector();
+  private final List<ObservableMeasurement> newObservers = new ArrayList<>();
 
   MetricRegistrar(OpenTelemetry openTelemetry, String instrumentationScope) {
     meter = openTelemetry.getMeter(instrumentationScope);
@@ -79,9 +86,9 @@ class MetricRegistrar {
             }
 
             if (attributeInfo.usesDoubleValues()) {
-              builder.ofDoubles().buildWithCallback(doubleTypeCallback(extractor));
+              addDoubleMetric(extractor, builder.ofDoubles().buildObserver());
             } else {
-              builder.buildWithCallback(longTypeCallback(extractor));
+              addLongMetric(extractor, builder.buildObserver());
             }
             logger.log(INFO, "Created Counter for {0}", metricName);
           }
@@ -100,9 +107,9 @@ class MetricRegistrar {
             }
 
             if (attributeInfo.usesDoubleValues()) {
-              builder.ofDoubles().buildWithCallback(doubleTypeCallback(extractor));
+              addDoubleMetric(extractor, builder.ofDoubles().buildObserver());
             } else {
-              builder.buildWithCallback(longTypeCallback(extractor));
+              addLongMetric(extractor, builder.buildObserver());
             }
             logger.log(INFO, "Created UpDownCounter for {0}", metricName);
           }
@@ -121,74 +128,71 @@ class MetricRegistrar {
             }
 
             if (attributeInfo.usesDoubleValues()) {
-              builder.buildWithCallback(doubleTypeCallback(extractor));
+              addDoubleMetric(extractor, builder.buildObserver());
             } else {
-              builder.ofLongs().buildWithCallback(longTypeCallback(extractor));
+              addLongMetric(extractor, builder.ofLongs().buildObserver());
             }
             logger.log(INFO, "Created Gauge for {0}", metricName);
           }
       }
+    } else {
+      // the set of MBeans may have changed
+      invalidate();
     }
   }
 
-  /*
-   * A method generating metric collection callback for asynchronous Measurement
-   * of Double type.
+  /**
+   * Stops the collection of the metric values of an enrolled MetricExtractor, when none of the
+   * MBeans that provided them can be found anymore. The Instrument stays registered, and the
+   * collection resumes if the extractor is enrolled again.
+   *
+   * @param extractor the MetricExtractor responsible for getting the metric values
    */
-  static Consumer<ObservableDoubleMeasurement> doubleTypeCallback(MetricExtractor extractor) {
-    return measurement -> {
+  void withdrawExtractor(MetricExtractor extractor) {
+    synchronized (extractor) {
       DetectionStatus status = extractor.getStatus();
-      if (status != null) {
-        MBeanServer server = status.getServer();
-        for (ObjectName objectName : status.getObjectNames()) {
-          Number metricValue =
-              extractor.getMetricValueExtractor().extractNumericalAttribute(server, objectName);
-          if (metricValue != null) {
-            // get the metric attributes
-            Attributes attr = createMetricAttributes(server, objectName, extractor);
-            measurement.record(metricValue.doubleValue(), attr);
-          }
-        }
+      if (status == null || status.getObjectNames().isEmpty()) {
+        return;
       }
-    };
+      extractor.setStatus(new DetectionStatus(status.getServer(), Collections.emptyList()));
+    }
+    invalidate();
   }
 
-  /*
-   * A method generating metric collection callback for asynchronous Measurement
-   * of Long type.
+  /**
+   * Registers a single batch callback for all the metrics created since the previous call. Called
+   * after each discovery, so that the callbacks are registered once, and the metrics that a
+   * discovery found are collected together.
    */
-  static Consumer<ObservableLongMeasurement> longTypeCallback(MetricExtractor extractor) {
-    return measurement -> {
-      DetectionStatus status = extractor.getStatus();
-      if (status != null) {
-        MBeanServer server = status.getServer();
-        for (ObjectName objectName : status.getObjectNames()) {
-          Number metricValue =
-              extractor.getMetricValueExtractor().extractNumericalAttribute(server, objectName);
-          if (metricValue != null) {
-            // get the metric attributes
-            Attributes attr = createMetricAttributes(server, objectName, extractor);
-            measurement.record(metricValue.longValue(), attr);
-          }
-        }
-      }
-    };
+  synchronized void registerNewMetrics() {
+    if (newObservers.isEmpty()) {
+      return;
+    }
+    MetricCollector collector = newMetrics;
+    meter.batchCallback(
+        collector::collect,
+        newObservers.get(0),
+        newObservers.subList(1, newObservers.size()).toArray(new ObservableMeasurement[0]));
+    collectors.add(collector);
+    newMetrics = new MetricCollector();
+    newObservers.clear();
   }
 
-  /*
-   * An auxiliary method for collecting measurement attributes to go along
-   * the metric values
-   */
-  static Attributes createMetricAttributes(
-      MBeanServer server, ObjectName objectName, MetricExtractor extractor) {
-    MetricAttribute[] metricAttributes = extractor.getAttributes();
-    AttributesBuilder attrBuilder = Attributes.builder();
-    for (MetricAttribute metricAttribute : metricAttributes) {
-      String attributeValue = metricAttribute.acquireAttributeValue(server, objectName);
-      if (attributeValue != null) {
-        attrBuilder = attrBuilder.put(metricAttribute.getAttributeName(), attributeValue);
-      }
+  private void invalidate() {
+    for (MetricCollector collector : collectors) {
+      collector.invalidate();
     }
-    return attrBuilder.build();
+  }
+
+  private synchronized void addDoubleMetric(
+      MetricExtractor extractor, ObservableDoubleMeasurement observer) {
+    newObservers.add(observer);
+    newMetrics.addDoubleMetric(extractor, observer);
+  }
+
+  private synchronized void addLongMetric(
+      MetricExtractor extractor, ObservableLongMeasurement observer) {
+    newObservers.add(observer);
+    newMetrics.addLongMetric(extractor, observer);
   }
 }
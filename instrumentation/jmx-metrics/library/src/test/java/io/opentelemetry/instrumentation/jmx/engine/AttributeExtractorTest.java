@@ -202,4 +202,14 @@ class AttributeExtractorTest {
     AttributeInfo info = extractor.getAttributeInfo(theServer, objectName);
     assertThat(info == null).isTrue();
   }
+
+  @Test
+  void testAlreadyReadAttributeValue() throws Exception {
+    BeanAttributeExtractor extractor = new BeanAttributeExtractor("IntAttribute");
+    Object value = theServer.getAttribute(objectName, extractor.getBaseName());
+    Number number = extractor.extractNumericalValue(value, objectName);
+    assertThat(number == null).isFalse();
+    assertThat(number.longValue() == 12).isTrue();
+    assertThat(extractor.extractNumericalValue(null, objectName)).isNull();
+  }
 }
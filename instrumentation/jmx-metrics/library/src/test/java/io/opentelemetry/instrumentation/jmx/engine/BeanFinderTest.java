@@ -0,0 +1,184 @@
+/*
+ * Copyright The OpenTelemetry Authors
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package io.opentelemetry.instrumentation.jmx.engine;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.awaitility.Awaitility.await;
+
+import io.opentelemetry.api.OpenTelemetry;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.concurrent.atomic.AtomicInteger;
+import javax.management.ListenerNotFoundException;
+import javax.management.MBeanServer;
+import javax.management.MBeanServerBuilder;
+import javax.management.MBeanServerDelegate;
+import javax.management.MBeanServerFactory;
+import javax.management.NotificationFilter;
+import javax.management.NotificationListener;
+import javax.management.ObjectName;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+class BeanFinderTest {
+
+  // An MBean used for this test
+  @SuppressWarnings("checkstyle:AbbreviationAsWordInName")
+  public interface Test2MBean {
+
+    int getIntAttribute();
+  }
+
+  private static class Test2 implements Test2MBean {
+    @Override
+    public int getIntAttribute() {
+      return 42;
+    }
+  }
+
+  /** Creates MBeanServers that count the listeners of their MBeanServerDelegate. */
+  public static class CountingMBeanServerBuilder extends MBeanServerBuilder {
+    private static final AtomicInteger listeners = new AtomicInteger();
+
+    @Override
+    public MBeanServerDelegate newMBeanServerDelegate() {
+      return new MBeanServerDelegate() {
+        @Override
+        public void addNotificationListener(
+            NotificationListener listener, NotificationFilter filter, Object handback) {
+          super.addNotificationListener(listener, filter, handback);
+          listeners.incrementAndGet();
+        }
+
+        @Override
+        public void removeNotificationListener(NotificationListener listener)
+            throws ListenerNotFoundException {
+          super.removeNotificationListener(listener);
+          listeners.decrementAndGet();
+        }
+
+        @Override
+        public void removeNotificationListener(
+            NotificationListener listener, NotificationFilter filter, Object handback)
+            throws ListenerNotFoundException {
+          super.removeNotificationListener(listener, filter, handback);
+          listeners.decrementAndGet();
+        }
+      };
+    }
+  }
+
+  private static final String DOMAIN = "otel.jmx.finder.test";
+  private static final String BUILDER_PROPERTY = "javax.management.builder.initial";
+  private static MBeanServer theServer;
+
+  @BeforeAll
+  static void setUp() {
+    theServer = MBeanServerFactory.createMBeanServer(DOMAIN);
+  }
+
+  @AfterAll
+  static void tearDown() {
+    MBeanServerFactory.releaseMBeanServer(theServer);
+    theServer = null;
+  }
+
+  @Test
+  void tracksRegisteredAndUnregisteredBeans() throws Exception {
+    ObjectName first = new ObjectName(DOMAIN + ":type=Test2,name=first");
+    ObjectName second = new ObjectName(DOMAIN + ":type=Test2,name=second");
+    theServer.registerMBean(new Test2(), first);
+
+    MetricExtractor extractor = newExtractor("otel.jmx.finder.test.value");
+    MetricConfiguration conf = new MetricConfiguration();
+    conf.addMetricDef(
+        new MetricDef(new BeanGroup(null, new ObjectName(DOMAIN + ":type=Test2,*")), extractor));
+    BeanFinder finder = new BeanFinder(new MetricRegistrar(OpenTelemetry.noop(), "test"), 60_000);
+    finder.discoverBeans(conf);
+
+    await().untilAsserted(() -> assertThat(objectNames(extractor)).containsExactly(first));
+
+    // the MBeanServer is not polled again, registrations are picked up from notifications
+    theServer.registerMBean(new Test2(), second);
+    await()
+        .untilAsserted(
+            () -> assertThat(objectNames(extractor)).containsExactlyInAnyOrder(first, second));
+
+    theServer.unregisterMBean(first);
+    await().untilAsserted(() -> assertThat(objectNames(extractor)).containsExactly(second));
+
+    theServer.unregisterMBean(second);
+    await().untilAsserted(() -> assertThat(objectNames(extractor)).isEmpty());
+  }
+
+  @Test
+  void removesListenerFromReleasedServer() throws Exception {
+    MBeanServer server;
+    System.setProperty(BUILDER_PROPERTY, CountingMBeanServerBuilder.class.getName());
+    try {
+      server = MBeanServerFactory.createMBeanServer(DOMAIN + ".released");
+    } finally {
+      System.clearProperty(BUILDER_PROPERTY);
+    }
+
+    MetricConfiguration conf = new MetricConfiguration();
+    conf.addMetricDef(
+        new MetricDef(
+            new BeanGroup(null, new ObjectName(DOMAIN + ".released:*")), newExtractor("released")));
+    new BeanFinder(new MetricRegistrar(OpenTelemetry.noop(), "test"), 1000).discoverBeans(conf);
+
+    AtomicInteger listeners = CountingMBeanServerBuilder.listeners;
+    await().untilAsserted(() -> assertThat(listeners).hasPositiveValue());
+
+    MBeanServerFactory.releaseMBeanServer(server);
+    // the BeanFinders of the other tests may listen to the MBeanServer too, and look for released
+    // MBeanServers at most once a minute
+    await()
+        .atMost(Duration.ofMinutes(2))
+        .untilAsserted(() -> assertThat(listeners).hasValue(0));
+  }
+
+  @Test
+  void indexesPatternsByDomain() throws Exception {
+    MetricDef fixedDomain =
+        new MetricDef(
+            new BeanGroup(null, new ObjectName("java.lang:type=MemoryPool,*")),
+            newExtractor("fixed"));
+    MetricDef wildcardDomain =
+        new MetricDef(
+            new BeanGroup(
+                null,
+                new ObjectName("*:type=Manager,*"),
+                new ObjectName("java.lang:type=Threading")),
+            newExtractor("wildcard"));
+    MetricConfiguration conf = new MetricConfiguration();
+    conf.addMetricDef(fixedDomain);
+    conf.addMetricDef(wildcardDomain);
+    BeanFinder.PatternIndex index = new BeanFinder.PatternIndex(conf);
+
+    assertThat(index.find(new ObjectName("java.lang:type=MemoryPool,name=Eden")))
+        .containsExactly(fixedDomain);
+    assertThat(index.find(new ObjectName("Catalina:type=Manager,context=/")))
+        .containsExactly(wildcardDomain);
+    assertThat(index.find(new ObjectName("java.lang:type=Threading")))
+        .containsExactly(wildcardDomain);
+    assertThat(index.find(new ObjectName("java.lang:type=Runtime"))).isEmpty();
+  }
+
+  private static MetricExtractor newExtractor(String metricName) {
+    return new MetricExtractor(
+        new BeanAttributeExtractor("IntAttribute"),
+        new MetricInfo(metricName, null, "1", MetricInfo.Type.GAUGE));
+  }
+
+  private static Collection<ObjectName> objectNames(MetricExtractor extractor) {
+    DetectionStatus status = extractor.getStatus();
+    return status == null ? Collections.emptyList() : new ArrayList<>(status.getObjectNames());
+  }
+}
@@ -0,0 +1,178 @@
+/*
+ * Copyright The OpenTelemetry Authors
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package io.opentelemetry.instrumentation.jmx.engine;
+
+import static io.opentelemetry.api.common.AttributeKey.stringKey;
+import static java.util.Arrays.asList;
+import static java.util.Collections.singletonList;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.AdditionalAnswers.delegatesTo;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+import io.opentelemetry.api.common.Attributes;
+import io.opentelemetry.api.metrics.ObservableLongMeasurement;
+import javax.management.MBeanServer;
+import javax.management.MBeanServerFactory;
+import javax.management.ObjectName;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+class MetricCollectorTest {
+
+  // An MBean used for this test
+  @SuppressWarnings("checkstyle:AbbreviationAsWordInName")
+  public interface Test3MBean {
+
+    long getValue();
+
+    long getOther();
+
+    long getBroken();
+
+    String getState();
+  }
+
+  private static class Test3 implements Test3MBean {
+    private final long value;
+    private volatile String state = "starting";
+
+    private Test3(long value) {
+      this.value = value;
+    }
+
+    @Override
+    public long getValue() {
+      return value;
+    }
+
+    @Override
+    public long getOther() {
+      return value * 10;
+    }
+
+    @Override
+    public long getBroken() {
+      throw new IllegalStateException("not available");
+    }
+
+    @Override
+    public String getState() {
+      return state;
+    }
+  }
+
+  private static final String DOMAIN = "otel.jmx.collector.test";
+
+  private final MetricCollector collector = new MetricCollector();
+  private final ObservableLongMeasurement valueMeasurement = mock(ObservableLongMeasurement.class);
+  private final ObservableLongMeasurement otherMeasurement = mock(ObservableLongMeasurement.class);
+  private MBeanServer server;
+  private ObjectName first;
+  private ObjectName second;
+
+  @BeforeEach
+  void setUp() throws Exception {
+    // not registered with the MBeanServerFactory, the calls to it are verified
+    server = mock(MBeanServer.class, delegatesTo(MBeanServerFactory.newMBeanServer(DOMAIN)));
+    first = new ObjectName(DOMAIN + ":type=Test3,name=first");
+    second = new ObjectName(DOMAIN + ":type=Test3,name=second");
+    server.registerMBean(new Test3(1), first);
+    server.registerMBean(new Test3(2), second);
+  }
+
+  @Test
+  void readsAllAttributesOfBeanWithOneCall() throws Exception {
+    MetricExtractor value = newExtractor("Value", first, second);
+    MetricExtractor other = newExtractor("Other", first, second);
+    collector.addLongMetric(value, valueMeasurement);
+    collector.addLongMetric(other, otherMeasurement);
+
+    collector.collect();
+
+    verify(server, times(1)).getAttributes(eq(first), any());
+    verify(server, times(1)).getAttributes(eq(second), any());
+    verify(server, never()).getAttribute(any(), any());
+    verify(valueMeasurement).record(1, Attributes.of(stringKey("name"), "first"));
+    verify(valueMeasurement).record(2, Attributes.of(stringKey("name"), "second"));
+    verify(otherMeasurement).record(10, Attributes.of(stringKey("name"), "first"));
+    verify(otherMeasurement).record(20, Attributes.of(stringKey("name"), "second"));
+  }
+
+  @Test
+  void recordsAttributesThatCouldBeRead() throws Exception {
+    MetricExtractor value = newExtractor("Value", first);
+    MetricExtractor broken = newExtractor("Broken", first);
+    ObservableLongMeasurement brokenMeasurement = mock(ObservableLongMeasurement.class);
+    collector.addLongMetric(value, valueMeasurement);
+    collector.addLongMetric(broken, brokenMeasurement);
+
+    collector.collect();
+
+    // the Broken attribute is missing from the result of getAttributes
+    verify(server, times(1)).getAttributes(eq(first), any());
+    verify(valueMeasurement).record(1, Attributes.of(stringKey("name"), "first"));
+    verify(brokenMeasurement, never()).record(anyLong(), any());
+  }
+
+  @Test
+  void readsBeanAttributeMetricAttributesOnEachCollection() throws Exception {
+    Test3 bean = new Test3(3);
+    ObjectName third = new ObjectName(DOMAIN + ":type=Test3,name=third");
+    server.registerMBean(bean, third);
+    MetricExtractor value =
+        new MetricExtractor(
+            new BeanAttributeExtractor("Value"),
+            new MetricInfo("value", null, "1", MetricInfo.Type.GAUGE),
+            new MetricAttribute("state", MetricAttributeExtractor.fromBeanAttribute("State")));
+    value.setStatus(new DetectionStatus(server, singletonList(third)));
+    collector.addLongMetric(value, valueMeasurement);
+
+    collector.collect();
+    bean.state = "started";
+    collector.collect();
+
+    verify(server, times(2)).getAttributes(eq(third), any());
+    verify(server, never()).getAttribute(any(), any());
+    verify(valueMeasurement).record(3, Attributes.of(stringKey("state"), "starting"));
+    verify(valueMeasurement).record(3, Attributes.of(stringKey("state"), "started"));
+  }
+
+  @Test
+  void forgetsBeansThatAreGone() throws Exception {
+    MetricExtractor value = newExtractor("Value", first, second);
+    collector.addLongMetric(value, valueMeasurement);
+
+    collector.collect();
+    assertThat(collector.cachedAttributesCount()).isEqualTo(2);
+
+    server.unregisterMBean(second);
+    value.setStatus(new DetectionStatus(server, singletonList(first)));
+    collector.invalidate();
+    collector.collect();
+
+    assertThat(collector.cachedAttributesCount()).isEqualTo(1);
+    verify(server, times(2)).getAttributes(eq(first), any());
+    verify(server, times(1)).getAttributes(eq(second), any());
+    verify(valueMeasurement, times(2)).record(1, Attributes.of(stringKey("name"), "first"));
+    verify(valueMeasurement, times(1)).record(2, Attributes.of(stringKey("name"), "second"));
+  }
+
+  private MetricExtractor newExtractor(String attributeName, ObjectName... objectNames) {
+    MetricExtractor extractor =
+        new MetricExtractor(
+            new BeanAttributeExtractor(attributeName),
+            new MetricInfo("test." + attributeName, null, "1", MetricInfo.Type.GAUGE),
+            new MetricAttribute("name", MetricAttributeExtractor.fromObjectNameParameter("name")));
+    extractor.setStatus(new DetectionStatus(server, asList(objectNames)));
+    return extractor;
+  }
+}
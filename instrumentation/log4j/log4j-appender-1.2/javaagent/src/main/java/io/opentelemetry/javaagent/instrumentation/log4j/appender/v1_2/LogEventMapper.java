@@ -14,7 +14,7 @@ import io.opentelemetry.api.logs.GlobalLoggerProvider;
 import io.opentelemetry.api.logs.LogRecordBuilder;
 import io.opentelemetry.api.logs.Severity;
 import io.opentelemetry.context.Context;
-import io.opentelemetry.instrumentation.api.internal.cache.Cache;
+import io.opentelemetry.instrumentation.api.internal.PrefixedAttributeKeys;
 import io.opentelemetry.javaagent.bootstrap.internal.InstrumentationConfig;
 import io.opentelemetry.semconv.trace.attributes.SemanticAttributes;
 import java.io.PrintWriter;
@@ -29,7 +29,8 @@ import org.apache.log4j.Priority;
 
 public final class LogEventMapper {
 
-  private static final Cache<String, AttributeKey<String>> mdcAttributeKeys = Cache.bounded(100);
+  private static final PrefixedAttributeKeys mdcAttributeKeys =
+      PrefixedAttributeKeys.create("log4j.mdc.");
 
   public static final LogEventMapper INSTANCE = new LogEventMapper();
 
@@ -129,7 +130,7 @@ public final class LogEventMapper {
   }
 
   private static AttributeKey<String> getMdcAttributeKey(String key) {
-    return mdcAttributeKeys.computeIfAbsent(key, k -> AttributeKey.stringKey("log4j.mdc." + k));
+    return mdcAttributeKeys.get(key);
   }
 
   private static Severity levelToSeverity(Priority level) {
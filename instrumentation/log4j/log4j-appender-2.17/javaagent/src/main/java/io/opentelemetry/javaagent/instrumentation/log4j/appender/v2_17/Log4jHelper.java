@@ -54,12 +54,8 @@ public final class Log4jHelper {
 
   public static void capture(
       Logger logger, Level level, Marker marker, Message message, Throwable throwable) {
-    String instrumentationName = logger.getName();
-    if (instrumentationName == null || instrumentationName.isEmpty()) {
-      instrumentationName = "ROOT";
-    }
     LogRecordBuilder builder =
-        GlobalLoggerProvider.get().loggerBuilder(instrumentationName).build().logRecordBuilder();
+        mapper.getLogger(GlobalLoggerProvider.get(), logger.getName()).logRecordBuilder();
     Map<String, String> contextData = ThreadContext.getImmutableContext();
     mapper.mapLogEvent(builder, message, level, marker, throwable, contextData);
     builder.emit();
@@ -10,6 +10,8 @@ import static java.util.Collections.emptyList;
 import com.google.errorprone.annotations.CanIgnoreReturnValue;
 import io.opentelemetry.api.logs.GlobalLoggerProvider;
 import io.opentelemetry.api.logs.LogRecordBuilder;
+import io.opentelemetry.context.Context;
+import io.opentelemetry.instrumentation.api.internal.AsyncEventHandoff;
 import io.opentelemetry.instrumentation.log4j.appender.v2_17.internal.ContextDataAccessor;
 import io.opentelemetry.instrumentation.log4j.appender.v2_17.internal.LogEventMapper;
 import java.io.Serializable;
@@ -43,6 +45,8 @@ public class OpenTelemetryAppender extends AbstractAppender {
   static final String PLUGIN_NAME = "OpenTelemetry";
 
   private final LogEventMapper<ReadOnlyStringMap> mapper;
+  private final int asyncQueueSize;
+  @Nullable private volatile AsyncEventHandoff<DeferredEvent> handoff;
 
   @PluginBuilderFactory
   public static <B extends Builder<B>> B builder() {
@@ -56,6 +60,7 @@ public class OpenTelemetryAppender extends AbstractAppender {
     @PluginBuilderAttribute private boolean captureMapMessageAttributes;
     @PluginBuilderAttribute private boolean captureMarkerAttribute;
     @PluginBuilderAttribute private String captureContextDataAttributes;
+    @PluginBuilderAttribute private int asyncQueueSize;
 
     /**
      * Sets whether experimental attributes should be set to logs. These attributes may be changed
@@ -93,6 +98,17 @@ public class OpenTelemetryAppender extends AbstractAppender {
       return asBuilder();
     }
 
+    /**
+     * Sets the size of the queue that log events are handed over through to a background thread,
+     * which maps and emits them. The default is {@code 0}, which emits the log events
+     * synchronously on the thread that logs them. Log events are dropped when the queue is full.
+     */
+    @CanIgnoreReturnValue
+    public B setAsyncQueueSize(int asyncQueueSize) {
+      this.asyncQueueSize = asyncQueueSize;
+      return asBuilder();
+    }
+
     @Override
     public OpenTelemetryAppender build() {
       return new OpenTelemetryAppender(
@@ -104,7 +120,8 @@ public class OpenTelemetryAppender extends AbstractAppender {
           captureExperimentalAttributes,
           captureMapMessageAttributes,
           captureMarkerAttribute,
-          captureContextDataAttributes);
+          captureContextDataAttributes,
+          asyncQueueSize);
     }
   }
 
@@ -117,7 +134,8 @@ public class OpenTelemetryAppender extends AbstractAppender {
       boolean captureExperimentalAttributes,
       boolean captureMapMessageAttributes,
       boolean captureMarkerAttribute,
-      String captureContextDataAttributes) {
+      String captureContextDataAttributes,
+      int asyncQueueSize) {
 
     super(name, filter, layout, ignoreExceptions, properties);
     this.mapper =
@@ -127,6 +145,7 @@ public class OpenTelemetryAppender extends AbstractAppender {
             captureMapMessageAttributes,
             captureMarkerAttribute,
             splitAndFilterBlanksAndNulls(captureContextDataAttributes));
+    this.asyncQueueSize = asyncQueueSize;
   }
 
   private static List<String> splitAndFilterBlanksAndNulls(String value) {
@@ -139,14 +158,46 @@ public class OpenTelemetryAppender extends AbstractAppender {
         .collect(Collectors.toList());
   }
 
+  @Override
+  public void start() {
+    if (asyncQueueSize > 0) {
+      handoff =
+          AsyncEventHandoff.start(
+              "otel-log4j-appender",
+              asyncQueueSize,
+              deferred -> emit(deferred.event, deferred.thread, deferred.context));
+    }
+    super.start();
+  }
+
+  @Override
+  public boolean stop(long timeout, TimeUnit timeUnit) {
+    setStopping();
+    boolean stopped = super.stop(timeout, timeUnit, false);
+    AsyncEventHandoff<DeferredEvent> handoff = this.handoff;
+    if (handoff != null) {
+      this.handoff = null;
+      handoff.close(timeout, timeUnit);
+    }
+    setStopped();
+    return stopped;
+  }
+
   @Override
   public void append(LogEvent event) {
-    String instrumentationName = event.getLoggerName();
-    if (instrumentationName == null || instrumentationName.isEmpty()) {
-      instrumentationName = "ROOT";
+    AsyncEventHandoff<DeferredEvent> handoff = this.handoff;
+    if (handoff == null) {
+      emit(event, Thread.currentThread(), Context.current());
+      return;
     }
+    // mutable log events are reused by log4j once this method returns
+    handoff.offer(
+        new DeferredEvent(event.toImmutable(), Thread.currentThread(), Context.current()));
+  }
+
+  private void emit(LogEvent event, Thread thread, Context context) {
     LogRecordBuilder builder =
-        GlobalLoggerProvider.get().loggerBuilder(instrumentationName).build().logRecordBuilder();
+        mapper.getLogger(GlobalLoggerProvider.get(), event.getLoggerName()).logRecordBuilder();
     ReadOnlyStringMap contextData = event.getContextData();
     mapper.mapLogEvent(
         builder,
@@ -154,7 +205,9 @@ public class OpenTelemetryAppender extends AbstractAppender {
         event.getLevel(),
         event.getMarker(),
         event.getThrown(),
-        contextData);
+        contextData,
+        thread,
+        context);
 
     Instant timestamp = event.getInstant();
     if (timestamp != null) {
@@ -166,6 +219,18 @@ public class OpenTelemetryAppender extends AbstractAppender {
     builder.emit();
   }
 
+  private static final class DeferredEvent {
+    private final LogEvent event;
+    private final Thread thread;
+    private final Context context;
+
+    private DeferredEvent(LogEvent event, Thread thread, Context context) {
+      this.event = event;
+      this.thread = thread;
+      this.context = context;
+    }
+  }
+
   private enum ContextDataAccessorImpl implements ContextDataAccessor<ReadOnlyStringMap> {
     INSTANCE;
 
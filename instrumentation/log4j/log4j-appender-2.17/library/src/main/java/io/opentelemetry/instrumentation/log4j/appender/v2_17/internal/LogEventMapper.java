@@ -9,13 +9,18 @@ import io.opentelemetry.api.common.AttributeKey;
 import io.opentelemetry.api.common.Attributes;
 import io.opentelemetry.api.common.AttributesBuilder;
 import io.opentelemetry.api.logs.LogRecordBuilder;
+import io.opentelemetry.api.logs.Logger;
+import io.opentelemetry.api.logs.LoggerProvider;
 import io.opentelemetry.api.logs.Severity;
 import io.opentelemetry.context.Context;
+import io.opentelemetry.instrumentation.api.internal.PrefixedAttributeKeys;
 import io.opentelemetry.instrumentation.api.internal.cache.Cache;
 import io.opentelemetry.semconv.trace.attributes.SemanticAttributes;
 import java.io.PrintWriter;
 import java.io.StringWriter;
+import java.util.ArrayList;
 import java.util.List;
+import java.util.function.Function;
 import javax.annotation.Nullable;
 import org.apache.logging.log4j.Level;
 import org.apache.logging.log4j.Marker;
@@ -31,10 +36,10 @@ public final class LogEventMapper<T> {
 
   private static final String SPECIAL_MAP_MESSAGE_ATTRIBUTE = "message";
 
-  private static final Cache<String, AttributeKey<String>> contextDataAttributeKeyCache =
-      Cache.bounded(100);
-  private static final Cache<String, AttributeKey<String>> mapMessageAttributeKeyCache =
-      Cache.bounded(100);
+  private static final PrefixedAttributeKeys contextDataAttributeKeys =
+      PrefixedAttributeKeys.create("log4j.context_data.");
+  private static final PrefixedAttributeKeys mapMessageAttributeKeys =
+      PrefixedAttributeKeys.create("log4j.map_message.");
 
   private static final AttributeKey<String> LOG_MARKER = AttributeKey.stringKey("log4j.marker");
 
@@ -44,8 +49,12 @@ public final class LogEventMapper<T> {
   private final boolean captureMapMessageAttributes;
   private final boolean captureMarkerAttribute;
   private final List<String> captureContextDataAttributes;
+  private final List<AttributeKey<String>> captureContextDataAttributeKeys;
   private final boolean captureAllContextDataAttributes;
 
+  // the loggers of the LoggerProvider used last, which only changes when the global one is set
+  @Nullable private volatile CachedLoggers cachedLoggers;
+
   public LogEventMapper(
       ContextDataAccessor<T> contextDataAccessor,
       boolean captureExperimentalAttributes,
@@ -60,6 +69,23 @@ public final class LogEventMapper<T> {
     this.captureContextDataAttributes = captureContextDataAttributes;
     this.captureAllContextDataAttributes =
         captureContextDataAttributes.size() == 1 && captureContextDataAttributes.get(0).equals("*");
+    List<AttributeKey<String>> captureContextDataAttributeKeys = new ArrayList<>();
+    for (String key : captureContextDataAttributes) {
+      captureContextDataAttributeKeys.add(getContextDataAttributeKey(key));
+    }
+    this.captureContextDataAttributeKeys = captureContextDataAttributeKeys;
+  }
+
+  /** Returns the {@link Logger} that the log events of the log4j logger are emitted to. */
+  public Logger getLogger(LoggerProvider loggerProvider, @Nullable String loggerName) {
+    String instrumentationName =
+        loggerName == null || loggerName.isEmpty() ? "ROOT" : loggerName;
+    CachedLoggers loggers = cachedLoggers;
+    if (loggers == null || loggers.loggerProvider != loggerProvider) {
+      loggers = new CachedLoggers(loggerProvider);
+      cachedLoggers = loggers;
+    }
+    return loggers.get(instrumentationName);
   }
 
   /**
@@ -81,6 +107,31 @@ public final class LogEventMapper<T> {
       @Nullable Marker marker,
       @Nullable Throwable throwable,
       T contextData) {
+    mapLogEvent(
+        builder,
+        message,
+        level,
+        marker,
+        throwable,
+        contextData,
+        Thread.currentThread(),
+        Context.current());
+  }
+
+  /**
+   * Like {@link #mapLogEvent(LogRecordBuilder, Message, Level, Marker, Throwable, Object)}, for log
+   * events that are mapped on another thread than the one that logged them: {@code thread} and
+   * {@code context} are the ones of the logging thread.
+   */
+  public void mapLogEvent(
+      LogRecordBuilder builder,
+      Message message,
+      Level level,
+      @Nullable Marker marker,
+      @Nullable Throwable throwable,
+      T contextData,
+      Thread thread,
+      Context context) {
 
     AttributesBuilder attributes = Attributes.builder();
 
@@ -105,14 +156,13 @@ public final class LogEventMapper<T> {
     captureContextDataAttributes(attributes, contextData);
 
     if (captureExperimentalAttributes) {
-      Thread currentThread = Thread.currentThread();
-      attributes.put(SemanticAttributes.THREAD_NAME, currentThread.getName());
-      attributes.put(SemanticAttributes.THREAD_ID, currentThread.getId());
+      attributes.put(SemanticAttributes.THREAD_NAME, thread.getName());
+      attributes.put(SemanticAttributes.THREAD_ID, thread.getId());
     }
 
     builder.setAllAttributes(attributes.build());
 
-    builder.setContext(Context.current());
+    builder.setContext(context);
   }
 
   // visible for testing
@@ -166,22 +216,36 @@ public final class LogEventMapper<T> {
       return;
     }
 
-    for (String key : captureContextDataAttributes) {
-      Object value = contextDataAccessor.getValue(contextData, key);
+    for (int i = 0; i < captureContextDataAttributes.size(); i++) {
+      Object value = contextDataAccessor.getValue(contextData, captureContextDataAttributes.get(i));
       if (value != null) {
-        attributes.put(getContextDataAttributeKey(key), value.toString());
+        attributes.put(captureContextDataAttributeKeys.get(i), value.toString());
       }
     }
   }
 
   public static AttributeKey<String> getContextDataAttributeKey(String key) {
-    return contextDataAttributeKeyCache.computeIfAbsent(
-        key, k -> AttributeKey.stringKey("log4j.context_data." + k));
+    return contextDataAttributeKeys.get(key);
   }
 
   public static AttributeKey<String> getMapMessageAttributeKey(String key) {
-    return mapMessageAttributeKeyCache.computeIfAbsent(
-        key, k -> AttributeKey.stringKey("log4j.map_message." + k));
+    return mapMessageAttributeKeys.get(key);
+  }
+
+  private static final class CachedLoggers {
+    private final LoggerProvider loggerProvider;
+    private final Cache<String, Logger> loggers = Cache.bounded(1000);
+    // created once, a lambda capturing the logger provider would be allocated on every lookup
+    private final Function<String, Logger> newLogger;
+
+    private CachedLoggers(LoggerProvider loggerProvider) {
+      this.loggerProvider = loggerProvider;
+      this.newLogger = name -> loggerProvider.loggerBuilder(name).build();
+    }
+
+    private Logger get(String instrumentationName) {
+      return loggers.computeIfAbsent(instrumentationName, newLogger);
+    }
   }
 
   private static void setThrowable(AttributesBuilder attributes, Throwable throwable) {
@@ -9,6 +9,8 @@ import static io.opentelemetry.api.common.AttributeKey.stringKey;
 import static io.opentelemetry.sdk.testing.assertj.LogAssertions.assertThat;
 import static io.opentelemetry.sdk.testing.assertj.OpenTelemetryAssertions.equalTo;
 import static io.opentelemetry.sdk.testing.assertj.OpenTelemetryAssertions.satisfies;
+import static org.mockito.Mockito.spy;
+import static org.mockito.Mockito.verify;
 
 import io.opentelemetry.api.common.Attributes;
 import io.opentelemetry.api.logs.GlobalLoggerProvider;
@@ -27,15 +29,21 @@ import io.opentelemetry.semconv.trace.attributes.SemanticAttributes;
 import java.time.Instant;
 import java.util.List;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+import org.apache.logging.log4j.Level;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 import org.apache.logging.log4j.Marker;
 import org.apache.logging.log4j.MarkerManager;
 import org.apache.logging.log4j.ThreadContext;
+import org.apache.logging.log4j.core.impl.ContextDataFactory;
 import org.apache.logging.log4j.core.impl.Log4jLogEvent;
+import org.apache.logging.log4j.core.impl.MutableLogEvent;
 import org.apache.logging.log4j.message.FormattedMessage;
+import org.apache.logging.log4j.message.SimpleMessage;
 import org.apache.logging.log4j.message.StringMapMessage;
 import org.apache.logging.log4j.message.StructuredDataMessage;
+import org.apache.logging.log4j.util.StringMap;
 import org.junit.jupiter.api.BeforeAll;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
@@ -230,4 +238,73 @@ class OpenTelemetryAppenderConfigTest {
             equalTo(stringKey("log4j.map_message.key1"), "val1"),
             equalTo(stringKey("log4j.map_message.key2"), "val2"));
   }
+
+  @Test
+  void logAsync() throws InterruptedException {
+    OpenTelemetryAppender appender = startAsyncAppender();
+    MutableLogEvent event = spy(new MutableLogEvent());
+    AtomicReference<Span> span = new AtomicReference<>();
+    Thread thread =
+        new Thread(
+            () ->
+                span.set(
+                    runWithSpan(
+                        "span",
+                        () -> {
+                          StringMap contextData = ContextDataFactory.createContextData();
+                          contextData.putValue("key1", "val1");
+                          event.setLoggerName("TestLogger");
+                          event.setLevel(Level.INFO);
+                          event.setMessage(new SimpleMessage("log message 1"));
+                          event.setContextData(contextData);
+                          appender.append(event);
+                          // log4j reuses mutable log events once the appenders have returned
+                          event.clear();
+                        })),
+            "logging-thread");
+    thread.start();
+    thread.join();
+    appender.stop();
+
+    // the mutable log event is copied before it is queued
+    verify(event).toImmutable();
+    // everything is taken from the logging thread, not from the thread that emits the log
+    List<LogRecordData> logDataList = logRecordExporter.getFinishedLogItems();
+    assertThat(logDataList).hasSize(1);
+    assertThat(logDataList.get(0))
+        .hasBody("log message 1")
+        .hasSeverity(Severity.INFO)
+        .hasAttributesSatisfyingExactly(
+            equalTo(stringKey("log4j.context_data.key1"), "val1"),
+            equalTo(SemanticAttributes.THREAD_NAME, "logging-thread"),
+            equalTo(SemanticAttributes.THREAD_ID, thread.getId()));
+    assertThat(logDataList.get(0).getSpanContext()).isEqualTo(span.get().getSpanContext());
+  }
+
+  @Test
+  void logAsyncFlushesOnStop() {
+    OpenTelemetryAppender appender = startAsyncAppender();
+    for (int i = 0; i < 100; i++) {
+      appender.append(
+          Log4jLogEvent.newBuilder()
+              .setLoggerName("TestLogger")
+              .setMessage(new SimpleMessage("log message " + i))
+              .build());
+    }
+    appender.stop();
+
+    assertThat(logRecordExporter.getFinishedLogItems()).hasSize(100);
+  }
+
+  private static OpenTelemetryAppender startAsyncAppender() {
+    OpenTelemetryAppender appender =
+        OpenTelemetryAppender.builder()
+            .setName("AsyncOpenTelemetryAppender")
+            .setCaptureExperimentalAttributes(true)
+            .setCaptureContextDataAttributes("key1")
+            .setAsyncQueueSize(1000)
+            .build();
+    appender.start();
+    return appender;
+  }
 }
@@ -10,10 +10,14 @@ import static java.util.Collections.emptyList;
 import ch.qos.logback.classic.spi.ILoggingEvent;
 import ch.qos.logback.core.UnsynchronizedAppenderBase;
 import io.opentelemetry.api.logs.GlobalLoggerProvider;
+import io.opentelemetry.context.Context;
+import io.opentelemetry.instrumentation.api.internal.AsyncEventHandoff;
 import io.opentelemetry.instrumentation.logback.appender.v1_0.internal.LoggingEventMapper;
 import java.util.Arrays;
 import java.util.List;
+import java.util.concurrent.TimeUnit;
 import java.util.stream.Collectors;
+import javax.annotation.Nullable;
 import org.slf4j.MDC;
 
 public class OpenTelemetryAppender extends UnsynchronizedAppenderBase<ILoggingEvent> {
@@ -22,8 +26,10 @@ public class OpenTelemetryAppender extends UnsynchronizedAppenderBase<ILoggingEv
   private volatile boolean captureCodeAttributes = false;
   private volatile boolean captureMarkerAttribute = false;
   private volatile List<String> captureMdcAttributes = emptyList();
+  private volatile int asyncQueueSize = 0;
 
   private volatile LoggingEventMapper mapper;
+  @Nullable private volatile AsyncEventHandoff<DeferredEvent> handoff;
 
   public OpenTelemetryAppender() {}
 
@@ -35,12 +41,45 @@ public class OpenTelemetryAppender extends UnsynchronizedAppenderBase<ILoggingEv
             captureMdcAttributes,
             captureCodeAttributes,
             captureMarkerAttribute);
+    if (asyncQueueSize > 0) {
+      LoggingEventMapper eventMapper = mapper;
+      handoff =
+          AsyncEventHandoff.start(
+              "otel-logback-appender",
+              asyncQueueSize,
+              deferred ->
+                  eventMapper.emit(
+                      GlobalLoggerProvider.get(),
+                      deferred.event,
+                      deferred.thread,
+                      deferred.context));
+    }
     super.start();
   }
 
+  @Override
+  public void stop() {
+    super.stop();
+    AsyncEventHandoff<DeferredEvent> handoff = this.handoff;
+    if (handoff != null) {
+      this.handoff = null;
+      handoff.close(1, TimeUnit.SECONDS);
+    }
+  }
+
   @Override
   protected void append(ILoggingEvent event) {
-    mapper.emit(GlobalLoggerProvider.get(), event);
+    AsyncEventHandoff<DeferredEvent> handoff = this.handoff;
+    if (handoff == null) {
+      mapper.emit(GlobalLoggerProvider.get(), event);
+      return;
+    }
+    // the message, the MDC and the caller data are read lazily from the logging thread
+    event.prepareForDeferredProcessing();
+    if (captureCodeAttributes) {
+      event.getCallerData();
+    }
+    handoff.offer(new DeferredEvent(event, Thread.currentThread(), Context.current()));
   }
 
   /**
@@ -82,6 +121,27 @@ public class OpenTelemetryAppender extends UnsynchronizedAppenderBase<ILoggingEv
     }
   }
 
+  /**
+   * Sets the size of the queue that log events are handed over through to a background thread,
+   * which maps and emits them. The default is {@code 0}, which emits the log events synchronously
+   * on the thread that logs them. Log events are dropped when the queue is full.
+   */
+  public void setAsyncQueueSize(int asyncQueueSize) {
+    this.asyncQueueSize = asyncQueueSize;
+  }
+
+  private static final class DeferredEvent {
+    private final ILoggingEvent event;
+    private final Thread thread;
+    private final Context context;
+
+    private DeferredEvent(ILoggingEvent event, Thread thread, Context context) {
+      this.event = event;
+      this.thread = thread;
+      this.context = context;
+    }
+  }
+
   // copied from SDK's DefaultConfigProperties
   private static List<String> filterBlanksAndNulls(String[] values) {
     return Arrays.stream(values)
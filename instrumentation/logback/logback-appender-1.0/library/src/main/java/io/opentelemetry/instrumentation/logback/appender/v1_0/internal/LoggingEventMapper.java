@@ -12,16 +12,21 @@ import io.opentelemetry.api.common.AttributeKey;
 import io.opentelemetry.api.common.Attributes;
 import io.opentelemetry.api.common.AttributesBuilder;
 import io.opentelemetry.api.logs.LogRecordBuilder;
+import io.opentelemetry.api.logs.Logger;
 import io.opentelemetry.api.logs.LoggerProvider;
 import io.opentelemetry.api.logs.Severity;
 import io.opentelemetry.context.Context;
+import io.opentelemetry.instrumentation.api.internal.PrefixedAttributeKeys;
 import io.opentelemetry.instrumentation.api.internal.cache.Cache;
 import io.opentelemetry.semconv.trace.attributes.SemanticAttributes;
 import java.io.PrintWriter;
 import java.io.StringWriter;
+import java.util.ArrayList;
 import java.util.List;
 import java.util.Map;
 import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+import javax.annotation.Nullable;
 import org.slf4j.Marker;
 
 /**
@@ -30,16 +35,21 @@ import org.slf4j.Marker;
  */
 public final class LoggingEventMapper {
 
-  private static final Cache<String, AttributeKey<String>> mdcAttributeKeys = Cache.bounded(100);
+  private static final PrefixedAttributeKeys mdcAttributeKeys =
+      PrefixedAttributeKeys.create("logback.mdc.");
 
   private static final AttributeKey<String> LOG_MARKER = AttributeKey.stringKey("logback.marker");
 
   private final boolean captureExperimentalAttributes;
   private final List<String> captureMdcAttributes;
+  private final List<AttributeKey<String>> captureMdcAttributeKeys;
   private final boolean captureAllMdcAttributes;
   private final boolean captureCodeAttributes;
   private final boolean captureMarkerAttribute;
 
+  // the loggers of the LoggerProvider used last, which only changes when the global one is set
+  @Nullable private volatile CachedLoggers cachedLoggers;
+
   public LoggingEventMapper(
       boolean captureExperimentalAttributes,
       List<String> captureMdcAttributes,
@@ -51,19 +61,41 @@ public final class LoggingEventMapper {
     this.captureMarkerAttribute = captureMarkerAttribute;
     this.captureAllMdcAttributes =
         captureMdcAttributes.size() == 1 && captureMdcAttributes.get(0).equals("*");
+    List<AttributeKey<String>> captureMdcAttributeKeys = new ArrayList<>();
+    for (String key : captureMdcAttributes) {
+      captureMdcAttributeKeys.add(getMdcAttributeKey(key));
+    }
+    this.captureMdcAttributeKeys = captureMdcAttributeKeys;
   }
 
   public void emit(LoggerProvider loggerProvider, ILoggingEvent event) {
-    String instrumentationName = event.getLoggerName();
-    if (instrumentationName == null || instrumentationName.isEmpty()) {
-      instrumentationName = "ROOT";
-    }
+    emit(loggerProvider, event, Thread.currentThread(), Context.current());
+  }
+
+  /**
+   * Emits the event, which may be done on another thread than the one that logged it: {@code
+   * thread} and {@code context} are the ones of the logging thread, and the event must have been
+   * prepared for deferred processing.
+   */
+  public void emit(
+      LoggerProvider loggerProvider, ILoggingEvent event, Thread thread, Context context) {
     LogRecordBuilder builder =
-        loggerProvider.loggerBuilder(instrumentationName).build().logRecordBuilder();
-    mapLoggingEvent(builder, event);
+        getLogger(loggerProvider, event.getLoggerName()).logRecordBuilder();
+    mapLoggingEvent(builder, event, thread, context);
     builder.emit();
   }
 
+  private Logger getLogger(LoggerProvider loggerProvider, @Nullable String loggerName) {
+    String instrumentationName =
+        loggerName == null || loggerName.isEmpty() ? "ROOT" : loggerName;
+    CachedLoggers loggers = cachedLoggers;
+    if (loggers == null || loggers.loggerProvider != loggerProvider) {
+      loggers = new CachedLoggers(loggerProvider);
+      cachedLoggers = loggers;
+    }
+    return loggers.get(instrumentationName);
+  }
+
   /**
    * Map the {@link ILoggingEvent} data model onto the {@link LogRecordBuilder}. Unmapped fields
    * include:
@@ -74,7 +106,8 @@ public final class LoggingEventMapper {
    *   <li>Mapped diagnostic context - {@link ILoggingEvent#getMDCPropertyMap()}
    * </ul>
    */
-  private void mapLoggingEvent(LogRecordBuilder builder, ILoggingEvent loggingEvent) {
+  private void mapLoggingEvent(
+      LogRecordBuilder builder, ILoggingEvent loggingEvent, Thread thread, Context context) {
     // message
     String message = loggingEvent.getFormattedMessage();
     if (message != null) {
@@ -109,9 +142,8 @@ public final class LoggingEventMapper {
     captureMdcAttributes(attributes, loggingEvent.getMDCPropertyMap());
 
     if (captureExperimentalAttributes) {
-      Thread currentThread = Thread.currentThread();
-      attributes.put(SemanticAttributes.THREAD_NAME, currentThread.getName());
-      attributes.put(SemanticAttributes.THREAD_ID, currentThread.getId());
+      attributes.put(SemanticAttributes.THREAD_NAME, thread.getName());
+      attributes.put(SemanticAttributes.THREAD_ID, thread.getId());
     }
 
     if (captureCodeAttributes) {
@@ -142,7 +174,7 @@ public final class LoggingEventMapper {
     builder.setAllAttributes(attributes.build());
 
     // span context
-    builder.setContext(Context.current());
+    builder.setContext(context);
   }
 
   // visible for testing
@@ -155,16 +187,32 @@ public final class LoggingEventMapper {
       return;
     }
 
-    for (String key : captureMdcAttributes) {
-      String value = mdcProperties.get(key);
+    for (int i = 0; i < captureMdcAttributes.size(); i++) {
+      String value = mdcProperties.get(captureMdcAttributes.get(i));
       if (value != null) {
-        attributes.put(getMdcAttributeKey(key), value);
+        attributes.put(captureMdcAttributeKeys.get(i), value);
       }
     }
   }
 
   public static AttributeKey<String> getMdcAttributeKey(String key) {
-    return mdcAttributeKeys.computeIfAbsent(key, k -> AttributeKey.stringKey("logback.mdc." + k));
+    return mdcAttributeKeys.get(key);
+  }
+
+  private static final class CachedLoggers {
+    private final LoggerProvider loggerProvider;
+    private final Cache<String, Logger> loggers = Cache.bounded(1000);
+    // created once, a lambda capturing the logger provider would be allocated on every lookup
+    private final Function<String, Logger> newLogger;
+
+    private CachedLoggers(LoggerProvider loggerProvider) {
+      this.loggerProvider = loggerProvider;
+      this.newLogger = name -> loggerProvider.loggerBuilder(name).build();
+    }
+
+    private Logger get(String instrumentationName) {
+      return loggers.computeIfAbsent(instrumentationName, newLogger);
+    }
   }
 
   private static void setThrowable(AttributesBuilder attributes, Throwable throwable) {
@@ -24,6 +24,7 @@ import io.opentelemetry.semconv.trace.attributes.SemanticAttributes;
 import java.time.Instant;
 import java.util.List;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
 import org.assertj.core.api.AssertionsForClassTypes;
 import org.junit.jupiter.api.BeforeAll;
 import org.junit.jupiter.api.BeforeEach;
@@ -170,4 +171,84 @@ class OpenTelemetryAppenderConfigTest {
             logData.getAttributes().get(AttributeKey.stringKey("logback.mdc.key2")))
         .isEqualTo("val2");
   }
+
+  @Test
+  void logAsync() throws InterruptedException {
+    ch.qos.logback.classic.Logger asyncLogger = asyncLogger("AsyncTestLogger");
+    OpenTelemetryAppender appender = startAsyncAppender(asyncLogger);
+    AtomicReference<Span> span = new AtomicReference<>();
+    Thread thread =
+        new Thread(
+            () -> {
+              MDC.put("key1", "val1");
+              try {
+                span.set(runWithSpan("span", () -> logMessage(asyncLogger, "log message 1")));
+              } finally {
+                MDC.clear();
+              }
+            },
+            "logging-thread");
+    thread.start();
+    thread.join();
+    appender.stop();
+    asyncLogger.detachAppender(appender);
+
+    // everything is taken from the logging thread, not from the thread that emits the log
+    List<LogRecordData> logDataList = logRecordExporter.getFinishedLogItems();
+    assertThat(logDataList).hasSize(1);
+    LogRecordData logData = logDataList.get(0);
+    assertThat(logData.getBody().asString()).isEqualTo("log message 1");
+    assertThat(logData.getSpanContext()).isEqualTo(span.get().getSpanContext());
+    AssertionsForClassTypes.assertThat(logData.getAttributes().get(SemanticAttributes.THREAD_NAME))
+        .isEqualTo("logging-thread");
+    AssertionsForClassTypes.assertThat(logData.getAttributes().get(SemanticAttributes.THREAD_ID))
+        .isEqualTo(thread.getId());
+    AssertionsForClassTypes.assertThat(
+            logData.getAttributes().get(AttributeKey.stringKey("logback.mdc.key1")))
+        .isEqualTo("val1");
+    AssertionsForClassTypes.assertThat(
+            logData.getAttributes().get(SemanticAttributes.CODE_NAMESPACE))
+        .isEqualTo(OpenTelemetryAppenderConfigTest.class.getName());
+    AssertionsForClassTypes.assertThat(
+            logData.getAttributes().get(SemanticAttributes.CODE_FUNCTION))
+        .isEqualTo("logMessage");
+  }
+
+  @Test
+  void logAsyncFlushesOnStop() {
+    ch.qos.logback.classic.Logger asyncLogger = asyncLogger("AsyncFlushTestLogger");
+    OpenTelemetryAppender appender = startAsyncAppender(asyncLogger);
+    for (int i = 0; i < 100; i++) {
+      asyncLogger.info("log message {}", i);
+    }
+    appender.stop();
+    asyncLogger.detachAppender(appender);
+
+    assertThat(logRecordExporter.getFinishedLogItems()).hasSize(100);
+  }
+
+  private static void logMessage(Logger logger, String message) {
+    logger.info(message);
+  }
+
+  private static ch.qos.logback.classic.Logger asyncLogger(String name) {
+    ch.qos.logback.classic.Logger asyncLogger =
+        (ch.qos.logback.classic.Logger) LoggerFactory.getLogger(name);
+    // only log to the async appender
+    asyncLogger.setAdditive(false);
+    return asyncLogger;
+  }
+
+  private static OpenTelemetryAppender startAsyncAppender(
+      ch.qos.logback.classic.Logger asyncLogger) {
+    OpenTelemetryAppender appender = new OpenTelemetryAppender();
+    appender.setContext(asyncLogger.getLoggerContext());
+    appender.setCaptureExperimentalAttributes(true);
+    appender.setCaptureCodeAttributes(true);
+    appender.setCaptureMdcAttributes("key1");
+    appender.setAsyncQueueSize(1000);
+    appender.start();
+    asyncLogger.addAppender(appender);
+    return appender;
+  }
 }
@@ -4,6 +4,7 @@ plugins {
 
 dependencies {
   implementation(project(":instrumentation:runtime-metrics:library"))
+  implementation(project(":instrumentation:runtime-metrics:runtime-metrics-jfr:library"))
 
   compileOnly("io.opentelemetry:opentelemetry-sdk-extension-autoconfigure")
 }
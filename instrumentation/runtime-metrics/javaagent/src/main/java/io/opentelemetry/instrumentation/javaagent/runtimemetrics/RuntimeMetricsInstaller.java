@@ -14,9 +14,12 @@ import io.opentelemetry.instrumentation.runtimemetrics.Cpu;
 import io.opentelemetry.instrumentation.runtimemetrics.GarbageCollector;
 import io.opentelemetry.instrumentation.runtimemetrics.MemoryPools;
 import io.opentelemetry.instrumentation.runtimemetrics.Threads;
+import io.opentelemetry.instrumentation.runtimemetrics.jfr.JfrRuntimeMetrics;
+import io.opentelemetry.instrumentation.runtimemetrics.jfr.JfrRuntimeMetricsBuilder;
 import io.opentelemetry.javaagent.extension.AgentListener;
 import io.opentelemetry.sdk.autoconfigure.AutoConfiguredOpenTelemetrySdk;
 import io.opentelemetry.sdk.autoconfigure.spi.ConfigProperties;
+import java.time.Duration;
 
 /** An {@link AgentListener} that enables runtime metrics during agent startup. */
 @AutoService(AgentListener.class)
@@ -39,5 +42,34 @@ public class RuntimeMetricsInstaller implements AgentListener {
     MemoryPools.registerObservers(openTelemetry);
     Threads.registerObservers(openTelemetry);
     GarbageCollector.registerObservers(openTelemetry);
+
+    if (config.getBoolean("otel.instrumentation.runtime-metrics.experimental.jfr.enabled", false)) {
+      registerJfrMetrics(openTelemetry, config);
+    }
+  }
+
+  private static void registerJfrMetrics(OpenTelemetry openTelemetry, ConfigProperties config) {
+    try {
+      JfrRuntimeMetricsBuilder builder = JfrRuntimeMetrics.builder(openTelemetry);
+      builder.setAllocationSamplesPerSecond(
+          config.getInt(
+              "otel.instrumentation.runtime-metrics.experimental.jfr.allocation-samples-per-second",
+              150));
+      builder.setAllocationDetailsEnabled(
+          config.getBoolean(
+              "otel.instrumentation.runtime-metrics.experimental.jfr.allocation-details.enabled",
+              false));
+      builder.setSafepointThreshold(
+          config.getDuration(
+              "otel.instrumentation.runtime-metrics.experimental.jfr.safepoint-threshold",
+              Duration.ofMillis(10)));
+      builder.setLockContentionThreshold(
+          config.getDuration(
+              "otel.instrumentation.runtime-metrics.experimental.jfr.lock-contention-threshold",
+              Duration.ofMillis(20)));
+      builder.build();
+    } catch (UnsupportedClassVersionError exception) {
+      // JFR event streaming requires java 17
+    }
   }
 }
@@ -0,0 +1,26 @@
+plugins {
+  id("otel.library-instrumentation")
+  id("otel.jmh-conventions")
+}
+
+otelJava {
+  // jdk.jfr.consumer.RecordingStream was added in java 14
+  minJavaVersionSupported.set(JavaVersion.VERSION_17)
+}
+
+dependencies {
+  implementation(project(":instrumentation-api"))
+
+  testImplementation("io.opentelemetry:opentelemetry-sdk-metrics")
+  testImplementation(project(":testing-common"))
+
+  jmhImplementation("io.opentelemetry:opentelemetry-sdk")
+  jmhImplementation("io.opentelemetry:opentelemetry-sdk-testing")
+}
+
+tasks {
+  test {
+    // the humongous allocations are only reported by G1
+    jvmArgs("-XX:+UseG1GC")
+  }
+}
@@ -0,0 +1,79 @@
+/*
+ * Copyright The OpenTelemetry Authors
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package io.opentelemetry.instrumentation.runtimemetrics.jfr;
+
+import io.opentelemetry.sdk.OpenTelemetrySdk;
+import io.opentelemetry.sdk.metrics.SdkMeterProvider;
+import io.opentelemetry.sdk.testing.exporter.InMemoryMetricReader;
+import java.util.concurrent.TimeUnit;
+import javax.annotation.Nullable;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+/**
+ * Measures the overhead of the JFR metrics on an allocation and lock heavy workload, by comparing
+ * its throughput without the metrics, with the default settings and with the allocation details.
+ */
+@Fork(3)
+@Warmup(iterations = 5, time = 2)
+@Measurement(iterations = 5, time = 2)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Threads(2)
+@State(Scope.Benchmark)
+public class JfrRuntimeMetricsBenchmark {
+
+  @Param({"disabled", "default", "allocationDetails"})
+  public String metrics;
+
+  private final Object lock = new Object();
+  private long counter;
+
+  private SdkMeterProvider meterProvider;
+  @Nullable private JfrRuntimeMetrics jfrRuntimeMetrics;
+
+  @Setup(Level.Trial)
+  public void setUp() {
+    meterProvider =
+        SdkMeterProvider.builder().registerMetricReader(InMemoryMetricReader.create()).build();
+    if (!metrics.equals("disabled")) {
+      jfrRuntimeMetrics =
+          JfrRuntimeMetrics.builder(
+                  OpenTelemetrySdk.builder().setMeterProvider(meterProvider).build())
+              .setAllocationDetailsEnabled(metrics.equals("allocationDetails"))
+              .build();
+    }
+  }
+
+  @TearDown(Level.Trial)
+  public void tearDown() {
+    if (jfrRuntimeMetrics != null) {
+      jfrRuntimeMetrics.close();
+    }
+    meterProvider.close();
+  }
+
+  @Benchmark
+  public void workload(Blackhole blackhole) {
+    for (int i = 0; i < 100; i++) {
+      blackhole.consume(new byte[64 + i]);
+      blackhole.consume(Integer.toString(i));
+      synchronized (lock) {
+        counter++;
+      }
+    }
+  }
+}
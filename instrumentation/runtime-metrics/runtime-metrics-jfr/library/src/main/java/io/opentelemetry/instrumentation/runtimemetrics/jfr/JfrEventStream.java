@@ -0,0 +1,229 @@
+/*
+ * Copyright The OpenTelemetry Authors
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package io.opentelemetry.instrumentation.runtimemetrics.jfr;
+
+import io.opentelemetry.api.OpenTelemetry;
+import io.opentelemetry.api.common.AttributeKey;
+import io.opentelemetry.api.common.Attributes;
+import io.opentelemetry.api.metrics.DoubleHistogram;
+import io.opentelemetry.api.metrics.LongCounter;
+import io.opentelemetry.api.metrics.Meter;
+import io.opentelemetry.api.metrics.MeterBuilder;
+import io.opentelemetry.instrumentation.api.internal.EmbeddedInstrumentationProperties;
+import java.time.Duration;
+import javax.annotation.Nullable;
+import jdk.jfr.FlightRecorder;
+import jdk.jfr.consumer.RecordingStream;
+
+/**
+ * The JFR recording stream, and the handlers that aggregate its events into metrics. The handlers
+ * run on the thread of the recording stream, roughly once per second for the events recorded
+ * since the previous flush.
+ */
+final class JfrEventStream {
+
+  private static final String INSTRUMENTATION_NAME = "io.opentelemetry.runtime-metrics-jfr";
+
+  @Nullable
+  private static final String INSTRUMENTATION_VERSION =
+      EmbeddedInstrumentationProperties.findVersion(INSTRUMENTATION_NAME);
+
+  private static final AttributeKey<String> GC_KEY = AttributeKey.stringKey("gc");
+  private static final AttributeKey<String> CAUSE_KEY = AttributeKey.stringKey("cause");
+  private static final AttributeKey<String> PHASE_KEY = AttributeKey.stringKey("phase");
+  private static final AttributeKey<String> OPERATION_KEY = AttributeKey.stringKey("operation");
+
+  private static final String GARBAGE_COLLECTION = "jdk.GarbageCollection";
+  private static final String GC_PHASE_PAUSE_LEVEL_1 = "jdk.GCPhasePauseLevel1";
+  private static final String OBJECT_ALLOCATION_SAMPLE = "jdk.ObjectAllocationSample";
+  private static final String OBJECT_ALLOCATION_IN_NEW_TLAB = "jdk.ObjectAllocationInNewTLAB";
+  private static final String OBJECT_ALLOCATION_OUTSIDE_TLAB = "jdk.ObjectAllocationOutsideTLAB";
+  private static final String G1_HEAP_REGION_TYPE_CHANGE = "jdk.G1HeapRegionTypeChange";
+  private static final String SAFEPOINT_STATE_SYNCHRONIZATION = "jdk.SafepointStateSynchronization";
+  private static final String EXECUTE_VM_OPERATION = "jdk.ExecuteVMOperation";
+  private static final String JAVA_MONITOR_ENTER = "jdk.JavaMonitorEnter";
+
+  private static final String STARTS_HUMONGOUS = "Starts Humongous";
+
+  private final RecordingStream recordingStream;
+
+  private JfrEventStream(RecordingStream recordingStream) {
+    this.recordingStream = recordingStream;
+  }
+
+  static boolean isFlightRecorderAvailable() {
+    return FlightRecorder.isAvailable();
+  }
+
+  static JfrEventStream start(OpenTelemetry openTelemetry, JfrRuntimeMetricsBuilder settings) {
+    Meter meter = getMeter(openTelemetry);
+    RecordingStream recordingStream = new RecordingStream();
+    // the events are consumed as they are flushed, the repository doesn't need to keep them
+    recordingStream.setMaxAge(Duration.ofMinutes(1));
+
+    handleGarbageCollections(recordingStream, meter);
+    if (settings.allocationSamplesPerSecond > 0) {
+      handleAllocationSamples(recordingStream, meter, settings.allocationSamplesPerSecond);
+    }
+    if (settings.allocationDetailsEnabled) {
+      handleAllocationDetails(recordingStream, meter);
+    }
+    handleSafepoints(recordingStream, meter, settings.safepointThreshold);
+    handleLockContention(recordingStream, meter, settings.lockContentionThreshold);
+
+    recordingStream.startAsync();
+    return new JfrEventStream(recordingStream);
+  }
+
+  private static void handleGarbageCollections(RecordingStream recordingStream, Meter meter) {
+    DoubleHistogram pauseDuration =
+        meter
+            .histogramBuilder("process.runtime.jvm.gc.pause.duration")
+            .setDescription("Total duration of the pauses of JVM garbage collections")
+            .setUnit("ms")
+            .build();
+    recordingStream.enable(GARBAGE_COLLECTION).withoutStackTrace();
+    recordingStream.onEvent(
+        GARBAGE_COLLECTION,
+        event ->
+            pauseDuration.record(
+                toMillis(event.getDuration("sumOfPauses")),
+                Attributes.of(
+                    GC_KEY, event.getString("name"), CAUSE_KEY, event.getString("cause"))));
+
+    DoubleHistogram phaseDuration =
+        meter
+            .histogramBuilder("process.runtime.jvm.gc.pause.phase.duration")
+            .setDescription("Duration of the phases of JVM garbage collection pauses")
+            .setUnit("ms")
+            .build();
+    recordingStream.enable(GC_PHASE_PAUSE_LEVEL_1).withoutStackTrace();
+    recordingStream.onEvent(
+        GC_PHASE_PAUSE_LEVEL_1,
+        event ->
+            phaseDuration.record(
+                toMillis(event.getDuration()), Attributes.of(PHASE_KEY, event.getString("name"))));
+  }
+
+  private static void handleAllocationSamples(
+      RecordingStream recordingStream, Meter meter, int samplesPerSecond) {
+    LongCounter allocated =
+        meter
+            .counterBuilder("process.runtime.jvm.memory.allocated")
+            .setDescription("Estimated number of bytes allocated on the heap")
+            .setUnit("By")
+            .build();
+    // each sample is weighted with the bytes allocated by its thread since the previous sample
+    recordingStream
+        .enable(OBJECT_ALLOCATION_SAMPLE)
+        .with("throttle", samplesPerSecond + "/s")
+        .withoutStackTrace();
+    recordingStream.onEvent(
+        OBJECT_ALLOCATION_SAMPLE, event -> allocated.add(event.getLong("weight")));
+  }
+
+  private static void handleAllocationDetails(RecordingStream recordingStream, Meter meter) {
+    LongCounter tlabAllocated =
+        meter
+            .counterBuilder("process.runtime.jvm.memory.tlab.allocated")
+            .setDescription("Number of bytes allocated on the heap for new TLABs")
+            .setUnit("By")
+            .build();
+    recordingStream.enable(OBJECT_ALLOCATION_IN_NEW_TLAB).withoutStackTrace();
+    recordingStream.onEvent(
+        OBJECT_ALLOCATION_IN_NEW_TLAB, event -> tlabAllocated.add(event.getLong("tlabSize")));
+
+    LongCounter outsideTlabAllocated =
+        meter
+            .counterBuilder("process.runtime.jvm.memory.outside_tlab.allocated")
+            .setDescription("Number of bytes allocated on the heap outside of TLABs")
+            .setUnit("By")
+            .build();
+    recordingStream.enable(OBJECT_ALLOCATION_OUTSIDE_TLAB).withoutStackTrace();
+    recordingStream.onEvent(
+        OBJECT_ALLOCATION_OUTSIDE_TLAB,
+        event -> outsideTlabAllocated.add(event.getLong("allocationSize")));
+
+    // only emitted by G1, where every humongous object starts a new region
+    LongCounter humongousAllocations =
+        meter
+            .counterBuilder("process.runtime.jvm.memory.humongous.allocations")
+            .setDescription("Number of humongous objects allocated by the G1 garbage collector")
+            .setUnit("{allocations}")
+            .build();
+    recordingStream.enable(G1_HEAP_REGION_TYPE_CHANGE).withoutStackTrace();
+    recordingStream.onEvent(
+        G1_HEAP_REGION_TYPE_CHANGE,
+        event -> {
+          if (STARTS_HUMONGOUS.equals(event.getString("to"))) {
+            humongousAllocations.add(1);
+          }
+        });
+  }
+
+  private static void handleSafepoints(
+      RecordingStream recordingStream, Meter meter, Duration threshold) {
+    DoubleHistogram synchronizationDuration =
+        meter
+            .histogramBuilder("process.runtime.jvm.safepoint.sync.duration")
+            .setDescription("Time taken by the application threads to reach safepoints")
+            .setUnit("ms")
+            .build();
+    recordingStream
+        .enable(SAFEPOINT_STATE_SYNCHRONIZATION)
+        .withThreshold(threshold)
+        .withoutStackTrace();
+    recordingStream.onEvent(
+        SAFEPOINT_STATE_SYNCHRONIZATION,
+        event -> synchronizationDuration.record(toMillis(event.getDuration())));
+
+    DoubleHistogram operationDuration =
+        meter
+            .histogramBuilder("process.runtime.jvm.safepoint.operation.duration")
+            .setDescription("Duration of the VM operations executed at safepoints")
+            .setUnit("ms")
+            .build();
+    recordingStream.enable(EXECUTE_VM_OPERATION).withThreshold(threshold).withoutStackTrace();
+    recordingStream.onEvent(
+        EXECUTE_VM_OPERATION,
+        event -> {
+          if (event.getBoolean("safepoint")) {
+            operationDuration.record(
+                toMillis(event.getDuration()),
+                Attributes.of(OPERATION_KEY, event.getString("operation")));
+          }
+        });
+  }
+
+  private static void handleLockContention(
+      RecordingStream recordingStream, Meter meter, Duration threshold) {
+    DoubleHistogram contentionDuration =
+        meter
+            .histogramBuilder("process.runtime.jvm.monitor.contention.duration")
+            .setDescription("Time spent by threads waiting to enter contended monitors")
+            .setUnit("ms")
+            .build();
+    recordingStream.enable(JAVA_MONITOR_ENTER).withThreshold(threshold).withoutStackTrace();
+    recordingStream.onEvent(
+        JAVA_MONITOR_ENTER, event -> contentionDuration.record(toMillis(event.getDuration())));
+  }
+
+  private static Meter getMeter(OpenTelemetry openTelemetry) {
+    MeterBuilder meterBuilder = openTelemetry.meterBuilder(INSTRUMENTATION_NAME);
+    if (INSTRUMENTATION_VERSION != null) {
+      meterBuilder.setInstrumentationVersion(INSTRUMENTATION_VERSION);
+    }
+    return meterBuilder.build();
+  }
+
+  private static double toMillis(Duration duration) {
+    return duration.toNanos() / 1_000_000.0;
+  }
+
+  void close() {
+    recordingStream.close();
+  }
+}
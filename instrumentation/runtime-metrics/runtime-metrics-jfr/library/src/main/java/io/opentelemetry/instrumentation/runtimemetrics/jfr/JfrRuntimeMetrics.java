@@ -0,0 +1,54 @@
+/*
+ * Copyright The OpenTelemetry Authors
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package io.opentelemetry.instrumentation.runtimemetrics.jfr;
+
+import io.opentelemetry.api.OpenTelemetry;
+import java.io.Closeable;
+import javax.annotation.Nullable;
+
+/**
+ * Records metrics about JVM garbage collection pauses, allocations, safepoints and lock
+ * contention, aggregated in-process from the events of a JDK Flight Recorder recording stream.
+ *
+ * <p>Example usage:
+ *
+ * <pre>{@code
+ * JfrRuntimeMetrics jfrRuntimeMetrics = JfrRuntimeMetrics.create(GlobalOpenTelemetry.get());
+ * // ...
+ * jfrRuntimeMetrics.close();
+ * }</pre>
+ *
+ * <p>Nothing is recorded when JDK Flight Recorder is not available in the running JVM.
+ */
+public final class JfrRuntimeMetrics implements Closeable {
+
+  /**
+   * Returns a new {@link JfrRuntimeMetrics} that records the metrics with the default settings of
+   * {@link JfrRuntimeMetricsBuilder}.
+   */
+  public static JfrRuntimeMetrics create(OpenTelemetry openTelemetry) {
+    return builder(openTelemetry).build();
+  }
+
+  /** Returns a new {@link JfrRuntimeMetricsBuilder} configured with the given OpenTelemetry. */
+  public static JfrRuntimeMetricsBuilder builder(OpenTelemetry openTelemetry) {
+    return new JfrRuntimeMetricsBuilder(openTelemetry);
+  }
+
+  @Nullable private final JfrEventStream eventStream;
+
+  JfrRuntimeMetrics(@Nullable JfrEventStream eventStream) {
+    this.eventStream = eventStream;
+  }
+
+  /** Stops the recording stream; no metrics are recorded after this method returns. */
+  @Override
+  public void close() {
+    if (eventStream != null) {
+      eventStream.close();
+    }
+  }
+}
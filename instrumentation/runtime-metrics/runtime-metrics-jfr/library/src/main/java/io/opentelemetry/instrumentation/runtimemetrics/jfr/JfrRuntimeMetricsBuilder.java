@@ -0,0 +1,116 @@
+/*
+ * Copyright The OpenTelemetry Authors
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package io.opentelemetry.instrumentation.runtimemetrics.jfr;
+
+import static java.util.logging.Level.WARNING;
+
+import com.google.errorprone.annotations.CanIgnoreReturnValue;
+import io.opentelemetry.api.OpenTelemetry;
+import java.time.Duration;
+import java.util.logging.Logger;
+
+/**
+ * A builder of {@link JfrRuntimeMetrics}.
+ *
+ * <p>JDK Flight Recorder events are cheap to record without their stack traces, which are never
+ * collected here. Besides the events, the recording stream has a fixed cost: the JDK Flight
+ * Recorder threads, and the thread of the stream that reads the recorded events once per second.
+ * The default settings only enable events that are rare, or whose rate is bounded, and use the
+ * thresholds of the JDK's {@code default.jfc} settings, so that the fixed cost dominates. The
+ * thresholds below trade the accuracy of the reported distributions for fewer events: events
+ * shorter than the threshold are not recorded, and do not appear in the histograms.
+ */
+public final class JfrRuntimeMetricsBuilder {
+
+  private static final Logger logger = Logger.getLogger(JfrRuntimeMetricsBuilder.class.getName());
+
+  private final OpenTelemetry openTelemetry;
+
+  int allocationSamplesPerSecond = 150;
+  boolean allocationDetailsEnabled = false;
+  Duration safepointThreshold = Duration.ofMillis(10);
+  Duration lockContentionThreshold = Duration.ofMillis(20);
+
+  JfrRuntimeMetricsBuilder(OpenTelemetry openTelemetry) {
+    this.openTelemetry = openTelemetry;
+  }
+
+  /**
+   * Sets the maximum number of allocation samples taken per second to estimate the allocation rate
+   * reported by the {@code process.runtime.jvm.memory.allocated} metric; {@code 0} disables the
+   * metric. Default is {@code 150}.
+   */
+  @CanIgnoreReturnValue
+  public JfrRuntimeMetricsBuilder setAllocationSamplesPerSecond(int allocationSamplesPerSecond) {
+    if (allocationSamplesPerSecond < 0) {
+      throw new IllegalArgumentException("allocationSamplesPerSecond must not be negative");
+    }
+    this.allocationSamplesPerSecond = allocationSamplesPerSecond;
+    return this;
+  }
+
+  /**
+   * Sets whether TLAB and humongous allocations are recorded. These events are emitted on every
+   * TLAB refill and every allocation outside of a TLAB, which can be frequent enough in allocation
+   * heavy applications to make them noticeably more expensive than the other metrics. Default is
+   * {@code false}.
+   */
+  @CanIgnoreReturnValue
+  public JfrRuntimeMetricsBuilder setAllocationDetailsEnabled(boolean allocationDetailsEnabled) {
+    this.allocationDetailsEnabled = allocationDetailsEnabled;
+    return this;
+  }
+
+  /**
+   * Sets the minimum duration of the safepoint synchronizations and operations that are recorded.
+   * Default is 10 milliseconds, like in the JDK's {@code default.jfc} settings; {@link
+   * Duration#ZERO} records all safepoints, like the {@code profile.jfc} settings.
+   */
+  @CanIgnoreReturnValue
+  public JfrRuntimeMetricsBuilder setSafepointThreshold(Duration safepointThreshold) {
+    this.safepointThreshold = requireNotNegative(safepointThreshold, "safepointThreshold");
+    return this;
+  }
+
+  /**
+   * Sets the minimum duration of the contended monitor enters that are recorded. Uncontended and
+   * briefly contended locks can be acquired millions of times per second, so a low threshold may
+   * be expensive. Default is 20 milliseconds.
+   */
+  @CanIgnoreReturnValue
+  public JfrRuntimeMetricsBuilder setLockContentionThreshold(Duration lockContentionThreshold) {
+    this.lockContentionThreshold =
+        requireNotNegative(lockContentionThreshold, "lockContentionThreshold");
+    return this;
+  }
+
+  /**
+   * Returns a new {@link JfrRuntimeMetrics} with the settings of this {@link
+   * JfrRuntimeMetricsBuilder}, that records metrics until it is closed.
+   */
+  public JfrRuntimeMetrics build() {
+    // checked before any class of the jdk.jfr module is touched, the module is optional
+    if (!ModuleLayer.boot().findModule("jdk.jfr").isPresent()
+        || !JfrEventStream.isFlightRecorderAvailable()) {
+      logger.fine("JDK Flight Recorder is not available; JFR metrics will not be reported.");
+      return new JfrRuntimeMetrics(null);
+    }
+    try {
+      return new JfrRuntimeMetrics(JfrEventStream.start(openTelemetry, this));
+    } catch (RuntimeException e) {
+      // e.g. the JFR repository can't be created
+      logger.log(WARNING, "Failed to start the JFR recording stream", e);
+      return new JfrRuntimeMetrics(null);
+    }
+  }
+
+  private static Duration requireNotNegative(Duration duration, String name) {
+    if (duration.isNegative()) {
+      throw new IllegalArgumentException(name + " must not be negative");
+    }
+    return duration;
+  }
+}
@@ -0,0 +1,206 @@
+/*
+ * Copyright The OpenTelemetry Authors
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package io.opentelemetry.instrumentation.runtimemetrics.jfr;
+
+import static io.opentelemetry.sdk.testing.assertj.OpenTelemetryAssertions.assertThat;
+
+import io.opentelemetry.api.common.AttributeKey;
+import io.opentelemetry.instrumentation.testing.junit.InstrumentationExtension;
+import io.opentelemetry.instrumentation.testing.junit.LibraryInstrumentationExtension;
+import java.time.Duration;
+import java.util.concurrent.CountDownLatch;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.RegisterExtension;
+
+class JfrRuntimeMetricsTest {
+
+  @RegisterExtension
+  static final InstrumentationExtension testing = LibraryInstrumentationExtension.create();
+
+  private static final String INSTRUMENTATION_NAME = "io.opentelemetry.runtime-metrics-jfr";
+
+  private static final AttributeKey<String> PHASE_KEY = AttributeKey.stringKey("phase");
+  private static final AttributeKey<String> OPERATION_KEY = AttributeKey.stringKey("operation");
+
+  private JfrRuntimeMetrics jfrRuntimeMetrics;
+  // keeps the allocations from being optimized away
+  @SuppressWarnings("unused")
+  private volatile Object allocated;
+
+  @AfterEach
+  void tearDown() {
+    jfrRuntimeMetrics.close();
+  }
+
+  @Test
+  void recordsGarbageCollectionPauses() {
+    jfrRuntimeMetrics = JfrRuntimeMetrics.create(testing.getOpenTelemetry());
+
+    System.gc();
+
+    testing.waitAndAssertMetrics(
+        INSTRUMENTATION_NAME,
+        "process.runtime.jvm.gc.pause.duration",
+        metrics ->
+            metrics.anySatisfy(
+                metricData -> {
+                  assertThat(metricData).hasUnit("ms");
+                  assertThat(metricData.getHistogramData().getPoints())
+                      .anySatisfy(
+                          point ->
+                              assertThat(point.getAttributes())
+                                  .containsEntry("cause", "System.gc()"));
+                }));
+  }
+
+  @Test
+  void recordsGarbageCollectionPhases() {
+    jfrRuntimeMetrics = JfrRuntimeMetrics.create(testing.getOpenTelemetry());
+
+    System.gc();
+
+    testing.waitAndAssertMetrics(
+        INSTRUMENTATION_NAME,
+        "process.runtime.jvm.gc.pause.phase.duration",
+        metrics ->
+            metrics.anySatisfy(
+                metricData -> {
+                  assertThat(metricData).hasUnit("ms");
+                  assertThat(metricData.getHistogramData().getPoints())
+                      .anySatisfy(
+                          point -> assertThat(point.getAttributes()).containsKey(PHASE_KEY));
+                }));
+  }
+
+  @Test
+  void recordsAllocations() {
+    jfrRuntimeMetrics = JfrRuntimeMetrics.create(testing.getOpenTelemetry());
+
+    for (int i = 0; i < 1_000; i++) {
+      allocated = new byte[1024 * 1024];
+    }
+
+    testing.waitAndAssertMetrics(
+        INSTRUMENTATION_NAME,
+        "process.runtime.jvm.memory.allocated",
+        metrics ->
+            metrics.anySatisfy(
+                metricData ->
+                    assertThat(metricData)
+                        .hasUnit("By")
+                        .hasLongSumSatisfying(sum -> sum.isMonotonic())));
+  }
+
+  @Test
+  void recordsAllocationDetails() {
+    jfrRuntimeMetrics =
+        JfrRuntimeMetrics.builder(testing.getOpenTelemetry())
+            .setAllocationDetailsEnabled(true)
+            .build();
+
+    for (int i = 0; i < 100_000; i++) {
+      allocated = new byte[128];
+    }
+    // larger than a TLAB, and than half a G1 region for the heap sizes the tests run with
+    for (int i = 0; i < 10; i++) {
+      allocated = new byte[4 * 1024 * 1024];
+    }
+
+    testing.waitAndAssertMetrics(
+        INSTRUMENTATION_NAME,
+        "process.runtime.jvm.memory.tlab.allocated",
+        metrics ->
+            metrics.anySatisfy(
+                metricData ->
+                    assertThat(metricData)
+                        .hasUnit("By")
+                        .hasLongSumSatisfying(sum -> sum.isMonotonic())));
+    testing.waitAndAssertMetrics(
+        INSTRUMENTATION_NAME,
+        "process.runtime.jvm.memory.outside_tlab.allocated",
+        metrics ->
+            metrics.anySatisfy(
+                metricData ->
+                    assertThat(metricData)
+                        .hasUnit("By")
+                        .hasLongSumSatisfying(sum -> sum.isMonotonic())));
+    testing.waitAndAssertMetrics(
+        INSTRUMENTATION_NAME,
+        "process.runtime.jvm.memory.humongous.allocations",
+        metrics ->
+            metrics.anySatisfy(
+                metricData ->
+                    assertThat(metricData)
+                        .hasUnit("{allocations}")
+                        .hasLongSumSatisfying(sum -> sum.isMonotonic())));
+  }
+
+  @Test
+  void recordsSafepoints() {
+    jfrRuntimeMetrics =
+        JfrRuntimeMetrics.builder(testing.getOpenTelemetry())
+            .setSafepointThreshold(Duration.ZERO)
+            .build();
+
+    // a full collection is a VM operation executed at a safepoint
+    System.gc();
+
+    testing.waitAndAssertMetrics(
+        INSTRUMENTATION_NAME,
+        "process.runtime.jvm.safepoint.sync.duration",
+        metrics -> metrics.anySatisfy(metricData -> assertThat(metricData).hasUnit("ms")));
+    testing.waitAndAssertMetrics(
+        INSTRUMENTATION_NAME,
+        "process.runtime.jvm.safepoint.operation.duration",
+        metrics ->
+            metrics.anySatisfy(
+                metricData -> {
+                  assertThat(metricData).hasUnit("ms");
+                  assertThat(metricData.getHistogramData().getPoints())
+                      .anySatisfy(
+                          point -> assertThat(point.getAttributes()).containsKey(OPERATION_KEY));
+                }));
+  }
+
+  @Test
+  void recordsLockContention() throws InterruptedException {
+    jfrRuntimeMetrics = JfrRuntimeMetrics.create(testing.getOpenTelemetry());
+
+    Object lock = new Object();
+    CountDownLatch locked = new CountDownLatch(1);
+    Thread thread =
+        new Thread(
+            () -> {
+              synchronized (lock) {
+                locked.countDown();
+                try {
+                  // longer than the default 20 milliseconds threshold
+                  Thread.sleep(200);
+                } catch (InterruptedException e) {
+                  Thread.currentThread().interrupt();
+                }
+              }
+            });
+    thread.start();
+    locked.await();
+    synchronized (lock) {
+      allocated = lock;
+    }
+    thread.join();
+
+    testing.waitAndAssertMetrics(
+        INSTRUMENTATION_NAME,
+        "process.runtime.jvm.monitor.contention.duration",
+        metrics ->
+            metrics.anySatisfy(
+                metricData -> {
+                  assertThat(metricData).hasUnit("ms");
+                  assertThat(metricData.getHistogramData().getPoints())
+                      .anySatisfy(point -> assertThat(point.getSum()).isGreaterThan(100));
+                }));
+  }
+}
@@ -13,6 +13,7 @@ import java.io.IOException;
 import java.lang.instrument.Instrumentation;
 import java.net.URISyntaxException;
 import java.security.CodeSource;
+import java.util.Arrays;
 import java.util.jar.JarFile;
 import java.util.jar.Manifest;
 
@@ -110,11 +111,22 @@ public final class OpenTelemetryAgent {
   }
 
   /**
-   * Main entry point.
+   * Main entry point. Prints the agent version, or runs the static instrumenter when the first
+   * argument is {@code instrument}.
    *
    * @param args command line arguments
    */
   public static void main(String... args) {
+    if (args.length > 0 && args[0].equals("instrument")) {
+      try {
+        AgentInitializer.runStaticInstrumenter(Arrays.copyOfRange(args, 1, args.length));
+      } catch (Throwable e) {
+        System.err.println("ERROR " + OpenTelemetryAgent.class.getName());
+        e.printStackTrace();
+        System.exit(1);
+      }
+      return;
+    }
     try {
       System.out.println(OpenTelemetryAgent.class.getPackage().getImplementationVersion());
     } catch (RuntimeException e) {
@@ -8,6 +8,7 @@ package io.opentelemetry.javaagent.bootstrap;
 import java.io.File;
 import java.lang.instrument.Instrumentation;
 import java.lang.reflect.Constructor;
+import java.lang.reflect.InvocationTargetException;
 import javax.annotation.Nullable;
 
 /**
@@ -85,6 +86,26 @@ public final class AgentInitializer {
     agentStarter.start();
   }
 
+  /**
+   * Runs the static instrumenter with the given arguments; the agent has to be attached to the
+   * current JVM.
+   */
+  public static void runStaticInstrumenter(String[] args) throws Exception {
+    if (agentClassLoader == null) {
+      throw new IllegalStateException(
+          "The static instrumenter has to be run with the agent attached (-javaagent)");
+    }
+    Class<?> staticInstrumenterClass =
+        agentClassLoader.loadClass(
+            "io.opentelemetry.javaagent.tooling.staticinstrumenter.StaticInstrumenter");
+    try {
+      staticInstrumenterClass.getMethod("main", String[].class).invoke(null, (Object) args);
+    } catch (InvocationTargetException e) {
+      Throwable cause = e.getCause();
+      throw cause instanceof Exception ? (Exception) cause : e;
+    }
+  }
+
   public static ClassLoader getExtensionsClassLoader() {
     // agentStarter can be null when running tests
     return agentStarter != null ? agentStarter.getExtensionClassLoader() : null;
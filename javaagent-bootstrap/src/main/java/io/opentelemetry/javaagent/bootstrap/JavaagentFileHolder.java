@@ -8,8 +8,6 @@ package io.opentelemetry.javaagent.bootstrap;
 import java.io.File;
 import javax.annotation.Nullable;
 
-// this is currently unused in this repository, but is available for use in distros
-
 /** This class serves as an "everywhere accessible" source of the agent jar file. */
 public final class JavaagentFileHolder {
 
@@ -0,0 +1,116 @@
+/*
+ * Copyright The OpenTelemetry Authors
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package io.opentelemetry.javaagent.tooling.instrumentation;
+
+import static io.opentelemetry.javaagent.extension.matcher.AgentElementMatchers.implementsInterface;
+import static net.bytebuddy.matcher.ElementMatchers.any;
+import static net.bytebuddy.matcher.ElementMatchers.named;
+
+import java.io.IOException;
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.security.CodeSource;
+import java.security.ProtectionDomain;
+import java.security.cert.Certificate;
+import java.util.concurrent.TimeUnit;
+import net.bytebuddy.agent.builder.AgentBuilder;
+import net.bytebuddy.description.type.TypeDescription;
+import net.bytebuddy.matcher.ElementMatcher;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Compares the cached type matcher with evaluating the wrapped type matcher. The types are loaded
+ * classes, so resolving the hierarchy is cheaper here than it is for the pooled type descriptions
+ * that the agent matches while transforming.
+ */
+@Fork(1)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 10, time = 1)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@BenchmarkMode(Mode.AverageTime)
+@State(Scope.Benchmark)
+public class MatchDecisionCacheBenchmark {
+
+  private static final TypeDescription STRING = TypeDescription.ForLoadedType.of(String.class);
+  private static final ElementMatcher<ClassLoader> ANY_CLASS_LOADER = any();
+
+  private Path cacheFile;
+  private Path jar;
+  private ProtectionDomain protectionDomain;
+  // decisions are only recorded for class loaders that load from jars
+  private URLClassLoader classLoader;
+
+  private AgentBuilder.RawMatcher nameMatcher;
+  private AgentBuilder.RawMatcher cachedNameMatcher;
+  private AgentBuilder.RawMatcher hierarchyMatcher;
+  private AgentBuilder.RawMatcher cachedHierarchyMatcher;
+
+  @Setup(Level.Trial)
+  public void setUp() throws IOException {
+    cacheFile = Files.createTempFile("otel-match-cache", null);
+    jar = Files.write(Files.createTempFile("otel-match-cache", ".jar"), new byte[] {1, 2, 3});
+    URL jarUrl = jar.toUri().toURL();
+    protectionDomain = new ProtectionDomain(new CodeSource(jarUrl, (Certificate[]) null), null);
+    classLoader = new URLClassLoader(new URL[] {jarUrl}, null);
+
+    ElementMatcher<TypeDescription> name = named("java.lang.String");
+    ElementMatcher<TypeDescription> hierarchy =
+        implementsInterface(named("java.lang.CharSequence"));
+    MatchDecisionCache cache = new MatchDecisionCache(cacheFile);
+    nameMatcher = new AgentBuilder.RawMatcher.ForElementMatchers(name, ANY_CLASS_LOADER);
+    cachedNameMatcher =
+        cache.typeMatcher(cache.nextTypeInstrumentationId(), name, ANY_CLASS_LOADER, "failed");
+    hierarchyMatcher = new AgentBuilder.RawMatcher.ForElementMatchers(hierarchy, ANY_CLASS_LOADER);
+    cachedHierarchyMatcher =
+        cache.typeMatcher(
+            cache.nextTypeInstrumentationId(), hierarchy, ANY_CLASS_LOADER, "failed");
+    cache.load();
+  }
+
+  @TearDown(Level.Trial)
+  public void tearDown() throws IOException {
+    classLoader.close();
+    Files.deleteIfExists(cacheFile);
+    Files.deleteIfExists(jar);
+  }
+
+  @Benchmark
+  public boolean nameMatcher() {
+    return matches(nameMatcher);
+  }
+
+  @Benchmark
+  public boolean nameMatcher_cached() {
+    return matches(cachedNameMatcher);
+  }
+
+  @Benchmark
+  public boolean hierarchyMatcher() {
+    return matches(hierarchyMatcher);
+  }
+
+  @Benchmark
+  public boolean hierarchyMatcher_cached() {
+    return matches(cachedHierarchyMatcher);
+  }
+
+  private boolean matches(AgentBuilder.RawMatcher matcher) {
+    return matcher.matches(STRING, classLoader, null, null, protectionDomain);
+  }
+}
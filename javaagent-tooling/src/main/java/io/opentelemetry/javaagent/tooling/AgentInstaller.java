@@ -11,12 +11,14 @@ import static io.opentelemetry.javaagent.tooling.SafeServiceLoader.loadOrdered;
 import static io.opentelemetry.javaagent.tooling.Utils.getResourceName;
 import static java.util.logging.Level.FINE;
 import static java.util.logging.Level.SEVERE;
+import static java.util.logging.Level.WARNING;
 import static net.bytebuddy.matcher.ElementMatchers.any;
 
 import io.opentelemetry.context.Context;
 import io.opentelemetry.context.ContextStorage;
 import io.opentelemetry.context.Scope;
 import io.opentelemetry.instrumentation.api.internal.EmbeddedInstrumentationProperties;
+import io.opentelemetry.instrumentation.api.internal.SupportabilityMetrics;
 import io.opentelemetry.javaagent.bootstrap.AgentClassLoader;
 import io.opentelemetry.javaagent.bootstrap.BootstrapPackagePrefixesHolder;
 import io.opentelemetry.javaagent.bootstrap.ClassFileTransformerHolder;
@@ -36,15 +38,19 @@ import io.opentelemetry.javaagent.tooling.ignore.IgnoredClassLoadersMatcher;
 import io.opentelemetry.javaagent.tooling.ignore.IgnoredTypesBuilderImpl;
 import io.opentelemetry.javaagent.tooling.ignore.IgnoredTypesMatcher;
 import io.opentelemetry.javaagent.tooling.muzzle.AgentTooling;
+import io.opentelemetry.javaagent.tooling.staticinstrumenter.StaticInstrumenter;
 import io.opentelemetry.javaagent.tooling.util.Trie;
 import io.opentelemetry.sdk.autoconfigure.AutoConfiguredOpenTelemetrySdk;
 import io.opentelemetry.sdk.autoconfigure.spi.ConfigProperties;
+import java.io.IOException;
 import java.lang.instrument.Instrumentation;
+import java.time.Duration;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.jar.JarFile;
 import java.util.logging.LogManager;
 import java.util.logging.Logger;
 import java.util.stream.Stream;
@@ -72,6 +78,19 @@ public class AgentInstaller {
   private static final String FORCE_SYNCHRONOUS_AGENT_LISTENERS_CONFIG =
       "otel.javaagent.experimental.force-synchronous-agent-listeners";
 
+  // Exports the suppressed span counts and internal cache statistics as metrics
+  private static final String SUPPORTABILITY_METRICS_ENABLED_CONFIG =
+      "otel.javaagent.experimental.supportability-metrics.enabled";
+
+  // Path to the bootstrap jar written by the StaticInstrumenter; when set the application is
+  // expected to be statically instrumented, and the class file transformer is not installed
+  private static final String STATIC_INSTRUMENTATION_BOOTSTRAP_JAR_CONFIG =
+      "otel.javaagent.experimental.static-instrumentation.bootstrap-jar";
+
+  // How long the type pool cache keeps the large capacity it has while the application starts
+  private static final String TYPE_POOL_CACHE_STARTUP_PHASE_CONFIG =
+      "otel.javaagent.experimental.type-pool-cache.startup-phase";
+
   private static final String STRICT_CONTEXT_STRESSOR_MILLIS =
       "otel.javaagent.testing.strict-context-stressor-millis";
 
@@ -116,6 +135,11 @@ public class AgentInstaller {
     ConfigProperties sdkConfig = autoConfiguredSdk.getConfig();
     InstrumentationConfig.internalInitializeConfig(new ConfigPropertiesBridge(sdkConfig));
     copyNecessaryConfigToSystemProperties(sdkConfig);
+    if (sdkConfig.getBoolean(SUPPORTABILITY_METRICS_ENABLED_CONFIG, false)) {
+      SupportabilityMetrics.instance()
+          .registerMetrics(
+              autoConfiguredSdk.getOpenTelemetrySdk().getMeter("io.opentelemetry.javaagent"));
+    }
 
     setBootstrapPackages(sdkConfig, extensionClassLoader);
 
@@ -124,6 +148,17 @@ public class AgentInstaller {
       agentListener.beforeAgent(autoConfiguredSdk);
     }
 
+    String staticInstrumentationBootstrapJar =
+        sdkConfig.getString(STATIC_INSTRUMENTATION_BOOTSTRAP_JAR_CONFIG);
+    if (staticInstrumentationBootstrapJar != null) {
+      installStaticInstrumentationBootstrap(inst, staticInstrumentationBootstrapJar);
+      runAfterAgentListeners(agentListeners, autoConfiguredSdk);
+      return;
+    }
+    if (sdkConfig.getBoolean(StaticInstrumenter.ENABLED_CONFIG, false)) {
+      StaticInstrumenter.recordInjectedClasses();
+    }
+
     AgentBuilder agentBuilder =
         new AgentBuilder.Default(
                 // default method graph compiler inspects the class hierarchy, we don't need it, so
@@ -180,10 +215,37 @@ public class AgentInstaller {
 
     ResettableClassFileTransformer resettableClassFileTransformer = agentBuilder.installOn(inst);
     ClassFileTransformerHolder.setClassFileTransformer(resettableClassFileTransformer);
+    AgentTooling.endStartupPhaseAfter(
+        sdkConfig.getDuration(TYPE_POOL_CACHE_STARTUP_PHASE_CONFIG, Duration.ofMinutes(1)));
+
+    if (sdkConfig.getBoolean(CdsTraining.ENABLED_CONFIG, false)) {
+      CdsTraining.loadAgentClasses(AgentInstaller.class.getClassLoader());
+    }
 
     runAfterAgentListeners(agentListeners, autoConfiguredSdk);
   }
 
+  private static void installStaticInstrumentationBootstrap(
+      Instrumentation inst, String bootstrapJar) {
+    try {
+      inst.appendToBootstrapClassLoaderSearch(new JarFile(bootstrapJar, false));
+    } catch (IOException e) {
+      throw new IllegalStateException(
+          "Unable to read the static instrumentation bootstrap jar " + bootstrapJar, e);
+    }
+    logger.log(
+        FINE,
+        "Using the static instrumentation bootstrap jar {0}, not installing the class file"
+            + " transformer",
+        bootstrapJar);
+    // JDK classes can't be instrumented ahead of time
+    logger.log(
+        WARNING,
+        "Running statically instrumented classes: JDK classes (e.g. executors, threads, HTTP URL"
+            + " connections) are not instrumented, so the context is not propagated across"
+            + " executors");
+  }
+
   private static void copyNecessaryConfigToSystemProperties(ConfigProperties config) {
     String value = config.getString("otel.instrumentation.experimental.span-suppression-strategy");
     if (value != null) {
@@ -0,0 +1,122 @@
+/*
+ * Copyright The OpenTelemetry Authors
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package io.opentelemetry.javaagent.tooling;
+
+import static java.util.logging.Level.FINE;
+import static java.util.logging.Level.INFO;
+import static java.util.logging.Level.WARNING;
+
+import io.opentelemetry.javaagent.bootstrap.JavaagentFileHolder;
+import java.io.File;
+import java.io.IOException;
+import java.util.Enumeration;
+import java.util.jar.JarEntry;
+import java.util.jar.JarFile;
+import java.util.logging.Logger;
+import javax.annotation.Nullable;
+
+/**
+ * Support for storing the agent's own classes in a dynamic AppCDS archive (JDK 13+).
+ *
+ * <p>The classes of the agent class loader and of the extension class loader are defined from jar
+ * files with a code source, so the JVM can archive them like the classes of any other user-defined
+ * class loader, and reuse them on later starts when their bytes didn't change. The archive is
+ * created by a training run of the application:
+ *
+ * <pre>
+ * java -XX:ArchiveClassesAtExit=app.jsa -Dotel.javaagent.experimental.cds-training.enabled=true \
+ *   -javaagent:opentelemetry-javaagent.jar -jar app.jar
+ * </pre>
+ *
+ * <p>The archive is written when the application exits, and is then used with:
+ *
+ * <pre>
+ * java -XX:SharedArchiveFile=app.jsa -javaagent:opentelemetry-javaagent.jar -jar app.jar
+ * </pre>
+ *
+ * <p>Only classes that were loaded during the training run are archived, and a short training run
+ * doesn't load the classes that the agent only needs later, e.g. to transform classes or to export
+ * telemetry. That's why the training mode loads all the agent's classes right after the agent is
+ * installed. The instrumentation classes are left out: apart from the instrumentation modules,
+ * which are loaded during startup anyway, they are helper and advice classes that are injected
+ * into, or inlined in, the application's class loaders.
+ *
+ * <p>Classes that are loaded but not linked when the archive is written are skipped ({@code
+ * Skipping ...: Not linked} with {@code -Xlog:cds}), so the classes are linked, without running
+ * their static initializers, by reflecting on their declared methods. Whether the agent classes
+ * were archived can be checked with {@code -Xlog:class+load}: they are loaded from {@code shared
+ * objects file (top)} instead of from the agent jar.
+ *
+ * <p>The classes that the agent appends to the bootstrap class loader and the classes it injects
+ * at runtime can't be archived.
+ */
+final class CdsTraining {
+
+  private static final Logger logger = Logger.getLogger(CdsTraining.class.getName());
+
+  static final String ENABLED_CONFIG = "otel.javaagent.experimental.cds-training.enabled";
+
+  // keep in sync with AgentInitializer and AgentClassLoader
+  private static final String AGENT_CLASSES_PREFIX = "inst/";
+  private static final String CLASS_SUFFIX = ".classdata";
+
+  static void loadAgentClasses(ClassLoader agentClassLoader) {
+    File javaagentFile = JavaagentFileHolder.getJavaagentFile();
+    if (javaagentFile == null) {
+      logger.warning("Agent jar location is unknown, not loading the agent classes");
+      return;
+    }
+
+    int loaded = 0;
+    int failed = 0;
+    try (JarFile jarFile = new JarFile(javaagentFile, false)) {
+      Enumeration<JarEntry> entries = jarFile.entries();
+      while (entries.hasMoreElements()) {
+        String className = agentClassName(entries.nextElement().getName());
+        if (className == null) {
+          continue;
+        }
+        try {
+          // the JVM links the class to get its declared methods, but doesn't initialize it
+          Object unused = Class.forName(className, false, agentClassLoader).getDeclaredMethods();
+          loaded++;
+        } catch (ClassNotFoundException | LinkageError e) {
+          // e.g. classes of optional dependencies, these would not be loaded at runtime either
+          failed++;
+          logger.log(FINE, "Failed to link agent class " + className, e);
+        }
+      }
+    } catch (IOException e) {
+      logger.log(WARNING, "Failed to read the agent jar " + javaagentFile, e);
+      return;
+    }
+    logger.log(
+        INFO,
+        "Linked {0} agent classes for the CDS archive, {1} classes could not be linked",
+        new Object[] {loaded, failed});
+  }
+
+  // visible for testing
+  @Nullable
+  static String agentClassName(String entryName) {
+    if (!entryName.startsWith(AGENT_CLASSES_PREFIX) || !entryName.endsWith(CLASS_SUFFIX)) {
+      return null;
+    }
+    String resourceName =
+        entryName.substring(
+            AGENT_CLASSES_PREFIX.length(), entryName.length() - CLASS_SUFFIX.length());
+    // versioned classes are picked by the agent class loader when the class is loaded
+    if (resourceName.startsWith("META-INF/")
+        || resourceName.endsWith("module-info")
+        || resourceName.startsWith("io/opentelemetry/javaagent/instrumentation/")
+        || resourceName.startsWith("io/opentelemetry/instrumentation/")) {
+      return null;
+    }
+    return resourceName.replace('/', '.');
+  }
+
+  private CdsTraining() {}
+}
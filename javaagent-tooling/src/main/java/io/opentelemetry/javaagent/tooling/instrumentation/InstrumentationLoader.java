@@ -14,22 +14,73 @@ import io.opentelemetry.javaagent.bootstrap.InstrumentationHolder;
 import io.opentelemetry.javaagent.extension.instrumentation.InstrumentationModule;
 import io.opentelemetry.javaagent.tooling.AgentExtension;
 import io.opentelemetry.javaagent.tooling.Utils;
+import io.opentelemetry.javaagent.tooling.instrumentation.InstrumentationModuleInstaller.PreparedModule;
 import io.opentelemetry.sdk.autoconfigure.spi.ConfigProperties;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinWorkerThread;
+import java.util.concurrent.Future;
 import java.util.logging.Logger;
+import javax.annotation.Nullable;
 import net.bytebuddy.agent.builder.AgentBuilder;
 
 @AutoService(AgentExtension.class)
 public class InstrumentationLoader implements AgentExtension {
   private static final Logger logger = Logger.getLogger(InstrumentationLoader.class.getName());
 
-  private final InstrumentationModuleInstaller instrumentationModuleInstaller =
-      new InstrumentationModuleInstaller(InstrumentationHolder.getInstrumentation());
+  // prepares the modules (muzzle references, helper class names, virtual field classes) on all
+  // cores, the AgentBuilder is still assembled on the calling thread in the same order as before
+  static final String PARALLEL_STARTUP_CONFIG =
+      "otel.javaagent.experimental.parallel-startup.enabled";
+
+  private final InstrumentationModuleInstaller instrumentationModuleInstaller;
+
+  public InstrumentationLoader() {
+    this(new InstrumentationModuleInstaller(InstrumentationHolder.getInstrumentation()));
+  }
+
+  // visible for testing
+  InstrumentationLoader(InstrumentationModuleInstaller instrumentationModuleInstaller) {
+    this.instrumentationModuleInstaller = instrumentationModuleInstaller;
+  }
 
   @Override
   public AgentBuilder extend(AgentBuilder agentBuilder, ConfigProperties config) {
+    return extend(
+        agentBuilder,
+        config,
+        loadOrdered(InstrumentationModule.class, Utils.getExtensionsClassLoader()));
+  }
+
+  // visible for testing
+  AgentBuilder extend(
+      AgentBuilder agentBuilder,
+      ConfigProperties config,
+      List<InstrumentationModule> instrumentationModules) {
+    MatchDecisionCache matchDecisionCache = MatchDecisionCache.create(config);
+    TypeMatcherIndex typeMatcherIndex = TypeMatcherIndex.create(config);
+    StartupProfiler startupProfiler = StartupProfiler.create(config);
+    ForkJoinPool preparationPool =
+        config.getBoolean(PARALLEL_STARTUP_CONFIG, false) ? newPreparationPool() : null;
+    List<Future<PreparedModule>> preparedModules = new ArrayList<>();
+    if (preparationPool != null) {
+      for (InstrumentationModule instrumentationModule : instrumentationModules) {
+        preparedModules.add(
+            preparationPool.submit(
+                () ->
+                    instrumentationModuleInstaller.prepare(
+                        instrumentationModule,
+                        config,
+                        startupProfiler,
+                        /* eager= */ true)));
+      }
+    }
+
     int numberOfLoadedModules = 0;
-    for (InstrumentationModule instrumentationModule :
-        loadOrdered(InstrumentationModule.class, Utils.getExtensionsClassLoader())) {
+    for (int i = 0; i < instrumentationModules.size(); i++) {
+      InstrumentationModule instrumentationModule = instrumentationModules.get(i);
       if (logger.isLoggable(FINE)) {
         logger.log(
             FINE,
@@ -40,8 +91,21 @@ public class InstrumentationLoader implements AgentExtension {
             });
       }
       try {
+        PreparedModule preparedModule =
+            preparedModules.isEmpty()
+                ? instrumentationModuleInstaller.prepare(
+                    instrumentationModule,
+                    config,
+                    startupProfiler,
+                    /* eager= */ false)
+                : awaitPreparedModule(preparedModules.get(i));
         agentBuilder =
-            instrumentationModuleInstaller.install(instrumentationModule, agentBuilder, config);
+            instrumentationModuleInstaller.install(
+                preparedModule,
+                agentBuilder,
+                matchDecisionCache,
+                typeMatcherIndex,
+                startupProfiler);
         numberOfLoadedModules++;
       } catch (Exception | LinkageError e) {
         logger.log(
@@ -54,11 +118,56 @@ public class InstrumentationLoader implements AgentExtension {
             e);
       }
     }
+    if (preparationPool != null) {
+      preparationPool.shutdown();
+    }
     logger.log(FINE, "Installed {0} instrumenter(s)", numberOfLoadedModules);
+    if (matchDecisionCache != null) {
+      matchDecisionCache.loadAndSaveOnShutdown();
+    }
+    if (typeMatcherIndex != null) {
+      typeMatcherIndex.seal();
+    }
+    if (startupProfiler != null) {
+      startupProfiler.start();
+    }
 
     return agentBuilder;
   }
 
+  private static ForkJoinPool newPreparationPool() {
+    return new ForkJoinPool(
+        Runtime.getRuntime().availableProcessors(),
+        pool -> {
+          ForkJoinWorkerThread thread =
+              ForkJoinPool.defaultForkJoinWorkerThreadFactory.newThread(pool);
+          thread.setName("otel-javaagent-module-preparer-" + thread.getPoolIndex());
+          return thread;
+        },
+        null,
+        false);
+  }
+
+  @Nullable
+  private static PreparedModule awaitPreparedModule(Future<PreparedModule> preparedModule)
+      throws Exception {
+    try {
+      return preparedModule.get();
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new IllegalStateException("Interrupted while preparing the instrumentation", e);
+    } catch (ExecutionException e) {
+      Throwable cause = e.getCause();
+      if (cause instanceof Exception) {
+        throw (Exception) cause;
+      }
+      if (cause instanceof LinkageError) {
+        throw (LinkageError) cause;
+      }
+      throw e;
+    }
+  }
+
   @Override
   public String extensionName() {
     return "instrumentation-loader";
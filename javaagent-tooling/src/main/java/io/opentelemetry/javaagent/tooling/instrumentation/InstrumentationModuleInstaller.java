@@ -17,6 +17,7 @@ import io.opentelemetry.javaagent.tooling.HelperInjector;
 import io.opentelemetry.javaagent.tooling.TransformSafeLogger;
 import io.opentelemetry.javaagent.tooling.Utils;
 import io.opentelemetry.javaagent.tooling.bytebuddy.LoggingFailSafeMatcher;
+import io.opentelemetry.javaagent.tooling.instrumentation.StartupProfiler.Step;
 import io.opentelemetry.javaagent.tooling.config.AgentConfig;
 import io.opentelemetry.javaagent.tooling.field.VirtualFieldImplementationInstaller;
 import io.opentelemetry.javaagent.tooling.field.VirtualFieldImplementationInstallerFactory;
@@ -27,6 +28,7 @@ import io.opentelemetry.javaagent.tooling.util.NamedMatcher;
 import io.opentelemetry.sdk.autoconfigure.spi.ConfigProperties;
 import java.lang.instrument.Instrumentation;
 import java.util.List;
+import javax.annotation.Nullable;
 import net.bytebuddy.agent.builder.AgentBuilder;
 import net.bytebuddy.description.annotation.AnnotationSource;
 import net.bytebuddy.description.type.TypeDescription;
@@ -50,17 +52,27 @@ public final class InstrumentationModuleInstaller {
     this.instrumentation = instrumentation;
   }
 
-  AgentBuilder install(
+  /**
+   * Computes everything that is needed to install the module, but doesn't touch the {@link
+   * AgentBuilder}; can be called from any thread. Returns {@code null} when the module doesn't have
+   * to be installed.
+   *
+   * @param eager whether to also compute what would otherwise be computed when the module first
+   *     matches a class, e.g. the muzzle reference matcher
+   */
+  @Nullable
+  PreparedModule prepare(
       InstrumentationModule instrumentationModule,
-      AgentBuilder parentAgentBuilder,
-      ConfigProperties config) {
+      ConfigProperties config,
+      @Nullable StartupProfiler startupProfiler,
+      boolean eager) {
     if (!AgentConfig.isInstrumentationEnabled(
         config,
         instrumentationModule.instrumentationNames(),
         instrumentationModule.defaultEnabled(config))) {
       logger.log(
           FINE, "Instrumentation {0} is disabled", instrumentationModule.instrumentationName());
-      return parentAgentBuilder;
+      return null;
     }
     List<String> helperClassNames =
         InstrumentationModuleMuzzle.getHelperClassNames(instrumentationModule);
@@ -75,12 +87,13 @@ public final class InstrumentationModuleInstaller {
             instrumentationModule.instrumentationName());
       }
 
-      return parentAgentBuilder;
+      return null;
     }
 
-    ElementMatcher.Junction<ClassLoader> moduleClassLoaderMatcher =
-        instrumentationModule.classLoaderMatcher();
     MuzzleMatcher muzzleMatcher = new MuzzleMatcher(logger, instrumentationModule, config);
+    if (eager) {
+      muzzleMatcher.initializeReferenceMatcher();
+    }
     AgentBuilder.Transformer helperInjector =
         new HelperInjector(
             instrumentationModule.instrumentationName(),
@@ -89,33 +102,104 @@ public final class InstrumentationModuleInstaller {
             Utils.getExtensionsClassLoader(),
             instrumentation);
     VirtualFieldImplementationInstaller contextProvider =
-        virtualFieldInstallerFactory.create(instrumentationModule);
+        startupProfiler == null
+            ? virtualFieldInstallerFactory.create(instrumentationModule)
+            : startupProfiler
+                .timer(instrumentationModule, null, Step.VIRTUAL_FIELD_GENERATION)
+                .time(() -> virtualFieldInstallerFactory.create(instrumentationModule));
+    return new PreparedModule(
+        instrumentationModule,
+        typeInstrumentations,
+        instrumentationModule.classLoaderMatcher(),
+        muzzleMatcher,
+        helperInjector,
+        contextProvider);
+  }
+
+  /** Adds a prepared module to the {@link AgentBuilder}; modules must be added in order. */
+  AgentBuilder install(
+      @Nullable PreparedModule preparedModule,
+      AgentBuilder parentAgentBuilder,
+      @Nullable MatchDecisionCache matchDecisionCache,
+      @Nullable TypeMatcherIndex typeMatcherIndex,
+      @Nullable StartupProfiler startupProfiler) {
+    if (preparedModule == null) {
+      return parentAgentBuilder;
+    }
+    InstrumentationModule instrumentationModule = preparedModule.instrumentationModule;
+    if (matchDecisionCache != null) {
+      matchDecisionCache.addModule(instrumentationModule);
+    }
+
+    ElementMatcher.Junction<ClassLoader> moduleClassLoaderMatcher =
+        preparedModule.moduleClassLoaderMatcher;
+    AgentBuilder.RawMatcher muzzleMatcher = preparedModule.muzzleMatcher;
+    AgentBuilder.Transformer helperInjector = preparedModule.helperInjector;
+    if (startupProfiler != null) {
+      muzzleMatcher =
+          StartupProfiler.timed(
+              startupProfiler.timer(instrumentationModule, null, Step.MUZZLE), muzzleMatcher);
+      helperInjector =
+          StartupProfiler.timed(
+              startupProfiler.timer(instrumentationModule, null, Step.HELPER_INJECTION),
+              helperInjector);
+    }
+    VirtualFieldImplementationInstaller contextProvider = preparedModule.contextProvider;
 
     AgentBuilder agentBuilder = parentAgentBuilder;
-    for (TypeInstrumentation typeInstrumentation : typeInstrumentations) {
+    for (TypeInstrumentation typeInstrumentation : preparedModule.typeInstrumentations) {
+      ElementMatcher<TypeDescription> instrumentationTypeMatcher =
+          typeInstrumentation.typeMatcher();
       ElementMatcher<TypeDescription> typeMatcher =
           new NamedMatcher<>(
               instrumentationModule.getClass().getSimpleName()
                   + "#"
                   + typeInstrumentation.getClass().getSimpleName(),
-              new IgnoreFailedTypeMatcher(typeInstrumentation.typeMatcher()));
+              new IgnoreFailedTypeMatcher(instrumentationTypeMatcher));
       ElementMatcher<ClassLoader> classLoaderMatcher =
           new NamedMatcher<>(
               instrumentationModule.getClass().getSimpleName()
                   + "#"
                   + typeInstrumentation.getClass().getSimpleName(),
               moduleClassLoaderMatcher.and(typeInstrumentation.classLoaderOptimization()));
+      if (startupProfiler != null) {
+        typeMatcher =
+            StartupProfiler.timed(
+                startupProfiler.timer(
+                    instrumentationModule, typeInstrumentation, Step.TYPE_MATCHER),
+                typeMatcher);
+        classLoaderMatcher =
+            StartupProfiler.timed(
+                startupProfiler.timer(
+                    instrumentationModule, typeInstrumentation, Step.CLASS_LOADER_MATCHER),
+                classLoaderMatcher);
+      }
 
-      AgentBuilder.Identified.Extendable extendableAgentBuilder =
-          agentBuilder
-              .type(
-                  new LoggingFailSafeMatcher<>(
+      String typeMatcherFailure =
+          "Instrumentation type matcher unexpected exception: " + typeMatcher;
+      if (typeMatcherIndex != null) {
+        typeMatcher = typeMatcherIndex.withFastReject(instrumentationTypeMatcher, typeMatcher);
+      }
+      ElementMatcher<ClassLoader> failSafeClassLoaderMatcher =
+          new LoggingFailSafeMatcher<>(
+              classLoaderMatcher,
+              "Instrumentation class loader matcher unexpected exception: " + classLoaderMatcher);
+      // name matchers are cheaper than looking up the cached decision
+      AgentBuilder.Identified.Narrowable narrowableAgentBuilder =
+          matchDecisionCache == null
+                  || TypeMatcherIndex.matchesOnlyNames(instrumentationTypeMatcher)
+              ? agentBuilder.type(
+                  new LoggingFailSafeMatcher<>(typeMatcher, typeMatcherFailure),
+                  failSafeClassLoaderMatcher)
+              : agentBuilder.type(
+                  matchDecisionCache.typeMatcher(
+                      matchDecisionCache.nextTypeInstrumentationId(),
                       typeMatcher,
-                      "Instrumentation type matcher unexpected exception: " + typeMatcher),
-                  new LoggingFailSafeMatcher<>(
-                      classLoaderMatcher,
-                      "Instrumentation class loader matcher unexpected exception: "
-                          + classLoaderMatcher))
+                      failSafeClassLoaderMatcher,
+                      typeMatcherFailure));
+
+      AgentBuilder.Identified.Extendable extendableAgentBuilder =
+          narrowableAgentBuilder
               .and(NOT_DECORATOR_MATCHER)
               .and(muzzleMatcher)
               .transform(ConstantAdjuster.instance())
@@ -131,4 +215,29 @@ public final class InstrumentationModuleInstaller {
 
     return agentBuilder;
   }
+
+  /** The parts of a module that can be computed before it is added to the {@link AgentBuilder}. */
+  static final class PreparedModule {
+    private final InstrumentationModule instrumentationModule;
+    private final List<TypeInstrumentation> typeInstrumentations;
+    private final ElementMatcher.Junction<ClassLoader> moduleClassLoaderMatcher;
+    private final MuzzleMatcher muzzleMatcher;
+    private final AgentBuilder.Transformer helperInjector;
+    private final VirtualFieldImplementationInstaller contextProvider;
+
+    private PreparedModule(
+        InstrumentationModule instrumentationModule,
+        List<TypeInstrumentation> typeInstrumentations,
+        ElementMatcher.Junction<ClassLoader> moduleClassLoaderMatcher,
+        MuzzleMatcher muzzleMatcher,
+        AgentBuilder.Transformer helperInjector,
+        VirtualFieldImplementationInstaller contextProvider) {
+      this.instrumentationModule = instrumentationModule;
+      this.typeInstrumentations = typeInstrumentations;
+      this.moduleClassLoaderMatcher = moduleClassLoaderMatcher;
+      this.muzzleMatcher = muzzleMatcher;
+      this.helperInjector = helperInjector;
+      this.contextProvider = contextProvider;
+    }
+  }
 }
@@ -0,0 +1,479 @@
+/*
+ * Copyright The OpenTelemetry Authors
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package io.opentelemetry.javaagent.tooling.instrumentation;
+
+import static java.util.logging.Level.FINE;
+import static java.util.logging.Level.WARNING;
+
+import io.opentelemetry.instrumentation.api.internal.cache.Cache;
+import io.opentelemetry.javaagent.extension.instrumentation.InstrumentationModule;
+import io.opentelemetry.javaagent.tooling.AgentVersion;
+import io.opentelemetry.javaagent.tooling.DefineClassHandler;
+import io.opentelemetry.sdk.autoconfigure.spi.ConfigProperties;
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.File;
+import java.io.IOException;
+import java.net.MalformedURLException;
+import java.net.URISyntaxException;
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.security.CodeSource;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.security.ProtectionDomain;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.logging.Logger;
+import javax.annotation.Nullable;
+import net.bytebuddy.agent.builder.AgentBuilder;
+import net.bytebuddy.description.type.TypeDescription;
+import net.bytebuddy.matcher.ElementMatcher;
+import net.bytebuddy.utility.JavaModule;
+
+/**
+ * Remembers which type instrumentations matched which classes across JVM restarts, so that the
+ * type matchers don't have to be evaluated again on the next start.
+ *
+ * <p>Type matchers may look at the super types of a class, which can come from any jar the class
+ * loader sees. Decisions are therefore recorded per class path: the location, size and
+ * modification time of every jar of the class loader and of its parents, plus the JDK. Decisions
+ * are only recorded for URL class loaders, the system class loader and their parents, when their
+ * class path only contains jars. Classes of other class loaders, of class loaders with directories
+ * on their class path and classes without a code source (e.g. generated ones) are always matched.
+ * The class path of a URL class loader is read when its first class is matched.
+ *
+ * <p>The whole file is discarded when the agent version or the set of enabled instrumentation
+ * modules changes. Class loader matchers and muzzle are always evaluated. Type matchers that only
+ * look at the class name are not cached at all, since evaluating them is cheaper than looking up
+ * the cached decision. Type matchers that throw are not recorded, and at most {@code 65536} types
+ * are recorded.
+ */
+final class MatchDecisionCache {
+
+  private static final Logger logger = Logger.getLogger(MatchDecisionCache.class.getName());
+
+  static final String CACHE_FILE_CONFIG = "otel.javaagent.experimental.match-cache.file";
+
+  private static final String FORMAT = "otel-match-cache-v3";
+  private static final String CLASS_PATH = "c";
+  private static final String TYPE = "t";
+  private static final int MAX_TYPES = 65536;
+  private static final int MAX_CLASS_PATHS = 1024;
+  private static final String PLATFORM_CLASS_LOADER =
+      "jdk.internal.loader.ClassLoaders$PlatformClassLoader";
+  // class loaders whose decisions are not recorded
+  private static final ClassPathDecisions NOT_RECORDED = new ClassPathDecisions();
+
+  private final Path file;
+  private final int maxTypes;
+  private final List<String> moduleNames = new ArrayList<>();
+  private int typeInstrumentationCount;
+  private final ConcurrentMap<String, ClassPathDecisions> classPaths = new ConcurrentHashMap<>();
+  private final AtomicInteger typeCount = new AtomicInteger();
+  private final Cache<ClassLoader, ClassPathDecisions> classLoaders = Cache.weak();
+  @Nullable private String header;
+
+  @Nullable
+  static MatchDecisionCache create(ConfigProperties config) {
+    String file = config.getString(CACHE_FILE_CONFIG);
+    return file == null ? null : new MatchDecisionCache(Paths.get(file));
+  }
+
+  MatchDecisionCache(Path file) {
+    this(file, MAX_TYPES);
+  }
+
+  // visible for testing
+  MatchDecisionCache(Path file, int maxTypes) {
+    this.file = file;
+    this.maxTypes = maxTypes;
+  }
+
+  /** Registers an enabled module; must be called in the same order on every start. */
+  void addModule(InstrumentationModule instrumentationModule) {
+    moduleNames.add(instrumentationModule.getClass().getName());
+  }
+
+  /** Returns the id under which the decisions of the next type instrumentation are stored. */
+  int nextTypeInstrumentationId() {
+    return typeInstrumentationCount++;
+  }
+
+  /**
+   * Reads the decisions of the previous run, and schedules the decisions of this run to be written
+   * on shutdown. Must be called once all modules were registered, before any class is matched.
+   */
+  void loadAndSaveOnShutdown() {
+    load();
+    Thread writer = new Thread(this::save, "otel-javaagent-match-cache-writer");
+    Runtime.getRuntime().addShutdownHook(writer);
+  }
+
+  // visible for testing
+  void load() {
+    String expectedHeader = header();
+    header = expectedHeader;
+    try (BufferedReader reader = Files.newBufferedReader(file, StandardCharsets.UTF_8)) {
+      if (!expectedHeader.equals(reader.readLine())) {
+        logger.log(FINE, "Agent or instrumentation modules changed, ignoring {0}", file);
+        return;
+      }
+      ClassPathDecisions classPath = null;
+      String line;
+      while ((line = reader.readLine()) != null && typeCount.get() < maxTypes) {
+        String[] parts = line.split("\t", -1);
+        if (parts[0].equals(CLASS_PATH)) {
+          classPath = new ClassPathDecisions();
+          classPaths.put(parts[1], classPath);
+          continue;
+        }
+        if (classPath == null) {
+          throw new IOException("Expected a class path, got: " + line);
+        }
+        switch (parts[0]) {
+          case TYPE:
+            classPath.types.put(
+                parts[1], new TypeDecisions(parseIds(parts[2]), parseIds(parts[3])));
+            typeCount.incrementAndGet();
+            break;
+          default:
+            throw new IOException("Unexpected line: " + line);
+        }
+      }
+    } catch (NoSuchFileException e) {
+      logger.log(FINE, "{0} does not exist yet", file);
+    } catch (IOException | RuntimeException e) {
+      logger.log(WARNING, "Failed to read " + file + ", ignoring it", e);
+      classPaths.clear();
+      typeCount.set(0);
+    }
+  }
+
+  // visible for testing
+  void save() {
+    String fileHeader = header;
+    if (fileHeader == null) {
+      return;
+    }
+    Path temp = file.resolveSibling(file.getFileName() + ".tmp");
+    try {
+      try (BufferedWriter writer = Files.newBufferedWriter(temp, StandardCharsets.UTF_8)) {
+        writer.write(fileHeader);
+        writer.newLine();
+        for (Map.Entry<String, ClassPathDecisions> classPath : classPaths.entrySet()) {
+          // don't keep the decisions for class paths that are not used anymore
+          if (classPath.getValue().used) {
+            classPath.getValue().write(writer, classPath.getKey());
+          }
+        }
+      }
+      Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING);
+    } catch (IOException e) {
+      logger.log(WARNING, "Failed to write " + file, e);
+    }
+  }
+
+  /**
+   * Returns a matcher that evaluates the class loader matcher, and then the type matcher only if
+   * its decision for the matched class was not recorded yet. Exceptions thrown by the type matcher
+   * are logged with {@code failureDescription}, and are not recorded as a decision.
+   */
+  AgentBuilder.RawMatcher typeMatcher(
+      int typeInstrumentationId,
+      ElementMatcher<TypeDescription> typeMatcher,
+      ElementMatcher<ClassLoader> classLoaderMatcher,
+      String failureDescription) {
+    return new CachingTypeMatcher(
+        typeInstrumentationId, typeMatcher, classLoaderMatcher, failureDescription);
+  }
+
+  @Nullable
+  private ClassPathDecisions getClassPath(
+      @Nullable ClassLoader classLoader, @Nullable ProtectionDomain protectionDomain) {
+    if (classLoader == null || !hasLocation(protectionDomain)) {
+      return null;
+    }
+    ClassPathDecisions classPath = classLoaders.computeIfAbsent(classLoader, this::classPath);
+    if (classPath == NOT_RECORDED) {
+      return null;
+    }
+    classPath.used = true;
+    return classPath;
+  }
+
+  private static boolean hasLocation(@Nullable ProtectionDomain protectionDomain) {
+    CodeSource codeSource = protectionDomain == null ? null : protectionDomain.getCodeSource();
+    return codeSource != null && codeSource.getLocation() != null;
+  }
+
+  private ClassPathDecisions classPath(ClassLoader classLoader) {
+    StringBuilder classPath = new StringBuilder();
+    if (!appendClassPath(classLoader, classPath)) {
+      return NOT_RECORDED;
+    }
+    String fingerprint = sha256(classPath.toString());
+    ClassPathDecisions decisions = classPaths.get(fingerprint);
+    if (decisions != null) {
+      return decisions;
+    }
+    if (classPaths.size() >= MAX_CLASS_PATHS) {
+      return NOT_RECORDED;
+    }
+    return classPaths.computeIfAbsent(fingerprint, unused -> new ClassPathDecisions());
+  }
+
+  // appends the jars that classLoader and its parents load classes from, returns false when they
+  // can't be determined
+  private static boolean appendClassPath(
+      @Nullable ClassLoader classLoader, StringBuilder classPath) {
+    if (classLoader == null || classLoader.getClass().getName().equals(PLATFORM_CLASS_LOADER)) {
+      // the JDK and the boot class path
+      for (String property :
+          new String[] {
+            "java.home",
+            "java.runtime.version",
+            "sun.boot.class.path",
+            "jdk.boot.class.path.append"
+          }) {
+        classPath.append(System.getProperty(property)).append('\n');
+      }
+      return true;
+    }
+    if (classLoader instanceof URLClassLoader) {
+      for (URL url : ((URLClassLoader) classLoader).getURLs()) {
+        if (!appendJar(url.toString(), classPath)) {
+          return false;
+        }
+      }
+    } else if (classLoader == ClassLoader.getSystemClassLoader()) {
+      String modulePath = System.getProperty("jdk.module.path");
+      if (modulePath != null && !modulePath.isEmpty()) {
+        return false;
+      }
+      for (String path : System.getProperty("java.class.path", "").split(File.pathSeparator)) {
+        if (!path.isEmpty() && !appendJar(new File(path).toURI().toString(), classPath)) {
+          return false;
+        }
+      }
+    } else {
+      return false;
+    }
+    return appendClassPath(classLoader.getParent(), classPath);
+  }
+
+  private static boolean appendJar(String location, StringBuilder classPath) {
+    // nested jars, e.g. jar:file:/app.jar!/BOOT-INF/lib/library.jar!/, change with the outer jar
+    String filePath = location.startsWith("jar:") ? location.substring(4) : location;
+    int nested = filePath.indexOf("!/");
+    if (nested != -1) {
+      filePath = filePath.substring(0, nested);
+    }
+    if (!filePath.startsWith("file:")) {
+      return false;
+    }
+    File jarFile;
+    try {
+      jarFile = new File(new URL(filePath).toURI());
+    } catch (MalformedURLException | URISyntaxException | IllegalArgumentException e) {
+      logger.log(FINE, "Failed to resolve " + location, e);
+      return false;
+    }
+    classPath.append(location);
+    if (!jarFile.exists()) {
+      classPath.append("|missing\n");
+      return true;
+    }
+    // directories can change without their modification time changing
+    if (!jarFile.isFile()) {
+      return false;
+    }
+    classPath
+        .append('|')
+        .append(jarFile.length())
+        .append('|')
+        .append(jarFile.lastModified())
+        .append('\n');
+    return true;
+  }
+
+  @Nullable
+  private TypeDecisions newTypeDecisions(ClassPathDecisions classPath, String typeName) {
+    if (typeCount.get() >= maxTypes) {
+      return null;
+    }
+    TypeDecisions decisions = new TypeDecisions();
+    TypeDecisions previous = classPath.types.putIfAbsent(typeName, decisions);
+    if (previous != null) {
+      return previous;
+    }
+    typeCount.incrementAndGet();
+    return decisions;
+  }
+
+  private String header() {
+    return String.join(
+        "\t",
+        FORMAT,
+        String.valueOf(AgentVersion.VERSION),
+        Integer.toString(typeInstrumentationCount),
+        sha256(String.join("\n", moduleNames)));
+  }
+
+  private static String sha256(String value) {
+    MessageDigest digest;
+    try {
+      digest = MessageDigest.getInstance("SHA-256");
+    } catch (NoSuchAlgorithmException e) {
+      throw new IllegalStateException(e);
+    }
+    StringBuilder hash = new StringBuilder();
+    for (byte b : digest.digest(value.getBytes(StandardCharsets.UTF_8))) {
+      hash.append(Character.forDigit((b >> 4) & 0xF, 16));
+      hash.append(Character.forDigit(b & 0xF, 16));
+    }
+    return hash.toString();
+  }
+
+  private static BitSet parseIds(String ids) {
+    BitSet result = new BitSet();
+    if (!ids.isEmpty()) {
+      for (String id : ids.split(",")) {
+        result.set(Integer.parseInt(id));
+      }
+    }
+    return result;
+  }
+
+  private static String formatIds(BitSet ids) {
+    StringBuilder result = new StringBuilder();
+    for (int id = ids.nextSetBit(0); id >= 0; id = ids.nextSetBit(id + 1)) {
+      if (result.length() > 0) {
+        result.append(',');
+      }
+      result.append(id);
+    }
+    return result.toString();
+  }
+
+  private static final class ClassPathDecisions {
+    private final ConcurrentMap<String, TypeDecisions> types = new ConcurrentHashMap<>();
+    private volatile boolean used;
+
+    void write(BufferedWriter writer, String fingerprint) throws IOException {
+      writer.write(CLASS_PATH + "\t" + fingerprint);
+      writer.newLine();
+      for (Map.Entry<String, TypeDecisions> type : types.entrySet()) {
+        type.getValue().write(writer, type.getKey());
+      }
+    }
+  }
+
+  private static final class TypeDecisions {
+    private final BitSet matched;
+    private final BitSet notMatched;
+
+    TypeDecisions() {
+      this(new BitSet(), new BitSet());
+    }
+
+    TypeDecisions(BitSet matched, BitSet notMatched) {
+      this.matched = matched;
+      this.notMatched = notMatched;
+    }
+
+    @Nullable
+    synchronized Boolean get(int id) {
+      if (matched.get(id)) {
+        return true;
+      }
+      return notMatched.get(id) ? false : null;
+    }
+
+    synchronized void put(int id, boolean matches) {
+      (matches ? matched : notMatched).set(id);
+    }
+
+    synchronized void write(BufferedWriter writer, String typeName) throws IOException {
+      writer.write(String.join("\t", TYPE, typeName, formatIds(matched), formatIds(notMatched)));
+      writer.newLine();
+    }
+  }
+
+  private final class CachingTypeMatcher implements AgentBuilder.RawMatcher {
+    private final int id;
+    private final ElementMatcher<TypeDescription> typeMatcher;
+    private final ElementMatcher<ClassLoader> classLoaderMatcher;
+    private final String failureDescription;
+
+    CachingTypeMatcher(
+        int id,
+        ElementMatcher<TypeDescription> typeMatcher,
+        ElementMatcher<ClassLoader> classLoaderMatcher,
+        String failureDescription) {
+      this.id = id;
+      this.typeMatcher = typeMatcher;
+      this.classLoaderMatcher = classLoaderMatcher;
+      this.failureDescription = failureDescription;
+    }
+
+    @Override
+    public boolean matches(
+        TypeDescription typeDescription,
+        ClassLoader classLoader,
+        JavaModule module,
+        Class<?> classBeingRedefined,
+        ProtectionDomain protectionDomain) {
+      if (!classLoaderMatcher.matches(classLoader)) {
+        return false;
+      }
+      String typeName = typeDescription.getName();
+      // the class failed to load this time, which says nothing about the next run
+      if (DefineClassHandler.isFailedClass(typeName)) {
+        return false;
+      }
+      ClassPathDecisions classPath = getClassPath(classLoader, protectionDomain);
+      TypeDecisions decisions = classPath == null ? null : classPath.types.get(typeName);
+      if (decisions != null) {
+        Boolean cached = decisions.get(id);
+        if (cached != null) {
+          return cached;
+        }
+      }
+
+      boolean matches;
+      try {
+        matches = typeMatcher.matches(typeDescription);
+      } catch (Throwable e) {
+        logger.log(FINE, failureDescription, e);
+        return false;
+      }
+      if (decisions == null && classPath != null) {
+        decisions = newTypeDecisions(classPath, typeName);
+      }
+      if (decisions != null) {
+        decisions.put(id, matches);
+      }
+      return matches;
+    }
+
+    @Override
+    public String toString() {
+      return typeMatcher + " (cached)";
+    }
+  }
+}
@@ -5,6 +5,7 @@
 
 package io.opentelemetry.javaagent.tooling.instrumentation;
 
+import static java.util.concurrent.TimeUnit.NANOSECONDS;
 import static java.util.logging.Level.FINE;
 import static java.util.logging.Level.WARNING;
 import static net.bytebuddy.dynamic.loading.ClassLoadingStrategy.BOOTSTRAP_LOADER;
@@ -19,9 +20,9 @@ import io.opentelemetry.javaagent.tooling.muzzle.ReferenceMatcher;
 import io.opentelemetry.sdk.autoconfigure.spi.ConfigProperties;
 import java.security.ProtectionDomain;
 import java.util.List;
-import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.logging.Level;
 import java.util.logging.Logger;
+import javax.annotation.Nullable;
 import net.bytebuddy.agent.builder.AgentBuilder;
 import net.bytebuddy.description.type.TypeDescription;
 import net.bytebuddy.utility.JavaModule;
@@ -38,9 +39,8 @@ class MuzzleMatcher implements AgentBuilder.RawMatcher {
   private final TransformSafeLogger instrumentationLogger;
   private final InstrumentationModule instrumentationModule;
   private final Level muzzleLogLevel;
-  private final AtomicBoolean initialized = new AtomicBoolean(false);
   private final Cache<ClassLoader, Boolean> matchCache = Cache.weak();
-  private volatile ReferenceMatcher referenceMatcher;
+  @Nullable private volatile ReferenceMatcher referenceMatcher;
 
   MuzzleMatcher(
       TransformSafeLogger instrumentationLogger,
@@ -66,7 +66,18 @@ class MuzzleMatcher implements AgentBuilder.RawMatcher {
 
   private boolean doesMatch(ClassLoader classLoader) {
     ReferenceMatcher muzzle = getReferenceMatcher();
+    long startNanos = System.nanoTime();
     boolean isMatch = muzzle.matches(classLoader);
+    if (muzzleLogger.isLoggable(FINE)) {
+      muzzleLogger.log(
+          FINE,
+          "Muzzle check of {0} on {1} took {2} microseconds",
+          new Object[] {
+            instrumentationModule.instrumentationName(),
+            classLoader,
+            NANOSECONDS.toMicros(System.nanoTime() - startNanos)
+          });
+    }
 
     if (!isMatch) {
       MuzzleFailureCounter.inc();
@@ -100,12 +111,20 @@ class MuzzleMatcher implements AgentBuilder.RawMatcher {
     return isMatch;
   }
 
+  /** Creates the reference matcher now, instead of when the first class is matched. */
+  void initializeReferenceMatcher() {
+    getReferenceMatcher();
+  }
+
   // ReferenceMatcher is lazily created to avoid unnecessarily loading the muzzle references from
   // the module during the agent setup
   private ReferenceMatcher getReferenceMatcher() {
-    if (initialized.compareAndSet(false, true)) {
-      referenceMatcher = ReferenceMatcher.of(instrumentationModule);
+    ReferenceMatcher matcher = referenceMatcher;
+    if (matcher == null) {
+      // creating it twice when racing with another thread is harmless
+      matcher = ReferenceMatcher.of(instrumentationModule);
+      referenceMatcher = matcher;
     }
-    return referenceMatcher;
+    return matcher;
   }
 }
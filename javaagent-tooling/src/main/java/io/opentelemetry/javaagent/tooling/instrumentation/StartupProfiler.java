@@ -0,0 +1,398 @@
+/*
+ * Copyright The OpenTelemetry Authors
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package io.opentelemetry.javaagent.tooling.instrumentation;
+
+import static io.opentelemetry.api.common.AttributeKey.stringKey;
+import static java.util.logging.Level.INFO;
+import static java.util.logging.Level.WARNING;
+
+import io.opentelemetry.api.GlobalOpenTelemetry;
+import io.opentelemetry.api.common.AttributeKey;
+import io.opentelemetry.api.common.Attributes;
+import io.opentelemetry.api.common.AttributesBuilder;
+import io.opentelemetry.api.metrics.Meter;
+import io.opentelemetry.javaagent.extension.instrumentation.InstrumentationModule;
+import io.opentelemetry.javaagent.extension.instrumentation.TypeInstrumentation;
+import io.opentelemetry.sdk.autoconfigure.spi.ConfigProperties;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.security.ProtectionDomain;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+import java.util.logging.Logger;
+import javax.annotation.Nullable;
+import net.bytebuddy.agent.builder.AgentBuilder;
+import net.bytebuddy.description.type.TypeDescription;
+import net.bytebuddy.dynamic.DynamicType;
+import net.bytebuddy.matcher.ElementMatcher;
+import net.bytebuddy.utility.JavaModule;
+
+/**
+ * Measures how much time the matchers and transformers of every instrumentation module take, so
+ * that the modules that slow down the application startup can be found.
+ *
+ * <p>The type and class loader matchers are timed per type instrumentation, the muzzle check, the
+ * helper injection and the generation of the virtual field classes per module. Times are inclusive:
+ * when a matcher triggers the loading of another class, the time spent matching that class is
+ * counted twice. When the profiler is disabled nothing is wrapped, so there is no overhead.
+ *
+ * <p>The collected times are exported as the {@code otel.javaagent.startup.time} and {@code
+ * otel.javaagent.startup.invocations} metrics, and are written as a JSON report (or logged, when no
+ * report file is configured) once the configured delay after the agent startup has passed, or when
+ * the JVM shuts down before that.
+ */
+final class StartupProfiler {
+
+  private static final Logger logger = Logger.getLogger(StartupProfiler.class.getName());
+
+  static final String ENABLED_CONFIG = "otel.javaagent.experimental.startup-profiler.enabled";
+  static final String FILE_CONFIG = "otel.javaagent.experimental.startup-profiler.file";
+  static final String REPORT_DELAY_CONFIG =
+      "otel.javaagent.experimental.startup-profiler.report-delay";
+
+  private static final AttributeKey<String> INSTRUMENTATION_NAME =
+      stringKey("instrumentation.name");
+  // several modules can share an instrumentation name
+  private static final AttributeKey<String> MODULE = stringKey("instrumentation.module");
+  private static final AttributeKey<String> TYPE_INSTRUMENTATION =
+      stringKey("type_instrumentation");
+  private static final AttributeKey<String> STEP = stringKey("step");
+
+  private static final int LOGGED_MODULES = 10;
+
+  enum Step {
+    TYPE_MATCHER("type_matcher"),
+    CLASS_LOADER_MATCHER("class_loader_matcher"),
+    MUZZLE("muzzle"),
+    HELPER_INJECTION("helper_injection"),
+    VIRTUAL_FIELD_GENERATION("virtual_field_generation");
+
+    private final String value;
+
+    Step(String value) {
+      this.value = value;
+    }
+  }
+
+  // modules are prepared in parallel when the parallel startup is enabled
+  private final Queue<Timer> timers = new ConcurrentLinkedQueue<>();
+  @Nullable private final Path file;
+  private final Duration reportDelay;
+  private final AtomicBoolean reported = new AtomicBoolean();
+
+  @Nullable
+  static StartupProfiler create(ConfigProperties config) {
+    if (!config.getBoolean(ENABLED_CONFIG, false)) {
+      return null;
+    }
+    String file = config.getString(FILE_CONFIG);
+    return new StartupProfiler(
+        file == null ? null : Paths.get(file),
+        config.getDuration(REPORT_DELAY_CONFIG, Duration.ofMinutes(1)));
+  }
+
+  StartupProfiler(@Nullable Path file, Duration reportDelay) {
+    this.file = file;
+    this.reportDelay = reportDelay;
+  }
+
+  Timer timer(
+      InstrumentationModule instrumentationModule,
+      @Nullable TypeInstrumentation typeInstrumentation,
+      Step step) {
+    Timer timer = new Timer(instrumentationModule, typeInstrumentation, step);
+    timers.add(timer);
+    return timer;
+  }
+
+  static <T> ElementMatcher<T> timed(Timer timer, ElementMatcher<T> matcher) {
+    return new TimedMatcher<>(timer, matcher);
+  }
+
+  static AgentBuilder.RawMatcher timed(Timer timer, AgentBuilder.RawMatcher matcher) {
+    return (typeDescription, classLoader, module, classBeingRedefined, protectionDomain) -> {
+      long startNanos = System.nanoTime();
+      try {
+        return matcher.matches(
+            typeDescription, classLoader, module, classBeingRedefined, protectionDomain);
+      } finally {
+        timer.record(startNanos);
+      }
+    };
+  }
+
+  static AgentBuilder.Transformer timed(Timer timer, AgentBuilder.Transformer transformer) {
+    return new AgentBuilder.Transformer() {
+      @Override
+      public DynamicType.Builder<?> transform(
+          DynamicType.Builder<?> builder,
+          TypeDescription typeDescription,
+          ClassLoader classLoader,
+          JavaModule javaModule,
+          ProtectionDomain protectionDomain) {
+        long startNanos = System.nanoTime();
+        try {
+          return transformer.transform(
+              builder, typeDescription, classLoader, javaModule, protectionDomain);
+        } finally {
+          timer.record(startNanos);
+        }
+      }
+    };
+  }
+
+  /**
+   * Starts exporting the metrics and schedules the report; called once all modules are installed.
+   */
+  void start() {
+    Meter meter = GlobalOpenTelemetry.getMeter("io.opentelemetry.javaagent");
+    meter
+        .counterBuilder("otel.javaagent.startup.time")
+        .setUnit("ns")
+        .setDescription("The time spent in the matchers and transformers of the instrumentation")
+        .buildWithCallback(
+            measurement -> {
+              for (Timer timer : timers) {
+                measurement.record(timer.nanos.sum(), timer.attributes);
+              }
+            });
+    meter
+        .counterBuilder("otel.javaagent.startup.invocations")
+        .setUnit("{invocations}")
+        .setDescription("The number of invocations of the matchers and transformers")
+        .buildWithCallback(
+            measurement -> {
+              for (Timer timer : timers) {
+                measurement.record(timer.invocations.sum(), timer.attributes);
+              }
+            });
+
+    Thread reporter =
+        new Thread(
+            () -> {
+              try {
+                Thread.sleep(reportDelay.toMillis());
+              } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+              }
+              report();
+            },
+            "otel-javaagent-startup-profiler");
+    reporter.setDaemon(true);
+    reporter.setContextClassLoader(null);
+    reporter.start();
+    Runtime.getRuntime()
+        .addShutdownHook(new Thread(this::report, "otel-javaagent-startup-profiler-writer"));
+  }
+
+  private void report() {
+    if (!reported.compareAndSet(false, true)) {
+      return;
+    }
+    List<ModuleTimes> modules = moduleTimes();
+    if (file == null) {
+      StringBuilder message = new StringBuilder("Slowest instrumentation modules:");
+      for (int i = 0; i < modules.size() && i < LOGGED_MODULES; i++) {
+        ModuleTimes module = modules.get(i);
+        message
+            .append("\n  ")
+            .append(module.moduleName)
+            .append(": ")
+            .append(module.nanos / 1_000_000)
+            .append(" ms, ")
+            .append(module.invocations)
+            .append(" invocations");
+      }
+      logger.log(INFO, message.toString());
+      return;
+    }
+    try {
+      Files.write(file, toJson(modules).getBytes(StandardCharsets.UTF_8));
+      logger.log(INFO, "Wrote the startup profile to {0}", file);
+    } catch (IOException e) {
+      logger.log(WARNING, "Failed to write the startup profile to " + file, e);
+    }
+  }
+
+  // visible for testing
+  String toJson() {
+    return toJson(moduleTimes());
+  }
+
+  private static String toJson(List<ModuleTimes> modules) {
+    StringBuilder json = new StringBuilder("{\n  \"modules\": [");
+    for (int i = 0; i < modules.size(); i++) {
+      ModuleTimes module = modules.get(i);
+      json.append(i == 0 ? "\n" : ",\n").append("    {");
+      appendField(json, "module", module.moduleName).append(", ");
+      appendField(json, "instrumentationName", module.instrumentationName).append(", ");
+      json.append("\"nanos\": ").append(module.nanos).append(", ");
+      json.append("\"invocations\": ").append(module.invocations).append(", ");
+      json.append("\"timers\": [");
+      for (int j = 0; j < module.timers.size(); j++) {
+        TimerTimes timer = module.timers.get(j);
+        json.append(j == 0 ? "\n" : ",\n").append("      {");
+        if (timer.timer.typeInstrumentationName != null) {
+          appendField(json, "typeInstrumentation", timer.timer.typeInstrumentationName)
+              .append(", ");
+        }
+        appendField(json, "step", timer.timer.step.value).append(", ");
+        json.append("\"nanos\": ").append(timer.nanos).append(", ");
+        json.append("\"invocations\": ").append(timer.invocations).append("}");
+      }
+      json.append(module.timers.isEmpty() ? "]}" : "\n    ]}");
+    }
+    json.append(modules.isEmpty() ? "]\n}\n" : "\n  ]\n}\n");
+    return json.toString();
+  }
+
+  private static StringBuilder appendField(StringBuilder json, String name, String value) {
+    json.append('"').append(name).append("\": \"");
+    for (int i = 0; i < value.length(); i++) {
+      char c = value.charAt(i);
+      if (c == '"' || c == '\\') {
+        json.append('\\').append(c);
+      } else if (c < 0x20) {
+        json.append(String.format("\\u%04x", (int) c));
+      } else {
+        json.append(c);
+      }
+    }
+    return json.append('"');
+  }
+
+  // a snapshot of the modules and their timers, slowest first
+  private List<ModuleTimes> moduleTimes() {
+    Map<String, ModuleTimes> modules = new LinkedHashMap<>();
+    for (Timer timer : timers) {
+      modules
+          .computeIfAbsent(
+              timer.moduleName,
+              unused -> new ModuleTimes(timer.moduleName, timer.instrumentationName))
+          .add(new TimerTimes(timer));
+    }
+    List<ModuleTimes> result = new ArrayList<>(modules.values());
+    for (ModuleTimes module : result) {
+      module.timers.sort(Comparator.comparingLong((TimerTimes timer) -> timer.nanos).reversed());
+    }
+    result.sort(Comparator.comparingLong((ModuleTimes module) -> module.nanos).reversed());
+    return result;
+  }
+
+  /** The time spent in one step of a module or of one of its type instrumentations. */
+  static final class Timer {
+    private final String moduleName;
+    private final String instrumentationName;
+    @Nullable private final String typeInstrumentationName;
+    private final Step step;
+    private final Attributes attributes;
+    private final LongAdder nanos = new LongAdder();
+    private final LongAdder invocations = new LongAdder();
+
+    private Timer(
+        InstrumentationModule instrumentationModule,
+        @Nullable TypeInstrumentation typeInstrumentation,
+        Step step) {
+      this.moduleName = instrumentationModule.getClass().getName();
+      this.instrumentationName = instrumentationModule.instrumentationName();
+      this.typeInstrumentationName =
+          typeInstrumentation == null ? null : typeInstrumentation.getClass().getSimpleName();
+      this.step = step;
+      AttributesBuilder attributes =
+          Attributes.builder()
+              .put(INSTRUMENTATION_NAME, instrumentationName)
+              .put(MODULE, instrumentationModule.getClass().getSimpleName())
+              .put(STEP, step.value);
+      if (typeInstrumentationName != null) {
+        attributes.put(TYPE_INSTRUMENTATION, typeInstrumentationName);
+      }
+      this.attributes = attributes.build();
+    }
+
+    <T> T time(Supplier<T> supplier) {
+      long startNanos = System.nanoTime();
+      try {
+        return supplier.get();
+      } finally {
+        record(startNanos);
+      }
+    }
+
+    private void record(long startNanos) {
+      nanos.add(System.nanoTime() - startNanos);
+      invocations.increment();
+    }
+  }
+
+  private static final class TimerTimes {
+    private final Timer timer;
+    private final long nanos;
+    private final long invocations;
+
+    private TimerTimes(Timer timer) {
+      this.timer = timer;
+      this.nanos = timer.nanos.sum();
+      this.invocations = timer.invocations.sum();
+    }
+  }
+
+  private static final class ModuleTimes {
+    private final String moduleName;
+    private final String instrumentationName;
+    private final List<TimerTimes> timers = new ArrayList<>();
+    private long nanos;
+    private long invocations;
+
+    private ModuleTimes(String moduleName, String instrumentationName) {
+      this.moduleName = moduleName;
+      this.instrumentationName = instrumentationName;
+    }
+
+    private void add(TimerTimes timer) {
+      timers.add(timer);
+      nanos += timer.nanos;
+      invocations += timer.invocations;
+    }
+  }
+
+  private static final class TimedMatcher<T> implements ElementMatcher<T> {
+    private final Timer timer;
+    private final ElementMatcher<T> delegate;
+
+    private TimedMatcher(Timer timer, ElementMatcher<T> delegate) {
+      this.timer = timer;
+      this.delegate = delegate;
+    }
+
+    @Override
+    public boolean matches(T target) {
+      long startNanos = System.nanoTime();
+      try {
+        return delegate.matches(target);
+      } finally {
+        timer.record(startNanos);
+      }
+    }
+
+    @Override
+    public String toString() {
+      return delegate.toString();
+    }
+  }
+}
@@ -0,0 +1,384 @@
+/*
+ * Copyright The OpenTelemetry Authors
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package io.opentelemetry.javaagent.tooling.instrumentation;
+
+import static java.util.Collections.emptyList;
+import static java.util.logging.Level.FINE;
+
+import io.opentelemetry.instrumentation.api.internal.SupportabilityMetrics;
+import io.opentelemetry.javaagent.tooling.util.Trie;
+import io.opentelemetry.sdk.autoconfigure.spi.ConfigProperties;
+import java.lang.ref.WeakReference;
+import java.lang.reflect.Field;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.Set;
+import java.util.logging.Logger;
+import javax.annotation.Nullable;
+import net.bytebuddy.description.type.TypeDefinition;
+import net.bytebuddy.description.type.TypeDescription;
+import net.bytebuddy.matcher.ElementMatcher;
+import net.bytebuddy.matcher.ErasureMatcher;
+import net.bytebuddy.matcher.HasSuperTypeMatcher;
+import net.bytebuddy.matcher.NameMatcher;
+import net.bytebuddy.matcher.StringMatcher;
+import net.bytebuddy.matcher.StringSetMatcher;
+
+/**
+ * An index of the class names, class name prefixes and super type names that the type matchers of
+ * all instrumentations look for, which allows rejecting most classes with a few hash lookups
+ * instead of running every type matcher against them.
+ *
+ * <p>The index is built from the type matchers themselves while the instrumentations are
+ * installed: conjunctions, disjunctions, {@code named()}, {@code namedOneOf()}, {@code
+ * nameStartsWith()} and the super type matchers of {@code AgentElementMatchers} are understood.
+ * Type matchers that can't be understood (e.g. ones that only look for annotations) are never
+ * fast-rejected, and are always evaluated as before; they are logged at the {@code FINE} level.
+ *
+ * <p>The decision is made once per class and remembered for the following type matchers of the
+ * same transformation. Rejected classes and classes that had to be fully matched are reported as
+ * {@code "type matcher index fast reject"} and {@code "type matcher index full match"}
+ * supportability counters.
+ */
+final class TypeMatcherIndex {
+
+  private static final Logger logger = Logger.getLogger(TypeMatcherIndex.class.getName());
+
+  static final String ENABLED_CONFIG = "otel.javaagent.experimental.type-matcher-index.enabled";
+
+  private static final String EXTENSION_MATCHER_PACKAGE =
+      "io.opentelemetry.javaagent.extension.matcher.";
+  private static final Set<String> SUPER_TYPE_MATCHERS = new HashSet<>();
+  private static final String SAFE_ERASURE_MATCHER =
+      EXTENSION_MATCHER_PACKAGE + "SafeErasureMatcher";
+
+  static {
+    SUPER_TYPE_MATCHERS.add(EXTENSION_MATCHER_PACKAGE + "SafeHasSuperTypeMatcher");
+    SUPER_TYPE_MATCHERS.add(EXTENSION_MATCHER_PACKAGE + "SafeExtendsClassMatcher");
+    SUPER_TYPE_MATCHERS.add(HasSuperTypeMatcher.class.getName());
+  }
+
+  private final Set<String> names = new HashSet<>();
+  private final Set<String> superTypeNames = new HashSet<>();
+  private final Trie.Builder<Boolean> prefixesBuilder = Trie.builder();
+  @Nullable private volatile Trie<Boolean> prefixes;
+
+  private final ThreadLocal<LastDecision> lastDecision = ThreadLocal.withInitial(LastDecision::new);
+
+  private final SupportabilityMetrics.Counter fastRejectCounter;
+  private final SupportabilityMetrics.Counter fullMatchCounter;
+
+  @Nullable
+  static TypeMatcherIndex create(ConfigProperties config) {
+    return config.getBoolean(ENABLED_CONFIG, false) ? new TypeMatcherIndex() : null;
+  }
+
+  TypeMatcherIndex() {
+    SupportabilityMetrics supportability = SupportabilityMetrics.instance();
+    fastRejectCounter = supportability.counter("type matcher index fast reject");
+    fullMatchCounter = supportability.counter("type matcher index full match");
+  }
+
+  /**
+   * Adds the candidates of {@code instrumentationMatcher} to the index, and returns a matcher that
+   * rejects the classes that no indexed type matcher can match before delegating to {@code
+   * matcher}. Returns {@code matcher} when the candidates of {@code instrumentationMatcher} can't
+   * be determined.
+   */
+  ElementMatcher<TypeDescription> withFastReject(
+      ElementMatcher<? super TypeDescription> instrumentationMatcher,
+      ElementMatcher<TypeDescription> matcher) {
+    if (prefixes != null) {
+      throw new IllegalStateException("Type matcher index was already sealed");
+    }
+    Candidates candidates = candidates(instrumentationMatcher);
+    if (candidates == null) {
+      logger.log(
+          FINE,
+          "Type matcher {0} can't be indexed, it is evaluated for every class",
+          instrumentationMatcher);
+      return matcher;
+    }
+    names.addAll(candidates.names);
+    superTypeNames.addAll(candidates.superTypeNames);
+    for (String prefix : candidates.prefixes) {
+      prefixesBuilder.put(prefix, Boolean.TRUE);
+    }
+    return new FastRejectMatcher(matcher);
+  }
+
+  /** Completes the index; no class is rejected before this is called. */
+  void seal() {
+    prefixes = prefixesBuilder.build();
+  }
+
+  private boolean mayMatch(TypeDescription type) {
+    Trie<Boolean> prefixes = this.prefixes;
+    if (prefixes == null) {
+      return true;
+    }
+
+    LastDecision last = lastDecision.get();
+    if (last.type.get() == type) {
+      return last.mayMatch;
+    }
+
+    boolean mayMatch =
+        names.contains(type.getName())
+            || prefixes.contains(type.getName())
+            || (!superTypeNames.isEmpty() && hasIndexedSuperType(type));
+    (mayMatch ? fullMatchCounter : fastRejectCounter).increment();
+    last.type = new WeakReference<>(type);
+    last.mayMatch = mayMatch;
+    return mayMatch;
+  }
+
+  // walks the type hierarchy the same way the SafeHasSuperTypeMatcher does: parts of the hierarchy
+  // that can't be resolved are skipped, which is what the indexed type matchers do too
+  private boolean hasIndexedSuperType(TypeDescription type) {
+    Set<String> checkedInterfaces = new HashSet<>();
+    TypeDefinition typeDefinition = type;
+    while (typeDefinition != null) {
+      if (isIndexedSuperType(typeDefinition)
+          || hasIndexedInterface(typeDefinition, checkedInterfaces)) {
+        return true;
+      }
+      typeDefinition = safeGetSuperClass(typeDefinition);
+    }
+    return false;
+  }
+
+  private boolean hasIndexedInterface(
+      TypeDefinition typeDefinition, Set<String> checkedInterfaces) {
+    Iterator<TypeDescription.Generic> interfaces;
+    try {
+      interfaces = typeDefinition.getInterfaces().iterator();
+    } catch (Throwable e) {
+      return false;
+    }
+    while (true) {
+      TypeDescription.Generic interfaceType;
+      try {
+        if (!interfaces.hasNext()) {
+          return false;
+        }
+        interfaceType = interfaces.next();
+      } catch (Throwable e) {
+        return false;
+      }
+      String name = safeGetName(interfaceType);
+      if (name != null
+          && checkedInterfaces.add(name)
+          && (superTypeNames.contains(name)
+              || hasIndexedInterface(interfaceType, checkedInterfaces))) {
+        return true;
+      }
+    }
+  }
+
+  private boolean isIndexedSuperType(TypeDefinition typeDefinition) {
+    String name = safeGetName(typeDefinition);
+    return name != null && superTypeNames.contains(name);
+  }
+
+  @Nullable
+  private static String safeGetName(TypeDefinition typeDefinition) {
+    try {
+      return typeDefinition.asErasure().getName();
+    } catch (Throwable e) {
+      return null;
+    }
+  }
+
+  @Nullable
+  private static TypeDefinition safeGetSuperClass(TypeDefinition typeDefinition) {
+    try {
+      return typeDefinition.getSuperClass();
+    } catch (Throwable e) {
+      return null;
+    }
+  }
+
+  /**
+   * Returns whether {@code matcher} only compares the class name, e.g. {@code named()}, {@code
+   * namedOneOf()}, {@code nameStartsWith()} and their combinations, which is about as cheap as a
+   * hash lookup.
+   */
+  static boolean matchesOnlyNames(Object matcher) {
+    if (matcher instanceof ElementMatcher.Junction.Conjunction
+        || matcher instanceof ElementMatcher.Junction.Disjunction) {
+      Collection<?> parts = parts(matcher);
+      if (parts.isEmpty()) {
+        return false;
+      }
+      for (Object part : parts) {
+        if (!matchesOnlyNames(part)) {
+          return false;
+        }
+      }
+      return true;
+    }
+    if (matcher instanceof ErasureMatcher
+        || matcher.getClass().getName().equals(SAFE_ERASURE_MATCHER)) {
+      Object erasureMatcher = readField(matcher, "matcher");
+      return erasureMatcher != null && matchesOnlyNames(erasureMatcher);
+    }
+    if (matcher instanceof NameMatcher) {
+      Object nameMatcher = readField(matcher, "matcher");
+      return nameMatcher != null && nameCandidates(nameMatcher) != null;
+    }
+    return false;
+  }
+
+  /**
+   * Returns the classes that {@code matcher} may match, or {@code null} when they can't be
+   * determined.
+   */
+  @Nullable
+  private static Candidates candidates(Object matcher) {
+    if (matcher instanceof ElementMatcher.Junction.Conjunction) {
+      // every part has to match, so the candidates of any part will do
+      for (Object part : parts(matcher)) {
+        Candidates candidates = candidates(part);
+        if (candidates != null) {
+          return candidates;
+        }
+      }
+      return null;
+    }
+    if (matcher instanceof ElementMatcher.Junction.Disjunction) {
+      Collection<?> parts = parts(matcher);
+      if (parts.isEmpty()) {
+        return null;
+      }
+      Candidates candidates = new Candidates();
+      for (Object part : parts) {
+        Candidates partCandidates = candidates(part);
+        if (partCandidates == null) {
+          return null;
+        }
+        candidates.addAll(partCandidates);
+      }
+      return candidates;
+    }
+    if (matcher instanceof ErasureMatcher
+        || matcher.getClass().getName().equals(SAFE_ERASURE_MATCHER)) {
+      Object erasureMatcher = readField(matcher, "matcher");
+      return erasureMatcher == null ? null : candidates(erasureMatcher);
+    }
+    if (matcher instanceof NameMatcher) {
+      Object nameMatcher = readField(matcher, "matcher");
+      return nameMatcher == null ? null : nameCandidates(nameMatcher);
+    }
+    if (SUPER_TYPE_MATCHERS.contains(matcher.getClass().getName())) {
+      Object superTypeMatcher = readField(matcher, "matcher");
+      Candidates superTypeCandidates =
+          superTypeMatcher == null ? null : candidates(superTypeMatcher);
+      // only exact super type names are indexed
+      if (superTypeCandidates == null
+          || !superTypeCandidates.prefixes.isEmpty()
+          || !superTypeCandidates.superTypeNames.isEmpty()) {
+        return null;
+      }
+      Candidates candidates = new Candidates();
+      candidates.superTypeNames.addAll(superTypeCandidates.names);
+      return candidates;
+    }
+    return null;
+  }
+
+  @Nullable
+  private static Candidates nameCandidates(Object nameMatcher) {
+    if (nameMatcher instanceof StringMatcher) {
+      Object value = readField(nameMatcher, "value");
+      Object mode = readField(nameMatcher, "mode");
+      if (!(value instanceof String)) {
+        return null;
+      }
+      Candidates candidates = new Candidates();
+      if (mode == StringMatcher.Mode.EQUALS_FULLY) {
+        candidates.names.add((String) value);
+        return candidates;
+      }
+      if (mode == StringMatcher.Mode.STARTS_WITH) {
+        candidates.prefixes.add((String) value);
+        return candidates;
+      }
+      return null;
+    }
+    if (nameMatcher instanceof StringSetMatcher) {
+      Object values = readField(nameMatcher, "values");
+      if (!(values instanceof Collection)) {
+        return null;
+      }
+      Candidates candidates = new Candidates();
+      for (Object value : (Collection<?>) values) {
+        if (!(value instanceof String)) {
+          return null;
+        }
+        candidates.names.add((String) value);
+      }
+      return candidates;
+    }
+    return null;
+  }
+
+  private static Collection<?> parts(Object junction) {
+    Object parts = readField(junction, "matchers");
+    return parts instanceof Collection ? (Collection<?>) parts : emptyList();
+  }
+
+  // the matchers don't expose what they match, so it's read from their fields; when a field can't
+  // be read (e.g. because byte buddy renamed it) the matcher is simply not indexed, and
+  // TypeMatcherIndexTest fails
+  @Nullable
+  private static Object readField(Object target, String name) {
+    try {
+      Field field = target.getClass().getDeclaredField(name);
+      field.setAccessible(true);
+      return field.get(target);
+    } catch (ReflectiveOperationException | RuntimeException e) {
+      logger.log(FINE, "Can't read field " + name + " of " + target.getClass().getName(), e);
+      return null;
+    }
+  }
+
+  private static final class Candidates {
+    private final Set<String> names = new HashSet<>();
+    private final Set<String> prefixes = new HashSet<>();
+    private final Set<String> superTypeNames = new HashSet<>();
+
+    private void addAll(Candidates other) {
+      names.addAll(other.names);
+      prefixes.addAll(other.prefixes);
+      superTypeNames.addAll(other.superTypeNames);
+    }
+  }
+
+  private static final class LastDecision {
+    private WeakReference<TypeDescription> type = new WeakReference<>(null);
+    private boolean mayMatch;
+  }
+
+  private final class FastRejectMatcher implements ElementMatcher<TypeDescription> {
+    private final ElementMatcher<TypeDescription> delegate;
+
+    private FastRejectMatcher(ElementMatcher<TypeDescription> delegate) {
+      this.delegate = delegate;
+    }
+
+    @Override
+    public boolean matches(TypeDescription target) {
+      return mayMatch(target) && delegate.matches(target);
+    }
+
+    @Override
+    public String toString() {
+      return delegate.toString();
+    }
+  }
+}
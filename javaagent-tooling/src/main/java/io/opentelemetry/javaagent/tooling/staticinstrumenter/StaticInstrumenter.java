@@ -0,0 +1,318 @@
+/*
+ * Copyright The OpenTelemetry Authors
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package io.opentelemetry.javaagent.tooling.staticinstrumenter;
+
+import static java.util.logging.Level.INFO;
+import static java.util.logging.Level.WARNING;
+
+import io.opentelemetry.javaagent.bootstrap.ClassFileTransformerHolder;
+import io.opentelemetry.javaagent.tooling.HelperInjector;
+import io.opentelemetry.javaagent.tooling.HelperInjectorListener;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.lang.instrument.ClassFileTransformer;
+import java.lang.instrument.IllegalClassFormatException;
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.security.CodeSource;
+import java.security.ProtectionDomain;
+import java.security.cert.Certificate;
+import java.util.ArrayList;
+import java.util.Enumeration;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.jar.JarEntry;
+import java.util.jar.JarFile;
+import java.util.jar.JarOutputStream;
+import java.util.logging.Logger;
+import javax.annotation.Nullable;
+
+/**
+ * Runs the class file transformer of the agent over application jars ahead of time, so that the
+ * application can later be started without any runtime type matching and transformation.
+ *
+ * <p>The static instrumenter is run with the agent attached:
+ *
+ * <pre>
+ * java -Dotel.javaagent.experimental.static-instrumenter.enabled=true -Dotel.traces.exporter=none \
+ *   -javaagent:opentelemetry-javaagent.jar -jar opentelemetry-javaagent.jar \
+ *   instrument output-dir app.jar lib.jar ...
+ * </pre>
+ *
+ * <p>All jars are instrumented together, in a single class loader, so that muzzle sees the same
+ * libraries as the application will. Every input jar is written to the output directory under its
+ * absolute path, e.g. {@code /opt/app/lib/library.jar} to {@code
+ * output-dir/opt/app/lib/library.jar}, so that jars with the same file name don't overwrite each
+ * other. Two more jars are written to the output directory itself:
+ *
+ * <ul>
+ *   <li>{@value #HELPERS_JAR}, the helper classes and resources that the instrumentations would
+ *       inject into the application class loader, which has to be added to the class path
+ *   <li>{@value #BOOTSTRAP_JAR}, the classes that the agent would inject into the bootstrap class
+ *       loader (e.g. the virtual field implementations)
+ * </ul>
+ *
+ * <p>The instrumented application is then run with the agent attached and {@code
+ * otel.javaagent.experimental.static-instrumentation.bootstrap-jar} pointing at the bootstrap jar:
+ * the agent sets up the SDK and the bootstrap classes, but doesn't install its class file
+ * transformer.
+ *
+ * <p>Limitations: only the classes of the instrumented jars are instrumented. JDK classes are not,
+ * so the instrumentations of executors, {@code Thread}, {@code HttpURLConnection} and the other JDK
+ * classes don't apply, and the context is not propagated to tasks that are run by JDK executors.
+ * The agent logs a warning about this when it starts in that mode. Nested jars (e.g. of Spring Boot
+ * executable jars) are copied as they are.
+ */
+public final class StaticInstrumenter {
+
+  private static final Logger logger = Logger.getLogger(StaticInstrumenter.class.getName());
+
+  public static final String ENABLED_CONFIG =
+      "otel.javaagent.experimental.static-instrumenter.enabled";
+
+  static final String HELPERS_JAR = "opentelemetry-static-helpers.jar";
+  static final String BOOTSTRAP_JAR = "opentelemetry-static-bootstrap.jar";
+
+  private static final InjectedClassesRecorder recorder = new InjectedClassesRecorder();
+  private static volatile boolean recording;
+
+  /**
+   * Starts recording the classes injected by the agent; called while the agent is installed, so
+   * that classes injected into the bootstrap class loader before the instrumenter runs are not
+   * missed.
+   */
+  public static void recordInjectedClasses() {
+    HelperInjector.setHelperInjectorListener(recorder);
+    recording = true;
+  }
+
+  /**
+   * Entry point, called by {@code OpenTelemetryAgent.main()} with the output directory followed by
+   * the jars to instrument.
+   */
+  public static void main(String[] args) throws IOException {
+    if (args.length < 2) {
+      throw new IllegalArgumentException("Usage: instrument <output directory> <jar> [<jar> ...]");
+    }
+    ClassFileTransformer transformer = ClassFileTransformerHolder.getClassFileTransformer();
+    if (transformer == null || !recording) {
+      throw new IllegalStateException(
+          "The static instrumenter has to be run with the agent attached and "
+              + ENABLED_CONFIG
+              + "=true");
+    }
+    Path outputDir = Paths.get(args[0]);
+    List<Path> jars = new ArrayList<>();
+    for (int i = 1; i < args.length; i++) {
+      jars.add(Paths.get(args[i]));
+    }
+    instrument(transformer, outputDir, jars);
+  }
+
+  private static void instrument(ClassFileTransformer transformer, Path outputDir, List<Path> jars)
+      throws IOException {
+    Files.createDirectories(outputDir);
+    URL[] urls = new URL[jars.size()];
+    for (int i = 0; i < jars.size(); i++) {
+      urls[i] = jars.get(i).toUri().toURL();
+    }
+    // the platform class loader on Java 9+, so that only the application jars and the JDK are seen
+    ClassLoader parent = ClassLoader.getSystemClassLoader().getParent();
+    Set<Path> targets = new HashSet<>();
+    try (URLClassLoader classLoader = new URLClassLoader(urls, parent)) {
+      for (Path jar : jars) {
+        Path target = targetPath(outputDir, jar);
+        if (!targets.add(target)) {
+          throw new IllegalArgumentException(jar + " was passed more than once");
+        }
+        Path targetDir = target.getParent();
+        if (targetDir != null) {
+          Files.createDirectories(targetDir);
+        }
+        int instrumented = instrumentJar(transformer, classLoader, jar, target);
+        logger.log(
+            INFO,
+            "Instrumented {0} classes of {1} to {2}",
+            new Object[] {instrumented, jar, target});
+      }
+      writeJar(outputDir.resolve(HELPERS_JAR), recorder.helperEntries(classLoader));
+    }
+    writeJar(outputDir.resolve(BOOTSTRAP_JAR), recorder.bootstrapEntries());
+  }
+
+  /** Returns where the instrumented {@code jar} is written: its absolute path under {@code dir}. */
+  // visible for testing
+  static Path targetPath(Path dir, Path jar) {
+    Path absoluteJar = jar.toAbsolutePath().normalize();
+    Path root = absoluteJar.getRoot();
+    Path relativeJar = root == null ? absoluteJar : root.relativize(absoluteJar);
+    return dir.resolve(relativeJar.toString());
+  }
+
+  /**
+   * Copies {@code jar} to {@code target}, transforming its classes; returns the number of classes
+   * that were transformed.
+   */
+  // visible for testing
+  static int instrumentJar(
+      ClassFileTransformer transformer, ClassLoader classLoader, Path jar, Path target)
+      throws IOException {
+    ProtectionDomain protectionDomain =
+        new ProtectionDomain(new CodeSource(jar.toUri().toURL(), (Certificate[]) null), null);
+    int instrumented = 0;
+    try (JarFile jarFile = new JarFile(jar.toFile());
+        JarOutputStream out = new JarOutputStream(Files.newOutputStream(target))) {
+      Enumeration<JarEntry> entries = jarFile.entries();
+      while (entries.hasMoreElements()) {
+        JarEntry entry = entries.nextElement();
+        String name = entry.getName();
+        // signatures don't match the transformed classes anymore
+        if (isSignatureFile(name)) {
+          continue;
+        }
+        byte[] bytes;
+        try (InputStream in = jarFile.getInputStream(entry)) {
+          bytes = readAll(in);
+        }
+        if (isClassFile(name)) {
+          byte[] transformed = transform(transformer, classLoader, protectionDomain, name, bytes);
+          if (transformed != null) {
+            bytes = transformed;
+            instrumented++;
+          }
+        }
+        out.putNextEntry(new JarEntry(name));
+        out.write(bytes);
+        out.closeEntry();
+      }
+    }
+    return instrumented;
+  }
+
+  @Nullable
+  private static byte[] transform(
+      ClassFileTransformer transformer,
+      ClassLoader classLoader,
+      ProtectionDomain protectionDomain,
+      String entryName,
+      byte[] bytes) {
+    String className = entryName.substring(0, entryName.length() - ".class".length());
+    try {
+      return transformer.transform(classLoader, className, null, protectionDomain, bytes);
+    } catch (IllegalClassFormatException | RuntimeException e) {
+      logger.log(WARNING, "Failed to instrument " + className + ", copying it unchanged", e);
+      return null;
+    }
+  }
+
+  private static boolean isClassFile(String name) {
+    return name.endsWith(".class")
+        && !name.startsWith("META-INF/")
+        && !name.endsWith("module-info.class");
+  }
+
+  private static boolean isSignatureFile(String name) {
+    if (!name.startsWith("META-INF/") || name.indexOf('/', "META-INF/".length()) != -1) {
+      return false;
+    }
+    return name.endsWith(".SF")
+        || name.endsWith(".RSA")
+        || name.endsWith(".DSA")
+        || name.endsWith(".EC");
+  }
+
+  private static void writeJar(Path target, Map<String, byte[]> entries) throws IOException {
+    try (OutputStream fileOut = Files.newOutputStream(target);
+        JarOutputStream out = new JarOutputStream(fileOut)) {
+      for (Map.Entry<String, byte[]> entry : entries.entrySet()) {
+        out.putNextEntry(new JarEntry(entry.getKey()));
+        out.write(entry.getValue());
+        out.closeEntry();
+      }
+    }
+  }
+
+  private static String classFileName(String className) {
+    return className.replace('.', '/') + ".class";
+  }
+
+  private static byte[] readAll(InputStream in) throws IOException {
+    ByteArrayOutputStream out = new ByteArrayOutputStream();
+    byte[] buffer = new byte[8192];
+    int read;
+    while ((read = in.read(buffer)) != -1) {
+      out.write(buffer, 0, read);
+    }
+    return out.toByteArray();
+  }
+
+  // records the jar entries of the injected classes and resources
+  private static final class InjectedClassesRecorder implements HelperInjectorListener {
+    private final Map<String, byte[]> bootstrapEntries = new LinkedHashMap<>();
+    private final Map<ClassLoader, Map<String, byte[]>> helperEntries = new LinkedHashMap<>();
+
+    @Override
+    public synchronized void onInjection(Map<String, byte[]> classnameToBytes) {
+      for (Map.Entry<String, byte[]> entry : classnameToBytes.entrySet()) {
+        bootstrapEntries.put(classFileName(entry.getKey()), entry.getValue());
+      }
+    }
+
+    @Override
+    public synchronized void onHelperClassInjection(
+        ClassLoader classLoader, Map<String, byte[]> classnameToBytes) {
+      Map<String, byte[]> entries = entriesOf(classLoader);
+      for (Map.Entry<String, byte[]> entry : classnameToBytes.entrySet()) {
+        entries.put(classFileName(entry.getKey()), entry.getValue());
+      }
+    }
+
+    @Override
+    public void onHelperResourceInjection(
+        ClassLoader classLoader, String applicationPath, List<URL> resources) {
+      // a jar can only have one entry for the path, the class loader would return the first one
+      byte[] bytes;
+      try (InputStream in = resources.get(0).openStream()) {
+        bytes = readAll(in);
+      } catch (IOException e) {
+        logger.log(WARNING, "Failed to read helper resource " + applicationPath, e);
+        return;
+      }
+      if (resources.size() > 1) {
+        logger.log(
+            WARNING,
+            "Found {0} helper resources {1}, only the first one is written",
+            new Object[] {resources.size(), applicationPath});
+      }
+      synchronized (this) {
+        entriesOf(classLoader).put(applicationPath, bytes);
+      }
+    }
+
+    private Map<String, byte[]> entriesOf(ClassLoader classLoader) {
+      return helperEntries.computeIfAbsent(classLoader, unused -> new LinkedHashMap<>());
+    }
+
+    synchronized Map<String, byte[]> bootstrapEntries() {
+      return new LinkedHashMap<>(bootstrapEntries);
+    }
+
+    synchronized Map<String, byte[]> helperEntries(ClassLoader classLoader) {
+      Map<String, byte[]> entries = helperEntries.get(classLoader);
+      return entries == null ? new LinkedHashMap<>() : new LinkedHashMap<>(entries);
+    }
+  }
+
+  private StaticInstrumenter() {}
+}
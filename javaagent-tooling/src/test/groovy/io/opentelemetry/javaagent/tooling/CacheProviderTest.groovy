@@ -6,94 +6,86 @@
 package io.opentelemetry.javaagent.tooling
 
 import io.opentelemetry.javaagent.tooling.muzzle.AgentCachingPoolStrategy
+import io.opentelemetry.javaagent.tooling.muzzle.AgentTooling
 import net.bytebuddy.description.type.TypeDescription
 import net.bytebuddy.dynamic.ClassFileLocator
 import net.bytebuddy.pool.TypePool
 import spock.lang.Specification
 
-import java.lang.ref.WeakReference
-
 class CacheProviderTest extends Specification {
   def "key bootstrap equivalence"() {
-    // def loader = null
-    def loaderHash = AgentCachingPoolStrategy.BOOTSTRAP_HASH
-    def loaderRef = null
+    setup:
+    def poolStrat = new AgentCachingPoolStrategy(AgentTooling.locationStrategy())
 
-    def key1 = new AgentCachingPoolStrategy.TypeCacheKey(loaderHash, loaderRef, "foo")
-    def key2 = new AgentCachingPoolStrategy.TypeCacheKey(loaderHash, loaderRef, "foo")
+    def cacheProvider1 = poolStrat.getCacheProvider(null)
+    def cacheProvider2 = poolStrat.getCacheProvider(null)
 
-    expect:
-    key1.hashCode() == key2.hashCode()
-    key1.equals(key2)
+    when:
+    cacheProvider1.register("foo", newVoid())
+
+    then:
+    cacheProvider1.is(cacheProvider2)
+    cacheProvider2.find("foo") != null
   }
 
   def "key same ref equivalence"() {
     setup:
+    def poolStrat = new AgentCachingPoolStrategy(AgentTooling.locationStrategy())
     def loader = newClassLoader()
-    def loaderHash = loader.hashCode()
-    def loaderRef = new WeakReference<ClassLoader>(loader)
 
-    def key1 = new AgentCachingPoolStrategy.TypeCacheKey(loaderHash, loaderRef, "foo")
-    def key2 = new AgentCachingPoolStrategy.TypeCacheKey(loaderHash, loaderRef, "foo")
+    def cacheProvider1 = poolStrat.getCacheProvider(loader)
+    def cacheProvider2 = poolStrat.getCacheProvider(loader)
 
     expect:
-    key1.hashCode() == key2.hashCode()
-    key1.equals(key2)
+    cacheProvider1.is(cacheProvider2)
   }
 
   def "key different ref equivalence"() {
     setup:
+    def poolStrat = new AgentCachingPoolStrategy(AgentTooling.locationStrategy())
     def loader = newClassLoader()
-    def loaderHash = loader.hashCode()
-    def loaderRef1 = new WeakReference<ClassLoader>(loader)
-    def loaderRef2 = new WeakReference<ClassLoader>(loader)
 
-    def key1 = new AgentCachingPoolStrategy.TypeCacheKey(loaderHash, loaderRef1, "foo")
-    def key2 = new AgentCachingPoolStrategy.TypeCacheKey(loaderHash, loaderRef2, "foo")
+    // every type pool keeps its own weak reference to the class loader
+    def typePool1 = poolStrat.typePool(newLocator(), loader)
+    def typePool2 = poolStrat.typePool(newLocator(), loader)
 
     expect:
-    loaderRef1 != loaderRef2
-
-    key1.hashCode() == key2.hashCode()
-    key1.equals(key2)
+    !typePool1.is(typePool2)
+    typePool1.cacheProvider.is(typePool2.cacheProvider)
   }
 
   def "key mismatch -- same loader - diff name"() {
     setup:
+    def poolStrat = new AgentCachingPoolStrategy(AgentTooling.locationStrategy())
     def loader = newClassLoader()
-    def loaderHash = loader.hashCode()
-    def loaderRef = new WeakReference<ClassLoader>(loader)
-    def fooKey = new AgentCachingPoolStrategy.TypeCacheKey(loaderHash, loaderRef, "foo")
-    def barKey = new AgentCachingPoolStrategy.TypeCacheKey(loaderHash, loaderRef, "bar")
+    def cacheProvider = poolStrat.getCacheProvider(loader)
 
-    expect:
-    // not strictly guaranteed -- but important for performance
-    fooKey.hashCode() != barKey.hashCode()
-    !fooKey.equals(barKey)
+    when:
+    cacheProvider.register("foo", newVoid())
+
+    then:
+    cacheProvider.find("foo") != null
+    cacheProvider.find("bar") == null
   }
 
   def "key mismatch -- same name - diff loader"() {
     setup:
-    def loader1 = newClassLoader()
-    def loader1Hash = loader1.hashCode()
-    def loaderRef1 = new WeakReference<ClassLoader>(loader1)
-
-    def loader2 = newClassLoader()
-    def loader2Hash = loader2.hashCode()
-    def loaderRef2 = new WeakReference<ClassLoader>(loader2)
+    def poolStrat = new AgentCachingPoolStrategy(AgentTooling.locationStrategy())
+    def cacheProvider1 = poolStrat.getCacheProvider(newClassLoader())
+    def cacheProvider2 = poolStrat.getCacheProvider(newClassLoader())
 
-    def fooKey1 = new AgentCachingPoolStrategy.TypeCacheKey(loader1Hash, loaderRef1, "foo")
-    def fooKey2 = new AgentCachingPoolStrategy.TypeCacheKey(loader2Hash, loaderRef2, "foo")
+    when:
+    cacheProvider1.register("foo", newVoid())
 
-    expect:
-    // not strictly guaranteed -- but important for performance
-    fooKey1.hashCode() != fooKey2.hashCode()
-    !fooKey1.equals(fooKey2)
+    then:
+    !cacheProvider1.is(cacheProvider2)
+    cacheProvider1.find("foo") != null
+    cacheProvider2.find("foo") == null
   }
 
   def "test basic caching"() {
     setup:
-    def poolStrat = new AgentCachingPoolStrategy()
+    def poolStrat = new AgentCachingPoolStrategy(AgentTooling.locationStrategy())
 
     def loader = newClassLoader()
 
@@ -109,7 +101,7 @@ class CacheProviderTest extends Specification {
 
   def "test loader equivalence"() {
     setup:
-    def poolStrat = new AgentCachingPoolStrategy()
+    def poolStrat = new AgentCachingPoolStrategy(AgentTooling.locationStrategy())
 
     def loader1 = newClassLoader()
 
@@ -129,7 +121,7 @@ class CacheProviderTest extends Specification {
 
   def "test loader separation"() {
     setup:
-    def poolStrat = new AgentCachingPoolStrategy()
+    def poolStrat = new AgentCachingPoolStrategy(AgentTooling.locationStrategy())
 
     def loader1 = newClassLoader()
     def loader2 = newClassLoader()
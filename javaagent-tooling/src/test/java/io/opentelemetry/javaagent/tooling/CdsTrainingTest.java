@@ -0,0 +1,35 @@
+/*
+ * Copyright The OpenTelemetry Authors
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package io.opentelemetry.javaagent.tooling;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import org.junit.jupiter.api.Test;
+
+class CdsTrainingTest {
+
+  @Test
+  void agentClassNames() {
+    assertThat(CdsTraining.agentClassName("inst/net/bytebuddy/ByteBuddy.classdata"))
+        .isEqualTo("net.bytebuddy.ByteBuddy");
+    assertThat(
+            CdsTraining.agentClassName(
+                "inst/io/opentelemetry/javaagent/tooling/AgentInstaller.classdata"))
+        .isEqualTo("io.opentelemetry.javaagent.tooling.AgentInstaller");
+  }
+
+  @Test
+  void skipsResourcesVersionedAndInstrumentationClasses() {
+    assertThat(CdsTraining.agentClassName("inst/META-INF/services/java.lang.Runnable")).isNull();
+    assertThat(CdsTraining.agentClassName("inst/META-INF/versions/9/a/B.classdata")).isNull();
+    assertThat(CdsTraining.agentClassName("io/opentelemetry/javaagent/OpenTelemetryAgent.class"))
+        .isNull();
+    assertThat(
+            CdsTraining.agentClassName(
+                "inst/io/opentelemetry/javaagent/instrumentation/servlet/ServletAdvice.classdata"))
+        .isNull();
+  }
+}
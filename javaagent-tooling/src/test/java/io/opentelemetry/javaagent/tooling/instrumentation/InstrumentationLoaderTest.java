@@ -0,0 +1,159 @@
+/*
+ * Copyright The OpenTelemetry Authors
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package io.opentelemetry.javaagent.tooling.instrumentation;
+
+import static java.util.Arrays.asList;
+import static java.util.Collections.singletonList;
+import static net.bytebuddy.matcher.ElementMatchers.named;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyBoolean;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import io.opentelemetry.javaagent.extension.instrumentation.InstrumentationModule;
+import io.opentelemetry.javaagent.extension.instrumentation.TypeInstrumentation;
+import io.opentelemetry.javaagent.extension.instrumentation.TypeTransformer;
+import io.opentelemetry.sdk.autoconfigure.spi.ConfigProperties;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.logging.Handler;
+import java.util.logging.Level;
+import java.util.logging.LogRecord;
+import java.util.logging.Logger;
+import net.bytebuddy.agent.builder.AgentBuilder;
+import net.bytebuddy.description.type.TypeDescription;
+import net.bytebuddy.matcher.ElementMatcher;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+class InstrumentationLoaderTest {
+
+  private static final Logger loaderLogger =
+      Logger.getLogger(InstrumentationLoader.class.getName());
+
+  private final List<String> installed = Collections.synchronizedList(new ArrayList<>());
+  private final List<LogRecord> logRecords = Collections.synchronizedList(new ArrayList<>());
+  private final Handler logHandler =
+      new Handler() {
+        @Override
+        public void publish(LogRecord record) {
+          logRecords.add(record);
+        }
+
+        @Override
+        public void flush() {}
+
+        @Override
+        public void close() {}
+      };
+
+  @BeforeEach
+  void addLogHandler() {
+    loaderLogger.addHandler(logHandler);
+  }
+
+  @AfterEach
+  void removeLogHandler() {
+    loaderLogger.removeHandler(logHandler);
+  }
+
+  @ParameterizedTest
+  @ValueSource(booleans = {false, true})
+  void installsModulesInOrder(boolean parallelStartup) {
+    List<InstrumentationModule> modules = new ArrayList<>();
+    for (int i = 0; i < 20; i++) {
+      modules.add(new TestModule("module" + i));
+    }
+
+    extend(parallelStartup, modules);
+
+    List<String> expected = new ArrayList<>();
+    for (int i = 0; i < 20; i++) {
+      expected.add("module" + i);
+    }
+    assertThat(installed).containsExactlyElementsOf(expected);
+  }
+
+  @ParameterizedTest
+  @ValueSource(booleans = {false, true})
+  void skipsModuleThatFailsToPrepare(boolean parallelStartup) {
+    extend(
+        parallelStartup,
+        asList(new TestModule("first"), new FailingModule(), new TestModule("last")));
+
+    assertThat(installed).containsExactly("first", "last");
+    assertThat(logRecords)
+        .filteredOn(record -> record.getLevel() == Level.SEVERE)
+        .singleElement()
+        .satisfies(
+            record -> {
+              assertThat(record.getMessage())
+                  .isEqualTo(
+                      "Unable to load instrumentation failing [class "
+                          + FailingModule.class.getName()
+                          + "]");
+              assertThat(record.getThrown())
+                  .isInstanceOf(IllegalStateException.class)
+                  .hasMessage("no type instrumentations");
+            });
+  }
+
+  private void extend(boolean parallelStartup, List<InstrumentationModule> modules) {
+    ConfigProperties config = mock(ConfigProperties.class);
+    when(config.getBoolean(anyString(), anyBoolean()))
+        .thenAnswer(invocation -> invocation.getArgument(1));
+    when(config.getBoolean(InstrumentationLoader.PARALLEL_STARTUP_CONFIG, false))
+        .thenReturn(parallelStartup);
+
+    new InstrumentationLoader(new InstrumentationModuleInstaller(null))
+        .extend(new AgentBuilder.Default(), config, modules);
+  }
+
+  private class TestModule extends InstrumentationModule {
+    TestModule(String name) {
+      super(name);
+    }
+
+    @Override
+    public List<TypeInstrumentation> typeInstrumentations() {
+      return singletonList(new RecordingTypeInstrumentation(instrumentationName()));
+    }
+  }
+
+  private static class FailingModule extends InstrumentationModule {
+    FailingModule() {
+      super("failing");
+    }
+
+    @Override
+    public List<TypeInstrumentation> typeInstrumentations() {
+      throw new IllegalStateException("no type instrumentations");
+    }
+  }
+
+  private class RecordingTypeInstrumentation implements TypeInstrumentation {
+    private final String moduleName;
+
+    RecordingTypeInstrumentation(String moduleName) {
+      this.moduleName = moduleName;
+    }
+
+    @Override
+    public ElementMatcher<TypeDescription> typeMatcher() {
+      return named("com.example.Foo");
+    }
+
+    @Override
+    public void transform(TypeTransformer transformer) {
+      // called while the module is added to the AgentBuilder
+      installed.add(moduleName);
+    }
+  }
+}
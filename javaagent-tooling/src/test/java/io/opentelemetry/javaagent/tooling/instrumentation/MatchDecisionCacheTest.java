@@ -0,0 +1,252 @@
+/*
+ * Copyright The OpenTelemetry Authors
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package io.opentelemetry.javaagent.tooling.instrumentation;
+
+import static java.util.Collections.emptyList;
+import static org.assertj.core.api.Assertions.assertThat;
+
+import io.opentelemetry.javaagent.extension.instrumentation.InstrumentationModule;
+import io.opentelemetry.javaagent.extension.instrumentation.TypeInstrumentation;
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.security.CodeSource;
+import java.security.ProtectionDomain;
+import java.security.cert.Certificate;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import net.bytebuddy.agent.builder.AgentBuilder;
+import net.bytebuddy.description.type.TypeDescription;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+class MatchDecisionCacheTest {
+
+  private static final TypeDescription TYPE = TypeDescription.ForLoadedType.of(String.class);
+  private static final TypeDescription OTHER_TYPE =
+      TypeDescription.ForLoadedType.of(Integer.class);
+
+  @TempDir Path tempDir;
+
+  private Path cacheFile;
+  private Path jar;
+  private Path dependency;
+  private ProtectionDomain protectionDomain;
+  private URLClassLoader classLoader;
+  private final AtomicInteger typeMatcherCalls = new AtomicInteger();
+
+  @BeforeEach
+  void setUp() throws Exception {
+    cacheFile = tempDir.resolve("match-cache");
+    jar = Files.write(tempDir.resolve("library.jar"), new byte[] {1, 2, 3});
+    dependency = Files.write(tempDir.resolve("dependency.jar"), new byte[] {4, 5, 6});
+    protectionDomain = protectionDomain(jar);
+    classLoader = new URLClassLoader(new URL[] {url(jar), url(dependency)}, null);
+  }
+
+  @AfterEach
+  void tearDown() throws Exception {
+    classLoader.close();
+  }
+
+  @Test
+  void reusesDecisionsOfPreviousRun() {
+    MatchDecisionCache cache = new MatchDecisionCache(cacheFile);
+    cache.addModule(new TestModule());
+    AgentBuilder.RawMatcher matcher = typeMatcher(cache);
+    cache.load();
+    assertThat(matches(matcher)).isTrue();
+    assertThat(matches(matcher)).isTrue();
+    assertThat(typeMatcherCalls).hasValue(1);
+    cache.save();
+
+    MatchDecisionCache nextRun = new MatchDecisionCache(cacheFile);
+    nextRun.addModule(new TestModule());
+    AgentBuilder.RawMatcher nextMatcher = typeMatcher(nextRun);
+    nextRun.load();
+
+    assertThat(matches(nextMatcher)).isTrue();
+    assertThat(typeMatcherCalls).hasValue(1);
+  }
+
+  @Test
+  void ignoresDecisionsForChangedJar() throws Exception {
+    runWithTypeDecision().save();
+
+    Files.setLastModifiedTime(
+        jar, FileTime.fromMillis(Files.getLastModifiedTime(jar).toMillis() - 60_000));
+
+    MatchDecisionCache nextRun = new MatchDecisionCache(cacheFile);
+    nextRun.addModule(new TestModule());
+    AgentBuilder.RawMatcher nextMatcher = typeMatcher(nextRun);
+    nextRun.load();
+
+    assertThat(matches(nextMatcher)).isTrue();
+    assertThat(typeMatcherCalls).hasValue(2);
+  }
+
+  @Test
+  void ignoresDecisionsForChangedDependency() throws Exception {
+    runWithTypeDecision().save();
+
+    // e.g. a jar that has a super class of the matched class
+    Files.write(dependency, new byte[] {4, 5, 6, 7});
+
+    MatchDecisionCache nextRun = new MatchDecisionCache(cacheFile);
+    nextRun.addModule(new TestModule());
+    AgentBuilder.RawMatcher nextMatcher = typeMatcher(nextRun);
+    nextRun.load();
+
+    assertThat(matches(nextMatcher)).isTrue();
+    assertThat(typeMatcherCalls).hasValue(2);
+  }
+
+  @Test
+  void ignoresDecisionsForDifferentModules() {
+    runWithTypeDecision().save();
+
+    MatchDecisionCache nextRun = new MatchDecisionCache(cacheFile);
+    nextRun.addModule(new TestModule());
+    nextRun.addModule(new OtherTestModule());
+    AgentBuilder.RawMatcher nextMatcher = typeMatcher(nextRun);
+    nextRun.load();
+
+    assertThat(matches(nextMatcher)).isTrue();
+    assertThat(typeMatcherCalls).hasValue(2);
+  }
+
+  @Test
+  void doesNotCacheClassLoaderMatcher() {
+    MatchDecisionCache cache = new MatchDecisionCache(cacheFile);
+    AgentBuilder.RawMatcher matcher =
+        cache.typeMatcher(
+            cache.nextTypeInstrumentationId(),
+            this::countingTypeMatcher,
+            classLoader -> false,
+            "test type matcher failed");
+    cache.load();
+
+    assertThat(matches(matcher)).isFalse();
+    assertThat(typeMatcherCalls).hasValue(0);
+  }
+
+  @Test
+  void doesNotRecordFailedMatch() {
+    MatchDecisionCache cache = new MatchDecisionCache(cacheFile);
+    cache.addModule(new TestModule());
+    AgentBuilder.RawMatcher matcher =
+        cache.typeMatcher(
+            cache.nextTypeInstrumentationId(),
+            type -> {
+              throw new IllegalStateException("failed " + typeMatcherCalls.incrementAndGet());
+            },
+            classLoader -> true,
+            "test type matcher failed");
+    cache.load();
+
+    assertThat(matches(matcher)).isFalse();
+    assertThat(matches(matcher)).isFalse();
+    assertThat(typeMatcherCalls).hasValue(2);
+  }
+
+  @Test
+  void doesNotRecordDecisionsForDirectoryOnClassPath() throws Exception {
+    Path classes = Files.createDirectory(tempDir.resolve("classes"));
+    try (URLClassLoader directoryClassLoader =
+        new URLClassLoader(new URL[] {url(jar), url(classes)}, null)) {
+      MatchDecisionCache cache = new MatchDecisionCache(cacheFile);
+      cache.addModule(new TestModule());
+      AgentBuilder.RawMatcher matcher = typeMatcher(cache);
+      cache.load();
+
+      assertThat(matches(matcher, TYPE, directoryClassLoader)).isTrue();
+      assertThat(matches(matcher, TYPE, directoryClassLoader)).isTrue();
+      assertThat(typeMatcherCalls).hasValue(2);
+    }
+  }
+
+  @Test
+  void recordsAtMostMaxTypes() {
+    MatchDecisionCache cache = new MatchDecisionCache(cacheFile, 1);
+    cache.addModule(new TestModule());
+    AgentBuilder.RawMatcher matcher = typeMatcher(cache);
+    cache.load();
+
+    assertThat(matches(matcher, TYPE, classLoader)).isTrue();
+    assertThat(matches(matcher, TYPE, classLoader)).isTrue();
+    assertThat(typeMatcherCalls).hasValue(1);
+
+    assertThat(matches(matcher, OTHER_TYPE, classLoader)).isTrue();
+    assertThat(matches(matcher, OTHER_TYPE, classLoader)).isTrue();
+    assertThat(typeMatcherCalls).hasValue(3);
+  }
+
+  private MatchDecisionCache runWithTypeDecision() {
+    MatchDecisionCache cache = new MatchDecisionCache(cacheFile);
+    cache.addModule(new TestModule());
+    AgentBuilder.RawMatcher matcher = typeMatcher(cache);
+    cache.load();
+    assertThat(matches(matcher)).isTrue();
+    assertThat(typeMatcherCalls).hasValue(1);
+    return cache;
+  }
+
+  private AgentBuilder.RawMatcher typeMatcher(MatchDecisionCache cache) {
+    return cache.typeMatcher(
+        cache.nextTypeInstrumentationId(),
+        this::countingTypeMatcher,
+        classLoader -> true,
+        "test type matcher failed");
+  }
+
+  private boolean matches(AgentBuilder.RawMatcher matcher) {
+    return matches(matcher, TYPE, classLoader);
+  }
+
+  private boolean matches(
+      AgentBuilder.RawMatcher matcher, TypeDescription type, ClassLoader classLoader) {
+    return matcher.matches(type, classLoader, null, null, protectionDomain);
+  }
+
+  private boolean countingTypeMatcher(TypeDescription unused) {
+    typeMatcherCalls.incrementAndGet();
+    return true;
+  }
+
+  private static ProtectionDomain protectionDomain(Path jar) throws Exception {
+    return new ProtectionDomain(new CodeSource(url(jar), (Certificate[]) null), null);
+  }
+
+  private static URL url(Path path) throws Exception {
+    return path.toUri().toURL();
+  }
+
+  static class TestModule extends InstrumentationModule {
+    TestModule() {
+      super("test");
+    }
+
+    @Override
+    public List<TypeInstrumentation> typeInstrumentations() {
+      return emptyList();
+    }
+  }
+
+  static class OtherTestModule extends InstrumentationModule {
+    OtherTestModule() {
+      super("other");
+    }
+
+    @Override
+    public List<TypeInstrumentation> typeInstrumentations() {
+      return emptyList();
+    }
+  }
+}
@@ -0,0 +1,80 @@
+/*
+ * Copyright The OpenTelemetry Authors
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package io.opentelemetry.javaagent.tooling.instrumentation;
+
+import static java.util.Collections.singletonList;
+import static net.bytebuddy.matcher.ElementMatchers.named;
+import static org.assertj.core.api.Assertions.assertThat;
+
+import io.opentelemetry.javaagent.extension.instrumentation.InstrumentationModule;
+import io.opentelemetry.javaagent.extension.instrumentation.TypeInstrumentation;
+import io.opentelemetry.javaagent.extension.instrumentation.TypeTransformer;
+import io.opentelemetry.javaagent.tooling.instrumentation.StartupProfiler.Step;
+import java.time.Duration;
+import java.util.List;
+import net.bytebuddy.description.type.TypeDescription;
+import net.bytebuddy.matcher.ElementMatcher;
+import org.junit.jupiter.api.Test;
+
+class StartupProfilerTest {
+
+  private static final TypeDescription STRING = TypeDescription.ForLoadedType.of(String.class);
+
+  @Test
+  void reportsTimesPerModuleAndTypeInstrumentation() {
+    StartupProfiler profiler = new StartupProfiler(null, Duration.ofMinutes(1));
+    TestModule module = new TestModule();
+    ElementMatcher<TypeDescription> typeMatcher =
+        StartupProfiler.timed(
+            profiler.timer(module, new TestTypeInstrumentation(), Step.TYPE_MATCHER),
+            named("java.lang.String"));
+    String virtualFields =
+        profiler.timer(module, null, Step.VIRTUAL_FIELD_GENERATION).time(() -> "generated");
+
+    assertThat(typeMatcher.matches(STRING)).isTrue();
+    assertThat(typeMatcher.matches(STRING)).isTrue();
+    assertThat(typeMatcher).hasToString(named("java.lang.String").toString());
+    assertThat(virtualFields).isEqualTo("generated");
+
+    String json = profiler.toJson();
+    assertThat(json)
+        .contains("\"module\": \"" + TestModule.class.getName() + "\"")
+        .contains("\"instrumentationName\": \"test\"")
+        .contains(
+            "\"typeInstrumentation\": \"TestTypeInstrumentation\", \"step\": \"type_matcher\"")
+        .contains("\"step\": \"virtual_field_generation\"")
+        .contains("\"invocations\": 2}")
+        .contains("\"invocations\": 3, ");
+  }
+
+  @Test
+  void emptyReport() {
+    StartupProfiler profiler = new StartupProfiler(null, Duration.ofMinutes(1));
+
+    assertThat(profiler.toJson()).isEqualTo("{\n  \"modules\": []\n}\n");
+  }
+
+  static class TestModule extends InstrumentationModule {
+    TestModule() {
+      super("test");
+    }
+
+    @Override
+    public List<TypeInstrumentation> typeInstrumentations() {
+      return singletonList(new TestTypeInstrumentation());
+    }
+  }
+
+  static class TestTypeInstrumentation implements TypeInstrumentation {
+    @Override
+    public ElementMatcher<TypeDescription> typeMatcher() {
+      return named("java.lang.String");
+    }
+
+    @Override
+    public void transform(TypeTransformer transformer) {}
+  }
+}
@@ -0,0 +1,131 @@
+/*
+ * Copyright The OpenTelemetry Authors
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package io.opentelemetry.javaagent.tooling.instrumentation;
+
+import static io.opentelemetry.javaagent.extension.matcher.AgentElementMatchers.extendsClass;
+import static io.opentelemetry.javaagent.extension.matcher.AgentElementMatchers.hasSuperType;
+import static io.opentelemetry.javaagent.extension.matcher.AgentElementMatchers.implementsInterface;
+import static net.bytebuddy.matcher.ElementMatchers.isAnnotatedWith;
+import static net.bytebuddy.matcher.ElementMatchers.isPublic;
+import static net.bytebuddy.matcher.ElementMatchers.nameStartsWith;
+import static net.bytebuddy.matcher.ElementMatchers.named;
+import static net.bytebuddy.matcher.ElementMatchers.namedOneOf;
+import static java.util.Arrays.asList;
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import net.bytebuddy.description.type.TypeDescription;
+import net.bytebuddy.matcher.ElementMatcher;
+import org.junit.jupiter.api.Test;
+
+class TypeMatcherIndexTest {
+
+  private static final TypeDescription STRING = TypeDescription.ForLoadedType.of(String.class);
+  private static final TypeDescription INTEGER = TypeDescription.ForLoadedType.of(Integer.class);
+  private static final TypeDescription THREAD = TypeDescription.ForLoadedType.of(Thread.class);
+
+  private final AtomicInteger typeMatcherCalls = new AtomicInteger();
+
+  @Test
+  void rejectsClassesWithoutIndexedNames() {
+    TypeMatcherIndex index = new TypeMatcherIndex();
+    ElementMatcher<TypeDescription> matcher =
+        index.withFastReject(
+            isPublic().and(namedOneOf("java.lang.String", "java.lang.StringBuilder")),
+            this::countingTypeMatcher);
+    index.seal();
+
+    assertThat(matcher.matches(STRING)).isTrue();
+    assertThat(matcher.matches(INTEGER)).isFalse();
+    assertThat(typeMatcherCalls).hasValue(1);
+  }
+
+  @Test
+  void matchesSuperTypesAndPrefixes() {
+    TypeMatcherIndex index = new TypeMatcherIndex();
+    ElementMatcher<TypeDescription> interfaceMatcher =
+        index.withFastReject(
+            implementsInterface(named("java.lang.CharSequence")), this::countingTypeMatcher);
+    ElementMatcher<TypeDescription> classMatcher =
+        index.withFastReject(
+            extendsClass(named("java.lang.Number")).or(nameStartsWith("java.lang.Thr")),
+            this::countingTypeMatcher);
+    index.seal();
+
+    assertThat(interfaceMatcher.matches(STRING)).isTrue();
+    assertThat(classMatcher.matches(INTEGER)).isTrue();
+    assertThat(classMatcher.matches(THREAD)).isTrue();
+    assertThat(classMatcher.matches(TypeDescription.ForLoadedType.of(Object.class))).isFalse();
+    assertThat(typeMatcherCalls).hasValue(3);
+  }
+
+  @Test
+  void doesNotIndexUnknownMatchers() {
+    TypeMatcherIndex index = new TypeMatcherIndex();
+    ElementMatcher<TypeDescription> typeMatcher = this::countingTypeMatcher;
+    ElementMatcher<TypeDescription> matcher =
+        index.withFastReject(
+            isAnnotatedWith(named("javax.inject.Singleton")).or(named("java.lang.String")),
+            typeMatcher);
+    index.seal();
+
+    assertThat(matcher).isSameAs(typeMatcher);
+  }
+
+  @Test
+  void indexesMatchersOfTheDefaultFactories() {
+    // the index reads the fields of the byte buddy matchers, this fails if an upgrade renames them
+    List<ElementMatcher<TypeDescription>> matchers =
+        asList(
+            named("java.lang.String"),
+            namedOneOf("java.lang.String", "java.lang.Integer"),
+            nameStartsWith("java.lang."),
+            isPublic().and(named("java.lang.String")),
+            named("java.lang.String").or(named("java.lang.Integer")),
+            hasSuperType(named("java.lang.Number")),
+            extendsClass(named("java.lang.Number")),
+            implementsInterface(named("java.lang.CharSequence")));
+    for (ElementMatcher<TypeDescription> instrumentationMatcher : matchers) {
+      TypeMatcherIndex index = new TypeMatcherIndex();
+      ElementMatcher<TypeDescription> typeMatcher = this::countingTypeMatcher;
+
+      assertThat(index.withFastReject(instrumentationMatcher, typeMatcher))
+          .describedAs(instrumentationMatcher.toString())
+          .isNotSameAs(typeMatcher);
+    }
+  }
+
+  @Test
+  void doesNotRejectBeforeSealed() {
+    TypeMatcherIndex index = new TypeMatcherIndex();
+    ElementMatcher<TypeDescription> matcher =
+        index.withFastReject(named("java.lang.String"), this::countingTypeMatcher);
+
+    assertThat(matcher.matches(INTEGER)).isTrue();
+    assertThat(typeMatcherCalls).hasValue(1);
+  }
+
+  @Test
+  void detectsNameOnlyMatchers() {
+    assertThat(TypeMatcherIndex.matchesOnlyNames(named("java.lang.String"))).isTrue();
+    assertThat(
+            TypeMatcherIndex.matchesOnlyNames(
+                namedOneOf("java.lang.String", "java.lang.Integer")
+                    .or(nameStartsWith("java.lang.Thr"))))
+        .isTrue();
+    assertThat(
+            TypeMatcherIndex.matchesOnlyNames(
+                named("java.lang.String").and(implementsInterface(named("java.io.Serializable")))))
+        .isFalse();
+    assertThat(TypeMatcherIndex.matchesOnlyNames(isPublic())).isFalse();
+  }
+
+  private boolean countingTypeMatcher(TypeDescription unused) {
+    typeMatcherCalls.incrementAndGet();
+    return true;
+  }
+}
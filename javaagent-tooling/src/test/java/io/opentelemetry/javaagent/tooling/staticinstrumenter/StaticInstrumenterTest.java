@@ -0,0 +1,98 @@
+/*
+ * Copyright The OpenTelemetry Authors
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package io.opentelemetry.javaagent.tooling.staticinstrumenter;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.lang.instrument.ClassFileTransformer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.security.ProtectionDomain;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.jar.JarEntry;
+import java.util.jar.JarFile;
+import java.util.jar.JarOutputStream;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+class StaticInstrumenterTest {
+
+  private static final byte[] ORIGINAL = {1, 2, 3};
+  private static final byte[] INSTRUMENTED = {4, 5, 6};
+
+  @TempDir Path tempDir;
+
+  @Test
+  void transformsClassesAndCopiesEverythingElse() throws IOException {
+    Path jar = tempDir.resolve("app.jar");
+    try (JarOutputStream out = new JarOutputStream(Files.newOutputStream(jar))) {
+      write(out, "META-INF/APP.SF", ORIGINAL);
+      write(out, "com/example/Instrumented.class", ORIGINAL);
+      write(out, "com/example/NotInstrumented.class", ORIGINAL);
+      write(out, "com/example/config.properties", ORIGINAL);
+    }
+    List<String> transformedClassNames = new ArrayList<>();
+    ClassFileTransformer transformer =
+        new ClassFileTransformer() {
+          @Override
+          public byte[] transform(
+              ClassLoader loader,
+              String className,
+              Class<?> classBeingRedefined,
+              ProtectionDomain protectionDomain,
+              byte[] classfileBuffer) {
+            transformedClassNames.add(className);
+            return className.equals("com/example/Instrumented") ? INSTRUMENTED : null;
+          }
+        };
+    Path target = tempDir.resolve("instrumented.jar");
+
+    int instrumented =
+        StaticInstrumenter.instrumentJar(transformer, getClass().getClassLoader(), jar, target);
+
+    assertThat(instrumented).isEqualTo(1);
+    assertThat(transformedClassNames)
+        .containsExactly("com/example/Instrumented", "com/example/NotInstrumented");
+    try (JarFile jarFile = new JarFile(target.toFile())) {
+      assertThat(jarFile.getEntry("META-INF/APP.SF")).isNull();
+      assertThat(read(jarFile, "com/example/Instrumented.class")).isEqualTo(INSTRUMENTED);
+      assertThat(read(jarFile, "com/example/NotInstrumented.class")).isEqualTo(ORIGINAL);
+      assertThat(read(jarFile, "com/example/config.properties")).isEqualTo(ORIGINAL);
+    }
+  }
+
+  @Test
+  void writesJarsWithSameNameToDifferentPaths() {
+    Path outputDir = tempDir.resolve("out");
+    Path jar = tempDir.resolve("lib/library.jar");
+    Path otherJar = tempDir.resolve("other-lib/library.jar");
+
+    Path target = StaticInstrumenter.targetPath(outputDir, jar);
+    Path otherTarget = StaticInstrumenter.targetPath(outputDir, otherJar);
+
+    assertThat(target).isNotEqualTo(otherTarget);
+    assertThat(target).startsWith(outputDir).endsWith(Paths.get("lib", "library.jar"));
+    assertThat(otherTarget).startsWith(outputDir).endsWith(Paths.get("other-lib", "library.jar"));
+  }
+
+  private static void write(JarOutputStream out, String name, byte[] bytes) throws IOException {
+    out.putNextEntry(new JarEntry(name));
+    out.write(bytes);
+    out.closeEntry();
+  }
+
+  private static byte[] read(JarFile jarFile, String name) throws IOException {
+    try (InputStream in = jarFile.getInputStream(jarFile.getEntry(name))) {
+      byte[] bytes = new byte[ORIGINAL.length];
+      assertThat(in.read(bytes)).isEqualTo(bytes.length);
+      return bytes;
+    }
+  }
+}
@@ -0,0 +1,83 @@
+/*
+ * Copyright The OpenTelemetry Authors
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package io.opentelemetry.javaagent
+
+import io.opentracing.contrib.dropwizard.Trace
+import spock.lang.Specification
+import spock.lang.TempDir
+
+import java.nio.file.Files
+import java.nio.file.Path
+import java.util.jar.JarFile
+
+// runs the static instrumenter with the real agent, the unit tests in javaagent-tooling only use a
+// fake class file transformer
+class StaticInstrumenterTest extends Specification {
+
+  @TempDir
+  Path outputDir
+
+  def "instruments application jar and writes the injected classes"() {
+    setup:
+    def appJar = new File(IntegrationTestUtils.createJarWithClasses(
+      ClassToInstrument,
+      Trace,
+      RunnableToInstrument).toURI())
+    def classFile = IntegrationTestUtils.getResourceName(ClassToInstrument.getName())
+    def runnableFile = IntegrationTestUtils.getResourceName(RunnableToInstrument.getName())
+    def originalBytes = readEntry(appJar, classFile)
+    def originalRunnableBytes = readEntry(appJar, runnableFile)
+
+    expect:
+    IntegrationTestUtils.runOnSeparateJvm(OpenTelemetryAgent.getName()
+      , [
+      "-Dotel.javaagent.experimental.static-instrumenter.enabled=true",
+      "-Dotel.traces.exporter=none",
+      "-Dotel.metrics.exporter=none"
+    ] as String[]
+      , ["instrument", outputDir.toString(), appJar.getPath()] as String[]
+      , [:]
+      , IntegrationTestUtils.getAgentJarPath()
+      , true) == 0
+
+    when:
+    // the instrumented jar is written under its absolute path
+    def appJarPath = appJar.toPath().toAbsolutePath()
+    def instrumentedJar = outputDir.resolve(appJarPath.getRoot().relativize(appJarPath).toString())
+      .toFile()
+    def instrumentedBytes = readEntry(instrumentedJar, classFile)
+
+    then:
+    // the @Trace method now calls the helper of the external annotations instrumentation
+    instrumentedBytes != originalBytes
+    new String(instrumentedBytes, "ISO-8859-1").contains("ExternalAnnotationSingletons")
+    readEntry(instrumentedJar, runnableFile) != originalRunnableBytes
+
+    entryNames(outputDir.resolve("opentelemetry-static-helpers.jar")).contains(
+      "io/opentelemetry/javaagent/instrumentation/extannotations/ExternalAnnotationSingletons.class")
+    // the virtual field implementations used by the executors instrumentation of the Runnable
+    entryNames(outputDir.resolve("opentelemetry-static-bootstrap.jar")).any {
+      it.startsWith("io/opentelemetry/javaagent/bootstrap/field/")
+    }
+
+    cleanup:
+    appJar.delete()
+  }
+
+  private static byte[] readEntry(File jar, String name) {
+    new JarFile(jar).withCloseable { jarFile ->
+      def entry = jarFile.getJarEntry(name)
+      entry == null ? null : jarFile.getInputStream(entry).bytes
+    }
+  }
+
+  private static List<String> entryNames(Path jar) {
+    assert Files.exists(jar)
+    new JarFile(jar.toFile()).withCloseable { jarFile ->
+      jarFile.entries().collect { it.name }
+    }
+  }
+}
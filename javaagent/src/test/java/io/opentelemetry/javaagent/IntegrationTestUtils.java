@@ -154,6 +154,13 @@ public class IntegrationTestUtils {
     throw new IllegalStateException("Agent jar not found");
   }
 
+  /** Returns the path of the agent jar that the tests are run with. */
+  public static String getAgentJarPath() {
+    String path = getAgentArgument().substring("-javaagent:".length());
+    int options = path.indexOf('=');
+    return options == -1 ? path : path.substring(0, options);
+  }
+
   public static int runOnSeparateJvm(
       String mainClassName,
       String[] jvmArgs,
@@ -0,0 +1,12 @@
+/*
+ * Copyright The OpenTelemetry Authors
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package io.opentelemetry.javaagent;
+
+public class RunnableToInstrument implements Runnable {
+
+  @Override
+  public void run() {}
+}
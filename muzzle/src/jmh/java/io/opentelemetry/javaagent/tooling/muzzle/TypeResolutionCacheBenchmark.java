@@ -0,0 +1,114 @@
+/*
+ * Copyright The OpenTelemetry Authors
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package io.opentelemetry.javaagent.tooling.muzzle;
+
+import static io.opentelemetry.javaagent.extension.matcher.AgentElementMatchers.extendsClass;
+import static io.opentelemetry.javaagent.extension.matcher.AgentElementMatchers.implementsInterface;
+import static net.bytebuddy.matcher.ElementMatchers.named;
+
+import java.io.File;
+import java.io.IOException;
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.util.ArrayList;
+import java.util.Enumeration;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.jar.JarEntry;
+import java.util.jar.JarFile;
+import net.bytebuddy.description.type.TypeDescription;
+import net.bytebuddy.dynamic.ClassFileLocator;
+import net.bytebuddy.matcher.ElementMatcher;
+import net.bytebuddy.pool.TypePool;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Matches every class of the byte buddy and asm jars on the class path against the kind of type
+ * hierarchy matchers used by instrumentations, like the agent does when an application starts.
+ *
+ * <p>{@code startupCapacity=64} is what a single class loader got from the shared cache before
+ * it was partitioned by class loader.
+ */
+@Fork(1)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 10, time = 1)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@BenchmarkMode(Mode.AverageTime)
+@State(Scope.Thread)
+public class TypeResolutionCacheBenchmark {
+
+  private static final ElementMatcher<TypeDescription> MATCHER =
+      implementsInterface(named("net.bytebuddy.matcher.ElementMatcher"))
+          .or(implementsInterface(named("net.bytebuddy.implementation.Implementation")))
+          .or(implementsInterface(named("net.bytebuddy.description.type.TypeDescription")))
+          .or(extendsClass(named("org.objectweb.asm.MethodVisitor")));
+
+  @Param({"64", "1024"})
+  public int startupCapacity;
+
+  private URL[] classPath;
+  private List<String> classNames;
+
+  @Setup
+  public void setUp() throws IOException {
+    List<URL> urls = new ArrayList<>();
+    classNames = new ArrayList<>();
+    for (String path : System.getProperty("java.class.path").split(File.pathSeparator)) {
+      File file = new File(path);
+      urls.add(file.toURI().toURL());
+      if ((file.getName().startsWith("byte-buddy") || file.getName().startsWith("asm"))
+          && file.getName().endsWith(".jar")) {
+        addClassNames(file, classNames);
+      }
+    }
+    classPath = urls.toArray(new URL[0]);
+  }
+
+  @Benchmark
+  public int matchClasses() throws IOException {
+    // a new class loader each time, so that every type has to be parsed again
+    try (URLClassLoader classLoader = new URLClassLoader(classPath, null)) {
+      AgentCachingPoolStrategy poolStrategy =
+          new AgentCachingPoolStrategy(
+              AgentTooling.locationStrategy(),
+              new TypeResolutionCache(
+                  startupCapacity,
+                  TypeResolutionCache.STEADY_STATE_CAPACITY,
+                  TypeResolutionCache.MAX_STARTUP_PARTITIONS));
+      TypePool typePool =
+          poolStrategy.typePool(ClassFileLocator.ForClassLoader.of(classLoader), classLoader);
+      int matches = 0;
+      for (String className : classNames) {
+        if (MATCHER.matches(typePool.describe(className).resolve())) {
+          matches++;
+        }
+      }
+      return matches;
+    }
+  }
+
+  private static void addClassNames(File jar, List<String> classNames) throws IOException {
+    try (JarFile jarFile = new JarFile(jar)) {
+      Enumeration<JarEntry> entries = jarFile.entries();
+      while (entries.hasMoreElements()) {
+        String name = entries.nextElement().getName();
+        if (name.endsWith(".class") && !name.endsWith("module-info.class")) {
+          classNames.add(name.substring(0, name.length() - ".class".length()).replace('/', '.'));
+        }
+      }
+    }
+  }
+}
@@ -206,6 +206,10 @@ public class HelperInjector implements Transformer {
               continue;
             }
 
+            if (helperInjectorListener != null) {
+              helperInjectorListener.onHelperResourceInjection(
+                  classLoader, helperResource.getApplicationPath(), resources);
+            }
             if (helperResource.allClassLoaders()) {
               logger.log(
                   FINE,
@@ -265,6 +269,8 @@ public class HelperInjector implements Transformer {
             // from the loadClass method of the class loader.
             if (isBootClassLoader(cl)) {
               injectBootstrapClassLoader(classnameToBytes);
+            } else if (helperInjectorListener != null) {
+              helperInjectorListener.onHelperClassInjection(cl, classnameToBytes);
             }
           } catch (Exception e) {
             if (logger.isLoggable(SEVERE)) {
@@ -5,6 +5,8 @@
 
 package io.opentelemetry.javaagent.tooling;
 
+import java.net.URL;
+import java.util.List;
 import java.util.Map;
 
 /**
@@ -14,5 +16,17 @@ import java.util.Map;
  */
 public interface HelperInjectorListener {
 
+  /** Called with the classes that are injected into the bootstrap class loader. */
   void onInjection(Map<String, byte[]> classnameToBytes);
+
+  /** Called with the helper classes that are injected into any other class loader. */
+  default void onHelperClassInjection(
+      ClassLoader classLoader, Map<String, byte[]> classnameToBytes) {}
+
+  /**
+   * Called with the helper resources that are injected into a class loader, {@code resources} are
+   * the agent resources that are served at {@code applicationPath}.
+   */
+  default void onHelperResourceInjection(
+      ClassLoader classLoader, String applicationPath, List<URL> resources) {}
 }
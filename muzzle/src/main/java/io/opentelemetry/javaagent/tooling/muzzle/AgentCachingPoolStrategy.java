@@ -5,18 +5,17 @@
 
 package io.opentelemetry.javaagent.tooling.muzzle;
 
-import io.opentelemetry.instrumentation.api.internal.cache.Cache;
 import io.opentelemetry.javaagent.bootstrap.InstrumentationHolder;
 import io.opentelemetry.javaagent.bootstrap.VirtualFieldAccessorMarker;
 import io.opentelemetry.javaagent.bootstrap.internal.InstrumentationConfig;
 import java.lang.instrument.Instrumentation;
 import java.lang.ref.WeakReference;
 import java.lang.reflect.Method;
+import java.time.Duration;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
 import javax.annotation.Nonnull;
-import javax.annotation.Nullable;
 import net.bytebuddy.agent.builder.AgentBuilder;
 import net.bytebuddy.description.annotation.AnnotationList;
 import net.bytebuddy.description.annotation.AnnotationValue;
@@ -32,19 +31,8 @@ import net.bytebuddy.pool.TypePool;
 import net.bytebuddy.utility.JavaModule;
 
 /**
- *
- *
- * <ul>
- *   There two core parts to the cache...
- *   <li>a cache of ClassLoader to WeakReference&lt;ClassLoader&gt;
- *   <li>a single cache of TypeResolutions for all ClassLoaders - keyed by a custom composite key of
- *       ClassLoader and class name
- * </ul>
- *
- * <p>This design was chosen to create a single limited size cache that can be adjusted for the
- * entire application -- without having to create a large number of WeakReference objects.
- *
- * <p>Eviction is handled through a size restriction
+ * A pool strategy that caches the type resolutions of each class loader in its own partition of a
+ * {@link TypeResolutionCache}, which is large while the agent starts and shrinks afterwards.
  */
 public class AgentCachingPoolStrategy implements AgentBuilder.PoolStrategy {
 
@@ -56,34 +44,28 @@ public class AgentCachingPoolStrategy implements AgentBuilder.PoolStrategy {
           .getBoolean("otel.instrumentation.internal-reflection.enabled", true);
   private static final Method findLoadedClassMethod = getFindLoadedClassMethod();
 
-  static final int TYPE_CAPACITY = 64;
-
-  static final int BOOTSTRAP_HASH = 7236344; // Just a random number
-
-  /**
-   * Cache of recent ClassLoader WeakReferences; used to...
-   *
-   * <ul>
-   *   <li>Reduced number of WeakReferences created
-   *   <li>Allow for quick fast path equivalence check of composite keys
-   * </ul>
-   */
-  final Cache<ClassLoader, WeakReference<ClassLoader>> loaderRefCache = Cache.weak();
-
-  /**
-   * Single shared Type.Resolution cache -- uses a composite key -- conceptually of loader & name
-   */
-  final Cache<TypeCacheKey, TypePool.Resolution> sharedResolutionCache =
-      Cache.bounded(TYPE_CAPACITY);
-
-  // fast path for bootstrap
-  final SharedResolutionCacheAdapter bootstrapCacheProvider =
-      new SharedResolutionCacheAdapter(BOOTSTRAP_HASH, null, sharedResolutionCache);
+  final TypeResolutionCache resolutionCache;
 
   private final AgentLocationStrategy locationStrategy;
 
   public AgentCachingPoolStrategy(AgentLocationStrategy locationStrategy) {
+    this(
+        locationStrategy,
+        new TypeResolutionCache(
+            TypeResolutionCache.STARTUP_CAPACITY,
+            TypeResolutionCache.STEADY_STATE_CAPACITY,
+            TypeResolutionCache.MAX_STARTUP_PARTITIONS));
+  }
+
+  AgentCachingPoolStrategy(
+      AgentLocationStrategy locationStrategy, TypeResolutionCache resolutionCache) {
     this.locationStrategy = locationStrategy;
+    this.resolutionCache = resolutionCache;
+  }
+
+  /** Shrinks the type resolution cache after the given duration, once the application started. */
+  public void endStartupPhaseAfter(Duration startupPhase) {
+    resolutionCache.endStartupPhaseAfter(startupPhase);
   }
 
   private static Method getFindLoadedClassMethod() {
@@ -146,155 +128,7 @@ public class AgentCachingPoolStrategy implements AgentBuilder.PoolStrategy {
   }
 
   private TypePool.CacheProvider getCacheProvider(ClassLoader classLoader) {
-    if (classLoader == null) {
-      return bootstrapCacheProvider;
-    }
-
-    WeakReference<ClassLoader> loaderRef =
-        loaderRefCache.computeIfAbsent(classLoader, WeakReference::new);
-
-    int loaderHash = classLoader.hashCode();
-    return new SharedResolutionCacheAdapter(loaderHash, loaderRef, sharedResolutionCache);
-  }
-
-  /**
-   * TypeCacheKey is key for the sharedResolutionCache. Conceptually, it is a mix of ClassLoader &
-   * class name.
-   *
-   * <p>For efficiency & GC purposes, it is actually composed of loaderHash &
-   * WeakReference&lt;ClassLoader&gt;
-   *
-   * <p>The loaderHash exists to avoid calling get & strengthening the Reference.
-   */
-  private static final class TypeCacheKey {
-    private final int loaderHash;
-    private final WeakReference<ClassLoader> loaderRef;
-    private final String className;
-
-    private final int hashCode;
-
-    TypeCacheKey(int loaderHash, WeakReference<ClassLoader> loaderRef, String className) {
-      this.loaderHash = loaderHash;
-      this.loaderRef = loaderRef;
-      this.className = className;
-
-      hashCode = 31 * loaderHash + className.hashCode();
-    }
-
-    @Override
-    public boolean equals(@Nullable Object obj) {
-      if (obj == this) {
-        return true;
-      }
-      if (!(obj instanceof TypeCacheKey)) {
-        return false;
-      }
-
-      TypeCacheKey other = (TypeCacheKey) obj;
-
-      if (loaderHash != other.loaderHash) {
-        return false;
-      }
-
-      if (!className.equals(other.className)) {
-        return false;
-      }
-
-      // Fastpath loaderRef equivalence -- works because of WeakReference cache used
-      // Also covers the bootstrap null loaderRef case
-      if (loaderRef == other.loaderRef) {
-        return true;
-      }
-
-      // need to perform a deeper loader check -- requires calling Reference.get
-      // which can strengthen the Reference, so deliberately done last
-
-      // If either reference has gone null, they aren't considered equivalent
-      // Technically, this is a bit of violation of equals semantics, since
-      // two equivalent references can become not equivalent.
-
-      // In this case, it is fine because that means the ClassLoader is no
-      // longer live, so the entries will never match anyway and will fall
-      // out of the cache.
-      ClassLoader thisLoader = loaderRef.get();
-      if (thisLoader == null) {
-        return false;
-      }
-
-      ClassLoader otherLoader = other.loaderRef.get();
-      if (otherLoader == null) {
-        return false;
-      }
-
-      return thisLoader == otherLoader;
-    }
-
-    @Override
-    public int hashCode() {
-      return hashCode;
-    }
-
-    @Override
-    public String toString() {
-      return "TypeCacheKey{"
-          + "loaderHash="
-          + loaderHash
-          + ", loaderRef="
-          + loaderRef
-          + ", className='"
-          + className
-          + '\''
-          + '}';
-    }
-  }
-
-  private static final class SharedResolutionCacheAdapter implements TypePool.CacheProvider {
-    private static final String OBJECT_NAME = "java.lang.Object";
-    private static final TypePool.Resolution OBJECT_RESOLUTION =
-        new TypePool.Resolution.Simple(TypeDescription.ForLoadedType.of(Object.class));
-
-    private final int loaderHash;
-    private final WeakReference<ClassLoader> loaderRef;
-    private final Cache<TypeCacheKey, TypePool.Resolution> sharedResolutionCache;
-
-    SharedResolutionCacheAdapter(
-        int loaderHash,
-        WeakReference<ClassLoader> loaderRef,
-        Cache<TypeCacheKey, TypePool.Resolution> sharedResolutionCache) {
-      this.loaderHash = loaderHash;
-      this.loaderRef = loaderRef;
-      this.sharedResolutionCache = sharedResolutionCache;
-    }
-
-    @Override
-    public TypePool.Resolution find(String className) {
-      TypePool.Resolution existingResolution =
-          sharedResolutionCache.get(new TypeCacheKey(loaderHash, loaderRef, className));
-      if (existingResolution != null) {
-        return existingResolution;
-      }
-
-      if (OBJECT_NAME.equals(className)) {
-        return OBJECT_RESOLUTION;
-      }
-
-      return null;
-    }
-
-    @Override
-    public TypePool.Resolution register(String className, TypePool.Resolution resolution) {
-      if (OBJECT_NAME.equals(className)) {
-        return resolution;
-      }
-
-      sharedResolutionCache.put(new TypeCacheKey(loaderHash, loaderRef, className), resolution);
-      return resolution;
-    }
-
-    @Override
-    public void clear() {
-      // Allowing the high-level eviction policy make the clearing decisions
-    }
+    return resolutionCache.partition(classLoader);
   }
 
   /** Based on TypePool.Default.WithLazyResolution */
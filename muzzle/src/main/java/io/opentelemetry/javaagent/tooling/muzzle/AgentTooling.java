@@ -5,6 +5,7 @@
 
 package io.opentelemetry.javaagent.tooling.muzzle;
 
+import java.time.Duration;
 import java.util.Iterator;
 import java.util.ServiceLoader;
 import net.bytebuddy.agent.builder.AgentBuilder;
@@ -19,7 +20,7 @@ public final class AgentTooling {
   private static final AgentLocationStrategy LOCATION_STRATEGY =
       new AgentLocationStrategy(getBootstrapProxy());
 
-  private static final AgentBuilder.PoolStrategy POOL_STRATEGY =
+  private static final AgentCachingPoolStrategy POOL_STRATEGY =
       new AgentCachingPoolStrategy(LOCATION_STRATEGY);
 
   public static AgentLocationStrategy locationStrategy() {
@@ -30,6 +31,14 @@ public final class AgentTooling {
     return POOL_STRATEGY;
   }
 
+  /**
+   * Ends the startup phase of the {@link #poolStrategy()}, during which it caches more type
+   * resolutions, once the given duration has passed.
+   */
+  public static void endStartupPhaseAfter(Duration startupPhase) {
+    POOL_STRATEGY.endStartupPhaseAfter(startupPhase);
+  }
+
   private static ClassLoader getBootstrapProxy() {
     Iterator<BootstrapProxyProvider> iterator =
         ServiceLoader.load(BootstrapProxyProvider.class, AgentTooling.class.getClassLoader())
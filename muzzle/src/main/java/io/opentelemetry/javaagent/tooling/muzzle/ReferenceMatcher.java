@@ -8,6 +8,7 @@ package io.opentelemetry.javaagent.tooling.muzzle;
 import static java.util.Collections.emptyList;
 import static java.util.Collections.singletonList;
 
+import io.opentelemetry.instrumentation.api.internal.cache.Cache;
 import io.opentelemetry.javaagent.extension.instrumentation.InstrumentationModule;
 import io.opentelemetry.javaagent.tooling.muzzle.references.ClassRef;
 import io.opentelemetry.javaagent.tooling.muzzle.references.FieldRef;
@@ -15,10 +16,12 @@ import io.opentelemetry.javaagent.tooling.muzzle.references.Flag;
 import io.opentelemetry.javaagent.tooling.muzzle.references.MethodRef;
 import java.util.ArrayList;
 import java.util.Collections;
+import java.util.HashMap;
 import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.function.Predicate;
 import java.util.stream.Collectors;
 import net.bytebuddy.description.field.FieldDescription;
@@ -30,7 +33,13 @@ import org.objectweb.asm.Type;
 /** Matches a set of references against a class loader. */
 public final class ReferenceMatcher {
 
+  // results of the library (non-helper) class references, shared by all modules: many modules
+  // reference the same library classes (e.g. the servlet API), which are then checked only once per
+  // class loader; keyed by everything that the check depends on, see cacheKey()
+  private static final Cache<ClassLoader, Map<String, Boolean>> sharedResults = Cache.weak();
+
   private final Map<String, ClassRef> references;
+  private final Map<String, String> cacheKeys = new HashMap<>();
   private final Set<String> helperClassNames;
   private final HelperClassPredicate helperClassPredicate;
 
@@ -48,6 +57,9 @@ public final class ReferenceMatcher {
     this.references = references;
     this.helperClassNames = new HashSet<>(helperClassNames);
     this.helperClassPredicate = new HelperClassPredicate(libraryInstrumentationPredicate);
+    for (ClassRef reference : references.values()) {
+      cacheKeys.put(reference.getClassName(), cacheKey(reference));
+    }
   }
 
   /**
@@ -60,14 +72,69 @@ public final class ReferenceMatcher {
    */
   public boolean matches(ClassLoader loader) {
     TypePool typePool = createTypePool(loader);
+    Map<String, Boolean> results =
+        sharedResults.computeIfAbsent(loader, unused -> new ConcurrentHashMap<>());
     for (ClassRef reference : references.values()) {
-      if (!checkMatch(reference, typePool, loader).isEmpty()) {
+      if (!matches(reference, typePool, loader, results)) {
         return false;
       }
     }
     return true;
   }
 
+  private boolean matches(
+      ClassRef reference, TypePool typePool, ClassLoader loader, Map<String, Boolean> results) {
+    // helper class checks depend on the helper classes of the module, so they are not shared
+    String cacheKey = cacheKeys.get(reference.getClassName());
+    if (cacheKey == null || helperClassPredicate.isHelperClass(reference.getClassName())) {
+      return checkMatch(reference, typePool, loader).isEmpty();
+    }
+    Boolean result = results.get(cacheKey);
+    if (result == null) {
+      result = checkMatch(reference, typePool, loader).isEmpty();
+      results.put(cacheKey, result);
+    }
+    return result;
+  }
+
+  // the sources are left out, they are only used to describe mismatches
+  private static String cacheKey(ClassRef reference) {
+    StringBuilder key = new StringBuilder(reference.getClassName());
+    appendFlags(key, reference.getFlags());
+    List<String> members = new ArrayList<>();
+    for (FieldRef field : reference.getFields()) {
+      StringBuilder member = new StringBuilder("|F ");
+      member.append(field.getName()).append(' ').append(field.getDescriptor());
+      appendFlags(member, field.getFlags());
+      members.add(member.toString());
+    }
+    for (MethodRef method : reference.getMethods()) {
+      StringBuilder member = new StringBuilder("|M ");
+      member.append(method.getName()).append(method.getDescriptor());
+      appendFlags(member, method.getFlags());
+      members.add(member.toString());
+    }
+    Collections.sort(members);
+    for (String member : members) {
+      key.append(member);
+    }
+    return key.toString();
+  }
+
+  private static void appendFlags(StringBuilder key, Set<Flag> flags) {
+    List<String> flagNames = new ArrayList<>(flags.size());
+    for (Flag flag : flags) {
+      flagNames.add(
+          flag instanceof Enum
+              ? ((Enum<?>) flag).getDeclaringClass().getSimpleName() + "." + ((Enum<?>) flag).name()
+              : flag.toString());
+    }
+    Collections.sort(flagNames);
+    for (String flagName : flagNames) {
+      key.append(' ').append(flagName);
+    }
+  }
+
   /**
    * Loads the full list of mismatches. Used in debug contexts only.
    *
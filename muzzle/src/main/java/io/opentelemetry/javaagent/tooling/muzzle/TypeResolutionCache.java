@@ -0,0 +1,217 @@
+/*
+ * Copyright The OpenTelemetry Authors
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package io.opentelemetry.javaagent.tooling.muzzle;
+
+import io.opentelemetry.instrumentation.api.internal.SupportabilityMetrics;
+import io.opentelemetry.instrumentation.api.internal.cache.Cache;
+import io.opentelemetry.instrumentation.api.internal.cache.concurrentlinkedhashmap.ConcurrentLinkedHashMap;
+import java.lang.ref.WeakReference;
+import java.time.Duration;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLongArray;
+import javax.annotation.Nullable;
+import net.bytebuddy.description.type.TypeDescription;
+import net.bytebuddy.pool.TypePool;
+
+/**
+ * Type pool resolutions, partitioned by class loader so that the types parsed for one class loader
+ * never evict the types of another one.
+ *
+ * <p>While the agent starts, thousands of classes are matched against type hierarchies that share
+ * the same super types, so the partitions of the first {@code maxStartupPartitions} class loaders
+ * (the bootstrap one included) may hold up to {@code startupCapacity} resolutions; all the other
+ * partitions hold up to {@code steadyStateCapacity} resolutions. This bounds the resolutions kept
+ * during startup no matter how many class loaders there are. The startup phase ends with the first
+ * lookup after the deadline set by {@link #endStartupPhaseAfter(Duration)}, which shrinks all
+ * partitions to {@code steadyStateCapacity} resolutions.
+ *
+ * <p>Unlike a single cache shared by all class loaders, there is no global bound: the cache keeps
+ * up to {@code steadyStateCapacity} resolutions (parsed class files, without their method bodies)
+ * for each class loader that is still reachable, and a partition is released together with its
+ * class loader.
+ *
+ * <p>Hits, misses and re-parses of previously evicted types are reported as {@code "type pool
+ * cache hit"}, {@code "type pool cache miss"} and {@code "type pool cache re-parse"} supportability
+ * counters.
+ */
+final class TypeResolutionCache {
+
+  static final int STARTUP_CAPACITY = 1024;
+  static final int STEADY_STATE_CAPACITY = 64;
+  static final int MAX_STARTUP_PARTITIONS = 16;
+
+  static final int BOOTSTRAP_HASH = 7236344; // Just a random number
+
+  // remembers the (hashes of) evicted class names, to tell re-parses from first time parses; false
+  // positives only make the re-parse count slightly too high
+  private static final int EVICTED_NAMES_BITS = 1 << 14;
+
+  private static final String OBJECT_NAME = "java.lang.Object";
+  private static final TypePool.Resolution OBJECT_RESOLUTION =
+      new TypePool.Resolution.Simple(TypeDescription.ForLoadedType.of(Object.class));
+
+  private final int startupCapacity;
+  private final int steadyStateCapacity;
+  private final int maxStartupPartitions;
+  private final AtomicBoolean startupPhase = new AtomicBoolean(true);
+  private volatile boolean hasStartupPhaseDeadline;
+  private volatile long startupPhaseDeadlineNanos;
+  private final AtomicInteger startupPartitionCount = new AtomicInteger();
+  private final Queue<WeakReference<Partition>> startupPartitions = new ConcurrentLinkedQueue<>();
+
+  private final Cache<ClassLoader, Partition> partitions = Cache.weak();
+  private final Partition bootstrapPartition;
+  private final AtomicLongArray evictedNames = new AtomicLongArray(EVICTED_NAMES_BITS / 64);
+
+  private final SupportabilityMetrics.Counter hitCounter;
+  private final SupportabilityMetrics.Counter missCounter;
+  private final SupportabilityMetrics.Counter reparseCounter;
+
+  TypeResolutionCache(int startupCapacity, int steadyStateCapacity, int maxStartupPartitions) {
+    this.startupCapacity = startupCapacity;
+    this.steadyStateCapacity = steadyStateCapacity;
+    this.maxStartupPartitions = maxStartupPartitions;
+    this.bootstrapPartition = newPartition(BOOTSTRAP_HASH);
+    SupportabilityMetrics supportability = SupportabilityMetrics.instance();
+    hitCounter = supportability.counter("type pool cache hit");
+    missCounter = supportability.counter("type pool cache miss");
+    reparseCounter = supportability.counter("type pool cache re-parse");
+  }
+
+  /** Returns the resolutions of the given class loader, {@code null} meaning the bootstrap one. */
+  Partition partition(@Nullable ClassLoader classLoader) {
+    if (startupPhase.get()
+        && hasStartupPhaseDeadline
+        && System.nanoTime() - startupPhaseDeadlineNanos >= 0) {
+      endStartupPhase();
+    }
+    return classLoader == null
+        ? bootstrapPartition
+        : partitions.computeIfAbsent(classLoader, loader -> newPartition(loader.hashCode()));
+  }
+
+  /**
+   * Ends the startup phase once the given duration has passed. There is no timer, the deadline is
+   * checked whenever a partition is looked up.
+   */
+  void endStartupPhaseAfter(Duration duration) {
+    startupPhaseDeadlineNanos = System.nanoTime() + duration.toNanos();
+    hasStartupPhaseDeadline = true;
+  }
+
+  /** Ends the startup phase, shrinking all partitions to the steady state capacity. */
+  void endStartupPhase() {
+    if (!startupPhase.compareAndSet(true, false)) {
+      return;
+    }
+    WeakReference<Partition> partitionRef;
+    while ((partitionRef = startupPartitions.poll()) != null) {
+      Partition partition = partitionRef.get();
+      if (partition != null) {
+        partition.resize(steadyStateCapacity);
+      }
+    }
+  }
+
+  private Partition newPartition(int loaderHash) {
+    if (!startupPhase.get() || startupPartitionCount.incrementAndGet() > maxStartupPartitions) {
+      return new Partition(loaderHash, steadyStateCapacity);
+    }
+    Partition partition = new Partition(loaderHash, startupCapacity);
+    startupPartitions.add(new WeakReference<>(partition));
+    // the startup phase may have ended before the partition was added
+    if (!startupPhase.get()) {
+      partition.resize(steadyStateCapacity);
+    }
+    return partition;
+  }
+
+  private void markEvicted(int loaderHash, String className) {
+    int bit = evictedNameBit(loaderHash, className);
+    int word = bit >>> 6;
+    long mask = 1L << bit;
+    long current = evictedNames.get(word);
+    // losing a concurrent update only loses a bit of accuracy
+    if ((current & mask) == 0) {
+      evictedNames.compareAndSet(word, current, current | mask);
+    }
+  }
+
+  private boolean wasEvicted(int loaderHash, String className) {
+    int bit = evictedNameBit(loaderHash, className);
+    return (evictedNames.get(bit >>> 6) & (1L << bit)) != 0;
+  }
+
+  private static int evictedNameBit(int loaderHash, String className) {
+    int hash = 31 * loaderHash + className.hashCode();
+    // spread the higher bits, like HashMap does
+    return (hash ^ (hash >>> 16)) & (EVICTED_NAMES_BITS - 1);
+  }
+
+  /** The resolutions of a single class loader. */
+  final class Partition implements TypePool.CacheProvider {
+    private final int loaderHash;
+    private final ConcurrentLinkedHashMap<String, TypePool.Resolution> resolutions;
+
+    private Partition(int loaderHash, int capacity) {
+      this.loaderHash = loaderHash;
+      this.resolutions =
+          new ConcurrentLinkedHashMap.Builder<String, TypePool.Resolution>()
+              .maximumWeightedCapacity(capacity)
+              .listener((className, resolution) -> markEvicted(loaderHash, className))
+              .build();
+    }
+
+    private void resize(int capacity) {
+      if (resolutions.capacity() != capacity) {
+        resolutions.setCapacity(capacity);
+      }
+    }
+
+    // visible for testing
+    int size() {
+      return resolutions.size();
+    }
+
+    @Override
+    @Nullable
+    public TypePool.Resolution find(String className) {
+      TypePool.Resolution resolution = resolutions.get(className);
+      if (resolution != null) {
+        hitCounter.increment();
+        return resolution;
+      }
+
+      if (OBJECT_NAME.equals(className)) {
+        return OBJECT_RESOLUTION;
+      }
+
+      missCounter.increment();
+      if (wasEvicted(loaderHash, className)) {
+        reparseCounter.increment();
+      }
+      return null;
+    }
+
+    @Override
+    public TypePool.Resolution register(String className, TypePool.Resolution resolution) {
+      if (OBJECT_NAME.equals(className)) {
+        return resolution;
+      }
+
+      resolutions.put(className, resolution);
+      return resolution;
+    }
+
+    @Override
+    public void clear() {
+      // Allowing the high-level eviction policy make the clearing decisions
+    }
+  }
+}
@@ -58,6 +58,20 @@ class ReferenceMatcherTest extends Specification {
     getMismatchClassSet(refMatcher.getMismatchedReferenceSources(unsafeClasspath)) == [Mismatch.MissingClass] as Set
   }
 
+  def "does not share results of different references to the same class"() {
+    given:
+    def plainReference = ClassRef.builder(String.name).build()
+    def missingMethodReference = ClassRef.builder(String.name)
+      .addMethod(new Source[0], [] as Flag[], "missingMethod", Type.VOID_TYPE)
+      .build()
+    def classLoader = new URLClassLoader([] as URL[], (ClassLoader) null)
+
+    expect:
+    createMatcher([(String.name): plainReference]).matches(classLoader)
+    !createMatcher([(String.name): missingMethodReference]).matches(classLoader)
+    createMatcher([(String.name): plainReference]).matches(classLoader)
+  }
+
   def "matching does not hold a strong reference to classloaders"() {
     expect:
     MuzzleWeakReferenceTestUtil.classLoaderRefIsGarbageCollected()
@@ -0,0 +1,115 @@
+/*
+ * Copyright The OpenTelemetry Authors
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package io.opentelemetry.javaagent.tooling.muzzle;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.time.Duration;
+import net.bytebuddy.description.type.TypeDescription;
+import net.bytebuddy.pool.TypePool;
+import org.junit.jupiter.api.Test;
+
+class TypeResolutionCacheTest {
+
+  private static final TypePool.Resolution RESOLUTION =
+      new TypePool.Resolution.Simple(TypeDescription.VOID);
+
+  @Test
+  void partitionsDoNotEvictEachOther() {
+    TypeResolutionCache cache = new TypeResolutionCache(4, 2, 16);
+    ClassLoader first = newClassLoader();
+    ClassLoader second = newClassLoader();
+
+    cache.partition(first).register("foo", RESOLUTION);
+    for (int i = 0; i < 10; i++) {
+      cache.partition(second).register("bar" + i, RESOLUTION);
+    }
+
+    assertThat(cache.partition(first).find("foo")).isSameAs(RESOLUTION);
+    assertThat(cache.partition(second).size()).isEqualTo(4);
+    assertThat(cache.partition(null)).isNotSameAs(cache.partition(first));
+  }
+
+  @Test
+  void shrinksAfterStartupPhase() {
+    TypeResolutionCache cache = new TypeResolutionCache(4, 2, 16);
+    ClassLoader classLoader = newClassLoader();
+
+    for (int i = 0; i < 4; i++) {
+      cache.partition(classLoader).register("foo" + i, RESOLUTION);
+    }
+    assertThat(cache.partition(classLoader).size()).isEqualTo(4);
+
+    cache.endStartupPhase();
+
+    assertThat(cache.partition(classLoader).size()).isEqualTo(2);
+    // the most recently used types are kept
+    assertThat(cache.partition(classLoader).find("foo3")).isSameAs(RESOLUTION);
+    assertThat(cache.partition(classLoader).find("foo0")).isNull();
+  }
+
+  @Test
+  void endsStartupPhaseAfterDeadline() {
+    TypeResolutionCache cache = new TypeResolutionCache(4, 2, 16);
+    ClassLoader classLoader = newClassLoader();
+
+    cache.endStartupPhaseAfter(Duration.ofHours(1));
+    for (int i = 0; i < 4; i++) {
+      cache.partition(classLoader).register("foo" + i, RESOLUTION);
+    }
+    assertThat(cache.partition(classLoader).size()).isEqualTo(4);
+
+    // the deadline is checked on the next lookup
+    cache.endStartupPhaseAfter(Duration.ZERO);
+
+    assertThat(cache.partition(classLoader).size()).isEqualTo(2);
+  }
+
+  @Test
+  void limitsPartitionsWithStartupCapacity() {
+    // the bootstrap partition is the first one
+    TypeResolutionCache cache = new TypeResolutionCache(4, 2, 2);
+    ClassLoader first = newClassLoader();
+    ClassLoader second = newClassLoader();
+
+    for (int i = 0; i < 4; i++) {
+      cache.partition(first).register("foo" + i, RESOLUTION);
+      cache.partition(second).register("foo" + i, RESOLUTION);
+    }
+
+    assertThat(cache.partition(first).size()).isEqualTo(4);
+    assertThat(cache.partition(second).size()).isEqualTo(2);
+  }
+
+  @Test
+  void newPartitionsUseSteadyStateCapacityAfterStartupPhase() {
+    TypeResolutionCache cache = new TypeResolutionCache(4, 2, 16);
+    cache.endStartupPhase();
+    ClassLoader classLoader = newClassLoader();
+
+    for (int i = 0; i < 4; i++) {
+      cache.partition(classLoader).register("foo" + i, RESOLUTION);
+    }
+
+    assertThat(cache.partition(classLoader).size()).isEqualTo(2);
+  }
+
+  @Test
+  void objectIsAlwaysResolved() {
+    TypeResolutionCache cache = new TypeResolutionCache(4, 2, 16);
+
+    TypePool.Resolution resolution = cache.partition(newClassLoader()).find("java.lang.Object");
+
+    assertThat(resolution).isNotNull();
+    assertThat(resolution.resolve().represents(Object.class)).isTrue();
+  }
+
+  private static ClassLoader newClassLoader() {
+    return new URLClassLoader(new URL[0], null);
+  }
+}
@@ -414,6 +414,7 @@ hideFromDependabot(":instrumentation:rocketmq:rocketmq-client:rocketmq-client-5.
 hideFromDependabot(":instrumentation:rocketmq:rocketmq-client:rocketmq-client-5.0:testing")
 hideFromDependabot(":instrumentation:runtime-metrics:javaagent")
 hideFromDependabot(":instrumentation:runtime-metrics:library")
+hideFromDependabot(":instrumentation:runtime-metrics:runtime-metrics-jfr:library")
 hideFromDependabot(":instrumentation:rxjava:rxjava-1.0:library")
 hideFromDependabot(":instrumentation:rxjava:rxjava-2.0:library")
 hideFromDependabot(":instrumentation:rxjava:rxjava-2.0:testing")